@@ -0,0 +1,122 @@
+package com.kalessil.phpStorm.phpInspectionsEA.benchmarks;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.fixtures.CodeInsightTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.*;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * PSI built from the testData/fixtures corpus (with highlighting markup removed), shared by the benchmarks. Files are
+ * added to the light project, so the PSI is physical and caches behave as in the IDE.
+ */
+@State(Scope.Benchmark)
+public class FixturesCorpus {
+    private static final Pattern markup = Pattern.compile(
+        "</?(error|warning|weak_warning|info|caret|selection)(\\s+descr=\"[^\"]*\")?\\s*/?>"
+    );
+
+    private CodeInsightTestFixture fixture;
+
+    final List<PhpFile> files         = new ArrayList<>();
+    final List<String> types          = new ArrayList<>();
+    final List<PsiElement> conditions = new ArrayList<>();
+    final List<PsiElement> variables  = new ArrayList<>();
+    final List<PsiElement[]> operands = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        final IdeaTestFixtureFactory factory = IdeaTestFixtureFactory.getFixtureFactory();
+        this.fixture = factory.createCodeInsightFixture(factory.createLightFixtureBuilder().getFixture());
+        EdtTestUtil.runInEdtAndWait(() -> this.fixture.setUp());
+
+        final File root          = new File(System.getProperty("ea.fixtures", "testData/fixtures"));
+        final List<File> sources = new ArrayList<>();
+        collect(root, sources);
+        EdtTestUtil.runInEdtAndWait(() -> {
+            for (final File source : sources) {
+                final String content;
+                try {
+                    content = markup.matcher(FileUtil.loadFile(source, "UTF-8")).replaceAll("");
+                } catch (IOException failure) {
+                    continue;
+                }
+                final String path = FileUtil.toSystemIndependentName(FileUtil.getRelativePath(root, source));
+                this.files.add((PhpFile) this.fixture.addFileToProject(path, content));
+            }
+        });
+        ApplicationManager.getApplication().runReadAction(() -> {
+            for (final PhpFile file : this.files) {
+                for (final PhpTypedElement typed : PsiTreeUtil.findChildrenOfType(file, PhpTypedElement.class)) {
+                    this.types.addAll(typed.getType().getTypes());
+                }
+                for (final If ifStatement : PsiTreeUtil.findChildrenOfType(file, If.class)) {
+                    final PsiElement condition = ifStatement.getCondition();
+                    if (condition != null) {
+                        this.conditions.add(condition);
+                    }
+                }
+                this.variables.addAll(PsiTreeUtil.findChildrenOfType(file, Variable.class));
+                for (final BinaryExpression binary : PsiTreeUtil.findChildrenOfType(file, BinaryExpression.class)) {
+                    final PsiElement left  = binary.getLeftOperand();
+                    final PsiElement right = binary.getRightOperand();
+                    if (left != null && right != null) {
+                        this.operands.add(new PsiElement[]{left, right});
+                    }
+                }
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Throwable {
+        this.files.clear();
+        this.conditions.clear();
+        this.variables.clear();
+        this.operands.clear();
+        EdtTestUtil.runInEdtAndWait(() -> this.fixture.tearDown());
+    }
+
+    <T> T read(@NotNull Computable<T> computation) {
+        return ApplicationManager.getApplication().runReadAction(computation);
+    }
+
+    private static void collect(@NotNull File directory, @NotNull List<File> target) {
+        final File[] children = directory.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                if (child.isDirectory()) {
+                    collect(child, target);
+                } else if (child.getName().endsWith(".php") && !child.getName().endsWith(".fixed.php")) {
+                    target.add(child);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.kalessil.phpStorm.phpInspectionsEA.benchmarks;
+
+import com.intellij.psi.PsiElement;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.ifs.utils.ExpressionCostEstimateUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiEquivalenceUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.PossibleValuesDiscoveryUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.Types;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Every benchmark processes the whole fixtures corpus per operation: run with '-prof gc' for allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilsBenchmark {
+    @Benchmark
+    public void typesGetType(FixturesCorpus corpus, Blackhole sink) {
+        for (final String type : corpus.types) {
+            sink.consume(Types.getType(type));
+        }
+    }
+
+    @Benchmark
+    public void expressionSemanticUtilGetConditions(FixturesCorpus corpus, Blackhole sink) {
+        corpus.read(() -> {
+            for (final PsiElement condition : corpus.conditions) {
+                sink.consume(ExpressionSemanticUtil.getConditions(condition, null));
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void possibleValuesDiscoveryUtilDiscover(FixturesCorpus corpus, Blackhole sink) {
+        corpus.read(() -> {
+            for (final PsiElement variable : corpus.variables) {
+                sink.consume(PossibleValuesDiscoveryUtil.discover(variable));
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void openapiEquivalenceUtilAreEqual(FixturesCorpus corpus, Blackhole sink) {
+        corpus.read(() -> {
+            for (final PsiElement[] pair : corpus.operands) {
+                sink.consume(OpenapiEquivalenceUtil.areEqual(pair[0], pair[1]));
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void expressionCostEstimateUtilGetExpressionCost(FixturesCorpus corpus, Blackhole sink) {
+        corpus.read(() -> {
+            for (final PsiElement condition : corpus.conditions) {
+                sink.consume(ExpressionCostEstimateUtil.getExpressionCost(condition, Collections.emptySet()));
+            }
+            return null;
+        });
+    }
+}
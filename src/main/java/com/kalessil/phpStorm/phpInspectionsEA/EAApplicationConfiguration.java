@@ -8,11 +8,15 @@ import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
 
 public class EAApplicationConfiguration implements Configurable {
     private boolean SEND_CRASH_REPORTS;
     private boolean COMPARISON_STYLE_REGULAR;
     private boolean COMPARISON_STYLE_YODA;
+    private final List<String> TEST_DIRECTORIES = new ArrayList<>();
+    private final List<String> TEST_NAMESPACES  = new ArrayList<>();
 
     @Nullable
     @Override
@@ -24,6 +28,11 @@ public class EAApplicationConfiguration implements Configurable {
         COMPARISON_STYLE_REGULAR              = comparisonStyle == ComparisonStyle.REGULAR;
         COMPARISON_STYLE_YODA                 = comparisonStyle == ComparisonStyle.YODA;
 
+        TEST_DIRECTORIES.clear();
+        TEST_DIRECTORIES.addAll(settings.getTestDirectories());
+        TEST_NAMESPACES.clear();
+        TEST_NAMESPACES.addAll(settings.getTestNamespaces());
+
         return OptionsComponent.create(component -> {
             component.addPanel("Anonymous data collect", panelComponent ->
                 panelComponent.addCheckbox("Automatically collect crash-reports", SEND_CRASH_REPORTS, (isSelected) -> SEND_CRASH_REPORTS = isSelected)
@@ -36,6 +45,26 @@ public class EAApplicationConfiguration implements Configurable {
                     radioComponent.addOption("Yoda comparison style", COMPARISON_STYLE_YODA, (isSelected) -> COMPARISON_STYLE_YODA = isSelected);
                 }
             ));
+
+            /* test context detection */
+            component.addPanel("Test context detection", panelComponent -> {
+                panelComponent.addList(
+                    "Test directories:",
+                    TEST_DIRECTORIES,
+                    null,
+                    null,
+                    "Adding test directory...",
+                    "Examples: 'tests', 'src/Fixtures'"
+                );
+                panelComponent.addList(
+                    "Test namespaces:",
+                    TEST_NAMESPACES,
+                    EASettings::getDefaultTestNamespaces,
+                    null,
+                    "Adding test namespace...",
+                    "Examples: '\\Tests\\', '\\Fixtures\\'"
+                );
+            });
         });
     }
 
@@ -45,7 +74,9 @@ public class EAApplicationConfiguration implements Configurable {
         final ComparisonStyle comparisonStyle = settings.getComparisonStyle();
 
         return SEND_CRASH_REPORTS != settings.getSendCrashReports() ||
-               COMPARISON_STYLE_YODA != (comparisonStyle == ComparisonStyle.YODA);
+               COMPARISON_STYLE_YODA != (comparisonStyle == ComparisonStyle.YODA) ||
+               !TEST_DIRECTORIES.equals(settings.getTestDirectories()) ||
+               !TEST_NAMESPACES.equals(settings.getTestNamespaces());
     }
 
     @Override
@@ -53,6 +84,8 @@ public class EAApplicationConfiguration implements Configurable {
         final EASettings settings = EASettings.getInstance();
         settings.setSendCrashReports(SEND_CRASH_REPORTS);
         settings.setComparisonStyle(COMPARISON_STYLE_REGULAR ? ComparisonStyle.REGULAR : ComparisonStyle.YODA);
+        settings.setTestDirectories(TEST_DIRECTORIES);
+        settings.setTestNamespaces(TEST_NAMESPACES);
     }
 
     @Override
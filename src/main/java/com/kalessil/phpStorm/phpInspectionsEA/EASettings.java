@@ -4,17 +4,28 @@ import com.intellij.openapi.components.PersistentStateComponent;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.text.StringUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.settings.ComparisonStyle;
 import org.jdom.Element;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 @State(name = "EASettings", storages = @Storage(file = "$APP_CONFIG$/ea_extended.xml"))
-public class EASettings implements PersistentStateComponent<Element> {
+public class EASettings implements PersistentStateComponent<Element>, ModificationTracker {
     private ComparisonStyle comparisonStyle;
     private String sendCrashReports;
+    private long modificationCount;
+
+    /* test context detection: path segments of test directories and namespace segments of test classes */
+    private List<String> testDirectories = new ArrayList<>();
+    private List<String> testNamespaces  = new ArrayList<>(getDefaultTestNamespaces());
 
     private String versionOldest;
     private String version;
@@ -44,6 +55,8 @@ public class EASettings implements PersistentStateComponent<Element> {
         if (this.comparisonStyle != null) {
             element.setAttribute("comparisonStyle", this.comparisonStyle.getValue());
         }
+        element.setAttribute("testDirectories", String.join(",", this.testDirectories));
+        element.setAttribute("testNamespaces", String.join(",", this.testNamespaces));
 
         return element;
     }
@@ -71,6 +84,21 @@ public class EASettings implements PersistentStateComponent<Element> {
         this.comparisonStyle              = comparisonStyleValue == null || comparisonStyleValue.equals(ComparisonStyle.REGULAR.getValue())
                                                 ? ComparisonStyle.REGULAR
                                                 : ComparisonStyle.YODA;
+
+        /* test context detection */
+        final String testDirectoriesValue = element.getAttributeValue("testDirectories");
+        this.testDirectories              = testDirectoriesValue == null ? new ArrayList<>() : StringUtil.split(testDirectoriesValue, ",");
+        final String testNamespacesValue  = element.getAttributeValue("testNamespaces");
+        this.testNamespaces               = testNamespacesValue == null
+                                                ? new ArrayList<>(getDefaultTestNamespaces())
+                                                : StringUtil.split(testNamespacesValue, ",");
+
+        ++this.modificationCount;
+    }
+
+    @Override
+    public long getModificationCount() {
+        return this.modificationCount;
     }
 
     public void setVersion(@NotNull String version) {
@@ -99,9 +127,33 @@ public class EASettings implements PersistentStateComponent<Element> {
 
     public void setComparisonStyle(final ComparisonStyle comparisonStyleValue) {
         this.comparisonStyle = comparisonStyleValue;
+        ++this.modificationCount;
     }
 
     public ComparisonStyle getComparisonStyle() {
         return this.comparisonStyle;
     }
+
+    @NotNull
+    public List<String> getTestDirectories() {
+        return Collections.unmodifiableList(this.testDirectories);
+    }
+    public void setTestDirectories(@NotNull List<String> directories) {
+        this.testDirectories = new ArrayList<>(directories);
+        ++this.modificationCount;
+    }
+
+    @NotNull
+    public List<String> getTestNamespaces() {
+        return Collections.unmodifiableList(this.testNamespaces);
+    }
+    public void setTestNamespaces(@NotNull List<String> namespaces) {
+        this.testNamespaces = new ArrayList<>(namespaces);
+        ++this.modificationCount;
+    }
+
+    @NotNull
+    public static List<String> getDefaultTestNamespaces() {
+        return Arrays.asList("\\Tests\\", "\\Test\\");
+    }
 }
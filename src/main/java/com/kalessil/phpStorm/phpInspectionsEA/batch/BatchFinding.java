@@ -0,0 +1,60 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * A problem reported by batch analysis, detached from PSI: safe to keep after read actions and to persist.
+ */
+final public class BatchFinding {
+    @NotNull final public String file;
+    @NotNull final public String inspection;
+    @NotNull final public String severity;
+    @NotNull final public String message;
+    final public int line;
+    final public int column;
+
+    public BatchFinding(
+            @NotNull String file,
+            @NotNull String inspection,
+            @NotNull String severity,
+            @NotNull String message,
+            int line,
+            int column
+    ) {
+        this.file       = file;
+        this.inspection = inspection;
+        this.severity   = severity;
+        this.message    = message;
+        this.line       = line;
+        this.column     = column;
+    }
+
+    /* lines and columns are 1-based */
+    @NotNull
+    public String toJson() {
+        return String.format(
+                "{\"file\":\"%s\",\"line\":%s,\"column\":%s,\"inspection\":\"%s\",\"severity\":\"%s\",\"message\":\"%s\"}",
+                escape(this.file),
+                this.line,
+                this.column,
+                escape(this.inspection),
+                escape(this.severity),
+                escape(this.message)
+        );
+    }
+
+    @NotNull
+    static String escape(@NotNull String value) {
+        return StringUtil.escapeStringCharacters(value);
+    }
+}
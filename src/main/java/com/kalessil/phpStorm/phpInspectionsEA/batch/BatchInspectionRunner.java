@@ -0,0 +1,339 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import com.intellij.codeInsight.daemon.HighlightDisplayKey;
+import com.intellij.codeInspection.InspectionProfile;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemDescriptorUtil;
+import com.intellij.codeInspection.ex.InspectionToolWrapper;
+import com.intellij.codeInspection.ex.LocalInspectionToolWrapper;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.JDOMUtil;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileVisitor;
+import com.intellij.profile.codeInspection.InspectionProjectProfileManager;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.jetbrains.php.config.PhpProjectConfigurationFacade;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.jetbrains.php.lang.psi.elements.PhpNamedElement;
+import com.kalessil.phpStorm.phpInspectionsEA.EASettings;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.BatchReplacementsApplier;
+import com.kalessil.phpStorm.phpInspectionsEA.indexers.ClassHierarchyIndexer;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.FusedInspectionsEngine;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassHierarchyUtil;
+import org.jdom.Element;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Runs the enabled EA inspections over PHP files of a directory: files are sharded over a ForkJoin pool, every file
+ * is analyzed inside its own read action with a single PSI traversal (see FusedInspectionsEngine).
+ *
+ * With a results store, files are keyed by: plugin version and profile digest, the file content hash and content hashes
+ * of files declaring its classes parents, interfaces and children. Matching files replay stored findings instead of
+ * analysis. Findings of inspections resolving types and members across files are not covered by the key: they are
+ * never stored and such inspections are re-running on every file.
+ *
+ * With fixes collection enabled, suggested replacements (see BatchReplacementsApplier) are collected per analyzed file.
+ */
+final public class BatchInspectionRunner {
+    private static final Set<String> crossFileInspections = new HashSet<>();
+    static {
+        crossFileInspections.add("NullPointerExceptionInspection");
+        crossFileInspections.add("CallableMethodValidityInspection");
+        crossFileInspections.add("CallableParameterUseCaseInTypeContextInspection");
+        crossFileInspections.add("ReturnTypeCanBeDeclaredInspection");
+    }
+
+    final private Project project;
+    final private VirtualFile root;
+    final private BatchReportWriter writer;
+    final private int threads;
+    @Nullable final private BatchResultsStore store;
+    @NotNull final private byte[] runDigest;
+    @Nullable final private Map<VirtualFile, BatchReplacementsApplier.FileReplacements> replacements;
+
+    final private Map<VirtualFile, byte[]> contentHashes = new ConcurrentHashMap<>();
+    final private AtomicInteger filesCount               = new AtomicInteger();
+    final private AtomicInteger findingsCount            = new AtomicInteger();
+    final private AtomicInteger replayedCount            = new AtomicInteger();
+
+    public BatchInspectionRunner(
+            @NotNull Project project,
+            @NotNull VirtualFile root,
+            @NotNull BatchReportWriter writer,
+            int threads,
+            @Nullable BatchResultsStore store,
+            @NotNull String pluginVersion,
+            boolean collectReplacements
+    ) {
+        this.project      = project;
+        this.root         = root;
+        this.writer       = writer;
+        this.threads      = Math.max(1, threads);
+        this.store        = store;
+        this.runDigest    = store == null ? new byte[0] : this.computeRunDigest(pluginVersion);
+        this.replacements = collectReplacements ? new ConcurrentHashMap<>() : null;
+    }
+
+    public void run() throws InterruptedException, ExecutionException {
+        final List<VirtualFile> files = this.collectFiles();
+        final ForkJoinPool pool       = new ForkJoinPool(this.threads);
+        try {
+            pool.submit(() -> files.parallelStream().forEach(this::analyze)).get();
+        } finally {
+            pool.shutdown();
+            files.clear();
+        }
+    }
+
+    public int getFilesCount() {
+        return this.filesCount.get();
+    }
+
+    public int getFindingsCount() {
+        return this.findingsCount.get();
+    }
+
+    public int getReplayedCount() {
+        return this.replayedCount.get();
+    }
+
+    /* suggested replacements of analyzed files, empty unless collecting was requested */
+    @NotNull
+    public Map<VirtualFile, BatchReplacementsApplier.FileReplacements> getReplacements() {
+        return this.replacements == null ? Collections.emptyMap() : this.replacements;
+    }
+
+    @NotNull
+    private List<VirtualFile> collectFiles() {
+        final List<VirtualFile> files = new ArrayList<>();
+        VfsUtilCore.visitChildrenRecursively(this.root, new VirtualFileVisitor() {
+            @Override
+            public boolean visitFile(@NotNull VirtualFile file) {
+                if (!file.isDirectory() && file.getFileType() == PhpFileType.INSTANCE) {
+                    files.add(file);
+                }
+                return true;
+            }
+        });
+        return files;
+    }
+
+    private void analyze(@NotNull VirtualFile file) {
+        final List<BatchFinding> findings = ApplicationManager.getApplication()
+                .runReadAction((Computable<List<BatchFinding>>) () -> this.inspectOrReplay(file));
+        this.filesCount.incrementAndGet();
+        this.findingsCount.addAndGet(findings.size());
+        try {
+            for (final BatchFinding finding : findings) {
+                this.writer.write(finding);
+            }
+        } catch (IOException failure) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    @NotNull
+    private List<BatchFinding> inspectOrReplay(@NotNull VirtualFile file) {
+        final PsiFile psiFile = file.isValid() ? PsiManager.getInstance(this.project).findFile(file) : null;
+        if (!(psiFile instanceof PhpFile)) {
+            return Collections.emptyList();
+        }
+        final List<LocalInspectionTool> inspections = FusedInspectionsEngine.getEnabledInspections(psiFile);
+        if (this.store == null) {
+            return this.inspect(file, psiFile, inspections);
+        }
+        try {
+            final String relative           = VfsUtilCore.getRelativePath(file, this.root, '/');
+            final String path               = relative == null ? file.getPath() : relative;
+            final byte[] key                = this.computeFileKey(file, (PhpFile) psiFile, path);
+            final List<BatchFinding> stored = this.store.get(key, path);
+            if (stored != null) {
+                this.replayedCount.incrementAndGet();
+                final List<LocalInspectionTool> crossFile = inspections.stream()
+                        .filter(inspection -> crossFileInspections.contains(inspection.getShortName()))
+                        .collect(Collectors.toList());
+                final List<BatchFinding> result = new ArrayList<>(stored);
+                result.addAll(this.inspect(file, psiFile, crossFile));
+                return result;
+            }
+            final List<BatchFinding> result = this.inspect(file, psiFile, inspections);
+            this.store.put(
+                    key,
+                    result.stream().filter(finding -> !crossFileInspections.contains(finding.inspection)).collect(Collectors.toList())
+            );
+            return result;
+        } catch (IOException failure) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    @NotNull
+    private byte[] computeFileKey(@NotNull VirtualFile file, @NotNull PhpFile psiFile, @NotNull String path) throws IOException {
+        /* hierarchy dependencies: changes in parents, interfaces and children declarations can change findings */
+        final Set<String> dependencies = new TreeSet<>();
+        for (final PhpNamedElement element : psiFile.getTopLevelDefs().values()) {
+            if (element instanceof PhpClass) {
+                final String fqn = ((PhpClass) element).getFQN();
+                dependencies.addAll(ClassHierarchyUtil.getParentChain(fqn, this.project));
+                dependencies.addAll(ClassHierarchyUtil.getInterfaces(fqn, this.project));
+                dependencies.addAll(ClassHierarchyUtil.getAllChildren(fqn, this.project));
+            }
+        }
+        final Set<VirtualFile> dependencyFiles = new TreeSet<>(Comparator.comparing(VirtualFile::getPath));
+        final GlobalSearchScope scope          = GlobalSearchScope.allScope(this.project);
+        for (final String dependency : dependencies) {
+            dependencyFiles.addAll(
+                    FileBasedIndex.getInstance().getContainingFiles(ClassHierarchyIndexer.identity, dependency.toLowerCase(), scope)
+            );
+        }
+        dependencyFiles.remove(file);
+
+        final MessageDigest digest = createDigest();
+        digest.update(this.runDigest);
+        /* the location matters as well: e.g. test directories are treated differently */
+        digest.update(path.getBytes(StandardCharsets.UTF_8));
+        digest.update(this.contentHash(file));
+        for (final VirtualFile dependency : dependencyFiles) {
+            digest.update(this.contentHash(dependency));
+        }
+        dependencies.clear();
+        dependencyFiles.clear();
+
+        return digest.digest();
+    }
+
+    @NotNull
+    private byte[] contentHash(@NotNull VirtualFile file) throws IOException {
+        byte[] hash = this.contentHashes.get(file);
+        if (hash == null) {
+            hash = createDigest().digest(file.contentsToByteArray());
+            this.contentHashes.put(file, hash);
+        }
+        return hash;
+    }
+
+    /* plugin version, language level, plugin settings and the enabled EA inspections with their settings */
+    @NotNull
+    private byte[] computeRunDigest(@NotNull String pluginVersion) {
+        final MessageDigest digest      = createDigest();
+        final InspectionProfile profile = InspectionProjectProfileManager.getInstance(this.project).getInspectionProfile();
+        final Map<String, String> tools = new TreeMap<>();
+        for (final InspectionToolWrapper wrapper : profile.getInspectionTools(null)) {
+            final HighlightDisplayKey key = HighlightDisplayKey.find(wrapper.getShortName());
+            if (wrapper instanceof LocalInspectionToolWrapper && key != null && profile.isToolEnabled(key)) {
+                final LocalInspectionTool inspection = ((LocalInspectionToolWrapper) wrapper).getTool();
+                if (inspection.getClass().getName().startsWith("com.kalessil.phpStorm.phpInspectionsEA")) {
+                    final Element settings = new Element("settings");
+                    try {
+                        inspection.writeSettings(settings);
+                    } catch (final Exception failure) {
+                        settings.setAttribute("failure", String.valueOf(failure.getMessage()));
+                    }
+                    tools.put(wrapper.getShortName(), profile.getErrorLevel(key, null).getName() + JDOMUtil.writeElement(settings));
+                }
+            }
+        }
+        final EASettings plugin  = EASettings.getInstance();
+        final String environment = PhpProjectConfigurationFacade.getInstance(this.project).getLanguageLevel().name()
+                + '|' + plugin.getComparisonStyle()
+                + '|' + String.join(",", plugin.getTestDirectories())
+                + '|' + String.join(",", plugin.getTestNamespaces());
+        digest.update(pluginVersion.getBytes(StandardCharsets.UTF_8));
+        digest.update(environment.getBytes(StandardCharsets.UTF_8));
+        tools.forEach((name, settings) -> digest.update((name + settings).getBytes(StandardCharsets.UTF_8)));
+        tools.clear();
+
+        return digest.digest();
+    }
+
+    @NotNull
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException failure) {
+            throw new IllegalStateException(failure);
+        }
+    }
+
+    @NotNull
+    private List<BatchFinding> inspect(
+            @NotNull VirtualFile file,
+            @NotNull PsiFile psiFile,
+            @NotNull Collection<LocalInspectionTool> inspections
+    ) {
+        final Document document = PsiDocumentManager.getInstance(this.project).getDocument(psiFile);
+        if (document == null || inspections.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final String path               = VfsUtilCore.getRelativePath(file, this.root, '/');
+        final InspectionProfile profile = InspectionProjectProfileManager.getInstance(this.project).getInspectionProfile();
+        final Map<String, List<ProblemDescriptor>> problems
+                = FusedInspectionsEngine.inspect(psiFile, inspections, false);
+        final List<BatchFinding> result = new ArrayList<>();
+        if (this.replacements != null) {
+            final List<ProblemDescriptor> descriptors = new ArrayList<>();
+            problems.values().forEach(descriptors::addAll);
+            this.replacements.putAll(BatchReplacementsApplier.collect(descriptors));
+            descriptors.clear();
+        }
+        for (final Map.Entry<String, List<ProblemDescriptor>> entry : problems.entrySet()) {
+            final HighlightDisplayKey key = HighlightDisplayKey.find(entry.getKey());
+            final String severity         = key == null ? "WARNING" : profile.getErrorLevel(key, psiFile).getName();
+            for (final ProblemDescriptor descriptor : entry.getValue()) {
+                final PsiElement element = descriptor.getPsiElement();
+                if (element != null) {
+                    final TextRange range = descriptor.getTextRangeInElement();
+                    final int offset      = element.getTextRange().getStartOffset() + (range == null ? 0 : range.getStartOffset());
+                    final int line        = document.getLineNumber(offset);
+                    result.add(new BatchFinding(
+                            path == null ? file.getPath() : path,
+                            entry.getKey(),
+                            severity,
+                            ProblemDescriptorUtil.renderDescriptionMessage(descriptor, element),
+                            line + 1,
+                            offset - document.getLineStartOffset(line) + 1
+                    ));
+                }
+            }
+        }
+        problems.clear();
+
+        return result;
+    }
+}
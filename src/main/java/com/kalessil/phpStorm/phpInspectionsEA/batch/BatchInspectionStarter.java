@@ -0,0 +1,202 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.ide.plugins.IdeaPluginDescriptor;
+import com.intellij.ide.plugins.PluginManager;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarterEx;
+import com.intellij.openapi.extensions.PluginId;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.BatchReplacementsApplier;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.metrics.CouplingMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Headless entry point: `<ide launcher> phpea-inspect <project> [<directory>] [--format=jsonl|sarif] [--output=<file>]
+ * [--threads=<count>] [--cache=<directory>] [--coupling=<file>] [--fix=replacements]`. Exit codes: 0 - no findings,
+ * 1 - findings reported, 2 - analysis failed.
+ *
+ * With `--fix=replacements` suggested replacements are applied and saved after the analysis (migrations mode), the cache
+ * is not used then: replayed findings are not carrying fixes.
+ *
+ * The analysis runs on a pooled thread: it waits for indexing and blocks on worker threads, the dispatch thread is only
+ * used for opening the project and applying replacements.
+ */
+public class BatchInspectionStarter extends ApplicationStarterEx {
+    private static final String command = "phpea-inspect";
+    private static final String usage   = "Usage: " + command + " <project> [<directory>] [--format=jsonl|sarif] " +
+                                          "[--output=<file>] [--threads=<count>] [--cache=<directory>] " +
+                                          "[--coupling=<file>] [--fix=replacements]";
+
+    @Override
+    public String getCommandName() {
+        return command;
+    }
+
+    @Override
+    public boolean isHeadless() {
+        return true;
+    }
+
+    @Override
+    public void premain(String[] args) {
+        if (args.length < 2) {
+            System.err.println(usage);
+            System.exit(2);
+        }
+    }
+
+    @Override
+    public void main(String[] args) {
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            int exitCode;
+            try {
+                exitCode = this.execute(args);
+            } catch (final Throwable failure) {
+                failure.printStackTrace(System.err);
+                exitCode = 2;
+            }
+            System.exit(exitCode);
+        });
+    }
+
+    private int execute(@NotNull String[] args) throws Exception {
+        final Map<String, String> options = new HashMap<>();
+        String projectPath                = null;
+        String directoryPath              = null;
+        for (int index = 1; index < args.length; ++index) {
+            final String argument = args[index];
+            if (argument.startsWith("--") && argument.contains("=")) {
+                options.put(argument.substring(2, argument.indexOf('=')), argument.substring(argument.indexOf('=') + 1));
+            } else if (projectPath == null) {
+                projectPath = new File(argument).getAbsolutePath();
+            } else {
+                directoryPath = new File(argument).getAbsolutePath();
+            }
+        }
+        final int threads = options.containsKey("threads")
+                ? parseThreads(options.get("threads"))
+                : Runtime.getRuntime().availableProcessors();
+        if (projectPath == null || threads <= 0) {
+            System.err.println(usage);
+            return 2;
+        }
+
+        final String path                     = projectPath;
+        final AtomicReference<Project> opened = new AtomicReference<>();
+        ApplicationManager.getApplication().invokeAndWait(() -> opened.set(ProjectUtil.openOrImport(path, null, false)));
+        final Project project = opened.get();
+        if (project == null) {
+            System.err.println("Unable to open the project: " + projectPath);
+            return 2;
+        }
+        DumbService.getInstance(project).waitForSmartMode();
+        final VirtualFile root = LocalFileSystem.getInstance().refreshAndFindFileByPath(
+                directoryPath == null ? projectPath : directoryPath
+        );
+        if (root == null) {
+            System.err.println("Unable to find the directory: " + directoryPath);
+            return 2;
+        }
+
+        final boolean fix  = "replacements".equals(options.get("fix"));
+        final String cache = fix ? null : options.get("cache");
+        final BatchInspectionRunner runner;
+        try (
+                final BatchReportWriter writer = this.createWriter(options);
+                final BatchResultsStore store  = cache == null ? null : new BatchResultsStore(new File(cache))
+        ) {
+            runner = new BatchInspectionRunner(project, root, writer, threads, store, getPluginVersion(), fix);
+            runner.run();
+        }
+        System.err.println(String.format(
+                "%s files analyzed (%s replayed from cache), %s problems found",
+                runner.getFilesCount(),
+                runner.getReplayedCount(),
+                runner.getFindingsCount()
+        ));
+        if (fix) {
+            this.applyReplacements(project, runner.getReplacements());
+        }
+        if (options.containsKey("coupling")) {
+            this.writeCouplingMetrics(project, new File(options.get("coupling")));
+        }
+
+        return runner.getFindingsCount() == 0 ? 0 : 1;
+    }
+
+    @NotNull
+    private BatchReportWriter createWriter(@NotNull Map<String, String> options) throws IOException {
+        final String output = options.get("output");
+        final Writer target = new BufferedWriter(new OutputStreamWriter(
+                output == null ? new FileOutputStream(FileDescriptor.out) : new FileOutputStream(output),
+                StandardCharsets.UTF_8
+        ));
+        return "sarif".equals(options.get("format"))
+                ? new SarifReportWriter(target, getPluginVersion())
+                : new JsonLinesReportWriter(target);
+    }
+
+    private void applyReplacements(
+            @NotNull Project project,
+            @NotNull Map<VirtualFile, BatchReplacementsApplier.FileReplacements> replacements
+    ) {
+        final AtomicInteger applied = new AtomicInteger();
+        ApplicationManager.getApplication().invokeAndWait(() -> {
+            applied.set(BatchReplacementsApplier.apply(project, replacements));
+            FileDocumentManager.getInstance().saveAllDocuments();
+        });
+        System.err.println(String.format("%s replacements applied in %s files", applied.get(), replacements.size()));
+    }
+
+    /* JSON lines with project classes coupling, for architecture dashboards */
+    private void writeCouplingMetrics(@NotNull Project project, @NotNull File target) throws IOException {
+        final Collection<CouplingMetrics.Entry> entries = ApplicationManager.getApplication().runReadAction(
+                (Computable<Collection<CouplingMetrics.Entry>>) () -> CouplingMetrics.of(project).values()
+        );
+        try (final Writer output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(target), StandardCharsets.UTF_8))) {
+            for (final CouplingMetrics.Entry entry : entries) {
+                output.write(entry.toJson());
+                output.write('\n');
+            }
+        }
+    }
+
+    /* positive count or -1 when malformed */
+    private static int parseThreads(@NotNull String value) {
+        try {
+            final int threads = Integer.parseInt(value);
+            return threads > 0 ? threads : -1;
+        } catch (final NumberFormatException malformed) {
+            return -1;
+        }
+    }
+
+    @NotNull
+    private static String getPluginVersion() {
+        final IdeaPluginDescriptor plugin = PluginManager.getPlugin(PluginId.getId("com.kalessil.phpStorm.phpInspectionsEA"));
+        return plugin == null ? "" : plugin.getVersion();
+    }
+}
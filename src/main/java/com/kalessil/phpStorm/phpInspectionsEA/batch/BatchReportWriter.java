@@ -0,0 +1,24 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Streams findings as they are produced; implementations are called from multiple analysis threads.
+ */
+public interface BatchReportWriter extends AutoCloseable {
+    void write(@NotNull BatchFinding finding) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
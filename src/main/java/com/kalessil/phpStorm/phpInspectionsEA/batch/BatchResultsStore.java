@@ -0,0 +1,245 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * On-disk batch results keyed by 32-byte digests (see BatchInspectionRunner for what goes into a key).
+ *
+ * index.bin is a memory-mapped open-addressing hash table: a header (magic, capacity, size) and fixed-size slots
+ * (key, data offset, data length, used flag). data.bin holds the serialized findings and is only appended to while
+ * the store is open: records replaced by newer ones are dropped when the store is closed.
+ */
+final public class BatchResultsStore implements AutoCloseable {
+    private static final int magic           = 0x45414252; /* EABR */
+    private static final int headerSize      = 12;
+    private static final int keySize         = 32;
+    private static final int slotSize        = keySize + 8 + 4 + 4;
+    private static final int initialCapacity = 1 << 14;
+
+    final private RandomAccessFile data;
+    final private RandomAccessFile indexFile;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int size;
+
+    public BatchResultsStore(@NotNull File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create the cache directory: " + directory.getPath());
+        }
+        final File file = new File(directory, "index.bin");
+        this.data       = new RandomAccessFile(new File(directory, "data.bin"), "rw");
+        this.indexFile  = new RandomAccessFile(file, "rw");
+
+        final boolean isNew = this.indexFile.length() < headerSize;
+        if (!isNew) {
+            this.indexFile.seek(0);
+            if (this.indexFile.readInt() != magic) {
+                throw new IOException("Corrupted cache index, please remove it: " + file.getPath());
+            }
+            this.capacity = this.indexFile.readInt();
+            this.size     = this.indexFile.readInt();
+        } else {
+            this.capacity = initialCapacity;
+            this.size     = 0;
+        }
+        this.index = this.indexFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, headerSize + (long) this.capacity * slotSize);
+        if (isNew) {
+            this.index.putInt(0, magic);
+            this.index.putInt(4, this.capacity);
+            this.index.putInt(8, 0);
+        }
+    }
+
+    @Nullable
+    synchronized public List<BatchFinding> get(@NotNull byte[] key, @NotNull String file) throws IOException {
+        final int slot = this.findSlot(key);
+        if (slot < 0 || this.index.getInt(slotOffset(slot) + keySize + 12) == 0) {
+            return null;
+        }
+        final long offset  = this.index.getLong(slotOffset(slot) + keySize);
+        final int length   = this.index.getInt(slotOffset(slot) + keySize + 8);
+        final byte[] bytes = new byte[length];
+        this.data.seek(offset);
+        this.data.readFully(bytes);
+
+        final List<BatchFinding> result = new ArrayList<>();
+        for (final String line : new String(bytes, StandardCharsets.UTF_8).split("\n")) {
+            final String[] parts = line.split("\t", 5);
+            if (parts.length == 5) {
+                result.add(new BatchFinding(
+                        file,
+                        parts[0],
+                        parts[1],
+                        unescape(parts[4]),
+                        Integer.parseInt(parts[2]),
+                        Integer.parseInt(parts[3])
+                ));
+            }
+        }
+        return result;
+    }
+
+    synchronized public void put(@NotNull byte[] key, @NotNull List<BatchFinding> findings) throws IOException {
+        final StringBuilder serialized = new StringBuilder();
+        for (final BatchFinding finding : findings) {
+            serialized.append(finding.inspection).append('\t')
+                      .append(finding.severity).append('\t')
+                      .append(finding.line).append('\t')
+                      .append(finding.column).append('\t')
+                      .append(finding.message.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n"))
+                      .append('\n');
+        }
+        final byte[] bytes = serialized.toString().getBytes(StandardCharsets.UTF_8);
+        final long offset  = this.data.length();
+        this.data.seek(offset);
+        this.data.write(bytes);
+
+        if ((this.size + 1) * 10 > this.capacity * 7) {
+            this.grow();
+        }
+        int slot = this.findSlot(key);
+        if (slot < 0) {
+            slot = -slot - 1;
+            this.index.putInt(8, ++this.size);
+        }
+        final int position = slotOffset(slot);
+        for (int byteIndex = 0; byteIndex < keySize; ++byteIndex) {
+            this.index.put(position + byteIndex, key[byteIndex]);
+        }
+        this.index.putLong(position + keySize, offset);
+        this.index.putInt(position + keySize + 8, bytes.length);
+        this.index.putInt(position + keySize + 12, 1);
+    }
+
+    @NotNull
+    private static String unescape(@NotNull String value) {
+        final StringBuilder result = new StringBuilder(value.length());
+        for (int position = 0; position < value.length(); ++position) {
+            final char current = value.charAt(position);
+            if (current == '\\' && position + 1 < value.length()) {
+                final char next = value.charAt(++position);
+                result.append(next == 'n' ? '\n' : (next == 't' ? '\t' : next));
+            } else {
+                result.append(current);
+            }
+        }
+        return result.toString();
+    }
+
+    /* slot of the key if present, otherwise -(free slot + 1) */
+    private int findSlot(@NotNull byte[] key) {
+        int slot = (int) ((ByteBuffer.wrap(key).getLong() & Long.MAX_VALUE) % this.capacity);
+        while (true) {
+            final int position = slotOffset(slot);
+            if (this.index.getInt(position + keySize + 12) == 0) {
+                return -slot - 1;
+            }
+            boolean matches = true;
+            for (int byteIndex = 0; matches && byteIndex < keySize; ++byteIndex) {
+                matches = this.index.get(position + byteIndex) == key[byteIndex];
+            }
+            if (matches) {
+                return slot;
+            }
+            slot = (slot + 1) % this.capacity;
+        }
+    }
+
+    private static int slotOffset(int slot) {
+        return headerSize + slot * slotSize;
+    }
+
+    /* doubles the table in place: used slots are copied aside, the mapping is extended and slots re-inserted */
+    private void grow() throws IOException {
+        final List<byte[]> slots = new ArrayList<>(this.size);
+        for (int slot = 0; slot < this.capacity; ++slot) {
+            final int position = slotOffset(slot);
+            if (this.index.getInt(position + keySize + 12) != 0) {
+                final byte[] content = new byte[slotSize];
+                for (int byteIndex = 0; byteIndex < slotSize; ++byteIndex) {
+                    content[byteIndex] = this.index.get(position + byteIndex);
+                }
+                slots.add(content);
+            }
+        }
+
+        this.capacity *= 2;
+        this.index = this.indexFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, headerSize + (long) this.capacity * slotSize);
+        final byte[] empty = new byte[slotSize];
+        for (int slot = 0; slot < this.capacity; ++slot) {
+            this.index.position(slotOffset(slot));
+            this.index.put(empty);
+        }
+        this.index.putInt(4, this.capacity);
+
+        for (final byte[] content : slots) {
+            final int position = slotOffset(-this.findSlot(content) - 1);
+            this.index.position(position);
+            this.index.put(content);
+        }
+        slots.clear();
+    }
+
+    /* moves referenced records to the beginning of data.bin (in offset order, so nothing is overwritten) and cuts the rest */
+    private void compact() throws IOException {
+        final List<long[]> records = new ArrayList<>(this.size);
+        long referenced            = 0;
+        for (int slot = 0; slot < this.capacity; ++slot) {
+            final int position = slotOffset(slot);
+            if (this.index.getInt(position + keySize + 12) != 0) {
+                final int length = this.index.getInt(position + keySize + 8);
+                records.add(new long[]{this.index.getLong(position + keySize), length, position});
+                referenced += length;
+            }
+        }
+        if (referenced < this.data.length()) {
+            records.sort(Comparator.comparingLong(record -> record[0]));
+            long target = 0;
+            for (final long[] record : records) {
+                if (record[0] != target) {
+                    final byte[] bytes = new byte[(int) record[1]];
+                    this.data.seek(record[0]);
+                    this.data.readFully(bytes);
+                    this.data.seek(target);
+                    this.data.write(bytes);
+                    this.index.putLong((int) record[2] + keySize, target);
+                }
+                target += record[1];
+            }
+            this.data.setLength(target);
+        }
+        records.clear();
+    }
+
+    @Override
+    synchronized public void close() throws IOException {
+        try {
+            this.compact();
+            this.index.force();
+        } finally {
+            this.indexFile.close();
+            this.data.close();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+final public class JsonLinesReportWriter implements BatchReportWriter {
+    final private Writer output;
+
+    public JsonLinesReportWriter(@NotNull Writer output) {
+        this.output = output;
+    }
+
+    @Override
+    synchronized public void write(@NotNull BatchFinding finding) throws IOException {
+        this.output.write(finding.toJson());
+        this.output.write('\n');
+        this.output.flush();
+    }
+
+    @Override
+    synchronized public void close() throws IOException {
+        this.output.close();
+    }
+}
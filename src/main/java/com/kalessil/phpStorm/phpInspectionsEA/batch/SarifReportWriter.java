@@ -0,0 +1,75 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * SARIF 2.1.0 log: results are streamed, the tool section (which needs all rule ids) is written when closing.
+ */
+final public class SarifReportWriter implements BatchReportWriter {
+    final private Writer output;
+    final private String version;
+    final private Set<String> rules = new TreeSet<>();
+    private boolean hasResults      = false;
+
+    public SarifReportWriter(@NotNull Writer output, @NotNull String version) throws IOException {
+        this.output  = output;
+        this.version = version;
+        this.output.write("{\"$schema\":\"https://schemastore.azurewebsites.net/schemas/json/sarif-2.1.0.json\",");
+        this.output.write("\"version\":\"2.1.0\",\"runs\":[{\"results\":[\n");
+    }
+
+    @Override
+    synchronized public void write(@NotNull BatchFinding finding) throws IOException {
+        this.rules.add(finding.inspection);
+        if (this.hasResults) {
+            this.output.write(",\n");
+        }
+        this.hasResults = true;
+        this.output.write(String.format(
+                "{\"ruleId\":\"%s\",\"level\":\"%s\",\"message\":{\"text\":\"%s\"},\"locations\":[{\"physicalLocation\":" +
+                "{\"artifactLocation\":{\"uri\":\"%s\"},\"region\":{\"startLine\":%s,\"startColumn\":%s}}}]}",
+                BatchFinding.escape(finding.inspection),
+                level(finding.severity),
+                BatchFinding.escape(finding.message),
+                BatchFinding.escape(finding.file),
+                finding.line,
+                finding.column
+        ));
+    }
+
+    @Override
+    synchronized public void close() throws IOException {
+        this.output.write("\n],\"tool\":{\"driver\":{\"name\":\"Php Inspections (EA Extended)\",");
+        this.output.write(String.format("\"version\":\"%s\",\"rules\":[", BatchFinding.escape(this.version)));
+        this.output.write(String.join(",", this.rules.stream().map(rule -> "{\"id\":\"" + rule + "\"}").toArray(String[]::new)));
+        this.output.write("]}}}]}\n");
+        this.output.close();
+        this.rules.clear();
+    }
+
+    @NotNull
+    private static String level(@NotNull String severity) {
+        switch (severity) {
+            case "ERROR":
+                return "error";
+            case "WARNING":
+                return "warning";
+            default:
+                return "note";
+        }
+    }
+}
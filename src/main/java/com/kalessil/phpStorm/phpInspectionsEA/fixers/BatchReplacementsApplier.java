@@ -0,0 +1,185 @@
+package com.kalessil.phpStorm.phpInspectionsEA.fixers;
+
+import com.intellij.codeInspection.CommonProblemDescriptor;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.QuickFix;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Applies suggested replacements (see UseSuggestedReplacementFixer) in batches: replacements are grouped by file and
+ * applied as text edits in one (undoable at once) write command, the PSI is committed once per file instead of once per
+ * problem.
+ *
+ * Overlapping replacements are resolved in favour of the outermost one, the rest is left for the next run. Files modified
+ * since replacements were collected are skipped.
+ */
+final public class BatchReplacementsApplier {
+    private static final String title = "Use suggested replacements";
+
+    private static final class Replacement {
+        final private int start;
+        final private int end;
+        @NotNull final private String text;
+
+        Replacement(int start, int end, @NotNull String text) {
+            this.start = start;
+            this.end   = end;
+            this.text  = text;
+        }
+    }
+
+    final public static class FileReplacements {
+        final private long modificationStamp;
+        @NotNull final private List<Replacement> replacements = new ArrayList<>();
+
+        FileReplacements(long modificationStamp) {
+            this.modificationStamp = modificationStamp;
+        }
+
+        public int size() {
+            return this.replacements.size();
+        }
+    }
+
+    /* groups replacements suggested in the descriptors by file; must be called inside a read action */
+    @NotNull
+    public static Map<VirtualFile, FileReplacements> collect(@NotNull Collection<? extends CommonProblemDescriptor> descriptors) {
+        return collect(descriptors, null);
+    }
+
+    /* as above, but only replacements of the given fix or fixes of its class are collected */
+    @NotNull
+    public static Map<VirtualFile, FileReplacements> collect(
+            @NotNull Collection<? extends CommonProblemDescriptor> descriptors,
+            @Nullable UseSuggestedReplacementFixer owner
+    ) {
+        final Map<VirtualFile, FileReplacements> result = new HashMap<>();
+        for (final CommonProblemDescriptor descriptor : descriptors) {
+            ProgressManager.checkCanceled();
+            final UseSuggestedReplacementFixer fix = findFix(descriptor, owner);
+            final PsiElement element               = fix == null ? null : ((ProblemDescriptor) descriptor).getPsiElement();
+            if (element == null || !element.isValid()) {
+                continue;
+            }
+            final PsiFile file        = element.getContainingFile();
+            final VirtualFile virtual = file == null ? null : file.getVirtualFile();
+            final Document document   = file == null ? null : PsiDocumentManager.getInstance(file.getProject()).getDocument(file);
+            if (virtual != null && document != null) {
+                final TextRange range = element.getTextRange();
+                result.computeIfAbsent(virtual, key -> new FileReplacements(document.getModificationStamp()))
+                        .replacements.add(new Replacement(range.getStartOffset(), range.getEndOffset(), fix.getReplacement()));
+            }
+        }
+        return result;
+    }
+
+    /* returns the number of applied replacements; must be called from the dispatch thread, outside of write actions */
+    public static int apply(@NotNull Project project, @NotNull Map<VirtualFile, FileReplacements> replacements) {
+        /* files modified since collecting are skipped */
+        final Map<PsiFile, Document> documents        = new LinkedHashMap<>();
+        final Map<Document, FileReplacements> pending = new HashMap<>();
+        for (final Map.Entry<VirtualFile, FileReplacements> entry : replacements.entrySet()) {
+            final VirtualFile file  = entry.getKey();
+            final Document document = file.isValid() ? FileDocumentManager.getInstance().getDocument(file) : null;
+            final PsiFile psiFile   = file.isValid() ? PsiManager.getInstance(project).findFile(file) : null;
+            if (document != null && psiFile != null && document.getModificationStamp() == entry.getValue().modificationStamp) {
+                documents.put(psiFile, document);
+                pending.put(document, entry.getValue());
+            }
+        }
+        if (documents.isEmpty()) {
+            return 0;
+        }
+
+        final int[] applied               = {0};
+        final PsiDocumentManager manager  = PsiDocumentManager.getInstance(project);
+        final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+        WriteCommandAction.runWriteCommandAction(project, title, null, () -> {
+            int processed = 0;
+            for (final Map.Entry<PsiFile, Document> entry : documents.entrySet()) {
+                final Document document = entry.getValue();
+                if (indicator != null) {
+                    indicator.setText2(entry.getKey().getName());
+                    indicator.setFraction((double) processed++ / documents.size());
+                }
+                final List<Replacement> selected = selectNonOverlapping(pending.get(document).replacements);
+                manager.doPostponedOperationsAndUnblockDocument(document);
+                /* from the end to the beginning: offsets of pending replacements are staying valid */
+                for (int index = selected.size() - 1; index >= 0; --index) {
+                    final Replacement replacement = selected.get(index);
+                    document.replaceString(replacement.start, replacement.end, replacement.text);
+                }
+                manager.commitDocument(document);
+                applied[0] += selected.size();
+            }
+        }, documents.keySet().toArray(PsiFile.EMPTY_ARRAY));
+        documents.clear();
+        pending.clear();
+
+        return applied[0];
+    }
+
+    @NotNull
+    private static List<Replacement> selectNonOverlapping(@NotNull List<Replacement> replacements) {
+        final List<Replacement> sorted = new ArrayList<>(replacements);
+        /* by start offset, outer replacements first */
+        sorted.sort((first, second) -> first.start == second.start
+                ? Integer.compare(second.end, first.end)
+                : Integer.compare(first.start, second.start));
+        final List<Replacement> result = new ArrayList<>();
+        int covered                    = -1;
+        for (final Replacement replacement : sorted) {
+            if (replacement.start >= covered) {
+                result.add(replacement);
+                covered = replacement.end;
+            }
+        }
+        return result;
+    }
+
+    /* the owner itself, otherwise a fix of the owner class (or of any replacement fix class without an owner) */
+    @Nullable
+    private static UseSuggestedReplacementFixer findFix(
+            @NotNull CommonProblemDescriptor descriptor,
+            @Nullable UseSuggestedReplacementFixer owner
+    ) {
+        final QuickFix[] fixes              = descriptor instanceof ProblemDescriptor ? descriptor.getFixes() : null;
+        UseSuggestedReplacementFixer result = null;
+        if (fixes != null) {
+            for (final QuickFix fix : fixes) {
+                if (owner != null && fix == owner) {
+                    return owner;
+                }
+                if (result == null && fix instanceof UseSuggestedReplacementFixer) {
+                    final boolean matches = owner == null || fix.getClass() == owner.getClass();
+                    result                = matches ? (UseSuggestedReplacementFixer) fix : null;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -1,12 +1,25 @@
 package com.kalessil.phpStorm.phpInspectionsEA.fixers;
 
+import com.intellij.codeInspection.BatchQuickFix;
+import com.intellij.codeInspection.CommonProblemDescriptor;
 import com.intellij.codeInspection.LocalQuickFix;
 import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.ThrowableComputable;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.ParenthesizedExpression;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -17,7 +30,7 @@ import org.jetbrains.annotations.NotNull;
  * file that was distributed with this source code.
  */
 
-public class UseSuggestedReplacementFixer implements LocalQuickFix {
+public class UseSuggestedReplacementFixer implements LocalQuickFix, BatchQuickFix<CommonProblemDescriptor> {
     private static final String title = "Use suggested replacement";
 
     final private String expression;
@@ -39,6 +52,11 @@ public class UseSuggestedReplacementFixer implements LocalQuickFix {
         this.expression = expression;
     }
 
+    @NotNull
+    public String getReplacement() {
+        return this.expression;
+    }
+
     @Override
     public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
         final PsiElement expression = descriptor.getPsiElement();
@@ -51,4 +69,37 @@ public class UseSuggestedReplacementFixer implements LocalQuickFix {
             }
         }
     }
+
+    /* "Fix all" over many problems: collecting is cancellable, applying is one undoable command with one PSI commit per file */
+    @Override
+    public void applyFix(
+            @NotNull Project project,
+            @NotNull CommonProblemDescriptor[] descriptors,
+            @NotNull List<PsiElement> psiElementsToIgnore,
+            @Nullable Runnable refreshViews
+    ) {
+        if (!project.isDisposed()) {
+            final Map<VirtualFile, BatchReplacementsApplier.FileReplacements> replacements;
+            try {
+                replacements = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                        (ThrowableComputable<Map<VirtualFile, BatchReplacementsApplier.FileReplacements>, RuntimeException>) () ->
+                                ApplicationManager.getApplication().runReadAction(
+                                        (Computable<Map<VirtualFile, BatchReplacementsApplier.FileReplacements>>) () ->
+                                                BatchReplacementsApplier.collect(Arrays.asList(descriptors), this)
+                                ),
+                        title,
+                        true,
+                        project
+                );
+            } catch (ProcessCanceledException cancelled) {
+                return;
+            }
+            if (!project.isDisposed() && !replacements.isEmpty()) {
+                BatchReplacementsApplier.apply(project, replacements);
+            }
+            if (refreshViews != null) {
+                refreshViews.run();
+            }
+        }
+    }
 }
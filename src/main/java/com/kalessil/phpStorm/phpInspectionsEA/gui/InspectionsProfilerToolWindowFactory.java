@@ -0,0 +1,159 @@
+package com.kalessil.phpStorm.phpInspectionsEA.gui;
+
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import com.intellij.ui.table.JBTable;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.InspectionsProfiler;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.LimitStatistics;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+public class InspectionsProfilerToolWindowFactory implements ToolWindowFactory, DumbAware {
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        final StatisticsModel model = new StatisticsModel();
+        final JBTable table         = new JBTable(model);
+        table.setAutoCreateRowSorter(true);
+
+        final JCheckBox record = new JCheckBox("Record", InspectionsProfiler.isEnabled());
+        record.addItemListener(event -> InspectionsProfiler.setEnabled(record.isSelected()));
+        final JCheckBox allocations = new JCheckBox("Track allocations", InspectionsProfiler.isTrackingAllocations());
+        allocations.addItemListener(event -> {
+            InspectionsProfiler.setTrackAllocations(allocations.isSelected());
+            allocations.setSelected(InspectionsProfiler.isTrackingAllocations());
+        });
+
+        final JLabel caches   = new JLabel();
+        final JButton refresh = new JButton("Refresh");
+        refresh.addActionListener(event -> {
+            model.refresh();
+            caches.setText(describeCaches());
+        });
+        final JButton reset = new JButton("Reset");
+        reset.addActionListener(event -> {
+            InspectionsProfiler.reset();
+            CacheStatistics.resetAll();
+            LimitStatistics.resetAll();
+            model.refresh();
+            caches.setText(describeCaches());
+        });
+        final JButton exportCsv = new JButton("Export CSV");
+        exportCsv.addActionListener(event -> export(project, "csv", InspectionsProfiler::toCsv));
+        final JButton exportJson = new JButton("Export JSON");
+        exportJson.addActionListener(event -> export(project, "json", InspectionsProfiler::toJson));
+
+        final JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(record);
+        controls.add(allocations);
+        controls.add(refresh);
+        controls.add(reset);
+        controls.add(exportCsv);
+        controls.add(exportJson);
+
+        final JPanel panel = new JPanel(new BorderLayout());
+        panel.add(controls, BorderLayout.NORTH);
+        panel.add(new JBScrollPane(table), BorderLayout.CENTER);
+        panel.add(caches, BorderLayout.SOUTH);
+
+        final Content content = ContentFactory.SERVICE.getInstance().createContent(panel, "", false);
+        toolWindow.getContentManager().addContent(content);
+    }
+
+    @NotNull
+    private static String describeCaches() {
+        return Stream.concat(
+                CacheStatistics.all().stream().map(CacheStatistics::toString).sorted(),
+                LimitStatistics.all().stream().map(LimitStatistics::toString).sorted()
+        ).collect(Collectors.joining("; "));
+    }
+
+    private static void export(@NotNull Project project, @NotNull String extension, @NotNull Supplier<String> serializer) {
+        final FileSaverDescriptor descriptor = new FileSaverDescriptor("Export Inspections Profile", "", extension);
+        final VirtualFileWrapper target      = FileChooserFactory.getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save(null, "ea-inspections-profile." + extension);
+        if (target != null) {
+            try {
+                FileUtil.writeToFile(target.getFile(), serializer.get());
+            } catch (IOException failure) {
+                JOptionPane.showMessageDialog(null, failure.getMessage(), "Export failed", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    private static class StatisticsModel extends AbstractTableModel {
+        private static final String[] columns = {"Inspection", "Invocations", "Wall time (ms)", "Average (µs)", "Allocated (KB)"};
+
+        private List<InspectionsProfiler.Statistics> rows = new ArrayList<>();
+
+        void refresh() {
+            this.rows = InspectionsProfiler.getStatistics();
+            this.fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return this.rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 0 ? String.class : Long.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            final InspectionsProfiler.Statistics entry = this.rows.get(row);
+            switch (column) {
+                case 0:
+                    return entry.getShortName();
+                case 1:
+                    return entry.getInvocations();
+                case 2:
+                    return entry.getWallTime() / 1_000_000L;
+                case 3:
+                    return entry.getInvocations() == 0 ? 0L : entry.getWallTime() / entry.getInvocations() / 1_000L;
+                default:
+                    return entry.getAllocatedBytes() / 1024L;
+            }
+        }
+    }
+}
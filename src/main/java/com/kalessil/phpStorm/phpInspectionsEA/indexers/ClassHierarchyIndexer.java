@@ -0,0 +1,131 @@
+package com.kalessil.phpStorm.phpInspectionsEA.indexers;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.*;
+import gnu.trove.THashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Per class FQN (lower-cased): parent, own interfaces, own methods and flags. Per parent FQN (lower-cased, with
+ * 'children:' prefix): direct children declared in the file. The platform re-indexes changed files only, so the
+ * hierarchy is updated incrementally.
+ */
+public class ClassHierarchyIndexer extends FileBasedIndexExtension<String, String> {
+    public static final ID<String, String> identity = ID.create("kalessil.phpStorm.phpInspectionsEA.class_hierarchy");
+    public static final String childrenPrefix       = "children:";
+    private final KeyDescriptor<String> descriptor  = new EnumeratorStringDescriptor();
+
+    @NotNull
+    @Override
+    public ID<String, String> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, String, FileContent> getIndexer() {
+        return file -> {
+            final PsiFile psiFile = file.getPsiFile();
+            if (psiFile instanceof PhpFile) {
+                final Map<String, String> result        = new THashMap<>();
+                final Map<String, Set<String>> children = new THashMap<>();
+                for (final PhpNamedElement element : ((PhpFile) psiFile).getTopLevelDefs().values()) {
+                    if (element instanceof PhpClass) {
+                        extractMeta(result, children, (PhpClass) element);
+                    }
+                }
+                children.forEach((parent, names) -> result.put(childrenPrefix + parent, String.join(",", names)));
+                children.clear();
+                return result;
+            }
+
+            return new THashMap<>();
+        };
+    }
+
+    static private void extractMeta(
+            @NotNull Map<String, String> storage,
+            @NotNull Map<String, Set<String>> children,
+            @NotNull PhpClass clazz
+    ) {
+        final String fqn = clazz.getFQN();
+        final String key = fqn.toLowerCase();
+        if (clazz.getName().isEmpty() || storage.containsKey(key)) {
+            return;
+        }
+
+        /* interfaces are listing parent interfaces in the extends list */
+        final List<String> parents    = extractNames(clazz.getExtendsList());
+        final List<String> interfaces = clazz.isInterface() ? parents : extractNames(clazz.getImplementsList());
+        final String parent           = clazz.isInterface() || parents.isEmpty() ? "" : parents.get(0);
+        final String methods          = Arrays.stream(clazz.getOwnMethods())
+                .map(method -> method.getName().toLowerCase())
+                .collect(Collectors.joining(","));
+        storage.put(
+                key,
+                String.format(
+                        "parent:%s;interfaces:%s;methods:%s;abstract:%s;interface:%s",
+                        parent,
+                        String.join(",", interfaces),
+                        methods,
+                        clazz.isAbstract() ? 1 : 0,
+                        clazz.isInterface() ? 1 : 0
+                )
+        );
+        parents.forEach(name -> children.computeIfAbsent(name.toLowerCase(), parentKey -> new LinkedHashSet<>()).add(fqn));
+    }
+
+    @NotNull
+    static private List<String> extractNames(@NotNull PhpReferenceList list) {
+        return list.getReferenceElements().stream()
+                .map(ClassReference::getFQN)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return descriptor;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<String> getValueExternalizer() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> file.getFileType() == PhpFileType.INSTANCE;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
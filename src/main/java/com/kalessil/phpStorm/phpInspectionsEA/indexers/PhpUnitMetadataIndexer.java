@@ -0,0 +1,239 @@
+package com.kalessil.phpStorm.phpInspectionsEA.indexers;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
+import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocRef;
+import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocTag;
+import com.jetbrains.php.lang.lexer.PhpTokenTypes;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
+import gnu.trove.THashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Per class FQN (lower-cased): class flags, used traits and own methods with flags (test, abstract, final, constructor,
+ * required arguments, positional datasets) plus @dataProvider/@depends/@covers annotations of each method. Only the
+ * file content is used, nothing gets resolved; see PhpUnitMetadataUtil for the queries.
+ */
+public class PhpUnitMetadataIndexer extends FileBasedIndexExtension<String, String> {
+    public static final ID<String, String> identity = ID.create("kalessil.phpStorm.phpInspectionsEA.phpunit_metadata");
+    private final KeyDescriptor<String> descriptor  = new EnumeratorStringDescriptor();
+
+    @NotNull
+    @Override
+    public ID<String, String> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, String, FileContent> getIndexer() {
+        return file -> {
+            final PsiFile psiFile = file.getPsiFile();
+            if (psiFile instanceof PhpFile) {
+                final Map<String, String> result = new THashMap<>();
+                for (final PhpNamedElement element : ((PhpFile) psiFile).getTopLevelDefs().values()) {
+                    if (element instanceof PhpClass) {
+                        final PhpClass clazz = (PhpClass) element;
+                        final String key     = clazz.getFQN().toLowerCase();
+                        if (!clazz.getName().isEmpty() && !result.containsKey(key)) {
+                            result.put(key, serialize(clazz));
+                        }
+                    }
+                }
+                return result;
+            }
+
+            return new THashMap<>();
+        };
+    }
+
+    /* also used for classes missing in the index (e.g. not yet indexed), so the format stays in one place */
+    @NotNull
+    static public String serialize(@NotNull PhpClass clazz) {
+        final List<String> methods   = new ArrayList<>();
+        final List<String> providers = new ArrayList<>();
+        final List<String> depends   = new ArrayList<>();
+        final List<String> covers    = new ArrayList<>();
+        final Method constructor     = getOwnConstructor(clazz);
+        for (final Method method : clazz.getOwnMethods()) {
+            final String name  = method.getName();
+            final String flags = (isTest(method) ? "t" : "") +
+                                 (method.isAbstract() ? "a" : "") +
+                                 (method.isFinal() ? "f" : "") +
+                                 (method == constructor ? "c" : "") +
+                                 (requiresArguments(method) ? "r" : "") +
+                                 (hasPositionalDataset(method) ? "n" : "");
+            methods.add(name + '/' + flags);
+
+            final Map<String, List<String>> annotations = extractAnnotations(method);
+            annotations.forEach((tag, targets) -> {
+                final String entry = name + '>' + String.join("|", targets);
+                if (tag.equals("@dataProvider")) {
+                    providers.add(entry);
+                } else if (tag.equals("@depends")) {
+                    depends.add(entry);
+                } else {
+                    covers.add(entry);
+                }
+            });
+            annotations.clear();
+        }
+
+        final String result = String.format(
+                "flags:%s%s%s%s;traits:%s;methods:%s;providers:%s;depends:%s;covers:%s",
+                clazz.isFinal() ? "f" : "",
+                clazz.isAbstract() ? "a" : "",
+                clazz.isTrait() ? "t" : "",
+                clazz.isInterface() ? "i" : "",
+                String.join(",", extractTraits(clazz)),
+                String.join(",", methods),
+                String.join(",", providers),
+                String.join(",", depends),
+                String.join(",", covers)
+        );
+        Arrays.asList(methods, providers, depends, covers).forEach(List::clear);
+        return result;
+    }
+
+    static public boolean isTest(@NotNull Method method) {
+        if (method.getName().startsWith("test")) {
+            return true;
+        }
+        final PhpDocComment docBlock = method.getDocComment();
+        return docBlock != null && docBlock.getTagElementsByName("@test").length > 0;
+    }
+
+    /* the provider returns a literal array and its first dataset is not named */
+    static public boolean hasPositionalDataset(@NotNull Method method) {
+        if (!method.isAbstract()) {
+            final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(method);
+            final PsiElement last     = body == null ? null : ExpressionSemanticUtil.getLastStatement(body);
+            if (last instanceof PhpReturn) {
+                final PsiElement value = ExpressionSemanticUtil.getReturnValue((PhpReturn) last);
+                if (value instanceof ArrayCreationExpression) {
+                    final PsiElement firstChild = ((ArrayCreationExpression) value).getFirstPsiChild();
+                    boolean isNamedDataset      = firstChild == null;
+                    if (firstChild instanceof ArrayHashElement) {
+                        final PsiElement key = ((ArrayHashElement) firstChild).getKey();
+                        isNamedDataset       = key instanceof StringLiteralExpression;
+                    }
+                    return !isNamedDataset;
+                }
+            }
+        }
+        return false;
+    }
+
+    /* a tag starting a doc-block line, not a mention inside of a description */
+    static public boolean isAnnotation(@NotNull PhpDocTag tag) {
+        PsiElement previous      = tag.getPrevSibling();
+        previous                 = previous instanceof PsiWhiteSpace ? previous.getPrevSibling() : previous;
+        final IElementType start = previous == null ? null : previous.getNode().getElementType();
+        return start == PhpTokenTypes.DOC_COMMENT_START || start == PhpTokenTypes.DOC_LEADING_ASTERISK;
+    }
+
+    static private boolean requiresArguments(@NotNull Method method) {
+        return Arrays.stream(method.getParameters()).anyMatch(parameter -> parameter.getDefaultValue() == null);
+    }
+
+    /* PhpClass.getConstructor also looks into parents, which is not allowed while indexing */
+    @Nullable
+    static private Method getOwnConstructor(@NotNull PhpClass clazz) {
+        Method legacy = null;
+        for (final Method method : clazz.getOwnMethods()) {
+            final String name = method.getName();
+            if (name.equalsIgnoreCase("__construct")) {
+                return method;
+            } else if (legacy == null && name.equalsIgnoreCase(clazz.getName()) && clazz.getNamespaceName().equals("\\")) {
+                legacy = method;
+            }
+        }
+        return legacy;
+    }
+
+    @NotNull
+    static private Map<String, List<String>> extractAnnotations(@NotNull Method method) {
+        final Map<String, List<String>> result = new LinkedHashMap<>();
+        final PhpDocComment docBlock           = method.getDocComment();
+        if (docBlock != null) {
+            for (final PhpDocTag tag : PsiTreeUtil.findChildrenOfType(docBlock, PhpDocTag.class)) {
+                final String tagName = tag.getName();
+                if (tagName.equals("@dataProvider") || tagName.equals("@depends") || tagName.equals("@covers")) {
+                    final PsiElement candidate = tag.getFirstPsiChild();
+                    if (candidate instanceof PhpDocRef && isAnnotation(tag)) {
+                        result.computeIfAbsent(tagName, key -> new ArrayList<>()).add(candidate.getText());
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /* trait use statements are direct children of the class body */
+    @NotNull
+    static private List<String> extractTraits(@NotNull PhpClass clazz) {
+        final List<String> result = new ArrayList<>();
+        for (final PsiElement child : clazz.getChildren()) {
+            if (child instanceof PhpUseList) {
+                for (final ClassReference reference : PsiTreeUtil.findChildrenOfType(child, ClassReference.class)) {
+                    final String fqn = reference.getFQN();
+                    if (fqn != null) {
+                        result.add(fqn);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return descriptor;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<String> getValueExternalizer() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> file.getFileType() == PhpFileType.INSTANCE;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
@@ -12,6 +12,8 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -28,6 +30,7 @@ import java.util.stream.Collectors;
 
 public class CompactArgumentsInspector extends BasePhpInspection {
     private static final String messagePattern = "'$%s' might not be defined in the scope.";
+    private static final Set<String> functions = Collections.singleton("compact");
 
     @NotNull
     public String getShortName() {
@@ -38,10 +41,15 @@ public class CompactArgumentsInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("compact")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length > 0) {
                         final Function scope = ExpressionSemanticUtil.getScope(reference);
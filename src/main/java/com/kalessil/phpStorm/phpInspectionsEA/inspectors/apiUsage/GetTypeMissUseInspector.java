@@ -23,8 +23,11 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiElementsUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -38,6 +41,7 @@ import java.util.Map;
 public class GetTypeMissUseInspector extends BasePhpInspection {
     private static final String messagePattern     = "'%i%%f%(%p%)' construction is more compact and easier to read.";
     private static final String messageInvalidType = "'%t%' is not a value returned by 'gettype(...)'.";
+    private static final Set<String> functions     = Collections.singleton("gettype");
 
     @NotNull
     public String getShortName() {
@@ -61,10 +65,15 @@ public class GetTypeMissUseInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName == null || !functionName.equals("gettype")) {
+                if (functionName == null || !functions.contains(functionName)) {
                     return;
                 }
                 final PsiElement[] arguments = reference.getParameters();
@@ -11,7 +11,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixe
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
-import com.kalessil.phpStorm.phpInspectionsEA.settings.ComparisonStyle;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import org.jetbrains.annotations.NotNull;
 
@@ -45,6 +45,8 @@ public class IsEmptyFunctionUsageInspector extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
             @Override
             public void visitPhpEmpty(@NotNull PhpEmpty emptyExpression) {
@@ -73,7 +75,7 @@ public class IsEmptyFunctionUsageInspector extends BasePhpInspection {
                     if (this.isArrayType(resolvedTypes)) {
                         if (SUGGEST_TO_USE_COUNT_CHECK) {
                             final String comparision = isInverted ? "!==" : "===";
-                            final String replacement = ComparisonStyle.isRegular()
+                            final String replacement = settings.isRegularComparison()
                                                        ? String.format("count(%s) %s 0", subject.getText(), comparision)
                                                        : String.format("0 %s count(%s)", comparision, subject.getText());
                             final PsiElement target  = isInverted ? parent : emptyExpression;
@@ -97,7 +99,7 @@ public class IsEmptyFunctionUsageInspector extends BasePhpInspection {
                             }
                             if (!(base instanceof FieldReference)) {
                                 final String comparision = isInverted ? "!==" : "===";
-                                final String replacement = ComparisonStyle.isRegular()
+                                final String replacement = settings.isRegularComparison()
                                                            ? String.format("%s %s null", subject.getText(), comparision)
                                                            : String.format("null %s %s", comparision, subject.getText());
                                 holder.registerProblem(
@@ -12,12 +12,16 @@ import com.jetbrains.php.lang.psi.elements.UnaryExpression;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
-import com.kalessil.phpStorm.phpInspectionsEA.settings.ComparisonStyle;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiElementsUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.PhpLanguageUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -29,6 +33,7 @@ import org.jetbrains.annotations.NotNull;
 
 public class IsNullFunctionUsageInspector extends BasePhpInspection {
     private static final String messagePattern = "'%s' construction should be used instead.";
+    private static final Set<String> functions = Collections.singleton("is_null");
 
     @NotNull
     public String getShortName() {
@@ -38,11 +43,18 @@ public class IsNullFunctionUsageInspector extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName == null || !functionName.equals("is_null")) {
+                if (functionName == null || !functions.contains(functionName)) {
                     return;
                 }
                 final PsiElement[] arguments = reference.getParameters();
@@ -79,7 +91,7 @@ public class IsNullFunctionUsageInspector extends BasePhpInspection {
                 }
 
                 /* report the issue */
-                final boolean isRegular      = ComparisonStyle.isRegular();
+                final boolean isRegular      = settings.isRegularComparison();
                 final String wrappedArgument = isRegular && arguments[0] instanceof AssignmentExpression
                                                ? String.format("(%s)", arguments[0].getText())
                                                : arguments[0].getText();
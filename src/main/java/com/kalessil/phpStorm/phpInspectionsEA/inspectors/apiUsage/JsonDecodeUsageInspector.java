@@ -11,6 +11,9 @@ import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -26,7 +29,8 @@ public class JsonDecodeUsageInspector extends BasePhpInspection {
     public boolean DECODE_AS_ARRAY  = true;
     public boolean DECODE_AS_OBJECT = false;
 
-    private static final String message = "Please specify the second argument (clarifies decoding into array or object).";
+    private static final String message        = "Please specify the second argument (clarifies decoding into array or object).";
+    private static final Set<String> functions = Collections.singleton("json_decode");
 
     @NotNull
     public String getShortName() {
@@ -37,10 +41,15 @@ public class JsonDecodeUsageInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("json_decode")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 1) {
                         final String replacement = String.format(
@@ -16,6 +16,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -26,7 +30,8 @@ import org.jetbrains.annotations.NotNull;
  */
 
 public class ObGetCleanCanBeUsedInspector extends BasePhpInspection {
-    private static final String message = "'ob_get_clean()' can be used instead.";
+    private static final String message        = "'ob_get_clean()' can be used instead.";
+    private static final Set<String> functions = Collections.singleton("ob_end_clean");
 
     @NotNull
     public String getShortName() {
@@ -37,10 +42,15 @@ public class ObGetCleanCanBeUsedInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("ob_end_clean")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement parent = reference.getParent();
                     if (OpenapiTypesUtil.isStatementImpl(parent)) {
                         final PsiElement previous = ((PhpPsiElement) parent).getPrevPsiSibling();
@@ -9,6 +9,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -19,7 +23,8 @@ import org.jetbrains.annotations.NotNull;
  */
 
 public class PregQuoteUsageInspector extends BasePhpInspection {
-    private static final String message = "Please provide regex delimiter as the second argument for proper escaping.";
+    private static final String message        = "Please provide regex delimiter as the second argument for proper escaping.";
+    private static final Set<String> functions = Collections.singleton("preg_quote");
 
     @NotNull
     public String getShortName() {
@@ -30,10 +35,15 @@ public class PregQuoteUsageInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("preg_quote")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 1) {
                         holder.registerProblem(reference, message, ProblemHighlightType.GENERIC_ERROR);
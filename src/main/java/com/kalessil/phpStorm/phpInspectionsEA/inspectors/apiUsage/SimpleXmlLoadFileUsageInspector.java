@@ -10,7 +10,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /*
@@ -23,7 +26,8 @@ import java.util.stream.Collectors;
  */
 
 public class SimpleXmlLoadFileUsageInspector extends BasePhpInspection {
-    private static final String message = "This can be affected by a PHP bug #62577 (https://bugs.php.net/bug.php?id=62577)";
+    private static final String message        = "This can be affected by a PHP bug #62577 (https://bugs.php.net/bug.php?id=62577)";
+    private static final Set<String> functions = Collections.singleton("simplexml_load_file");
 
     @NotNull
     public String getShortName() {
@@ -34,10 +38,15 @@ public class SimpleXmlLoadFileUsageInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("simplexml_load_file")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length > 0) {
                         final List<String> fragments = Arrays.stream(arguments)
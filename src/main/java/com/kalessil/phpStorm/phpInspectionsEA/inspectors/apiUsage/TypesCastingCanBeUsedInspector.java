@@ -14,6 +14,8 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 
 /*
@@ -61,6 +63,11 @@ public class TypesCastingCanBeUsedInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functionsMapping.keySet();
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
@@ -130,6 +137,11 @@ public class TypesCastingCanBeUsedInspector extends BasePhpInspection {
                 }
             }
 
+            @Override
+            public Collection<String> getMethodReferenceNames() {
+                return Collections.singletonList("__toString");
+            }
+
             @Override
             public void visitPhpMethodReference(@NotNull MethodReference reference) {
                 final String methodName = reference.getName();
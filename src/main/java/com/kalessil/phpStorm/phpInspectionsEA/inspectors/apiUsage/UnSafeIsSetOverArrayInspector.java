@@ -13,7 +13,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixe
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
-import com.kalessil.phpStorm.phpInspectionsEA.settings.ComparisonStyle;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
@@ -49,6 +49,8 @@ public class UnSafeIsSetOverArrayInspector extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
             @Override
             public void visitPhpIsset(@NotNull PhpIsset issetExpression) {
@@ -110,7 +112,7 @@ public class UnSafeIsSetOverArrayInspector extends BasePhpInspection {
                         /* false-positives: finally, perhaps fallback to initialization in try */
                         if (PsiTreeUtil.getParentOfType(issetExpression, Finally.class) == null) {
                             final List<String> fragments = Arrays.asList(argument.getText(), issetInverted ? "===" : "!==", "null");
-                            if (!ComparisonStyle.isRegular()) {
+                            if (!settings.isRegularComparison()) {
                                 Collections.reverse(fragments);
                             }
                             final String replacement = String.join(" ", fragments);
@@ -11,7 +11,6 @@ import com.intellij.psi.PsiFile;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.PhpIndex;
 import com.jetbrains.php.config.PhpLanguageLevel;
-import com.jetbrains.php.config.PhpProjectConfigurationFacade;
 import com.jetbrains.php.lang.PhpFileType;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpFile;
@@ -20,6 +19,7 @@ import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
@@ -126,13 +126,25 @@ public class UnqualifiedReferenceInspector extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                if (REPORT_ALL_FUNCTIONS) {
+                    return null;
+                }
+                final Set<String> names = new HashSet<>(advancedOpcode);
+                names.addAll(callbacksPositions.keySet());
+                return names;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
                 if (functionName != null && !functionName.isEmpty()) {
                     /* ensure php version is at least PHP 7.0; makes sense only with PHP7+ opcode */
-                    final PhpLanguageLevel php = PhpProjectConfigurationFacade.getInstance(holder.getProject()).getLanguageLevel();
+                    final PhpLanguageLevel php = settings.languageLevel;
                     if (php.compareTo(PhpLanguageLevel.PHP700) >= 0) {
                         if (REPORT_ALL_FUNCTIONS || advancedOpcode.contains(functionName)) {
                             this.analyzeReference(reference, functionName);
@@ -149,7 +161,7 @@ public class UnqualifiedReferenceInspector extends BasePhpInspection {
                 final String constantName = reference.getName();
                 if (constantName != null && !constantName.isEmpty() && REPORT_CONSTANTS) {
                     /* ensure php version is at least PHP 7.0; makes sense only with PHP7+ opcode */
-                    final PhpLanguageLevel php = PhpProjectConfigurationFacade.getInstance(reference.getProject()).getLanguageLevel();
+                    final PhpLanguageLevel php = settings.languageLevel;
                     if (php.compareTo(PhpLanguageLevel.PHP700) >= 0) {
                         this.analyzeReference(reference, constantName);
                     }
@@ -19,6 +19,9 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -35,6 +38,7 @@ public class ArrayPushMissUseInspector extends BasePhpInspection {
 
     private static final String messageMisuse   = "'%s' here would be up to 2x faster.";
     private static final String messageUnneeded = "It seems that the index can be omitted at all.";
+    private static final Set<String> functions  = Collections.singleton("array_push");
 
     @NotNull
     public String getShortName() {
@@ -45,10 +49,15 @@ public class ArrayPushMissUseInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("array_push")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 2 && OpenapiTypesUtil.isStatementImpl(reference.getParent())) {
                         PsiElement variadicCandidate = arguments[1].getPrevSibling();
@@ -21,6 +21,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiElementsUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.PhpLanguageUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -33,6 +37,7 @@ import org.jetbrains.annotations.NotNull;
 public class ArraySearchUsedAsInArrayInspector extends BasePhpInspection {
     private static final String messageUseInArray        = "'in_array(...)' should be used instead (clearer intention).";
     private static final String messageComparingWithTrue = "This makes no sense, as array_search(...) never returns true.";
+    private static final Set<String> functions           = Collections.singleton("array_search");
 
     @NotNull
     public String getShortName() {
@@ -43,10 +48,15 @@ public class ArraySearchUsedAsInArrayInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName == null || !functionName.equals("array_search")) {
+                if (functionName == null || !functions.contains(functionName)) {
                     return;
                 }
                 final PsiElement[] arguments = reference.getParameters();
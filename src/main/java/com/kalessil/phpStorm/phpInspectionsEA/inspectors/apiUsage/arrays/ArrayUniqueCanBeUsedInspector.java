@@ -4,14 +4,18 @@ import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.config.PhpLanguageLevel;
-import com.jetbrains.php.config.PhpProjectConfigurationFacade;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -23,6 +27,7 @@ import org.jetbrains.annotations.NotNull;
 
 public class ArrayUniqueCanBeUsedInspector extends BasePhpInspection {
     private static final String messagePattern = "'%e%' would be more readable here (array_unique(...) was optimized in PHP 7.2-beta3+).";
+    private static final Set<String> functions = Collections.singleton("array_count_values");
 
     @NotNull
     public String getShortName() {
@@ -32,13 +37,20 @@ public class ArrayUniqueCanBeUsedInspector extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
-                final PhpLanguageLevel php = PhpProjectConfigurationFacade.getInstance(holder.getProject()).getLanguageLevel();
+                final PhpLanguageLevel php = settings.languageLevel;
                 if (php.compareTo(PhpLanguageLevel.PHP710) >= 0) {
                     final String functionName = reference.getName();
-                    if (functionName != null && functionName.equals("array_count_values")) {
+                    if (functionName != null && functions.contains(functionName)) {
                         final PsiElement[] arguments = reference.getParameters();
                         if (arguments.length == 1) {
                             final PsiElement context = reference.getParent().getParent();
@@ -10,6 +10,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -20,7 +24,8 @@ import org.jetbrains.annotations.NotNull;
  */
 
 public class ImplodeArgumentsOrderInspector extends BasePhpInspection {
-    private static final String message = "The glue argument should be the first one.";
+    private static final String message        = "The glue argument should be the first one.";
+    private static final Set<String> functions = Collections.singleton("implode");
 
     @NotNull
     public String getShortName() {
@@ -31,10 +36,15 @@ public class ImplodeArgumentsOrderInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("implode")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 2 && arguments[1] instanceof StringLiteralExpression) {
                         final String replacement = String.format(
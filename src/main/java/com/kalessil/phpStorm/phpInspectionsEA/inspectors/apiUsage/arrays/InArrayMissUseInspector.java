@@ -9,12 +9,16 @@ import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
-import com.kalessil.phpStorm.phpInspectionsEA.settings.ComparisonStyle;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiElementsUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.PhpLanguageUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -27,6 +31,7 @@ import org.jetbrains.annotations.NotNull;
 public class InArrayMissUseInspector extends BasePhpInspection {
     private static final String patternComparison = "'%s' should be used instead.";
     private static final String patternKeyExists  = "'%s' should be used instead. It is safe to refactor for type-safe code when the indexes are integers/strings only.";
+    private static final Set<String> functions    = Collections.singleton("in_array");
 
     @NotNull
     public String getShortName() {
@@ -36,11 +41,18 @@ public class InArrayMissUseInspector extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName == null || !functionName.equals("in_array")) {
+                if (functionName == null || !functions.contains(functionName)) {
                     return;
                 }
                 final PsiElement[] arguments = reference.getParameters();
@@ -109,7 +121,7 @@ public class InArrayMissUseInspector extends BasePhpInspection {
 
                         final boolean isStrict   = arguments.length == 3 && PhpLanguageUtil.isTrue(arguments[2]);
                         final String  comparison = (checkExists ? "==" : "!=") + (isStrict ? "=" : "");
-                        final String replacement = ComparisonStyle.isRegular()
+                        final String replacement = settings.isRegularComparison()
                                                    ? String.format("%s %s %s", arguments[0].getText(), comparison, lastItem.getText())
                                                    : String.format("%s %s %s", lastItem.getText(), comparison, arguments[0].getText());
                         final String message = String.format(patternComparison, replacement);
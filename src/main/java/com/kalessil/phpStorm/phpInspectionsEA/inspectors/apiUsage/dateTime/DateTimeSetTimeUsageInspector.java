@@ -4,16 +4,20 @@ import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.config.PhpLanguageLevel;
-import com.jetbrains.php.config.PhpProjectConfigurationFacade;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
 import com.jetbrains.php.lang.psi.elements.Method;
 import com.jetbrains.php.lang.psi.elements.MethodReference;
 import com.jetbrains.php.lang.psi.elements.PhpPsiElement;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -24,7 +28,8 @@ import org.jetbrains.annotations.NotNull;
  */
 
 public class DateTimeSetTimeUsageInspector extends BasePhpInspection {
-    private static final String message = "The call will return false ('microseconds' parameter is available in PHP 7.1+).";
+    private static final String message        = "The call will return false ('microseconds' parameter is available in PHP 7.1+).";
+    private static final Set<String> functions = Collections.singleton("date_time_set");
 
     @NotNull
     public String getShortName() {
@@ -34,10 +39,17 @@ public class DateTimeSetTimeUsageInspector extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getMethodReferenceNames() {
+                return Collections.singletonList("setTime");
+            }
+
             @Override
             public void visitPhpMethodReference(@NotNull MethodReference reference) {
-                final PhpLanguageLevel php = PhpProjectConfigurationFacade.getInstance(holder.getProject()).getLanguageLevel();
+                final PhpLanguageLevel php = settings.languageLevel;
                 if (php.compareTo(PhpLanguageLevel.PHP710) < 0) {
                     final String methodName = reference.getName();
                     if (methodName != null && methodName.equals("setTime")) {
@@ -52,12 +64,17 @@ public class DateTimeSetTimeUsageInspector extends BasePhpInspection {
                 }
             }
 
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
-                final PhpLanguageLevel php = PhpProjectConfigurationFacade.getInstance(holder.getProject()).getLanguageLevel();
+                final PhpLanguageLevel php = settings.languageLevel;
                 if (php.compareTo(PhpLanguageLevel.PHP710) < 0) {
                     final String functionName = reference.getName();
-                    if (functionName != null && functionName.equals("date_time_set")) {
+                    if (functionName != null && functions.contains(functionName)) {
                         final PsiElement[] arguments = reference.getParameters();
                         if (arguments.length == 5 && this.isFromRootNamespace(reference)) {
                             holder.registerProblem(arguments[4], message);
@@ -15,6 +15,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -26,6 +30,7 @@ import org.jetbrains.annotations.NotNull;
 
 public class DateUsageInspector extends BasePhpInspection {
     private static final String messageDropTime = "'time()' is default valued already, it can safely be removed.";
+    private static final Set<String> functions  = Collections.singleton("date");
 
     @NotNull
     public String getShortName() {
@@ -36,10 +41,15 @@ public class DateUsageInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("date")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 2) {
                         final PsiElement candidate = arguments[1];
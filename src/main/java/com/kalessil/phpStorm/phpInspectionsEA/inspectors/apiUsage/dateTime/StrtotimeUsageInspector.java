@@ -12,6 +12,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -24,6 +28,7 @@ import org.jetbrains.annotations.NotNull;
 public class StrtotimeUsageInspector extends BasePhpInspection {
     private static final String messageUseTime  = "'time()' should be used instead (2x faster).";
     private static final String messageDropTime = "'time()' is default valued already, it can safely be removed.";
+    private static final Set<String> functions  = Collections.singleton("strtotime");
 
     @NotNull
     public String getShortName() {
@@ -34,10 +39,15 @@ public class StrtotimeUsageInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName == null || !functionName.equals("strtotime")) {
+                if (functionName == null || !functions.contains(functionName)) {
                     return;
                 }
                 final PsiElement[] arguments = reference.getParameters();
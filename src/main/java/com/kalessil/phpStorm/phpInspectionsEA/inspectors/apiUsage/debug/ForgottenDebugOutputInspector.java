@@ -185,6 +185,11 @@ public class ForgottenDebugOutputInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getMethodReferenceNames() {
+                return customMethodsNames;
+            }
+
             @Override
             public void visitPhpMethodReference(@NotNull MethodReference reference) {
                 final String methodName = reference.getName();
@@ -204,6 +209,11 @@ public class ForgottenDebugOutputInspector extends BasePhpInspection {
                 }
             }
 
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return customFunctions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
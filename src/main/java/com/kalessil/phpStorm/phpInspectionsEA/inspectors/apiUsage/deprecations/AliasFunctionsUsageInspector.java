@@ -13,8 +13,11 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.NamedElementUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -35,6 +38,7 @@ public class AliasFunctionsUsageInspector extends BasePhpInspection {
 
     private static final Map<String, String> relevantAliases   = new HashMap<>();
     private static final Map<String, String> deprecatedAliases = new HashMap<>();
+    private static final Set<String> functions                 = new HashSet<>();
     static {
         /* See also: http://php.net/manual/en/aliases.php */
         relevantAliases.put("close",                  "closedir");
@@ -84,12 +88,20 @@ public class AliasFunctionsUsageInspector extends BasePhpInspection {
         deprecatedAliases.put("mysqli_send_long_data",  "This alias has been DEPRECATED as of PHP 5.3.0 and REMOVED as of PHP 5.4.0.");
         deprecatedAliases.put("ocifreecursor",          "This alias has been DEPRECATED as of PHP 5.4.0. Relying on this alias is highly discouraged.");
         deprecatedAliases.put("magic_quotes_runtime",   "This alias has been DEPRECATED as of PHP 5.3.0 and REMOVED as of PHP 7.0.0.");
+
+        functions.addAll(relevantAliases.keySet());
+        functions.addAll(deprecatedAliases.keySet());
     }
 
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
@@ -7,17 +7,20 @@ import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.config.PhpLanguageLevel;
-import com.jetbrains.php.config.PhpProjectConfigurationFacade;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /*
@@ -31,7 +34,8 @@ import java.util.stream.Collectors;
 
 public class GetClassUsageInspector extends BasePhpInspection {
 
-    private static final String message = "'get_class(...)' does not accept null as argument in PHP 7.2+ versions.";
+    private static final String message        = "'get_class(...)' does not accept null as argument in PHP 7.2+ versions.";
+    private static final Set<String> functions = Collections.singleton("get_class");
 
     @NotNull
     public String getShortName() {
@@ -41,14 +45,21 @@ public class GetClassUsageInspector extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final Project project      = holder.getProject();
-                final PhpLanguageLevel php = PhpProjectConfigurationFacade.getInstance(project).getLanguageLevel();
+                final PhpLanguageLevel php = settings.languageLevel;
                 if (php.compareTo(PhpLanguageLevel.PHP710) >= 0) {
                     final String functionName = reference.getName();
-                    if (functionName != null && functionName.equals("get_class")) {
+                    if (functionName != null && functions.contains(functionName)) {
                         final PsiElement[] arguments = reference.getParameters();
                         if (arguments.length == 1 && arguments[0] instanceof PhpTypedElement) {
                             final PhpType resolved = OpenapiResolveUtil.resolveType((PhpTypedElement) arguments[0], project);
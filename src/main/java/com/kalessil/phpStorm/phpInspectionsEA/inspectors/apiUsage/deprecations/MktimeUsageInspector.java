@@ -11,6 +11,11 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -23,6 +28,7 @@ import org.jetbrains.annotations.NotNull;
 public class MktimeUsageInspector extends BasePhpInspection {
     private static final String messageUseTime             = "You should use time() function instead (current usage produces a runtime warning).";
     private static final String messageParameterDeprecated = "Parameter 'is_dst' is deprecated and removed in PHP 7.";
+    private static final Set<String> functions             = new HashSet<>(Arrays.asList("mktime", "gmmktime"));
 
     @NotNull
     public String getShortName() {
@@ -33,10 +39,15 @@ public class MktimeUsageInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && (functionName.equals("mktime") || functionName.equals("gmmktime"))) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 0) {
                         if (this.isFromRootNamespace(reference)) {
@@ -14,6 +14,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -24,7 +28,8 @@ import org.jetbrains.annotations.NotNull;
  */
 
 public class DirectoryConstantCanBeUsedInspector extends BasePhpInspection {
-    private static final String message = "'__DIR__' should be used instead.";
+    private static final String message        = "'__DIR__' should be used instead.";
+    private static final Set<String> functions = Collections.singleton("dirname");
 
     @NotNull
     public String getShortName() {
@@ -35,10 +40,15 @@ public class DirectoryConstantCanBeUsedInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("dirname")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 1 && arguments[0] instanceof ConstantReference) {
                         final String constantName = ((ConstantReference) arguments[0]).getName();
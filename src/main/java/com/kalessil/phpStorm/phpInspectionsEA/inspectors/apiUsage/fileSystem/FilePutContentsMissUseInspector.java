@@ -13,6 +13,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -24,6 +28,7 @@ import org.jetbrains.annotations.NotNull;
 
 public class FilePutContentsMissUseInspector extends BasePhpInspection {
     private static final String messagePattern = "'%s' would consume less cpu and memory resources here.";
+    private static final Set<String> functions = Collections.singleton("file_put_contents");
 
     @NotNull
     public String getShortName() {
@@ -34,10 +39,15 @@ public class FilePutContentsMissUseInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("file_put_contents")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 2) {
                         /* inner call can be silenced, un-wrap it */
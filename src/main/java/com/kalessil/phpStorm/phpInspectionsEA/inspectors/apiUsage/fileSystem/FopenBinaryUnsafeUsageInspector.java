@@ -19,6 +19,9 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -36,6 +39,7 @@ public class FopenBinaryUnsafeUsageInspector extends BasePhpInspection {
     private static final String messageMisplacedBinaryMode   = "The 'b' modifier needs to be the last one (e.g 'wb', 'wb+').";
     private static final String messageUseBinaryMode         = "The mode is not binary-safe ('b' is missing, as documentation recommends).";
     private static final String messageReplaceWithBinaryMode = "The mode is not binary-safe (replace 't' with 'b', as documentation recommends).";
+    private static final Set<String> functions               = Collections.singleton("fopen");
 
     @NotNull
     public String getShortName() {
@@ -46,10 +50,15 @@ public class FopenBinaryUnsafeUsageInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("fopen")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length >= 2) {
                         /* verify if mode provided and has no 'b' already */
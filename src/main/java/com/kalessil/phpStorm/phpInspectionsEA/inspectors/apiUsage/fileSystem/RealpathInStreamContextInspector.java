@@ -11,6 +11,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -23,6 +27,7 @@ import org.jetbrains.annotations.Nullable;
 public class RealpathInStreamContextInspector extends BasePhpInspection {
     private static final String messageUseDirname = "'realpath(...)' works differently in a stream context (e.g., for phar://...). Consider using 'dirname(...)' instead.";
     private static final String patternUseDirname = "'%s' should be used instead (due to how realpath handles streams).";
+    private static final Set<String> functions    = Collections.singleton("realpath");
 
     @NotNull
     public String getShortName() {
@@ -33,10 +38,15 @@ public class RealpathInStreamContextInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("realpath")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 1 && !this.isTestContext(reference)) {
                         this.analyze(reference, arguments[0]);
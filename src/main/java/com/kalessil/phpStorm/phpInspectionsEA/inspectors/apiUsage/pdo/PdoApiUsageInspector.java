@@ -9,6 +9,9 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+import java.util.Collection;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -28,6 +31,11 @@ public class PdoApiUsageInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getMethodReferenceNames() {
+                return Arrays.asList("query", "execute");
+            }
+
             @Override
             public void visitPhpMethodReference(@NotNull MethodReference reference) {
                 QueryUsageStrategy.apply(reference, holder);
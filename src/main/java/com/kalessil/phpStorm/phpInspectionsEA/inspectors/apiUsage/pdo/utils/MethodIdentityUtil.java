@@ -44,7 +44,6 @@ final public class MethodIdentityUtil {
                                 break;
                             }
                         }
-                        parents.clear();
                     }
                 }
             }
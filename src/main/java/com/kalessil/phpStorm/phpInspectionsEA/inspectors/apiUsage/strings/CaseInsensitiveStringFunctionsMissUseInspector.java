@@ -15,6 +15,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -46,6 +47,11 @@ public class CaseInsensitiveStringFunctionsMissUseInspector extends BasePhpInspe
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return mapping.keySet();
+            }
+
             public void visitPhpFunctionCall(FunctionReference reference) {
                 final String functionName = reference.getName();
                 if (functionName == null || !mapping.containsKey(functionName)) {
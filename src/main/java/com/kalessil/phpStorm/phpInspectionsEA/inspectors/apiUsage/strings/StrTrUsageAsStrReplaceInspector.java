@@ -11,6 +11,9 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /*
@@ -24,6 +27,7 @@ import java.util.regex.Pattern;
 
 public class StrTrUsageAsStrReplaceInspector extends BasePhpInspection {
     private static final String messagePattern = "'%s' can be used instead (improves maintainability).";
+    private static final Set<String> functions = Collections.singleton("strtr");
 
     final static private Pattern signleQuoted;
     final static private Pattern doubleQuoted;
@@ -43,10 +47,15 @@ public class StrTrUsageAsStrReplaceInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("strtr")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 3) {
                         final StringLiteralExpression search = ExpressionSemanticUtil.resolveAsStringLiteral(arguments[1]);
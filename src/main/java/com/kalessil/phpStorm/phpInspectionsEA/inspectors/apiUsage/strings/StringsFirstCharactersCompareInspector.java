@@ -12,6 +12,11 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -22,7 +27,8 @@ import org.jetbrains.annotations.NotNull;
  */
 
 public class StringsFirstCharactersCompareInspector extends BasePhpInspection {
-    private static final String message = "The specified length doesn't match the string length.";
+    private static final String message        = "The specified length doesn't match the string length.";
+    private static final Set<String> functions = new HashSet<>(Arrays.asList("strncmp", "strncasecmp"));
 
     @NotNull
     public String getShortName() {
@@ -33,10 +39,15 @@ public class StringsFirstCharactersCompareInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && (functionName.equals("strncmp") || functionName.equals("strncasecmp"))) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 3 && OpenapiTypesUtil.isNumber(arguments[2])) {
                         /* find out if we have a string literal in arguments */
@@ -13,6 +13,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.Types;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -24,6 +28,7 @@ import org.jetbrains.annotations.NotNull;
 
 public class SubStrUsedAsArrayAccessInspector extends BasePhpInspection {
     private static final String messagePattern = "'%s' might be used instead (invalid index accesses might show up).";
+    private static final Set<String> functions = Collections.singleton("substr");
 
     @NotNull
     public String getShortName() {
@@ -34,11 +39,16 @@ public class SubStrUsedAsArrayAccessInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 /* check if it's the target function */
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("substr")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 3) {
                         final PsiElement length = arguments[2];
@@ -14,7 +14,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.EAApplicationConfiguration;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
-import com.kalessil.phpStorm.phpInspectionsEA.settings.ComparisonStyle;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
@@ -41,6 +41,8 @@ public class ComparisonOperandsOrderInspector extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder problemsHolder, final boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(problemsHolder.getProject());
+
         return new BasePhpElementVisitor() {
             @Override
             public void visitPhpBinaryExpression(@NotNull BinaryExpression expression) {
@@ -56,7 +58,7 @@ public class ComparisonOperandsOrderInspector extends BasePhpInspection {
                                                         right instanceof ConstantReference ||
                                                         OpenapiTypesUtil.isNumber(right);
                         if (isLeftConstant != isRightConstant) {
-                            final boolean isRegular = ComparisonStyle.isRegular();
+                            final boolean isRegular = settings.isRegularComparison();
                             if (isRightConstant && !isRegular) {
                                 problemsHolder.registerProblem(expression, messageUseYoda, new TheLocalFix());
                             }
@@ -5,14 +5,15 @@ import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.config.PhpLanguageLevel;
-import com.jetbrains.php.config.PhpProjectConfigurationFacade;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -96,7 +97,14 @@ public class DeprecatedIniOptionsInspector extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return targetFunctions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull final FunctionReference reference) {
                 final String functionName = reference.getName();
@@ -105,8 +113,7 @@ public class DeprecatedIniOptionsInspector extends BasePhpInspection {
                     if (arguments.length > 0 && arguments[0] instanceof StringLiteralExpression) {
                         final String directive = ((StringLiteralExpression) arguments[0]).getContents();
                         if (options.containsKey(directive)) {
-                            final PhpLanguageLevel php
-                                    = PhpProjectConfigurationFacade.getInstance(holder.getProject()).getLanguageLevel();
+                            final PhpLanguageLevel php                                       = settings.languageLevel;
                             final Triple<PhpLanguageLevel, PhpLanguageLevel, String> details = options.get(directive);
                             final PhpLanguageLevel removalVersion                            = details.getMiddle();
                             final PhpLanguageLevel deprecationVersion                        = details.getLeft();
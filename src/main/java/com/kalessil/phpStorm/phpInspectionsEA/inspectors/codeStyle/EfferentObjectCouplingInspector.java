@@ -3,18 +3,15 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.codeStyle;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
-import com.intellij.psi.util.PsiTreeUtil;
-import com.jetbrains.php.lang.psi.elements.ClassReference;
 import com.jetbrains.php.lang.psi.elements.PhpClass;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.NamedElementUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.metrics.ReferencedSymbols;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -44,10 +41,7 @@ public class EfferentObjectCouplingInspector extends BasePhpInspection {
             public void visitPhpClass(@NotNull PhpClass clazz) {
                 final PsiElement nameIdentifier = NamedElementUtil.getNameIdentifier(clazz);
                 if (nameIdentifier != null) {
-                    final Set<String> references = PsiTreeUtil.findChildrenOfType(clazz, ClassReference.class).stream()
-                            .map(ClassReference::getFQN)
-                            .collect(Collectors.toSet());
-                    final int count = references.size();
+                    final int count = ReferencedSymbols.of(clazz).classes.size();
                     if (count >= optionCouplingLimit) {
                         holder.registerProblem(nameIdentifier, String.format(messagePattern, count));
                     }
@@ -1,19 +1,18 @@
 package com.kalessil.phpStorm.phpInspectionsEA.inspectors.codeStyle;
 
 import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
-import com.jetbrains.php.PhpIndex;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassHierarchyUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collection;
-
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -72,9 +71,10 @@ public class MissUsingParentKeywordInspector extends BasePhpInspection {
 
             final boolean isOverridden(@NotNull PhpClass clazz, @NotNull String methodName) {
                 if (!clazz.isFinal()) {
-                    final PhpIndex index                = PhpIndex.getInstance(holder.getProject());
-                    final Collection<PhpClass> children = OpenapiResolveUtil.resolveChildClasses(clazz.getFQN(), index);
-                    return children.stream().anyMatch(c -> c.findOwnMethodByName(methodName) != null);
+                    final Project project = holder.getProject();
+                    return ClassHierarchyUtil.getAllChildren(clazz.getFQN(), project).stream()
+                            .map(child -> ClassHierarchyUtil.getEntry(child, project))
+                            .anyMatch(entry -> entry != null && entry.hasOwnMethod(methodName));
                 }
                 return false;
             }
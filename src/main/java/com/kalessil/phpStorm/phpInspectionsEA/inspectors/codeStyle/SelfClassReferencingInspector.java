@@ -14,6 +14,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.metrics.ReferencedSymbols;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
@@ -48,6 +49,10 @@ public class SelfClassReferencingInspector extends BasePhpInspection {
             public void visitPhpMethod(@NotNull Method method) {
                 final PhpClass clazz = method.getContainingClass();
                 if (clazz != null && !clazz.isAnonymous() && !clazz.isTrait() && !method.isAbstract()) {
+                    /* the class summary is shared by all methods: skip scanning bodies when the class is not named */
+                    if (!PREFER_CLASS_NAMES && !ReferencedSymbols.of(clazz).referencesClass(clazz.getFQN())) {
+                        return;
+                    }
                     final String targetReference   = PREFER_CLASS_NAMES ? "self" : clazz.getName();
                     final String targetReplacement = PREFER_CLASS_NAMES ? clazz.getName() : "self";
                     final GroupStatement body      = ExpressionSemanticUtil.getGroupStatement(method);
@@ -6,9 +6,7 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.PhpIndex;
-import com.jetbrains.php.codeInsight.controlFlow.PhpControlFlowUtil;
 import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpAccessVariableInstruction;
-import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpEntryPointInstruction;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocVariable;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocTag;
@@ -19,6 +17,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.flow.DefUseSummary;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.InterfacesExtractUtil;
 import org.jetbrains.annotations.NotNull;
 
@@ -143,10 +142,8 @@ public class ForeachSourceInspector extends BasePhpInspection {
                 }
                 /* false-positives: mixed parameter type, parameter overridden before foreach */
                 if (types.size() > 1 && scope instanceof Function && container instanceof Variable) {
-                    final String parameter               = ((Variable) container).getName();
-                    final PhpEntryPointInstruction start = ((Function) scope).getControlFlow().getEntryPoint();
-                    final PhpAccessVariableInstruction[] uses
-                        = PhpControlFlowUtil.getFollowingVariableAccessInstructions(start, parameter, false);
+                    final String parameter                    = ((Variable) container).getName();
+                    final PhpAccessVariableInstruction[] uses = DefUseSummary.of((Function) scope).getAccesses(parameter);
                     for (final PhpAccessVariableInstruction instruction : uses) {
                         final PhpPsiElement expression = instruction.getAnchor();
                         /* when matched itself, stop processing */
@@ -230,7 +227,6 @@ public class ForeachSourceInspector extends BasePhpInspection {
                                 final Set<PhpClass> interfaces = InterfacesExtractUtil.getCrawlInheritanceTree(clazz, false);
                                 if (!interfaces.isEmpty()) {
                                     hasTraversable = interfaces.stream().anyMatch(i -> i.getFQN().equals("\\Traversable"));
-                                    interfaces.clear();
                                     if (hasTraversable) {
                                         break;
                                     }
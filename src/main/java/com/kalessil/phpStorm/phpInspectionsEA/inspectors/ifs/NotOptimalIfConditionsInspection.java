@@ -2,12 +2,12 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.ifs;
 
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.config.PhpLanguageLevel;
-import com.jetbrains.php.config.PhpProjectConfigurationFacade;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpFile;
 import com.jetbrains.php.lang.psi.elements.*;
@@ -17,6 +17,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.inspectors.ifs.utils.ExpressionsCo
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.InterfacesExtractUtil;
 import org.jetbrains.annotations.NotNull;
@@ -73,6 +74,8 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
             public void visitPhpIf(If ifStatement) {
                 final List<PsiElement> objAllConditions = new ArrayList<>();
@@ -98,6 +101,7 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                 }
 
                 for (ElseIf objElseIf : ifStatement.getElseIfBranches()) {
+                    ProgressManager.checkCanceled();
                     objConditionsFromStatement = this.inspectExpressionsOrder(objElseIf.getCondition(), arrOperationHolder);
                     if (objConditionsFromStatement != null) {
                         objAllConditions.addAll(objConditionsFromStatement);
@@ -188,7 +192,7 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                 // release references in the raw list
                 instanceOfExpressions.clear();
 
-                final PhpLanguageLevel php                 = PhpProjectConfigurationFacade.getInstance(holder.getProject()).getLanguageLevel();
+                final PhpLanguageLevel php                 = settings.languageLevel;
                 final boolean isDateTimeInterfaceAvaialble = php.compareTo(PhpLanguageLevel.PHP550) >= 0;
 
                 // process entries, perform subject container clean up on each iteration
@@ -198,6 +202,7 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                     if (subjectContainer.size() > 1) {
                         // walk through conditions
                         for (Map.Entry<PsiElement, PhpClass> instanceOf2class: subjectContainer.entrySet()) {
+                            ProgressManager.checkCanceled();
                             /* unpack the pair */
                             final PhpClass clazz                  = instanceOf2class.getValue();
                             final PsiElement instanceOfExpression = instanceOf2class.getKey();
@@ -230,7 +235,6 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                     subjectContainer.clear();
                 }
                 // release inheritance cache as well
-                resolvedInheritanceChains.values().forEach(Set::clear);
                 resolvedInheritanceChains.clear();
                 // release mapping as well
                 mappedChecks.clear();
@@ -295,6 +299,7 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
 
                 /* scan for duplicates */
                 for (final PsiElement expression : callsExtracted) {
+                    ProgressManager.checkCanceled();
                     if (expression != null) {
                         /* put a stub */
                         callsExtracted.set(callsExtracted.indexOf(expression), null);
@@ -313,6 +318,7 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                 final List<String> result = new ArrayList<>();
                 PsiElement previous = ifStatement.getPrevPsiSibling();
                 while (previous != null) {
+                    ProgressManager.checkCanceled();
                     if (OpenapiTypesUtil.isStatementImpl(previous)) {
                         final PsiElement candidate = previous.getFirstChild();
                         if (OpenapiTypesUtil.isAssignment(candidate)) {
@@ -351,6 +357,7 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                 /* collect parent scopes conditions */
                 PsiElement parent = ifStatement.getParent();
                 while (parent != null && !(parent instanceof PhpFile) && !(parent instanceof Function)) {
+                    ProgressManager.checkCanceled();
                     if (parent instanceof If) {
                         List<PsiElement> tempList = ExpressionSemanticUtil.getConditions(((If) parent).getCondition(), null);
                         if (tempList != null) {
@@ -370,14 +377,17 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                 }
 
 
-                /* scan for duplicates */
-                for (PsiElement objExpression : conditions) {
+                /* scan for duplicates: candidates are grouped by structural hash, so only potential duplicates are compared */
+                final Map<Integer, List<Integer>> conditionsBuckets = this.groupByHash(conditions);
+                final Map<Integer, List<Integer>> parentBuckets     = this.groupByHash(objParentConditions);
+                for (int intOuterIndex = 0; intOuterIndex < conditions.size(); ++intOuterIndex) {
+                    ProgressManager.checkCanceled();
+                    final PsiElement objExpression = conditions.get(intOuterIndex);
                     if (null == objExpression) {
                         continue;
                     }
 
                     /* put a stub */
-                    int intOuterIndex = conditions.indexOf(objExpression);
                     conditions.set(intOuterIndex, null);
 
 
@@ -416,7 +426,9 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
 
 
                     /* search duplicates in current scope */
-                    for (final PsiElement innerLoopExpression : conditions) {
+                    final int hash = OpenapiEquivalenceUtil.getHash(objExpression);
+                    for (final int innerIndex : conditionsBuckets.getOrDefault(hash, Collections.emptyList())) {
+                        final PsiElement innerLoopExpression = conditions.get(innerIndex);
                         if (innerLoopExpression != null && OpenapiEquivalenceUtil.areEqual(innerLoopExpression, objExpression)) {
                             /* false-positives: mkdir race conditions */
                             final PsiElement extracted = objExpression instanceof UnaryExpression
@@ -430,22 +442,37 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                             }
 
                             holder.registerProblem(innerLoopExpression, messageDuplicateConditions);
-                            conditions.set(conditions.indexOf(innerLoopExpression), null);
+                            conditions.set(innerIndex, null);
                         }
                     }
 
                     /* search duplicates in outer scopes */
-                    for (final PsiElement objOuterScopeExpression : objParentConditions) {
+                    for (final int outerScopeIndex : parentBuckets.getOrDefault(hash, Collections.emptyList())) {
+                        final PsiElement objOuterScopeExpression = objParentConditions.get(outerScopeIndex);
                         if (objOuterScopeExpression != null && OpenapiEquivalenceUtil.areEqual(objOuterScopeExpression, objExpression)) {
                             holder.registerProblem(objExpression, messageDuplicateConditions);
-                            objParentConditions.set(objParentConditions.indexOf(objOuterScopeExpression), null);
+                            objParentConditions.set(outerScopeIndex, null);
                         }
                     }
                 }
 
+                conditionsBuckets.clear();
+                parentBuckets.clear();
                 objParentConditions.clear();
             }
 
+            @NotNull
+            private Map<Integer, List<Integer>> groupByHash(@NotNull List<PsiElement> expressions) {
+                final Map<Integer, List<Integer>> buckets = new HashMap<>();
+                for (int index = 0; index < expressions.size(); ++index) {
+                    final PsiElement expression = expressions.get(index);
+                    if (expression != null) {
+                        buckets.computeIfAbsent(OpenapiEquivalenceUtil.getHash(expression), hash -> new ArrayList<>()).add(index);
+                    }
+                }
+                return buckets;
+            }
+
             /**
              * @param objCondition to inspect
              */
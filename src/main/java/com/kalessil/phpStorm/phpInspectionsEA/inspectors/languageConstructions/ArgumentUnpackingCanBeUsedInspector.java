@@ -4,14 +4,18 @@ import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.config.PhpLanguageLevel;
-import com.jetbrains.php.config.PhpProjectConfigurationFacade;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.util.PhpStringUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -23,6 +27,7 @@ import org.jetbrains.annotations.NotNull;
 
 public class ArgumentUnpackingCanBeUsedInspector extends BasePhpInspection {
     private static final String messagePattern = "'%s' should be used instead (3x+ faster)";
+    private static final Set<String> functions = Collections.singleton("call_user_func_array");
 
     @NotNull
     public String getShortName() {
@@ -32,13 +37,20 @@ public class ArgumentUnpackingCanBeUsedInspector extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
-                final PhpLanguageLevel php = PhpProjectConfigurationFacade.getInstance(holder.getProject()).getLanguageLevel();
+                final PhpLanguageLevel php = settings.languageLevel;
                 if (php.compareTo(PhpLanguageLevel.PHP560) >= 0) {
                     final String functionName = reference.getName();
-                    if (functionName != null && functionName.equals("call_user_func_array")) {
+                    if (functionName != null && functions.contains(functionName)) {
                         final PsiElement[] arguments = reference.getParameters();
                         if (arguments.length == 2 && arguments[0] instanceof StringLiteralExpression) {
                             final boolean isContainerValid = arguments[1] instanceof Variable ||
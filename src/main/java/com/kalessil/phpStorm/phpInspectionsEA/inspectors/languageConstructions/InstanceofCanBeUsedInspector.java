@@ -15,7 +15,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -28,6 +31,7 @@ import java.util.Collection;
 
 public class InstanceofCanBeUsedInspector extends BasePhpInspection {
     private static final String messagePattern = "'%s' can be used instead.";
+    private static final Set<String> functions = new HashSet<>(Arrays.asList("get_class", "get_parent_class", "is_a", "is_subclass_of", "in_array"));
 
     @NotNull
     public String getShortName() {
@@ -38,10 +42,15 @@ public class InstanceofCanBeUsedInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, final boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null) {
+                if (functionName != null && functions.contains(functionName)) {
                     switch (functionName) {
                         case "get_class":
                         case "get_parent_class": {
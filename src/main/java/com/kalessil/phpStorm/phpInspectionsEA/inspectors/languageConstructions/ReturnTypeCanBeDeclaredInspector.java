@@ -12,7 +12,6 @@ import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.PhpIndex;
 import com.jetbrains.php.config.PhpLanguageFeature;
 import com.jetbrains.php.config.PhpLanguageLevel;
-import com.jetbrains.php.config.PhpProjectConfigurationFacade;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocType;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocReturnTag;
@@ -23,13 +22,13 @@ import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.InterfacesExtractUtil;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -49,6 +48,8 @@ public class ReturnTypeCanBeDeclaredInspector extends BasePhpInspection {
     private static final Set<String> returnTypes  = new HashSet<>();
     private static final Set<String> voidTypes    = new HashSet<>();
     private static final Set<String> magicMethods = new HashSet<>();
+    private static final TypeSet generatorType    = TypeSet.of(Collections.singleton("\\Generator"));
+    private static final TypeSet nullType         = TypeSet.of(Collections.singleton(Types.strNull));
     static {
         /* +class/interface reference for PHP7.0+; +void for PHP7.1+ */
         returnTypes.add("self");
@@ -87,12 +88,14 @@ public class ReturnTypeCanBeDeclaredInspector extends BasePhpInspection {
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
             /* TODO: support functions - see https://github.com/kalessil/phpinspectionsea/pull/320 */
 
             @Override
             public void visitPhpMethod(@NotNull Method method) {
-                final PhpLanguageLevel php = PhpProjectConfigurationFacade.getInstance(holder.getProject()).getLanguageLevel();
+                final PhpLanguageLevel php = settings.languageLevel;
                 if (php.hasFeature(PhpLanguageFeature.RETURN_TYPES) && !magicMethods.contains(method.getName())) {
                     final boolean isTarget = OpenapiElementsUtil.getReturnType(method) == null;
                     if (isTarget) {
@@ -130,10 +133,9 @@ public class ReturnTypeCanBeDeclaredInspector extends BasePhpInspection {
                 }
 
                 /* ignore DocBlock, resolve and normalize types instead (DocBlock is involved, but nevertheless) */
-                final Set<String> normalizedTypes = resolvedReturnType.filterUnknown().getTypes().stream().
-                        map(Types::getType).collect(Collectors.toSet());
-                this.checkUnrecognizedGenerator(method, normalizedTypes);
-                this.checkReturnStatements(method, normalizedTypes);
+                TypeSet normalizedTypes = TypeSet.of(resolvedReturnType.filterUnknown());
+                normalizedTypes         = this.checkUnrecognizedGenerator(method, normalizedTypes);
+                normalizedTypes         = this.checkReturnStatements(method, normalizedTypes);
 
                 final int typesCount = normalizedTypes.size();
                 /* case 1: offer using void */
@@ -149,7 +151,7 @@ public class ReturnTypeCanBeDeclaredInspector extends BasePhpInspection {
                 }
                 /* case 2: offer using type */
                 if (1 == typesCount) {
-                    final String singleType    = normalizedTypes.iterator().next();
+                    final String singleType    = normalizedTypes.toNames().iterator().next();
                     final String suggestedType = voidTypes.contains(singleType) ? Types.strVoid : this.compactType(singleType, method);
                     final boolean isLegitBasic = singleType.startsWith("\\") || returnTypes.contains(singleType) || suggestedType.equals("self");
                     final boolean isLegitVoid  = !isLegitBasic && supportNullableTypes && suggestedType.equals(Types.strVoid);
@@ -163,10 +165,8 @@ public class ReturnTypeCanBeDeclaredInspector extends BasePhpInspection {
                     }
                 }
                 /* case 3: offer using nullable type */
-                if (supportNullableTypes && 2 == typesCount && normalizedTypes.contains(Types.strNull)) {
-                    normalizedTypes.remove(Types.strNull);
-
-                    final String nullableType  = normalizedTypes.iterator().next();
+                if (supportNullableTypes && 2 == typesCount && normalizedTypes.containsNull()) {
+                    final String nullableType  = normalizedTypes.without(TypeSet.NULL).toNames().iterator().next();
                     final String suggestedType = voidTypes.contains(nullableType) ? Types.strVoid : compactType(nullableType, method);
 
                     final boolean isLegitNullable = nullableType.startsWith("\\") || returnTypes.contains(nullableType) || suggestedType.equals("self");
@@ -259,42 +259,46 @@ public class ReturnTypeCanBeDeclaredInspector extends BasePhpInspection {
                 return result == null ? type : result;
             }
 
-            private void checkUnrecognizedGenerator(@NotNull Method method, @NotNull Set<String> types) {
-                if (!types.contains("\\Generator")) {
+            @NotNull
+            private TypeSet checkUnrecognizedGenerator(@NotNull Method method, @NotNull TypeSet types) {
+                if (!types.containsClass("\\Generator")) {
                     final PhpYield yield = PsiTreeUtil.findChildOfType(method, PhpYield.class);
                     if (yield != null && ExpressionSemanticUtil.getScope(yield) == method) {
-                        types.add("\\Generator");
+                        types = types.union(generatorType);
                         if (PsiTreeUtil.findChildOfType(method, PhpReturn.class) == null) {
-                            types.remove(Types.strNull);
+                            types = types.without(TypeSet.NULL);
                         }
                     }
                 }
+                return types;
             }
 
-            private void checkReturnStatements(@NotNull Method method, @NotNull Set<String> types) {
+            @NotNull
+            private TypeSet checkReturnStatements(@NotNull Method method, @NotNull TypeSet types) {
                 if (!types.isEmpty() && !method.isAbstract()) {
                     /* non-implicit null return: omitted last return statement */
-                    if (!types.contains(Types.strNull) && !types.contains(Types.strVoid)) {
+                    if (!types.containsAny(TypeSet.NULL | TypeSet.VOID)) {
                         final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(method);
                         final PsiElement last     = body == null ? null : ExpressionSemanticUtil.getLastStatement(body);
                         if (last == null || (!(last instanceof PhpReturn) && !(last instanceof PhpThrow))) {
-                            types.add(Types.strNull);
+                            types = types.union(nullType);
                         }
                     }
                     /* buggy parameter type resolving: no type, but null as default value */
-                    if (types.size() == 1 && types.contains(Types.strNull)) {
+                    if (types.consistsOf(TypeSet.NULL)) {
                         final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(method);
                         if (body != null) {
                             final PhpReturn expression = PsiTreeUtil.findChildOfType(body, PhpReturn.class);
                             if (expression != null) {
                                 final PsiElement value = ExpressionSemanticUtil.getReturnValue(expression);
                                 if (value != null && !PhpLanguageUtil.isNull(value)) {
-                                    types.remove(Types.strNull);
+                                    types = types.without(TypeSet.NULL);
                                 }
                             }
                         }
                     }
                 }
+                return types;
             }
         };
     }
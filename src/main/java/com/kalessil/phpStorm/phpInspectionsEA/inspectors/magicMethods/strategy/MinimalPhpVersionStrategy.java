@@ -4,8 +4,8 @@ import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.jetbrains.php.config.PhpLanguageLevel;
-import com.jetbrains.php.config.PhpProjectConfigurationFacade;
 import com.jetbrains.php.lang.psi.elements.Method;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.NamedElementUtil;
 
 public class MinimalPhpVersionStrategy {
@@ -14,7 +14,7 @@ public class MinimalPhpVersionStrategy {
     static public void apply(final Method method, final ProblemsHolder holder, final PhpLanguageLevel neededVersion) {
         final PsiElement nameNode = NamedElementUtil.getNameIdentifier(method);
         if (nameNode != null) {
-            final PhpLanguageLevel php = PhpProjectConfigurationFacade.getInstance(holder.getProject()).getLanguageLevel();
+            final PhpLanguageLevel php = ProjectSettingsSnapshot.of(holder.getProject()).languageLevel;
             if (php.compareTo(neededVersion) < 0) { // at least required version
                 final String message = strProblemDescription
                         .replace("%m%", method.getName())
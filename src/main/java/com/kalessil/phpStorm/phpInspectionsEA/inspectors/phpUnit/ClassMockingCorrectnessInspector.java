@@ -8,10 +8,11 @@ import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.PhpUnitMetadataUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -68,8 +69,8 @@ public class ClassMockingCorrectnessInspector extends BasePhpInspection {
                         for (final Parameter parameter : method.getParameters()) {
                             final PsiElement typeCandidate = parameter.getFirstPsiChild();
                             if (typeCandidate instanceof ClassReference) {
-                                final PsiElement resolved = OpenapiResolveUtil.resolveReference((ClassReference) typeCandidate);
-                                if (resolved instanceof PhpClass && ((PhpClass) resolved).isFinal()) {
+                                final PhpUnitMetadataUtil.ClassEntry referenced = this.getEntry((ClassReference) typeCandidate);
+                                if (referenced != null && referenced.isFinal) {
                                     holder.registerProblem(typeCandidate, messageFinal);
                                 }
                             }
@@ -78,6 +79,11 @@ public class ClassMockingCorrectnessInspector extends BasePhpInspection {
                 }
             }
 
+            @Override
+            public Collection<String> getMethodReferenceNames() {
+                return methods.values();
+            }
+
             @Override
             public void visitPhpMethodReference(@NotNull MethodReference reference) {
                 final String methodName      = reference.getName();
@@ -85,12 +91,12 @@ public class ClassMockingCorrectnessInspector extends BasePhpInspection {
                 if (methodName != null && arguments.length > 0 && methods.containsValue(methodName)) {
                     final PsiElement resolved = OpenapiResolveUtil.resolveReference(reference);
                     if (resolved instanceof Method && methods.get(((Method) resolved).getFQN()) != null) {
-                        final PhpClass referencedClass = this.getClass(arguments[0]);
+                        final PhpUnitMetadataUtil.ClassEntry referencedClass = this.getClass(arguments[0]);
                         if (referencedClass != null) {
                             if (methodName.equals("createMock")) {
-                                if (referencedClass.isTrait()) {
+                                if (referencedClass.isTrait) {
                                     holder.registerProblem(arguments[0], messageTrait);
-                                } else if (referencedClass.isFinal()) {
+                                } else if (referencedClass.isFinal) {
                                     holder.registerProblem(arguments[0], messageFinal);
                                 }
                             } else if (methodName.equals("getMockBuilder")) {
@@ -100,38 +106,35 @@ public class ClassMockingCorrectnessInspector extends BasePhpInspection {
                                     parentName = ((MethodReference) parent).getName();
                                 }
                                 /* classes might need different mocking methods usage */
-                                if (referencedClass.isAbstract() && !referencedClass.isInterface()) {
+                                if (referencedClass.isAbstract && !referencedClass.isInterface) {
                                     if (parentName == null) {
                                         holder.registerProblem(arguments[0], messageMockAbstract);
                                     }
-                                } else if (referencedClass.isTrait()) {
+                                } else if (referencedClass.isTrait) {
                                     if (parentName == null) {
                                         holder.registerProblem(arguments[0], messageMockTrait);
                                     }
-                                } else if (referencedClass.isFinal()) {
+                                } else if (referencedClass.isFinal) {
                                     holder.registerProblem(arguments[0], messageFinal);
                                 }
                                 /* constructor might require arguments */
                                 if (parentName != null && parentName.equals("getMock")) {
-                                    final Method constructor  = referencedClass.getConstructor();
-                                    if (constructor != null) {
-                                        final boolean needsArguments = Arrays.stream(constructor.getParameters())
-                                                .anyMatch(parameter -> parameter.getDefaultValue() == null);
-                                        if (needsArguments) {
-                                            holder.registerProblem(arguments[0], messageMockConstructor);
-                                        }
+                                    final PhpUnitMetadataUtil.MethodEntry constructor
+                                            = PhpUnitMetadataUtil.findConstructor(this.getFQN(arguments[0]), referencedClass, holder.getProject());
+                                    if (constructor != null && constructor.requiresArguments) {
+                                        holder.registerProblem(arguments[0], messageMockConstructor);
                                     }
                                 }
                             } else if (methodName.equals("getMockForTrait")) {
-                                if (!referencedClass.isTrait()) {
+                                if (!referencedClass.isTrait) {
                                     holder.registerProblem(arguments[0], messageNeedsTrait);
                                 }
                             } else if (methodName.equals("getMockForAbstractClass")) {
-                                if (!referencedClass.isAbstract()) {
+                                if (!referencedClass.isAbstract) {
                                     holder.registerProblem(arguments[0], messageNeedsAbstract);
                                 }
                             } else {
-                                if (referencedClass.isFinal()) {
+                                if (referencedClass.isFinal) {
                                     holder.registerProblem(arguments[0], messageFinal);
                                 }
                             }
@@ -140,30 +143,68 @@ public class ClassMockingCorrectnessInspector extends BasePhpInspection {
                 }
             }
 
+            /* class references are looked up in the index by FQN, resolving only classes unknown to it */
             @Nullable
-            private PhpClass getClass(@NotNull PsiElement expression) {
-                PhpClass result = null;
+            private PhpUnitMetadataUtil.ClassEntry getEntry(@NotNull ClassReference reference) {
+                final String fqn = reference.getFQN();
+                if (fqn != null) {
+                    final PhpUnitMetadataUtil.ClassEntry entry = PhpUnitMetadataUtil.getClass(fqn, holder.getProject());
+                    if (entry != null) {
+                        return entry;
+                    }
+                }
+                final PsiElement resolved = OpenapiResolveUtil.resolveReference(reference);
+                return resolved instanceof PhpClass ? PhpUnitMetadataUtil.describe((PhpClass) resolved) : null;
+            }
+
+            @NotNull
+            private String getFQN(@NotNull PsiElement expression) {
+                String fqn = null;
+                if (expression instanceof ClassConstantReference) {
+                    final PhpExpression classReference = ((ClassConstantReference) expression).getClassReference();
+                    if (classReference instanceof ClassReference) {
+                        fqn = ((ClassReference) classReference).getFQN();
+                    }
+                } else if (expression instanceof StringLiteralExpression) {
+                    fqn = this.normalize(((StringLiteralExpression) expression).getContents());
+                }
+                return fqn == null ? "" : fqn;
+            }
+
+            @NotNull
+            private String normalize(@NotNull String contents) {
+                final String fqn = contents.replaceAll("\\\\\\\\", "\\\\");
+                return fqn.charAt(0) == '\\' ? fqn : '\\' + fqn;
+            }
+
+            @Nullable
+            private PhpUnitMetadataUtil.ClassEntry getClass(@NotNull PsiElement expression) {
+                PhpUnitMetadataUtil.ClassEntry result = null;
                 if (expression instanceof ClassConstantReference) {
                     final ClassConstantReference reference = (ClassConstantReference) expression;
                     final String constantName              = reference.getName();
                     if (constantName != null && constantName.equals("class")) {
                         final PhpExpression classReference = reference.getClassReference();
                         if (classReference instanceof ClassReference) {
-                            final PsiElement resolved = OpenapiResolveUtil.resolveReference((ClassReference) classReference);
-                            result = resolved instanceof PhpClass ? (PhpClass) resolved : null;
+                            result = this.getEntry((ClassReference) classReference);
                         }
                     }
                 } else if (expression instanceof StringLiteralExpression) {
                     final StringLiteralExpression string = (StringLiteralExpression) expression;
                     final String contents                = string.getContents();
                     if (string.getFirstPsiChild() == null && contents.length() > 3) {
-                        String fqn           = contents.replaceAll("\\\\\\\\", "\\\\");
-                        fqn                  = fqn.charAt(0) == '\\' ? fqn : '\\' + fqn;
-                        final PhpIndex index = PhpIndex.getInstance(expression.getProject());
-                        for (final PhpClass clazz : OpenapiResolveUtil.resolveClassesByFQN(fqn, index)) {
-                            if (clazz.isFinal()) {
-                                result = clazz;
-                                break;
+                        /* only final classes are reported for string references */
+                        final String fqn                           = this.normalize(contents);
+                        final PhpUnitMetadataUtil.ClassEntry entry = PhpUnitMetadataUtil.getClass(fqn, holder.getProject());
+                        if (entry != null) {
+                            result = entry.isFinal ? entry : null;
+                        } else {
+                            final PhpIndex index = PhpIndex.getInstance(expression.getProject());
+                            for (final PhpClass clazz : OpenapiResolveUtil.resolveClassesByFQN(fqn, index)) {
+                                if (clazz.isFinal()) {
+                                    result = PhpUnitMetadataUtil.describe(clazz);
+                                    break;
+                                }
                             }
                         }
                     }
@@ -13,9 +13,12 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.NamedElementUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.PhpUnitMetadataUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.PossibleValuesDiscoveryUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 
@@ -42,6 +45,11 @@ public class MockingMethodsCorrectnessInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getMethodReferenceNames() {
+                return Arrays.asList("willReturn", "method");
+            }
+
             @Override
             public void visitPhpMethodReference(@NotNull MethodReference reference) {
                 final String methodName = reference.getName();
@@ -94,16 +102,7 @@ public class MockingMethodsCorrectnessInspector extends BasePhpInspection {
                                 if ("class".equals(clazz.getName())) {
                                     final PsiElement classReference = clazz.getClassReference();
                                     if (classReference instanceof ClassReference) {
-                                        final PsiElement resolved
-                                                = OpenapiResolveUtil.resolveReference((ClassReference) classReference);
-                                        if (resolved instanceof PhpClass) {
-                                            final Method method = OpenapiResolveUtil.resolveMethod((PhpClass) resolved, methodName.getContents());
-                                            if (method == null) {
-                                                holder.registerProblem(methodName, messageUnresolvedMethod, ProblemHighlightType.GENERIC_ERROR);
-                                            } else if (method.isFinal()) {
-                                                holder.registerProblem(methodName, messageFinalMethod, ProblemHighlightType.GENERIC_ERROR);
-                                            }
-                                        }
+                                        this.checkMockedMethod((ClassReference) classReference, methodName);
                                     }
                                 }
                             }
@@ -112,6 +111,33 @@ public class MockingMethodsCorrectnessInspector extends BasePhpInspection {
                 }
                 variants.clear();
             }
+
+            /* the index answers for most of classes, resolving only when some of the hierarchy is unknown to it */
+            private void checkMockedMethod(@NotNull ClassReference reference, @NotNull StringLiteralExpression methodName) {
+                final String fqn  = reference.getFQN();
+                final String name = methodName.getContents();
+                if (fqn != null && PhpUnitMetadataUtil.isMethodName(name)) {
+                    final PhpUnitMetadataUtil.MethodLookup lookup = PhpUnitMetadataUtil.findMethod(fqn, name, holder.getProject());
+                    if (lookup.method != null || lookup.isConclusive) {
+                        if (lookup.method == null) {
+                            holder.registerProblem(methodName, messageUnresolvedMethod, ProblemHighlightType.GENERIC_ERROR);
+                        } else if (lookup.method.isFinal) {
+                            holder.registerProblem(methodName, messageFinalMethod, ProblemHighlightType.GENERIC_ERROR);
+                        }
+                        return;
+                    }
+                }
+
+                final PsiElement resolved = OpenapiResolveUtil.resolveReference(reference);
+                if (resolved instanceof PhpClass) {
+                    final Method method = OpenapiResolveUtil.resolveMethod((PhpClass) resolved, name);
+                    if (method == null) {
+                        holder.registerProblem(methodName, messageUnresolvedMethod, ProblemHighlightType.GENERIC_ERROR);
+                    } else if (method.isFinal()) {
+                        holder.registerProblem(methodName, messageFinalMethod, ProblemHighlightType.GENERIC_ERROR);
+                    }
+                }
+            }
         };
     }
 
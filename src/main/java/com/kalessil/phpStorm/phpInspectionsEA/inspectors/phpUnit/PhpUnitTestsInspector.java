@@ -10,25 +10,26 @@ import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.PsiWhiteSpace;
 import com.intellij.psi.impl.source.tree.LeafPsiElement;
-import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocRef;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocTag;
-import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.indexers.PhpUnitMetadataIndexer;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.phpUnit.strategy.*;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
-import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.NamedElementUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.PhpUnitMetadataUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.BooleanSupplier;
@@ -81,85 +82,45 @@ public class PhpUnitTestsInspector extends BasePhpInspection {
                     if (tagName.equals("@dataProvider")) {
                         final PsiElement candidate = tag.getFirstPsiChild();
                         if (candidate instanceof PhpDocRef && this.isAnnotation(tag)) {
-                            final List<PsiReference> references = Arrays.asList(candidate.getReferences());
-                            if (!references.isEmpty()) {
-                                Collections.reverse(references);
-                                final PsiElement resolved = OpenapiResolveUtil.resolveReference(references.get(0));
+                            final PhpUnitMetadataUtil.MethodLookup lookup = this.findMethod(clazz, candidate.getText());
+                            if (lookup != null) {
+                                if (lookup.method == null) {
+                                    holder.registerProblem(nameNode, messageDataProvider, ProblemHighlightType.GENERIC_ERROR);
+                                } else if (SUGGEST_TO_USE_NAMED_DATASETS && lookup.method.hasPositionalDataset) {
+                                    holder.registerProblem(nameNode, messageNamedProvider);
+                                }
+                            } else {
+                                final PsiElement resolved = this.resolve((PhpDocRef) candidate);
                                 if (resolved instanceof Method) {
-                                    if (SUGGEST_TO_USE_NAMED_DATASETS && !((Method) resolved).isAbstract()) {
-                                        final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(resolved);
-                                        final PsiElement last     = body == null ? null : ExpressionSemanticUtil.getLastStatement(body);
-                                        if (last instanceof PhpReturn) {
-                                            final PsiElement value = ExpressionSemanticUtil.getReturnValue((PhpReturn) last);
-                                            if (value instanceof ArrayCreationExpression) {
-                                                final PsiElement firstChild = ((ArrayCreationExpression) value).getFirstPsiChild();
-                                                boolean isNamedDataset      = firstChild == null;
-                                                if (firstChild instanceof ArrayHashElement) {
-                                                    final PsiElement key = ((ArrayHashElement) firstChild).getKey();
-                                                    isNamedDataset       = key instanceof StringLiteralExpression;
-                                                }
-                                                if (!isNamedDataset) {
-                                                    holder.registerProblem(nameNode, messageNamedProvider);
-                                                }
-                                            }
-                                        }
+                                    if (SUGGEST_TO_USE_NAMED_DATASETS && PhpUnitMetadataIndexer.hasPositionalDataset((Method) resolved)) {
+                                        holder.registerProblem(nameNode, messageNamedProvider);
                                     }
                                 } else {
                                     holder.registerProblem(nameNode, messageDataProvider, ProblemHighlightType.GENERIC_ERROR);
                                 }
-                            } else {
-                                holder.registerProblem(nameNode, messageDataProvider, ProblemHighlightType.GENERIC_ERROR);
                             }
                         }
                     } else if (tagName.equals("@depends")) {
                         final PsiElement candidate = tag.getFirstPsiChild();
                         if (candidate instanceof PhpDocRef && this.isAnnotation(tag)) {
-                            final List<PsiReference> references = Arrays.asList(candidate.getReferences());
-                            if (!references.isEmpty()) {
-                                Collections.reverse(references);
-                                final PsiElement resolved = OpenapiResolveUtil.resolveReference(references.get(0));
-                                if (resolved instanceof Method) {
-                                    final Method dependency = (Method) resolved;
-                                    if (!dependency.getName().startsWith("test")) {
-                                        final PhpDocComment docBlock = dependency.getDocComment();
-                                        if (docBlock == null || docBlock.getTagElementsByName("@test").length == 0) {
-                                            holder.registerProblem(nameNode, messageDepends, ProblemHighlightType.GENERIC_ERROR);
-                                        }
-                                    }
-                                } else {
-                                    holder.registerProblem(nameNode, messageDepends, ProblemHighlightType.GENERIC_ERROR);
-                                }
+                            final PhpUnitMetadataUtil.MethodLookup lookup = this.findMethod(clazz, candidate.getText());
+                            final boolean isValid;
+                            if (lookup != null) {
+                                isValid = lookup.method != null && lookup.method.isTest;
                             } else {
+                                final PsiElement resolved = this.resolve((PhpDocRef) candidate);
+                                isValid                   = resolved instanceof Method && PhpUnitMetadataIndexer.isTest((Method) resolved);
+                            }
+                            if (!isValid) {
                                 holder.registerProblem(nameNode, messageDepends, ProblemHighlightType.GENERIC_ERROR);
                             }
                         }
                     } else if (tagName.equals("@covers")) {
                         final PsiElement candidate = tag.getFirstPsiChild();
                         if (candidate instanceof PhpDocRef && this.isAnnotation(tag)) {
-                            final PhpDocRef referenceNeeded     = (PhpDocRef) candidate;
-                            final List<PsiReference> references = Arrays.asList(referenceNeeded.getReferences());
-                            Collections.reverse(references);
-
-                            /* resolve references, populate information about provided entries */
-                            boolean hasCallableReference = false;
-                            boolean hasClassReference    = false;
-                            final String referenceText   = referenceNeeded.getText();
-                            for (final PsiReference ref : references) {
-                                final PsiElement resolved = OpenapiResolveUtil.resolveReference(ref);
-                                if (resolved instanceof PhpClass) {
-                                    hasClassReference    = true;
-                                    hasCallableReference = referenceText.endsWith("::");
-                                    break;
-                                } else if (resolved instanceof Function) {
-                                    hasCallableReference = true;
-                                    hasClassReference    = resolved instanceof Method;
-                                    break;
-                                }
-                            }
-
-                            final boolean callableNeeded = referenceText.contains("::");
-                            if ((callableNeeded && !hasCallableReference) || (!callableNeeded && !hasClassReference)) {
-                                final String message = String.format(messageCovers, referenceText);
+                            final PhpDocRef referenceNeeded = (PhpDocRef) candidate;
+                            if (!this.isCoveredEntityExisting(referenceNeeded)) {
+                                final String message = String.format(messageCovers, referenceNeeded.getText());
                                 holder.registerProblem(nameNode, message, ProblemHighlightType.GENERIC_ERROR);
                             }
                         }
@@ -177,10 +138,77 @@ public class PhpUnitTestsInspector extends BasePhpInspection {
             }
 
             private boolean isAnnotation(@NotNull PhpDocTag tag) {
-                PsiElement previous      = tag.getPrevSibling();
-                previous                 = previous instanceof PsiWhiteSpace ? previous.getPrevSibling() : previous;
-                final IElementType start = previous == null ? null : previous.getNode().getElementType();
-                return start == PhpTokenTypes.DOC_COMMENT_START || start == PhpTokenTypes.DOC_LEADING_ASTERISK;
+                return PhpUnitMetadataIndexer.isAnnotation(tag);
+            }
+
+            /* index-based lookup of a method in the test class, null if the index can not answer */
+            @Nullable
+            private PhpUnitMetadataUtil.MethodLookup findMethod(@NotNull PhpClass clazz, @NotNull String name) {
+                if (PhpUnitMetadataUtil.isMethodName(name)) {
+                    final PhpUnitMetadataUtil.MethodLookup lookup
+                            = PhpUnitMetadataUtil.findMethod(clazz.getFQN(), name, holder.getProject());
+                    if (lookup.method != null || lookup.isConclusive) {
+                        return lookup;
+                    }
+                }
+                return null;
+            }
+
+            @Nullable
+            private PsiElement resolve(@NotNull PhpDocRef reference) {
+                final List<PsiReference> references = Arrays.asList(reference.getReferences());
+                if (!references.isEmpty()) {
+                    Collections.reverse(references);
+                    return OpenapiResolveUtil.resolveReference(references.get(0));
+                }
+                return null;
+            }
+
+            private boolean isCoveredEntityExisting(@NotNull PhpDocRef reference) {
+                final String referenceText   = reference.getText();
+                final boolean callableNeeded = referenceText.contains("::");
+
+                /* fully qualified classes and methods are checked against the index */
+                if (referenceText.startsWith("\\")) {
+                    final int separator = referenceText.indexOf("::");
+                    final String fqn    = separator == -1 ? referenceText : referenceText.substring(0, separator);
+                    final String member = separator == -1 ? "" : referenceText.substring(separator + 2);
+                    if (PhpUnitMetadataUtil.getClass(fqn, holder.getProject()) != null) {
+                        if (member.isEmpty()) {
+                            return true;
+                        } else if (PhpUnitMetadataUtil.isMethodName(member)) {
+                            final PhpUnitMetadataUtil.MethodLookup lookup
+                                    = PhpUnitMetadataUtil.findMethod(fqn, member, holder.getProject());
+                            if (lookup.method != null || lookup.isConclusive) {
+                                return lookup.method != null;
+                            }
+                        }
+                    }
+                }
+
+                /* resolve references, populate information about provided entries */
+                final List<PsiReference> references = Arrays.asList(reference.getReferences());
+                Collections.reverse(references);
+                boolean hasCallableReference = false;
+                boolean hasClassReference    = false;
+                for (final PsiReference ref : references) {
+                    final PsiElement resolved = OpenapiResolveUtil.resolveReference(ref);
+                    if (resolved instanceof PhpClass) {
+                        hasClassReference    = true;
+                        hasCallableReference = referenceText.endsWith("::");
+                        break;
+                    } else if (resolved instanceof Function) {
+                        hasCallableReference = true;
+                        hasClassReference    = resolved instanceof Method;
+                        break;
+                    }
+                }
+                return callableNeeded ? hasCallableReference : hasClassReference;
+            }
+
+            @Override
+            public Collection<String> getMethodReferenceNames() {
+                return Arrays.asList("assert*", "expects", "will");
             }
 
             @Override
@@ -4,10 +4,10 @@ import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.jetbrains.php.config.PhpLanguageFeature;
 import com.jetbrains.php.config.PhpLanguageLevel;
-import com.jetbrains.php.config.PhpProjectConfigurationFacade;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.PhpUnitAssertFixer;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
@@ -54,7 +54,7 @@ final public class AssertInstanceOfStrategy {
                         String classDefinition = clazz.getText();
                         if (clazz instanceof ClassReference) {
                             final PhpLanguageLevel php
-                                    = PhpProjectConfigurationFacade.getInstance(holder.getProject()).getLanguageLevel();
+                                    = ProjectSettingsSnapshot.of(holder.getProject()).languageLevel;
                             if (php.hasFeature(PhpLanguageFeature.CLASS_NAME_CONST)) {
                                 classDefinition = clazz.getText() + "::class";
                             } else {
@@ -99,7 +99,7 @@ final public class AssertInstanceOfStrategy {
                                     /* prepare class definition which can be used for QF-ing */
                                     final String fqn = '\\' + contents.replaceAll("\\\\\\\\", "\\\\");
                                     final PhpLanguageLevel php
-                                            = PhpProjectConfigurationFacade.getInstance(holder.getProject()).getLanguageLevel();
+                                            = ProjectSettingsSnapshot.of(holder.getProject()).languageLevel;
                                     final String classDefinition;
                                     if (php.hasFeature(PhpLanguageFeature.CLASS_NAME_CONST)) {
                                         classDefinition = fqn + "::class";
@@ -7,6 +7,7 @@ import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.apiUsage.FunctionCallCheckStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.apiUsage.PlainApiUseCheckStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.classesStrategy.ShortClassDefinitionStrategy;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.explosiveStrategy.CatastrophicBacktrackingCheckStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.explosiveStrategy.GreedyCharactersSetCheckStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.explosiveStrategy.QuantifierCompoundsQuantifierCheckStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.modifiersStrategy.*;
@@ -16,8 +17,12 @@ import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.opti
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexParser;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTree;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTreeCache;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -64,6 +69,11 @@ public class NotOptimalRegularExpressionsInspector extends BasePhpInspection {
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
             @Deprecated
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
                 if (functionName != null && functions.contains(functionName)) {
@@ -146,9 +156,12 @@ public class NotOptimalRegularExpressionsInspector extends BasePhpInspection {
                  */
                 DeprecatedModifiersCheckStrategy.apply(modifiers, target, holder);
                 AllowedModifierCheckStrategy.apply(modifiers, target, holder);
-                UselessDollarEndOnlyModifierStrategy.apply(modifiers, regex, target, holder);
-                UselessDotAllModifierCheckStrategy.apply(modifiers, regex, target, holder);
-                UselessIgnoreCaseModifierCheckStrategy.apply(modifiers, regex, target, holder);
+
+                /* the pattern is parsed once (and shared between calls), as PCRE sees it after PHP unescaping */
+                final RegexTree tree = RegexTreeCache.get(RegexParser.unescape(regex, target.isSingleQuote()), modifiers);
+                UselessDollarEndOnlyModifierStrategy.apply(modifiers, tree, target, holder);
+                UselessDotAllModifierCheckStrategy.apply(modifiers, tree, target, holder);
+                UselessIgnoreCaseModifierCheckStrategy.apply(modifiers, tree, target, holder);
 
                 /* Classes shortening (done):
                  * + [0-9] => \d
@@ -158,7 +171,7 @@ public class NotOptimalRegularExpressionsInspector extends BasePhpInspection {
                  * + [^\w] => \W
                  * + [^\s] => \S
                  */
-                ShortClassDefinitionStrategy.apply(modifiers, regex, target, holder);
+                ShortClassDefinitionStrategy.apply(modifiers, tree, target, holder);
 
                 /* Optimizations:
                  * (...) => (?:...) (if there is no back-reference)
@@ -173,19 +186,22 @@ public class NotOptimalRegularExpressionsInspector extends BasePhpInspection {
                  *
                  * + greedy character classes [\d\w][\D\W]
                  * + dangerous (a+)+ pattern
+                 * + exponential/polynomial backtracking (ambiguous loops in the pattern automaton)
                  */
-                SequentialClassesCollapseCheckStrategy.apply(regex, target, holder);
-                AmbiguousAnythingTrimCheckStrategy.apply(functionName, reference, regex, target, holder);
+                SequentialClassesCollapseCheckStrategy.apply(tree, target, holder);
+                AmbiguousAnythingTrimCheckStrategy.apply(functionName, reference, tree, target, holder);
                 //NonGreedyTransformCheckStrategy.apply(regex, target, holder);
-                GreedyCharactersSetCheckStrategy.apply(regex, target, holder);
-                QuantifierCompoundsQuantifierCheckStrategy.apply(regex, target, holder);
+                GreedyCharactersSetCheckStrategy.apply(tree, target, holder);
+                if (!QuantifierCompoundsQuantifierCheckStrategy.apply(tree, target, holder)) {
+                    CatastrophicBacktrackingCheckStrategy.apply(tree, target, holder);
+                }
 
                 /*
                  * Probably bugs:
                  *  - nested tags check without /s
                  *  - unicode characters without /u
                  */
-                MissingDotAllCheckStrategy.apply(modifiers, regex, target, holder);
+                MissingDotAllCheckStrategy.apply(modifiers, tree, target, holder);
                 MissingUnicodeModifierStrategy.apply(modifiers, regex, target, holder);
             }
 
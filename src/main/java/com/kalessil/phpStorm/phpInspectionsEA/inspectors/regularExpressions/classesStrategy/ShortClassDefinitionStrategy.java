@@ -3,11 +3,15 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.cla
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexNode;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTree;
 import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class ShortClassDefinitionStrategy {
     private static final String messagePattern = "'%p%' can be replaced with '%r%' (%h%).";
@@ -29,19 +33,24 @@ public class ShortClassDefinitionStrategy {
         mapping.put("[^\\s]",        "\\S");
     }
 
-    static public void apply(final String modifiers, final String pattern, @NotNull final StringLiteralExpression target, @NotNull final ProblemsHolder holder) {
-        if (!StringUtils.isEmpty(pattern)) {
+    static public void apply(final String modifiers, @NotNull final RegexTree tree, @NotNull final StringLiteralExpression target, @NotNull final ProblemsHolder holder) {
+        if (!tree.pattern.isEmpty()) {
             final boolean isUnicodeMode = !StringUtils.isEmpty(modifiers) && modifiers.indexOf('u') != -1;
             final String safetyHint     = isUnicodeMode ? "risky, will match extended sets due to /u" : "safe in non-unicode mode";
 
-            /* normalize only first found cases - sufficient for reporting */
-            final String patternAdapted = pattern
-                    .replace("a-zA-Z",    "A-Za-z")
-                    .replace("0-9A-Za-z", "A-Za-z0-9");
+            /* whole classes and POSIX classes (also [:digit:] outside of a class, which PCRE parses as a class) */
+            final Set<String> classes = new HashSet<>();
+            tree.accept(node -> {
+                if (node.is(RegexNode.Kind.CLASS)) {
+                    classes.add(node.text.replace("a-zA-Z", "A-Za-z").replace("0-9A-Za-z", "A-Za-z0-9"));
+                } else if (node.is(RegexNode.Kind.POSIX)) {
+                    classes.add(node.text);
+                }
+            });
 
             for (Map.Entry<String, String> replacement : mapping.entrySet()) {
                 final String wildcard = replacement.getKey();
-                if (patternAdapted.contains(wildcard)) {
+                if (classes.contains(wildcard)) {
                     final String message = messagePattern
                             .replace("%p%", wildcard)
                             .replace("%r%", replacement.getValue())
@@ -50,6 +59,7 @@ public class ShortClassDefinitionStrategy {
                     holder.registerProblem(target, message, ProblemHighlightType.WEAK_WARNING);
                 }
             }
+            classes.clear();
 
             //TODO: handle [0-9,] and similar cases when classes are part of allowed/escaped sets
         }
@@ -0,0 +1,43 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.explosiveStrategy;
+
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.BacktrackingAnalyzer;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTree;
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+final public class CatastrophicBacktrackingCheckStrategy {
+    private static final String messageExponential = "Exponential backtracking on '%s' followed by repeated '%s' might be exploited (ReDoS, Regular Expression Denial of Service).";
+    private static final String messagePolynomial  = "O(n^%d) backtracking on '%s' followed by repeated '%s' might be exploited (ReDoS, Regular Expression Denial of Service).";
+
+    static public void apply(@NotNull RegexTree tree, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
+        if (tree.pattern.indexOf('*') >= 0 || tree.pattern.indexOf('+') >= 0 || tree.pattern.indexOf('{') >= 0) {
+            final BacktrackingAnalyzer.Result result = BacktrackingAnalyzer.analyze(tree);
+            if (result != null) {
+                if (result.complexity == BacktrackingAnalyzer.Complexity.EXPONENTIAL) {
+                    holder.registerProblem(
+                            target,
+                            String.format(messageExponential, result.prefix, result.pump),
+                            ProblemHighlightType.GENERIC_ERROR
+                    );
+                } else {
+                    holder.registerProblem(
+                            target,
+                            String.format(messagePolynomial, result.degree, result.prefix, result.pump),
+                            ProblemHighlightType.WEAK_WARNING
+                    );
+                }
+            }
+        }
+    }
+}
@@ -3,11 +3,10 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.exp
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexNode;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTree;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -18,33 +17,29 @@ import java.util.regex.Pattern;
  */
 
 final public class GreedyCharactersSetCheckStrategy {
-    private static final String messagePattern = "[%s] is 'greedy'. Please remove %s as it's a subset of %s.";
-
-    final static private Pattern regexGreedyCharacterSet;
-    static {
-        // Original regex: \[([^\[\]]+)\]
-        regexGreedyCharacterSet = Pattern.compile("\\[([^\\[\\]]+)\\]");
-    }
+    private static final String messagePattern = "%s is 'greedy'. Please remove %s as it's a subset of %s.";
 
-    static public void apply(@NotNull String pattern, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
-        if (!pattern.isEmpty() && pattern.indexOf('[') >= 0) {
-            final Matcher regexMatcher = regexGreedyCharacterSet.matcher(pattern);
-            while (regexMatcher.find()) {
-                final String set = regexMatcher.group(1);
-                if (set.contains("\\w") && set.contains("\\d")) {
+    static public void apply(@NotNull RegexTree tree, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
+        if (tree.pattern.indexOf('[') >= 0) {
+            for (final RegexNode set : tree.findAll(RegexNode.Kind.CLASS)) {
+                if (hasShorthand(set, 'w') && hasShorthand(set, 'd')) {
                     holder.registerProblem(
                             target,
-                            String.format(messagePattern, set, "\\d", "\\w"),
+                            String.format(messagePattern, set.text, "\\d", "\\w"),
                             ProblemHighlightType.GENERIC_ERROR
                     );
-                } else if (set.contains("\\W") && set.contains("\\D")) {
+                } else if (hasShorthand(set, 'W') && hasShorthand(set, 'D')) {
                     holder.registerProblem(
                             target,
-                            String.format(messagePattern, set, "\\D", "\\W"),
+                            String.format(messagePattern, set.text, "\\D", "\\W"),
                             ProblemHighlightType.GENERIC_ERROR
                     );
                 }
             }
         }
     }
+
+    static private boolean hasShorthand(@NotNull RegexNode set, char letter) {
+        return set.getChildren().stream().anyMatch(item -> item.isShorthand(letter));
+    }
 }
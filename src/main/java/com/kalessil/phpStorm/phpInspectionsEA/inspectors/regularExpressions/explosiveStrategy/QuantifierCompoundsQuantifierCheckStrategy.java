@@ -3,25 +3,13 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.exp
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexNode;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTree;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-/*
- * Recognize (A+)* pattern.
- * See details here: http://www.rexegg.com/regex-explosive-quantifiers.html#compound
- *
- * Whenever you see that a quantifier applies to a token that is already quantified, as in (A+)*,
- * there is potential for the number of steps to explode.
- * Often, the "compounding quantifier" pattern happens when the outside quantifier applies to an alternation,
- * as in (?:\D+|0(?!1))*. Unless you pay attention, you can miss that the (\D+…)* constitutes an explosive quantifier.
- *
- * The lesson here is that when a quantifier needs to apply to another quantifier, we need to prevent the engine
- * from backtracking. We achieve this either by:
- * - making the outer quantifier possessive, e.g. (?:\D+|0(?!1))*+ or
- * - enclosing the expression in an atomic group, e.g. (?>(?:\D+|0(?!1))*)
- */
+import java.util.Collections;
+import java.util.List;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -35,45 +23,54 @@ import java.util.regex.Pattern;
 final public class QuantifierCompoundsQuantifierCheckStrategy {
     private static final String messagePattern = "( %s )%s might be exploited (ReDoS, Regular Expression Denial of Service).";
 
-    final static private Pattern regexGroupsToSkip;
-    final static private Pattern regexOuterGroup;
-    static {
-        // Original regex: 	([^\\])(\([^()]*[^\\]\))([^+*])
-        regexGroupsToSkip = Pattern.compile("([^\\\\])(\\([^()]*[^\\\\]\\))([^+*])");
-        // Original regex: 	(^|[^>])\(([^()]+)\)([+*])([^+]|$)
-        regexOuterGroup   = Pattern.compile("(^|[^>])\\(([^()]+)\\)([+*])([^+]|$)");
-    }
-
-    static public void apply(@NotNull String pattern, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
-        if (!pattern.isEmpty()) {
-            /* get rid of un-captured groups markers */
-            String normalizedPattern = pattern.replaceAll("\\(\\?:", "(");
-            /* get rid of nested groups */
-            while (regexGroupsToSkip.matcher(normalizedPattern).find()) {
-                final Matcher matcher = regexGroupsToSkip.matcher(normalizedPattern);
-                if (matcher.find()) {
-                    final String fragment = matcher.group(0);
-                    if (fragment != null) {
-                        normalizedPattern = normalizedPattern.replace(fragment, matcher.group(1) + matcher.group(3));
-                    }
+    static public boolean apply(@NotNull RegexTree tree, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
+        boolean result = false;
+        if (tree.pattern.indexOf('(') >= 0) {
+            for (final RegexNode outer : tree.findAll(RegexNode.Kind.QUANTIFIER)) {
+                /* (...)* and (...)+, atomic groups and possessive quantifiers are not backtracking */
+                final RegexNode group = outer.getSubject();
+                if (
+                    group == null || !group.is(RegexNode.Kind.GROUP) || !isStarOrPlus(outer) || outer.isPossessive ||
+                    outer.hasAncestor(node -> node.groupKind == RegexNode.GroupKind.ATOMIC)
+                ) {
+                    continue;
                 }
-            }
-            final Matcher matcher = regexOuterGroup.matcher(normalizedPattern);
-            while (matcher.find()) {
-                final String fragment = matcher.group(2);
-                if (fragment != null) {
-                    for (final String candidate : fragment.split("\\|")) {
-                        if (!candidate.isEmpty() && candidate.matches("^\\\\[dDwWsS][*+]$")) {
-                            holder.registerProblem(
-                                    target,
-                                    String.format(messagePattern, candidate, matcher.group(3)),
-                                    ProblemHighlightType.GENERIC_ERROR
-                            );
-                            break;
-                        }
+                for (final RegexNode branch : getBranches(group)) {
+                    final List<RegexNode> items = branch.getChildren();
+                    final RegexNode inner       = items.size() == 1 ? items.get(0) : null;
+                    if (inner != null && isStarOrPlus(inner) && isShorthandClass(inner.getSubject())) {
+                        holder.registerProblem(
+                                target,
+                                String.format(messagePattern, inner.text, outer.text.substring(group.text.length())),
+                                ProblemHighlightType.GENERIC_ERROR
+                        );
+                        result = true;
+                        break;
                     }
                 }
             }
         }
+        return result;
+    }
+
+    @NotNull
+    static private List<RegexNode> getBranches(@NotNull RegexNode group) {
+        final List<RegexNode> children = group.getChildren();
+        if (group.groupKind == RegexNode.GroupKind.CAPTURING || group.groupKind == RegexNode.GroupKind.NON_CAPTURING) {
+            final RegexNode body = children.isEmpty() ? null : children.get(0);
+            if (body != null) {
+                return body.is(RegexNode.Kind.ALTERNATION) ? body.getChildren() : Collections.singletonList(body);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    static private boolean isStarOrPlus(@NotNull RegexNode quantifier) {
+        return quantifier.is(RegexNode.Kind.QUANTIFIER) && quantifier.min <= 1 && quantifier.isUnbounded() &&
+               quantifier.text.matches("(?s).*[*+]\\??$");
+    }
+
+    static private boolean isShorthandClass(@Nullable RegexNode node) {
+        return node != null && node.is(RegexNode.Kind.SHORTHAND) && "dDwWsS".indexOf(node.value) != -1;
     }
 }
@@ -3,11 +3,12 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.mod
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexNode;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTree;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -21,22 +22,35 @@ import java.util.regex.Pattern;
 final public class MissingDotAllCheckStrategy {
     private static final String message = "/s modifier is probably missing (not matching multiline tag content).";
 
-    final static private Pattern regexTagContentPattern;
-    static {
-        regexTagContentPattern = Pattern.compile(".*>\\.[*+](\\?)?<.*");
-    }
-
     static public void apply(
             @Nullable String modifiers,
-            @Nullable String pattern,
+            @NotNull RegexTree tree,
             @NotNull StringLiteralExpression target,
             @NotNull final ProblemsHolder holder
     ) {
-        if ((modifiers == null || modifiers.indexOf('s') == -1) && pattern != null && pattern.indexOf('>') != -1) {
-            final Matcher matcher = regexTagContentPattern.matcher(pattern);
-            if (matcher.matches()) {
+        if ((modifiers == null || modifiers.indexOf('s') == -1) && tree.pattern.indexOf('>') != -1) {
+            /* >.*<, >.+<, >.*?< and >.+?< inside of any sequence */
+            final boolean isTagContent = tree.findAll(RegexNode.Kind.SEQUENCE).stream().anyMatch(sequence -> {
+                final List<RegexNode> items = sequence.getChildren();
+                for (int index = 1; index + 1 < items.size(); ++index) {
+                    final RegexNode content = items.get(index);
+                    final RegexNode subject = content.getSubject();
+                    if (
+                        subject != null && subject.is(RegexNode.Kind.DOT) && content.isUnbounded() && content.min <= 1 &&
+                        isLiteral(items.get(index - 1), '>') && isLiteral(items.get(index + 1), '<')
+                    ) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+            if (isTagContent) {
                 holder.registerProblem(target, message, ProblemHighlightType.WEAK_WARNING);
             }
         }
     }
+
+    static private boolean isLiteral(@NotNull RegexNode node, char symbol) {
+        return node.is(RegexNode.Kind.LITERAL) && node.value == symbol;
+    }
 }
@@ -3,6 +3,8 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.mod
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexNode;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTree;
 import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -10,15 +12,14 @@ public class UselessDollarEndOnlyModifierStrategy {
     private static final String strProblemDescription = "'D' modifier is ambiguous here (no $ in given pattern).";
     private static final String strProblemIgnored     = "'D' modifier will be ignored because of 'm'.";
 
-    static public void apply(final String modifiers, final String pattern, @NotNull final StringLiteralExpression target, @NotNull final ProblemsHolder holder) {
-        if (!StringUtils.isEmpty(modifiers) && !StringUtils.isEmpty(pattern) && modifiers.indexOf('D') >= 0) {
+    static public void apply(final String modifiers, @NotNull final RegexTree tree, @NotNull final StringLiteralExpression target, @NotNull final ProblemsHolder holder) {
+        if (!StringUtils.isEmpty(modifiers) && !tree.pattern.isEmpty() && modifiers.indexOf('D') >= 0) {
             if (modifiers.indexOf('m') >= 0) {
                 holder.registerProblem(target, strProblemIgnored, ProblemHighlightType.WEAK_WARNING);
                 return;
             }
 
-            int countEnds = StringUtils.countMatches(pattern, "$") - StringUtils.countMatches(pattern, "\\$");
-            if (0 == countEnds) {
+            if (!tree.anyMatch(node -> node.is(RegexNode.Kind.ANCHOR) && node.value == '$')) {
                 holder.registerProblem(target, strProblemDescription, ProblemHighlightType.WEAK_WARNING);
             }
         }
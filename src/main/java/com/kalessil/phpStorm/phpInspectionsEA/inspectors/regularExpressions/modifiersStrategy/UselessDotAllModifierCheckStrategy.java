@@ -3,7 +3,8 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.mod
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
-import org.apache.commons.lang.StringUtils;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexNode;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTree;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -21,13 +22,13 @@ final public class UselessDotAllModifierCheckStrategy {
 
     static public void apply(
             @Nullable String modifiers,
-            @Nullable String pattern,
+            @NotNull  RegexTree tree,
             @NotNull  StringLiteralExpression target,
             @NotNull  ProblemsHolder holder
     ) {
-        if (modifiers != null && pattern != null && !pattern.isEmpty() && modifiers.indexOf('s') != -1) {
-            final String normalized = pattern.replaceAll("\\[[^\\]]+\\]", "");
-            if (StringUtils.countMatches(normalized, ".") - StringUtils.countMatches(normalized, "\\.") == 0) {
+        if (modifiers != null && !tree.pattern.isEmpty() && modifiers.indexOf('s') != -1) {
+            /* dots inside of classes and escaped dots are literals, not parsed as DOT nodes */
+            if (!tree.anyMatch(node -> node.is(RegexNode.Kind.DOT))) {
                 holder.registerProblem(target, message, ProblemHighlightType.WEAK_WARNING);
             }
         }
@@ -3,6 +3,8 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.mod
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexNode;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTree;
 import org.jetbrains.annotations.NotNull;
 
 /*
@@ -17,12 +19,36 @@ import org.jetbrains.annotations.NotNull;
 public class UselessIgnoreCaseModifierCheckStrategy {
     private static final String message = "'i' modifier is ambiguous here (no alphabet characters in given pattern).";
 
-    static public void apply(final String modifiers, final String pattern, @NotNull final StringLiteralExpression target, @NotNull final ProblemsHolder holder) {
-        if (modifiers != null && !modifiers.isEmpty() && modifiers.indexOf('i') != -1) {
-            final boolean check = pattern != null && !pattern.isEmpty();
-            if (check && !pattern.replaceAll("\\\\[\\\\dDwWsS]", "").matches(".*\\p{L}.*")) {
+    static public void apply(final String modifiers, @NotNull final RegexTree tree, @NotNull final StringLiteralExpression target, @NotNull final ProblemsHolder holder) {
+        if (modifiers != null && !modifiers.isEmpty() && modifiers.indexOf('i') != -1 && !tree.pattern.isEmpty()) {
+            /* \d, \w, \s and friends are case-insensitive already; properties, letter POSIX classes and back-references are not */
+            final boolean isCaseSensitive = tree.anyMatch(node ->
+                    isLetter(node) ||
+                    node.is(RegexNode.Kind.BACKREFERENCE) ||
+                    (node.is(RegexNode.Kind.POSIX) && isLettersClass(node)) ||
+                    node.isShorthand('p') || node.isShorthand('P') ||
+                    (node.is(RegexNode.Kind.RANGE) && hasLetters(node))
+            );
+            if (!isCaseSensitive) {
                 holder.registerProblem(target, message, ProblemHighlightType.WEAK_WARNING);
             }
         }
     }
+
+    static private boolean isLetter(@NotNull RegexNode node) {
+        return node.is(RegexNode.Kind.LITERAL) && Character.isLetter(node.value);
+    }
+
+    /* [:upper:], [:lower:] and [:alpha:], negated ones included */
+    static private boolean isLettersClass(@NotNull RegexNode posix) {
+        final String name = posix.text.replaceAll("^\\[:\\^?|:]$", "");
+        return name.equals("upper") || name.equals("lower") || name.equals("alpha");
+    }
+
+    /* e.g. [!-~] has no letter bounds, but covers both alphabets */
+    static private boolean hasLetters(@NotNull RegexNode range) {
+        final int from = range.getChildren().get(0).value;
+        final int to   = range.getChildren().get(1).value;
+        return to > 0x7F || (from <= 'z' && to >= 'a') || (from <= 'Z' && to >= 'A');
+    }
 }
@@ -4,8 +4,13 @@ import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexNode;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTree;
 import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
 
 final public class AmbiguousAnythingTrimCheckStrategy {
     private static final String strProblemLeading  = "Leading .* can be removed.";
@@ -14,26 +19,34 @@ final public class AmbiguousAnythingTrimCheckStrategy {
     static public void apply(
             final String functionName,
             @NotNull final FunctionReference reference,
-            final String pattern,
+            @NotNull final RegexTree tree,
             @NotNull final StringLiteralExpression target,
             @NotNull final ProblemsHolder holder
     ) {
         if (
             2 == reference.getParameters().length &&
-            !StringUtils.isEmpty(pattern) &&
+            !tree.pattern.isEmpty() &&
             !StringUtils.isEmpty(functionName) && functionName.startsWith("preg_match")
         ) {
-            int countBackRefs = StringUtils.countMatches(pattern, "\\0") - StringUtils.countMatches(pattern, "\\\\0");
-            if (countBackRefs > 0) {
+            /* PCRE parses \0 as an octal escape, it is treated here as a reference to the whole match */
+            final boolean hasWholeMatchReference = tree.anyMatch(node -> node.is(RegexNode.Kind.LITERAL) && node.text.equals("\\0"));
+            if (hasWholeMatchReference || !tree.root.is(RegexNode.Kind.SEQUENCE)) {
                 return;
             }
 
-            if (pattern.startsWith(".*")) {
+            final List<RegexNode> items = tree.root.getChildren();
+            if (!items.isEmpty() && isAnything(items.get(0))) {
                 holder.registerProblem(target, strProblemLeading, ProblemHighlightType.WEAK_WARNING);
             }
-            if (pattern.endsWith(".*")) {
+            if (!items.isEmpty() && isAnything(items.get(items.size() - 1))) {
                 holder.registerProblem(target, strProblemTrailing, ProblemHighlightType.WEAK_WARNING);
             }
         }
     }
+
+    /* .* and .*?, but not .*+ (possessive matching affects the rest of the pattern) */
+    static private boolean isAnything(@Nullable RegexNode node) {
+        final RegexNode subject = node == null ? null : node.getSubject();
+        return subject != null && subject.is(RegexNode.Kind.DOT) && node.min == 0 && node.isUnbounded() && !node.isPossessive;
+    }
 }
@@ -3,33 +3,50 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.opt
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
-import org.apache.commons.lang.StringUtils;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexNode;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTree;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 
 final public class SequentialClassesCollapseCheckStrategy {
     private static final String strProblemDescription = "'%p%' can be replaced with '%r%{...}'.";
 
-    final static private Pattern regexRepeatedClasses;
-    static {
-        regexRepeatedClasses = Pattern.compile("((\\[([^\\]]+)\\])(\\*|\\+|\\?|\\{[^\\}]+\\})?\\2(\\*|\\+|\\?|\\{[^\\}]+\\})?)+");
-    }
-
     static public void apply(
-            final String pattern,
+            @NotNull final RegexTree tree,
             @NotNull final StringLiteralExpression target,
             @NotNull final ProblemsHolder holder
     ) {
-        if (!StringUtils.isEmpty(pattern) && pattern.indexOf('[') >= 0) {
-            Matcher regexMatcher = regexRepeatedClasses.matcher(pattern);
-            if (regexMatcher.find()) {
-                String strError = strProblemDescription
-                        .replace("%p%", regexMatcher.group(0))
-                        .replace("%r%", regexMatcher.group(2));
-                holder.registerProblem(target, strError, ProblemHighlightType.WEAK_WARNING);
+        if (tree.pattern.indexOf('[') >= 0) {
+            /* the first run of the same (optionally quantified) class: [seq][seq]+, [seq]?[seq] and so on */
+            for (final RegexNode sequence : tree.findAll(RegexNode.Kind.SEQUENCE)) {
+                final List<RegexNode> items = sequence.getChildren();
+                for (int index = 0; index + 1 < items.size(); ++index) {
+                    final RegexNode first = getClass(items.get(index));
+                    if (first != null && isSameClass(first, getClass(items.get(index + 1)))) {
+                        int last = index + 1;
+                        while (last + 1 < items.size() && isSameClass(first, getClass(items.get(last + 1)))) {
+                            ++last;
+                        }
+                        final String strError = strProblemDescription
+                                .replace("%p%", tree.pattern.substring(items.get(index).start, items.get(last).end))
+                                .replace("%r%", first.text);
+                        holder.registerProblem(target, strError, ProblemHighlightType.WEAK_WARNING);
+                        return;
+                    }
+                }
             }
         }
     }
+
+    @Nullable
+    static private RegexNode getClass(@NotNull RegexNode node) {
+        final RegexNode subject = node.is(RegexNode.Kind.QUANTIFIER) ? node.getSubject() : node;
+        return subject != null && subject.is(RegexNode.Kind.CLASS) ? subject : null;
+    }
+
+    static private boolean isSameClass(@NotNull RegexNode first, @Nullable RegexNode second) {
+        return second != null && first.text.equals(second.text);
+    }
 }
@@ -33,10 +33,14 @@ public class EncryptionInitializationVectorRandomnessInspector extends BasePhpIn
 
     @NotNull
     private static final HashSet<String> secureFunctions = new HashSet<>();
+    private static final Set<String> functions           = new HashSet<>();
     static {
         secureFunctions.add("random_bytes");
         secureFunctions.add("openssl_random_pseudo_bytes");
         secureFunctions.add("mcrypt_create_iv");
+
+        functions.add("openssl_encrypt");
+        functions.add("mcrypt_encrypt");
     }
 
     @NotNull
@@ -48,11 +52,16 @@ public class EncryptionInitializationVectorRandomnessInspector extends BasePhpIn
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
                 /* variable functions are not supported, as we are checking 2 different extensions functions */
-                if (functionName != null && (functionName.equals("openssl_encrypt") || functionName.equals("mcrypt_encrypt"))) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length != 5 || arguments[4] == null || arguments[4].getText().isEmpty()) {
                         return;
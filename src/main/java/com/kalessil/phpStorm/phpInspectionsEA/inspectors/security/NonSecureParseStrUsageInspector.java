@@ -9,6 +9,11 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -19,7 +24,8 @@ import org.jetbrains.annotations.NotNull;
  */
 
 public class NonSecureParseStrUsageInspector  extends BasePhpInspection {
-    private static final String message = "Please provide second parameter to not influence globals.";
+    private static final String message        = "Please provide second parameter to not influence globals.";
+    private static final Set<String> functions = new HashSet<>(Arrays.asList("parse_str", "mb_parse_str"));
 
     @NotNull
     public String getShortName() {
@@ -30,10 +36,15 @@ public class NonSecureParseStrUsageInspector  extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && (functionName.equals("parse_str") || functionName.equals("mb_parse_str"))) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 1) {
                         holder.registerProblem(reference, message, ProblemHighlightType.GENERIC_ERROR);
@@ -13,6 +13,8 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.PossibleValuesDiscoveryUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -33,6 +35,7 @@ public class PotentialMalwareInspector extends LocalInspectionTool {
 
     private static final HashSet<String> evalSuspects   = new HashSet<>();
     private static final HashSet<String> decodeSuspects = new HashSet<>();
+    private static final Set<String> functions          = new HashSet<>(Arrays.asList("touch", "get_defined_functions"));
     static {
         evalSuspects.add("base64_decode");
         evalSuspects.add("gzinflate");
@@ -60,10 +63,15 @@ public class PotentialMalwareInspector extends LocalInspectionTool {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null) {
+                if (functionName != null && functions.contains(functionName)) {
                     if (functionName.equals("touch")) {
                         final PsiElement[] arguments = reference.getParameters();
                         if (arguments.length == 3) {
@@ -1,7 +1,9 @@
 package com.kalessil.phpStorm.phpInspectionsEA.inspectors.security;
 
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
 import com.intellij.codeInspection.*;
 import com.intellij.json.psi.*;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.InvalidDataException;
 import com.intellij.psi.PsiElement;
@@ -11,6 +13,9 @@ import com.intellij.psi.SmartPsiElementPointer;
 import com.intellij.psi.impl.source.tree.LeafPsiElement;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.composer.AdvisoriesDatabase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.composer.ComposerLock;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.composer.ComposerManifest;
 import org.jdom.Element;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -31,10 +36,13 @@ public class SecurityAdvisoriesInspector extends LocalInspectionTool {
     private static final String message       = "Please add roave/security-advisories:dev-master into require-dev as a firewall for vulnerable components.";
     private static final String useMaster     = "Please use dev-master instead.";
     private static final String useRequireDev = "Dev-packages have no security guaranties, invoke the package via require-dev instead.";
+    private static final String vulnerable    = "'%s' is locked at %s, affected by a known vulnerability: %s.";
 
     // Inspection options.
     public boolean REPORT_MISSING_ROAVE_ADVISORIES = true;
     public boolean REPORT_MISPLACED_DEPENDENCIES   = true;
+    public boolean REPORT_VULNERABLE_PACKAGES      = true;
+    public String ADVISORIES_DATABASE              = "";
     public final List<String> optionConfiguration  = new ArrayList<>();
 
     public static Collection<String> optionConfigurationDefaults() {
@@ -114,6 +122,8 @@ public class SecurityAdvisoriesInspector extends LocalInspectionTool {
         return OptionsComponent.create((component) -> {
             component.addCheckbox("Report missing 'roave/security-advisories'", REPORT_MISSING_ROAVE_ADVISORIES, (isSelected) -> REPORT_MISSING_ROAVE_ADVISORIES = isSelected);
             component.addCheckbox("Report dev-packages in require-section", REPORT_MISPLACED_DEPENDENCIES, (isSelected) -> REPORT_MISPLACED_DEPENDENCIES = isSelected);
+            component.addCheckbox("Report vulnerable locked packages", REPORT_VULNERABLE_PACKAGES, (isSelected) -> REPORT_VULNERABLE_PACKAGES = isSelected);
+            component.addText("Advisories database directory:", ADVISORIES_DATABASE, (path) -> ADVISORIES_DATABASE = path);
 
             component.addList(
                 "Development packages:",
@@ -140,57 +150,15 @@ public class SecurityAdvisoriesInspector extends LocalInspectionTool {
         Collections.sort(optionConfiguration);
     }
 
-    private boolean isLibrary(@NotNull JsonObject manifest) {
-        boolean result              = false;
-        final JsonProperty property = manifest.findProperty("type");
-        if (property != null) {
-            final JsonValue value = property.getValue();
-            result = value instanceof JsonStringLiteral && ((JsonStringLiteral) value).getValue().equals("library");
-        }
-        return result;
-    }
-
     @Nullable
-    private String getVendorName(@NotNull JsonObject manifest) {
-        String result               = null;
-        final JsonProperty property = manifest.findProperty("name");
-        if (property != null) {
-            final JsonValue value = property.getValue();
-            if (value instanceof JsonStringLiteral) {
-                final String packageName = ((JsonStringLiteral) value).getValue();
-                if (optionConfiguration.contains(packageName)) {
-                    result = packageName;
-                } else if (packageName.indexOf('/') != -1) {
-                    result = packageName.substring(0, packageName.indexOf('/') + 1);
-                }
-            }
-        }
-        return result;
-    }
-
-    @Nullable
-    private JsonProperty getPackagesGroup(@NotNull JsonObject manifest, @NotNull String name) {
-        JsonProperty result         = null;
-        final JsonProperty property = manifest.findProperty(name);
-        if (property != null) {
-            final JsonValue value = property.getValue();
-            if (value instanceof JsonObject) {
-                result = property;
-            }
-        }
-        return result;
-    }
-
-    @NotNull
-    private Map<JsonProperty, JsonStringLiteral> getPackages(@NotNull JsonProperty group) {
-        Map<JsonProperty, JsonStringLiteral> result = new HashMap<>();
-        final JsonValue value                       = group.getValue();
-        if (value instanceof JsonObject) {
-            for (final JsonProperty entry : ((JsonObject) value).getPropertyList()) {
-                final JsonValue version = entry.getValue();
-                if (version instanceof JsonStringLiteral) {
-                    result.put(entry, (JsonStringLiteral) version);
-                }
+    private String getVendorName(@NotNull ComposerManifest manifest) {
+        String result            = null;
+        final String packageName = manifest.name;
+        if (packageName != null) {
+            if (optionConfiguration.contains(packageName)) {
+                result = packageName;
+            } else if (packageName.indexOf('/') != -1) {
+                result = packageName.substring(0, packageName.indexOf('/') + 1);
             }
         }
         return result;
@@ -200,69 +168,56 @@ public class SecurityAdvisoriesInspector extends LocalInspectionTool {
     @Nullable
     public ProblemDescriptor[] checkFile(@NotNull final PsiFile file, @NotNull final InspectionManager manager, final boolean isOnTheFly) {
         /* verify file name and its validity */
-        if (!"composer.json".equals(file.getName()) || !(file.getFirstChild() instanceof JsonObject)) {
+        final ComposerManifest manifest = ComposerManifest.of(file);
+        if (manifest == null) {
             return null;
         }
-        final JsonObject manifest = (JsonObject) file.getFirstChild();
+
+        /* locked versions are vulnerable regardless of the package type or owner */
+        final ProblemsHolder holder = new ProblemsHolder(manager, file, isOnTheFly);
+        if (REPORT_VULNERABLE_PACKAGES && !ADVISORIES_DATABASE.isEmpty()) {
+            this.checkLockedPackages(file, manifest, holder);
+        }
 
         /* skip analyzing libraries (we can break minimum stability requirements) */
-        if (this.isLibrary(manifest)) {
-            return null;
+        if (manifest.isLibrary()) {
+            return holder.getResultsArray();
         }
 
         /* identify package owner; skip analyzing dev-packages */
         final String vendorName = this.getVendorName(manifest);
         if (vendorName != null && optionConfiguration.contains(vendorName)) {
-            return null;
+            return holder.getResultsArray();
         }
 
-        final ProblemsHolder holder          = new ProblemsHolder(manager, file, isOnTheFly);
-        final JsonProperty productionRequire = this.getPackagesGroup(manifest, "require");
+        final JsonProperty productionRequire = manifest.require;
         if (productionRequire != null) {
-            boolean hasThirdPartyPackages                                 = false;
-            final Map<JsonProperty, JsonStringLiteral> productionPackages = this.getPackages(productionRequire);
-            if (!productionPackages.isEmpty()) {
-                for (final Map.Entry<JsonProperty, JsonStringLiteral> pair : productionPackages.entrySet()) {
-                    final String packageName    = pair.getKey().getName().toLowerCase();
-                    final String packageVersion = pair.getValue().getValue().toLowerCase();
-                    if (!packageName.isEmpty() && !packageVersion.isEmpty()) {
-                        /* identify usage development components */
-                        if (REPORT_MISPLACED_DEPENDENCIES && optionConfiguration.contains(packageName)) {
-                            holder.registerProblem(pair.getKey().getFirstChild(), useRequireDev);
-                        }
-                        /* identify usage of third party components */
-                        if (!hasThirdPartyPackages && packageName.indexOf('/') != -1) {
-                            hasThirdPartyPackages = vendorName == null || !packageName.startsWith(vendorName);
-                        }
-                    }
+            boolean hasThirdPartyPackages = false;
+            for (final ComposerManifest.Dependency dependency : manifest.production) {
+                final String packageName = dependency.name;
+                /* identify usage development components */
+                if (REPORT_MISPLACED_DEPENDENCIES && optionConfiguration.contains(packageName)) {
+                    holder.registerProblem(dependency.property.getFirstChild(), useRequireDev);
+                }
+                /* identify usage of third party components */
+                if (!hasThirdPartyPackages && packageName.indexOf('/') != -1) {
+                    hasThirdPartyPackages = vendorName == null || !packageName.startsWith(vendorName);
                 }
-                productionPackages.clear();
             }
 
             if (REPORT_MISSING_ROAVE_ADVISORIES) {
-                boolean hasAdvisories                 = false;
-                final JsonProperty developmentRequire = this.getPackagesGroup(manifest, "require-dev");
-                if (developmentRequire != null) {
-                    final Map<JsonProperty, JsonStringLiteral> developmentPackages = this.getPackages(developmentRequire);
-                    if (!developmentPackages.isEmpty()) {
-                        for (final Map.Entry<JsonProperty, JsonStringLiteral> pair : developmentPackages.entrySet()) {
-                            final String packageName    = pair.getKey().getName().toLowerCase();
-                            final String packageVersion = pair.getValue().getValue().toLowerCase();
-                            if (!packageName.isEmpty() && !packageVersion.isEmpty()) {
-                                if (packageName.equals("roave/security-advisories")) {
-                                    if (!packageVersion.equals("dev-master")) {
-                                        holder.registerProblem(pair.getValue(), useMaster);
-                                    }
-                                    hasAdvisories = true;
-                                    break;
-                                }
-                            }
+                boolean hasAdvisories = false;
+                for (final ComposerManifest.Dependency dependency : manifest.development) {
+                    if (dependency.name.equals("roave/security-advisories")) {
+                        if (!dependency.constraint.equals("dev-master")) {
+                            holder.registerProblem(dependency.version, useMaster);
                         }
-                        developmentPackages.clear();
+                        hasAdvisories = true;
+                        break;
                     }
                 }
                 if (!hasAdvisories && hasThirdPartyPackages) {
-                    final JsonProperty target = developmentRequire == null ? productionRequire : developmentRequire;
+                    final JsonProperty target = manifest.requireDev == null ? productionRequire : manifest.requireDev;
                     holder.registerProblem(target.getFirstChild(), message, new AddAdvisoriesFix(target));
                 }
             }
@@ -271,6 +226,43 @@ public class SecurityAdvisoriesInspector extends LocalInspectionTool {
         return holder.getResultsArray();
     }
 
+    private void checkLockedPackages(@NotNull PsiFile file, @NotNull ComposerManifest manifest, @NotNull ProblemsHolder holder) {
+        final ComposerLock lock           = ComposerLock.of(file);
+        final Project project             = file.getProject();
+        final AdvisoriesDatabase database = lock == null ? null : AdvisoriesDatabase.getSnapshot(
+                ADVISORIES_DATABASE,
+                () -> ApplicationManager.getApplication().invokeLater(() -> {
+                    /* the database has been (re-)loaded in background: re-highlight with the new snapshot */
+                    if (!project.isDisposed()) {
+                        DaemonCodeAnalyzer.getInstance(project).restart();
+                    }
+                })
+        );
+        if (database != null) {
+            for (final ComposerLock.LockedPackage locked : lock.getPackages()) {
+                final List<AdvisoriesDatabase.Advisory> advisories = database.find(locked.name, locked.version);
+                if (!advisories.isEmpty()) {
+                    /* direct dependencies are reported in place, transitive ones on the requiring section */
+                    final ComposerManifest.Dependency dependency = manifest.findDependency(locked.name);
+                    final JsonProperty section                   = locked.isDev && manifest.requireDev != null
+                            ? manifest.requireDev
+                            : (manifest.require == null ? manifest.requireDev : manifest.require);
+                    final PsiElement target = dependency != null
+                            ? dependency.property.getFirstChild()
+                            : (section == null ? null : section.getFirstChild());
+                    if (target != null) {
+                        final AdvisoriesDatabase.Advisory advisory = advisories.get(0);
+                        String reference = advisory.cve == null ? advisory.title : advisory.title + " (" + advisory.cve + ')';
+                        if (advisories.size() > 1) {
+                            reference += String.format(" and %d more", advisories.size() - 1);
+                        }
+                        holder.registerProblem(target, String.format(vulnerable, locked.name, locked.version, reference));
+                    }
+                }
+            }
+        }
+    }
+
     private static final class AddAdvisoriesFix implements LocalQuickFix {
         private final SmartPsiElementPointer<JsonProperty> require;
 
@@ -1,24 +1,24 @@
 package com.kalessil.phpStorm.phpInspectionsEA.inspectors.semanticalAnalysis;
 
 import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.PhpIndex;
 import com.jetbrains.php.codeInsight.PhpScopeHolder;
-import com.jetbrains.php.codeInsight.controlFlow.PhpControlFlowUtil;
 import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpAccessVariableInstruction;
-import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpEntryPointInstruction;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.flow.DefUseSummary;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.InterfacesExtractUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -37,11 +37,9 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
     private static final String messageViolationInCheck      = "Makes no sense, because this type is not defined in annotations.";
     private static final String patternViolationInAssignment = "New value type (%s) is not in annotated types.";
 
-    private static final Set<String> classReferences = new HashSet<>();
-    static {
-        classReferences.add(Types.strSelf);
-        classReferences.add(Types.strStatic);
-    }
+    private static final long classReferences     = TypeSet.SELF | TypeSet.STATIC;
+    private static final TypeSet callableExpansion = TypeSet.of(Arrays.asList(Types.strArray, Types.strString));
+    private static final TypeSet iterableExpansion = TypeSet.of(Arrays.asList(Types.strArray, "\\Traversable"));
 
     @NotNull
     public String getShortName() {
@@ -63,62 +61,44 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
             }
 
             private void inspectUsages(@NotNull Parameter[] parameters, @NotNull PhpScopeHolder scopeHolder) {
-                final Project project                     = holder.getProject();
-                final PhpIndex index                      = PhpIndex.getInstance(project);
-                final PhpEntryPointInstruction entryPoint = scopeHolder.getControlFlow().getEntryPoint();
+                final Project project       = holder.getProject();
+                final PhpIndex index        = PhpIndex.getInstance(project);
+                final DefUseSummary summary = DefUseSummary.of(scopeHolder);
 
                 for (final Parameter parameter : parameters) {
+                    ProgressManager.checkCanceled();
                     /* normalize parameter types, skip analysis when mixed or object appears */
-                    final Set<String> paramTypes = new HashSet<>();
-                    final PhpType parameterType  = OpenapiResolveUtil.resolveType(parameter, project);
-                    if (parameterType != null) {
-                        label:
-                        for (final String type : parameterType.filterUnknown().getTypes()) {
-                            final String typeNormalized = Types.getType(type);
-                            switch (typeNormalized) {
-                                case Types.strMixed:
-                                case Types.strObject:
-                                    paramTypes.clear();
-                                    break label;
-                                case Types.strCallable:
-                                    paramTypes.add(Types.strArray);
-                                    paramTypes.add(Types.strString);
-                                    paramTypes.add("\\Closure");
-                                    break;
-                                case Types.strIterable:
-                                    paramTypes.add(Types.strArray);
-                                    paramTypes.add("\\Traversable");
-                                    break;
-                            }
-                            paramTypes.add(typeNormalized);
-                        }
-                    }
-                    if (paramTypes.isEmpty()) {
+                    final PhpType parameterType = OpenapiResolveUtil.resolveType(parameter, project);
+                    TypeSet paramTypes          = parameterType == null ? TypeSet.EMPTY : TypeSet.of(parameterType.filterUnknown());
+                    if (paramTypes.isEmpty() || paramTypes.containsAny(TypeSet.MIXED | TypeSet.OBJECT)) {
                         continue;
-                    } else {
-                        /* in some case PhpStorm is not recognizing default value as parameter type */
-                        final PsiElement defaultValue = parameter.getDefaultValue();
-                        if (defaultValue instanceof PhpTypedElement) {
-                            final PhpType defaultType = OpenapiResolveUtil.resolveType((PhpTypedElement) defaultValue, project);
-                            if (defaultType != null) {
-                                defaultType.filterUnknown().getTypes().forEach(t -> paramTypes.add(Types.getType(t)));
-                            }
+                    }
+                    /* callable covers \Closure as well: it's normalized into callable */
+                    if (paramTypes.containsAny(TypeSet.CALLABLE)) {
+                        paramTypes = paramTypes.union(callableExpansion);
+                    }
+                    if (paramTypes.containsAny(TypeSet.ITERABLE)) {
+                        paramTypes = paramTypes.union(iterableExpansion);
+                    }
+                    /* in some case PhpStorm is not recognizing default value as parameter type */
+                    final PsiElement defaultValue = parameter.getDefaultValue();
+                    if (defaultValue instanceof PhpTypedElement) {
+                        final PhpType defaultType = OpenapiResolveUtil.resolveType((PhpTypedElement) defaultValue, project);
+                        if (defaultType != null) {
+                            paramTypes = paramTypes.union(TypeSet.of(defaultType.filterUnknown()));
                         }
                     }
 
                     /* false-positive: type is not resolved correctly, default null is taken */
-                    if (paramTypes.size() == 1 && paramTypes.contains(Types.strNull)) {
-                        final PsiElement defaultValue = parameter.getDefaultValue();
-                        if (PhpLanguageUtil.isNull(defaultValue)) {
-                            continue;
-                        }
+                    if (paramTypes.consistsOf(TypeSet.NULL) && PhpLanguageUtil.isNull(defaultValue)) {
+                        continue;
                     }
 
                     /* now find instructions operating on the parameter and perform analysis */
                     final String parameterName = parameter.getName();
-                    final PhpAccessVariableInstruction[] usages
-                        = PhpControlFlowUtil.getFollowingVariableAccessInstructions(entryPoint, parameterName, false);
+                    final PhpAccessVariableInstruction[] usages = summary.getAccesses(parameterName);
                     for (final PhpAccessVariableInstruction instruction : usages) {
+                        ProgressManager.checkCanceled();
                         final PsiElement parent        = instruction.getAnchor().getParent();
                         final PsiElement callCandidate = null == parent ? null : parent.getParent();
 
@@ -134,49 +114,37 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
                             final boolean isTypeAnnounced;
                             switch (functionName) {
                                 case "is_array":
-                                    isTypeAnnounced =
-                                        paramTypes.contains(Types.strArray) || paramTypes.contains(Types.strIterable);
+                                    isTypeAnnounced = paramTypes.containsAny(TypeSet.ARRAY | TypeSet.ITERABLE);
                                     break;
                                 case "is_string":
-                                    isTypeAnnounced = paramTypes.contains(Types.strString);
+                                    isTypeAnnounced = paramTypes.containsAny(TypeSet.STRING);
                                     break;
                                 case "is_bool":
-                                    isTypeAnnounced = paramTypes.contains(Types.strBoolean);
+                                    isTypeAnnounced = paramTypes.containsAny(TypeSet.BOOLEAN);
                                     break;
                                 case "is_int":
-                                    isTypeAnnounced =
-                                        paramTypes.contains(Types.strInteger) || paramTypes.contains(Types.strNumber);
+                                    isTypeAnnounced = paramTypes.containsAny(TypeSet.INTEGER | TypeSet.NUMBER);
                                     break;
                                 case "is_float":
-                                    isTypeAnnounced =
-                                        paramTypes.contains(Types.strFloat) || paramTypes.contains(Types.strNumber);
+                                    isTypeAnnounced = paramTypes.containsAny(TypeSet.FLOAT | TypeSet.NUMBER);
                                     break;
                                 case "is_resource":
-                                    isTypeAnnounced = paramTypes.contains(Types.strResource);
+                                    isTypeAnnounced = paramTypes.containsAny(TypeSet.RESOURCE);
                                     break;
                                 case "is_numeric":
-                                    if (paramTypes.contains(Types.strString)) { continue; }
-                                    isTypeAnnounced =
-                                        paramTypes.contains(Types.strNumber) ||
-                                        paramTypes.contains(Types.strFloat)  || paramTypes.contains(Types.strInteger);
+                                    if (paramTypes.containsAny(TypeSet.STRING)) { continue; }
+                                    isTypeAnnounced = paramTypes.containsAny(TypeSet.NUMBER | TypeSet.FLOAT | TypeSet.INTEGER);
                                     break;
                                 case "is_callable":
-                                    isTypeAnnounced =
-                                        paramTypes.contains(Types.strCallable) || paramTypes.contains(Types.strArray) ||
-                                        paramTypes.contains(Types.strString)   || paramTypes.contains("\\Closure");
+                                    isTypeAnnounced = paramTypes.containsAny(TypeSet.CALLABLE | TypeSet.ARRAY | TypeSet.STRING);
                                     break;
                                 case "is_object":
                                     isTypeAnnounced =
-                                        paramTypes.contains(Types.strObject) || paramTypes.contains(Types.strCallable) ||
-                                        paramTypes.stream().anyMatch(t -> classReferences.contains(t) ||
-                                                                          (t.startsWith("\\") && !t.equals("\\Closure")));
+                                        paramTypes.containsAny(TypeSet.OBJECT | TypeSet.CALLABLE) || this.hasClassReferences(paramTypes);
                                     break;
                                 case "is_a":
                                     isTypeAnnounced =
-                                        paramTypes.contains(Types.strObject) || paramTypes.contains(Types.strString) ||
-                                        paramTypes.stream().anyMatch(t ->
-                                            (t.startsWith("\\") && !t.equals("\\Closure")) || classReferences.contains(t)
-                                        );
+                                        paramTypes.containsAny(TypeSet.OBJECT | TypeSet.STRING) || this.hasClassReferences(paramTypes);
                                     break;
                                 default:
                                     continue;
@@ -204,41 +172,36 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
                                 final String variableName = variable.getName();
                                 if (variableName != null && variableName.equals(parameterName)) {
                                     final PhpType resolvedType = OpenapiResolveUtil.resolveType((PhpTypedElement) value, project);
-                                    final Set<String> resolved = new HashSet<>();
-                                    if (resolvedType != null) {
-                                        resolvedType.filterUnknown().getTypes().forEach(t -> resolved.add(Types.getType(t)));
-                                    }
+                                    TypeSet resolved           = resolvedType == null ? TypeSet.EMPTY : TypeSet.of(resolvedType.filterUnknown());
 
                                     if (resolved.size() >= 2) {
                                         /* false-positives: core functions returning string|array & false|null */
-                                        if (resolved.contains(Types.strString) || resolved.contains(Types.strArray)) {
-                                            if (resolved.contains(Types.strBoolean)) {
+                                        if (resolved.containsAny(TypeSet.STRING | TypeSet.ARRAY)) {
+                                            if (resolved.containsAny(TypeSet.BOOLEAN)) {
                                                 final boolean isFunctionCall = OpenapiTypesUtil.isFunctionReference(value);
                                                 if (isFunctionCall) {
-                                                    resolved.remove(Types.strBoolean);
+                                                    resolved = resolved.without(TypeSet.BOOLEAN);
                                                 }
-                                            } else if (resolved.contains(Types.strNull)) {
+                                            } else if (resolved.containsNull()) {
                                                 final boolean isFunctionCall = OpenapiTypesUtil.isFunctionReference(value);
                                                 if (isFunctionCall) {
-                                                    resolved.remove(Types.strNull);
+                                                    resolved = resolved.without(TypeSet.NULL);
                                                 }
                                             }
                                         }
                                         /* false-positives: nullable objects */
-                                        else if (resolved.contains(Types.strNull)) {
-                                            final boolean isNullableObject = paramTypes.stream()
-                                                    .anyMatch(t -> classReferences.contains(t) ||
-                                                                   t.startsWith("\\") && !t.equals("\\Closure"));
+                                        else if (resolved.containsNull()) {
+                                            final boolean isNullableObject = this.hasClassReferences(paramTypes);
                                             if (isNullableObject) {
-                                                resolved.remove(Types.strNull);
+                                                resolved = resolved.without(TypeSet.NULL);
                                             }
                                         }
                                     }
 
-                                    resolved.remove(Types.strMixed);
-                                    for (String type : resolved) {
+                                    resolved = resolved.without(TypeSet.MIXED);
+                                    for (String type : resolved.toNames()) {
                                         /* translate static/self into FQNs */
-                                        if (classReferences.contains(type)) {
+                                        if ((TypeSet.kindOf(type) & classReferences) != 0L) {
                                             PsiElement valueExtract = value;
                                             /* ` = <whatever> ?? <method call>` support */
                                             if (valueExtract instanceof BinaryExpression) {
@@ -278,7 +241,7 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
                                                 }
                                             }
                                             /* translate static/self into FQNs didn't work, skip */
-                                            if (classReferences.contains(type)) {
+                                            if ((TypeSet.kindOf(type) & classReferences) != 0L) {
                                                 continue;
                                             }
                                         }
@@ -289,23 +252,26 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
                                             break;
                                         }
                                     }
-                                    resolved.clear();
                                 }
                             }
                         }
                     }
-
-                    paramTypes.clear();
                 }
             }
 
+            /* self/static or classes, \Closure is not here as normalized into callable */
+            private boolean hasClassReferences(@NotNull TypeSet types) {
+                return types.containsAny(classReferences) || types.getClasses().stream().anyMatch(t -> t.startsWith("\\"));
+            }
+
             private boolean isTypeCompatibleWith(
                     @NotNull String type,
-                    @NotNull Collection<String> allowedTypes,
+                    @NotNull TypeSet allowedTypes,
                     @NotNull PhpIndex index
             ) {
                 /* first case: implicit match */
-                if (allowedTypes.contains(type)) {
+                final long kind = TypeSet.kindOf(type);
+                if (kind == 0L ? allowedTypes.containsClass(type) : allowedTypes.containsAny(kind)) {
                     return true;
                 }
 
@@ -319,7 +285,7 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
                         );
                 }
 
-                return !possibleTypes.isEmpty() && allowedTypes.stream().anyMatch(possibleTypes::contains);
+                return !possibleTypes.isEmpty() && allowedTypes.getClasses().stream().anyMatch(possibleTypes::contains);
             }
         };
     }
@@ -19,7 +19,10 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /*
@@ -35,6 +38,7 @@ public class MkdirRaceConditionInspector extends BasePhpInspection {
     private static final String patternDirectCall       = "Following construct should be used: 'if (!mkdir(%s) && !is_dir(...)) { ... }'.";
     private static final String patternFailAndCondition = "Some check are missing: '!mkdir(%s) && !is_dir(...)'.";
     private static final String patternFailOrCondition  = "Some check are missing: 'mkdir(%s) || is_dir(...)'.";
+    private static final Set<String> functions          = Collections.singleton("mkdir");
 
     @NotNull
     public String getShortName() {
@@ -45,10 +49,15 @@ public class MkdirRaceConditionInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName == null || !functionName.equals("mkdir")) {
+                if (functionName == null || !functions.contains(functionName)) {
                     return;
                 }
                 final PsiElement[] arguments = reference.getParameters();
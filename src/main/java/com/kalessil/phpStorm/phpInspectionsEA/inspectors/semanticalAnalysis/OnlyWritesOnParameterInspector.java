@@ -7,7 +7,6 @@ import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.PsiWhiteSpace;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.codeInsight.PhpScopeHolder;
-import com.jetbrains.php.codeInsight.controlFlow.PhpControlFlowUtil;
 import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpAccessInstruction;
 import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpAccessVariableInstruction;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
@@ -21,6 +20,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.Types;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.flow.DefUseSummary;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
@@ -349,11 +349,7 @@ public class OnlyWritesOnParameterInspector extends BasePhpInspection {
                     @NotNull String parameterName,
                     @NotNull PhpScopeHolder scopeHolder
             ) {
-                return PhpControlFlowUtil.getFollowingVariableAccessInstructions(
-                        scopeHolder.getControlFlow().getEntryPoint(),
-                        parameterName,
-                        false
-                );
+                return DefUseSummary.of(scopeHolder).getAccesses(parameterName);
             }
         };
     }
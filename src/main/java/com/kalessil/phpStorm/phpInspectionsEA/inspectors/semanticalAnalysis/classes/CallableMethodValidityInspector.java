@@ -15,6 +15,8 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.Types;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
 
 /*
@@ -29,6 +31,7 @@ import java.util.Set;
 public class CallableMethodValidityInspector extends BasePhpInspection {
     private static final String patternNotPublic = "'%m%' should be public (e.g. $this usage in static context provokes fatal errors).";
     private static final String patternNotStatic = "'%m%' should be static (e.g. $this usage in static context provokes fatal errors).";
+    private static final Set<String> functions   = Collections.singleton("is_callable");
 
     @NotNull
     public String getShortName() {
@@ -39,10 +42,15 @@ public class CallableMethodValidityInspector extends BasePhpInspection {
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functionName.equals("is_callable")) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length == 1) {
                         final Set<PsiElement> values = PossibleValuesDiscoveryUtil.discover(arguments[0]);
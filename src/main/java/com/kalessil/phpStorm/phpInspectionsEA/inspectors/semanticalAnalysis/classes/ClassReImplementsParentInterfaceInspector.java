@@ -13,7 +13,7 @@ import com.jetbrains.php.lang.psi.elements.PhpClass;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
-import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.InterfacesExtractUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassHierarchyUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
@@ -57,12 +57,14 @@ public class ClassReImplementsParentInterfaceInspector extends BasePhpInspection
                         /* Case: indirect declaration duplication (parent already implements) */
                         final PhpClass parent = OpenapiResolveUtil.resolveSuperClass(clazz);
                         if (parent != null) {
-                            final Set<PhpClass> inherited = InterfacesExtractUtil.getCrawlInheritanceTree(parent, false);
+                            final Set<String> inherited = new HashSet<>();
+                            ClassHierarchyUtil.getInterfaces(parent.getFQN(), holder.getProject())
+                                    .forEach(fqn -> inherited.add(fqn.toLowerCase()));
                             if (!inherited.isEmpty()) {
                                 final Set<PsiElement> processed = new HashSet<>();
                                 for (final Map.Entry<PsiElement, PhpClass> entry : ownInterfaces.entrySet()) {
                                     final PhpClass ownInterface = entry.getValue();
-                                    if (inherited.contains(ownInterface) && processed.add(entry.getKey())) {
+                                    if (inherited.contains(ownInterface.getFQN().toLowerCase()) && processed.add(entry.getKey())) {
                                         holder.registerProblem(
                                                 entry.getKey(),
                                                 String.format(patternIndirectDuplication, ownInterface.getFQN(), parent.getFQN()),
@@ -8,10 +8,11 @@ import com.jetbrains.php.lang.psi.elements.PhpClass;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.NamedElementUtil;
-import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassHierarchyUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public class LongInheritanceChainInspector extends BasePhpInspection {
@@ -57,28 +58,27 @@ public class LongInheritanceChainInspector extends BasePhpInspection {
                     return;
                 }
 
-                PhpClass classToCheck = clazz;
-                PhpClass parent       = OpenapiResolveUtil.resolveSuperClass(classToCheck);
+                final List<String> parents = ClassHierarchyUtil.getParentChain(clazz.getFQN(), holder.getProject());
                 /* false-positives: abstract class implementation */
-                if (null != parent && !classToCheck.isAbstract() && parent.isAbstract()) {
-                    return;
+                if (!parents.isEmpty() && !clazz.isAbstract()) {
+                    final ClassHierarchyUtil.Entry parent = ClassHierarchyUtil.getEntry(parents.get(0), holder.getProject());
+                    if (parent != null && parent.isAbstract) {
+                        return;
+                    }
                 }
 
                 int parentsCount = 0;
-                /* in source code class CAN extend itself, PS will report it but data structure is incorrect still */
-                while (null != parent && clazz != parent) {
-                    classToCheck = parent;
-                    parent       = OpenapiResolveUtil.resolveSuperClass(classToCheck);
+                for (int index = 0; index < parents.size(); ++index) {
                     ++parentsCount;
-
-                    if (null != parent) {
-                        /* show-stoppers: frameworks god classes */
-                        if (showStoppers.contains(parent.getFQN())) {
+                    if (index + 1 < parents.size()) {
+                        final String parent = parents.get(index + 1);
+                        /* show-stoppers: frameworks god classes; the index keeps names as written in the extends clause */
+                        if (showStoppers.stream().anyMatch(parent::equalsIgnoreCase)) {
                             ++parentsCount;
                             break;
                         }
                         /* exceptions named according to DDD, check parents named with exception suffix */
-                        if (parent.getName().endsWith("Exception")) {
+                        if (parent.endsWith("Exception")) {
                             return;
                         }
                     }
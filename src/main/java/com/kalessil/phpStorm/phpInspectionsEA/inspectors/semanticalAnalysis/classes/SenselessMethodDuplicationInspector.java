@@ -6,7 +6,6 @@ import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
@@ -15,6 +14,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.fixers.DropMethodFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.metrics.ReferencedSymbols;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
@@ -99,12 +99,10 @@ public class SenselessMethodDuplicationInspector extends BasePhpInspection {
 
 
                 /* methods seems to be identical: resolve used classes to avoid ns/imports magic */
-                final Collection<String> collection = this.getUsedReferences(body);
-                if (!collection.isEmpty() && !collection.containsAll(this.getUsedReferences(parentBody))) {
-                    collection.clear();
+                final Set<String> collection = ReferencedSymbols.of(body).getResolvedFqns();
+                if (!collection.isEmpty() && !collection.containsAll(ReferencedSymbols.of(parentBody).getResolvedFqns())) {
                     return;
                 }
-                collection.clear();
 
                 final PsiElement methodName = NamedElementUtil.getNameIdentifier(method);
                 if (methodName != null) {
@@ -124,19 +122,6 @@ public class SenselessMethodDuplicationInspector extends BasePhpInspection {
                     }
                 }
             }
-
-            private Collection<String> getUsedReferences(@NotNull GroupStatement body) {
-                final Set<String> fqns = new HashSet<>();
-                for (final PhpReference reference : PsiTreeUtil.findChildrenOfAnyType(body, ClassReference.class, ConstantReference.class, FunctionReference.class)) {
-                    if (!(reference instanceof MethodReference)) {
-                        final PsiElement entry = OpenapiResolveUtil.resolveReference(reference);
-                        if (entry instanceof PhpNamedElement) {
-                            fqns.add(((PhpNamedElement) entry).getFQN());
-                        }
-                    }
-                }
-                return fqns;
-            }
         };
     }
 
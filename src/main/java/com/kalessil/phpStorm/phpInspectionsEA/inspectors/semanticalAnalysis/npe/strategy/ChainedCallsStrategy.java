@@ -13,7 +13,9 @@ import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /*
@@ -29,64 +31,73 @@ final public class ChainedCallsStrategy {
     private static final String message = "Null pointer exception may occur here.";
 
     public static void apply(@NotNull Function function, @NotNull ProblemsHolder holder) {
-        final Map<MethodReference, String> nullTestedReferences = new HashMap<>();
+        final Map<String, List<MethodReference>> nullTestedReferences = new HashMap<>();
+        final Map<Function, Map<String, Boolean>> nullableCalls       = new HashMap<>();
         PsiTreeUtil.findChildrenOfType(function, MethodReference.class)
-                .forEach(reference -> apply(reference, nullTestedReferences, holder));
+                .forEach(reference -> apply(reference, nullTestedReferences, nullableCalls, holder));
         nullTestedReferences.clear();
+        nullableCalls.clear();
     }
 
     private static void apply(
         @NotNull MethodReference reference,
-        @NotNull Map<MethodReference, String> nullTestedReferences,
+        @NotNull Map<String, List<MethodReference>> nullTestedReferences,
+        @NotNull Map<Function, Map<String, Boolean>> nullableCalls,
         @NotNull ProblemsHolder holder
     ) {
         final PsiElement operator = OpenapiPsiSearchUtil.findResolutionOperator(reference);
         if (OpenapiTypesUtil.is(operator, PhpTokenTypes.ARROW)) {
             final PsiElement base = reference.getFirstPsiChild();
             if (base instanceof FunctionReference) {
+                /* identical calls in a function (closures are scopes on their own) are resolving to the same type */
                 final FunctionReference baseCall = (FunctionReference) base;
-                final PhpType returnType         = OpenapiResolveUtil.resolveType(baseCall, holder.getProject());
-                if (returnType != null) {
-                    final String methodName = baseCall.getName();
-                    for (final String resolvedType : returnType.filterUnknown().getTypes()) {
-                        final String type = Types.getType(resolvedType);
-                        if (type.equals(Types.strNull) || type.equals(Types.strVoid)) {
-                            boolean isNullTested = false;
-                            for (final Map.Entry<MethodReference, String> knownReference : nullTestedReferences.entrySet()) {
-                                final String nullTestedMethodName = knownReference.getValue();
-                                if (
-                                    nullTestedMethodName != null && nullTestedMethodName.equals(methodName) &&
-                                    OpenapiEquivalenceUtil.areEqual(knownReference.getKey(), baseCall)
-                                ) {
-                                    isNullTested = true;
-                                    break;
-                                }
-                            }
-                            if (!isNullTested) {
-                                holder.registerProblem(operator, message);
-                                break;
-                            }
-                        }
+                final Function scope             = PsiTreeUtil.getParentOfType(baseCall, Function.class);
+                final boolean isNullable         = nullableCalls
+                        .computeIfAbsent(scope, key -> new HashMap<>())
+                        .computeIfAbsent(baseCall.getText(), text -> isNullableResult(baseCall, holder));
+                if (isNullable) {
+                    final String methodName                = baseCall.getName();
+                    final List<MethodReference> nullTested = methodName == null ? null : nullTestedReferences.get(methodName);
+                    final boolean isNullTested             = nullTested != null &&
+                            nullTested.stream().anyMatch(known -> OpenapiEquivalenceUtil.areEqual(known, baseCall));
+                    if (!isNullTested) {
+                        holder.registerProblem(operator, message);
                     }
                 }
             }
 
             /* collect null-tested references: only after main inspection! */
+            boolean isNullTested    = false;
             final PsiElement parent = reference.getParent();
             if (parent instanceof BinaryExpression) {
                 final BinaryExpression parentExpression = (BinaryExpression) parent;
                 final IElementType operation            = parentExpression.getOperationType();
                 if (OpenapiTypesUtil.tsCOMPARE_EQUALITY_OPS.contains(operation)) {
                     final PsiElement secondOperand = OpenapiElementsUtil.getSecondOperand(parentExpression, reference);
-                    if (PhpLanguageUtil.isNull(secondOperand)) {
-                        nullTestedReferences.put(reference, reference.getName());
-                    }
+                    isNullTested                   = PhpLanguageUtil.isNull(secondOperand);
                 } else if (operation == PhpTokenTypes.kwINSTANCEOF || PhpTokenTypes.tsSHORT_CIRCUIT_AND_OPS.contains(operation)) {
-                    nullTestedReferences.put(reference, reference.getName());
+                    isNullTested = true;
                 }
             } else if (ExpressionSemanticUtil.isUsedAsLogicalOperand(reference)) {
-                nullTestedReferences.put(reference, reference.getName());
+                isNullTested = true;
+            }
+            final String methodName = reference.getName();
+            if (isNullTested && methodName != null) {
+                nullTestedReferences.computeIfAbsent(methodName, name -> new ArrayList<>()).add(reference);
+            }
+        }
+    }
+
+    private static boolean isNullableResult(@NotNull FunctionReference call, @NotNull ProblemsHolder holder) {
+        final PhpType returnType = OpenapiResolveUtil.resolveType(call, holder.getProject());
+        if (returnType != null) {
+            for (final String resolvedType : returnType.filterUnknown().getTypes()) {
+                final String type = Types.getType(resolvedType);
+                if (type.equals(Types.strNull) || type.equals(Types.strVoid)) {
+                    return true;
+                }
             }
         }
+        return false;
     }
 }
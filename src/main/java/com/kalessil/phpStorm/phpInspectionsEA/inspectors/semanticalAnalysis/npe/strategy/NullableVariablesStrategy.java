@@ -1,10 +1,15 @@
 package com.kalessil.phpStorm.phpInspectionsEA.inspectors.semanticalAnalysis.npe.strategy;
 
 import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Condition;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocType;
@@ -14,8 +19,8 @@ import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.flow.NullStates;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -32,12 +37,9 @@ import java.util.stream.Collectors;
 final public class NullableVariablesStrategy {
     private static final String message = "Null pointer exception may occur here.";
 
-    private static final Set<String> objectTypes = new HashSet<>();
-    static {
-        objectTypes.add(Types.strSelf);
-        objectTypes.add(Types.strStatic);
-        objectTypes.add(Types.strObject);
-    }
+    private static final long objectKinds = TypeSet.SELF | TypeSet.STATIC | TypeSet.OBJECT;
+
+    private static final Key<CachedValue<Map<String, List<Variable>>>> variablesKey = Key.create("EA.npe.variables");
 
     final private static Condition<PsiElement> PARENT_FUNCTION = new Condition<PsiElement>() {
         public boolean value(PsiElement element) { return element instanceof Function; }
@@ -47,10 +49,11 @@ final public class NullableVariablesStrategy {
     public static void applyToLocalVariables(@NotNull Function function, @NotNull ProblemsHolder holder) {
         final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(function);
         if (body != null) {
-            /* group variables assignments, except parameters */
+            /* group variables assignments, except parameters; nested closures are included, as they always were */
             final Set<String> parameters = Arrays.stream(function.getParameters()).map(Parameter::getName).collect(Collectors.toSet());
             final Map<String, List<AssignmentExpression>> assignments = new HashMap<>();
             for (final Variable variable : PsiTreeUtil.findChildrenOfType(body, Variable.class)) {
+                ProgressManager.checkCanceled();
                 final String variableName = variable.getName();
                 final PsiElement parent   = variable.getParent();
                 if (parent instanceof AssignmentExpression && !parameters.contains(variableName)) {
@@ -67,21 +70,18 @@ final public class NullableVariablesStrategy {
                 }
             }
 
-            /* check if the variable has been written only once, inspect when null/void values are possible */
-            final Project project           = holder.getProject();
-            final Set<PsiElement> processed = new HashSet<>();
+            /* inspect variables when null/void values are possible in the first assignment */
+            final Project project = holder.getProject();
             for (final Map.Entry<String, List<AssignmentExpression>> pair : assignments.entrySet()) {
+                ProgressManager.checkCanceled();
                 final List<AssignmentExpression> variableAssignments = pair.getValue();
                 if (!variableAssignments.isEmpty()) {
-                    final AssignmentExpression assignment = variableAssignments.get(0);
-                    if (isNullableResult(assignment, project)) {
-                        /* find first nullable assignments, invoke analyzing statements after it */
-                        apply(pair.getKey(), assignment, body, holder, processed);
+                    if (isNullableResult(variableAssignments.get(0), project)) {
+                        apply(function, body, pair.getKey(), holder);
                     }
                     variableAssignments.clear();
                 }
             }
-            processed.clear();
             assignments.clear();
         }
     }
@@ -93,16 +93,10 @@ final public class NullableVariablesStrategy {
         if (assignmentValue instanceof PhpTypedElement) {
             final PhpType resolved = OpenapiResolveUtil.resolveType((PhpTypedElement) assignmentValue, project);
             if (resolved != null) {
-                final Set<String> types = new HashSet<>();
-                resolved.filterUnknown().getTypes().forEach(t -> types.add(Types.getType(t)));
-                if (types.contains(Types.strNull) || types.contains(Types.strVoid)) {
-                    types.remove(Types.strNull);
-                    types.remove(Types.strVoid);
-                    if (!types.isEmpty()) {
-                        result = types.stream().noneMatch(t -> !t.startsWith("\\") && !objectTypes.contains(t));
-                    }
+                final TypeSet types = TypeSet.of(resolved.filterUnknown());
+                if (types.containsAny(TypeSet.NULL | TypeSet.VOID)) {
+                    result = isObjectsOnly(types.without(TypeSet.NULL | TypeSet.VOID));
                 }
-                types.clear();
             }
         }
         /* secondary strategy: support type specification with `@var <type> <variable>` */
@@ -117,7 +111,7 @@ final public class NullableVariablesStrategy {
                         final PhpDocVariable specifiedVariable = PsiTreeUtil.findChildOfType(hints[0], PhpDocVariable.class);
                         if (specifiedVariable != null && specifiedVariable.getName().equals(variable.getName())) {
                             result = Arrays.stream(hints[0].getChildren())
-                                .anyMatch(t -> t instanceof PhpDocType && Types.getType(t.getText()).equals(Types.strNull));
+                                .anyMatch(t -> t instanceof PhpDocType && TypeSet.kindOf(t.getText()) == TypeSet.NULL);
                         }
                     }
                 }
@@ -129,245 +123,113 @@ final public class NullableVariablesStrategy {
     public static void applyToParameters(@NotNull Function function, @NotNull ProblemsHolder holder) {
         final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(function);
         if (body != null) {
-            final Set<PsiElement> processed = new HashSet<>();
             for (final Parameter parameter : function.getParameters()) {
-                final Set<String> declaredTypes = new HashSet<>();
-                parameter.getDeclaredType().getTypes().forEach(t -> declaredTypes.add(Types.getType(t)));
-                if (declaredTypes.contains(Types.strNull) || PhpLanguageUtil.isNull(parameter.getDefaultValue())) {
-                    declaredTypes.remove(Types.strNull);
-
-                    boolean isObject = !declaredTypes.isEmpty();
-                    for (final String type : declaredTypes) {
-                        if (!type.startsWith("\\") && !objectTypes.contains(type)) {
-                            isObject = false;
-                            break;
-                        }
-                    }
-
-                    if (isObject) {
-                        apply(parameter.getName(), null, body, holder, processed);
+                final TypeSet declaredTypes = TypeSet.of(parameter.getDeclaredType());
+                if (declaredTypes.containsNull() || PhpLanguageUtil.isNull(parameter.getDefaultValue())) {
+                    if (isObjectsOnly(declaredTypes.without(TypeSet.NULL))) {
+                        apply(function, body, parameter.getName(), holder);
                     }
                 }
-                declaredTypes.clear();
             }
-            processed.clear();
         }
     }
 
-    private static void apply(
-        @NotNull String variableName,
-        @Nullable AssignmentExpression variableDeclaration,
-        @NotNull GroupStatement body,
-        @NotNull ProblemsHolder holder,
-        @NotNull Set<PsiElement> processed
-    ) {
-        /* find variable usages, control flow is not our friend here */
-        final Function function        = (Function) body.getParent();
-        final List<Variable> variables = new ArrayList<>();
-        PsiTreeUtil.findChildrenOfType(body, Variable.class).stream()
-                .filter(variable  ->
-                    variableName.equals(variable.getName()) && PsiTreeUtil.findFirstParent(variable, PARENT_FUNCTION) == function
-                )
-                .forEach(variable -> {
-                    final PsiElement parent = variable.getParent();
-                    if (parent instanceof AssignmentExpression) {
-                        final List<Variable> currentUsages    = new ArrayList<>();
-                        final AssignmentExpression assignment = (AssignmentExpression) parent;
-                        PsiTreeUtil.findChildrenOfType(assignment.getValue(), Variable.class).stream()
-                                .filter(v -> variableName.equals(v.getName()))
-                                .forEach(currentUsages::add);
-                        PsiTreeUtil.findChildrenOfType(assignment, Variable.class).stream()
-                                .filter(v -> variableName.equals(v.getName()) && !currentUsages.contains(v))
-                                .forEach(currentUsages::add);
-                        variables.addAll(currentUsages);
-                        currentUsages.clear();
-                    } else {
-                        PsiTreeUtil.findChildrenOfType(parent, Variable.class).stream()
-                                .filter(v -> variableName.equals(v.getName()))
-                                .forEach(variables::add);
-                    }
-                });
-        /* analyze collected variable usages */
-        final Project project                 = holder.getProject();
-        boolean skipPerformed                 = false;
-        final boolean skipToDeclarationNeeded = variableDeclaration != null;
-        for (final Variable variable : variables) {
-            final PsiElement parent = variable.getParent();
-
-            /* for local variables we need to skip usages until assignment performed */
-            if (skipToDeclarationNeeded && !skipPerformed) {
-                skipPerformed = variableDeclaration == parent;
-                continue;
-            }
-
-            final PsiElement grandParent = parent.getParent();
-
-            /* instanceof, implicit null comparisons */
-            if (parent instanceof BinaryExpression) {
-                final BinaryExpression expression = (BinaryExpression) parent;
-                final IElementType operation      = expression.getOperationType();
-                if (PhpTokenTypes.kwINSTANCEOF == operation) {
-                    return;
-                }
-                if (OpenapiTypesUtil.tsCOMPARE_EQUALITY_OPS.contains(operation)) {
-                    final PsiElement secondOperand = OpenapiElementsUtil.getSecondOperand(expression, variable);
-                    if (PhpLanguageUtil.isNull(secondOperand)) {
-                        return;
-                    }
-                    continue;
-                }
+    /* null-states of the function are deciding on reports, here we only pick up the dereferencing usages */
+    private static void apply(@NotNull Function function, @NotNull GroupStatement body, @NotNull String variableName, @NotNull ProblemsHolder holder) {
+        final NullStates states = NullStates.of(function);
+        final Project project   = holder.getProject();
+        for (final Variable variable : getVariables(function, body).getOrDefault(variableName, Collections.emptyList())) {
+            ProgressManager.checkCanceled();
+            if (states.mayBeNull(variable) && isDereferenced(variable, project)) {
+                holder.registerProblem(variable, message);
             }
+        }
+    }
 
-            /* non-implicit null comparisons; `else if` here would change semantics */
-            if (parent instanceof PhpEmpty || parent instanceof PhpIsset || ExpressionSemanticUtil.isUsedAsLogicalOperand(variable)) {
-                return;
-            }
-            /* re-defined in catch-statements */
-            else if (parent instanceof Catch) {
-                return;
-            }
-            /* test and business logic assertions */
-            else if (parent instanceof ParameterList && (isAssertion(grandParent) || isNull(grandParent))) {
-                return;
-            }
-
-            /* show stoppers: overriding the variable; except the variable declarations of course */
-            if (parent instanceof AssignmentExpression) {
-                if (parent == variableDeclaration) {
-                    continue;
-                }
-
-                final AssignmentExpression assignment = (AssignmentExpression) parent;
-                final PsiElement candidate            = assignment.getVariable();
-                if (candidate instanceof Variable && ((Variable) candidate).getName().equals(variableName)) {
-                    if (!isNullableResult(assignment, project)) {
-                        return;
-                    }
-                }
-            }
-            /* cases when NPE can be introduced: array access */
-            else if (parent instanceof ArrayAccessExpression) {
-                final PsiElement container = ((ArrayAccessExpression) parent).getValue();
-                if (variable == container && processed.add(variable)) {
-                    holder.registerProblem(variable, message);
-                }
-            }
-            /* cases when NPE can be introduced: member reference */
-            else if (parent instanceof MemberReference) {
-                final MemberReference reference = (MemberReference) parent;
-                final PsiElement subject        = reference.getClassReference();
-                if (subject instanceof Variable && ((Variable) subject).getName().equals(variableName)) {
-
-                    /* false-positives: `$variable->property ?? ...`, isset($variable->property), isset($variable->property[...]) */
-                    if (reference instanceof FieldReference) {
-                        PsiElement lastReference    = reference;
-                        PsiElement referenceContext = reference;
-                        while (referenceContext instanceof FieldReference || referenceContext instanceof ArrayAccessExpression) {
-                            lastReference    = referenceContext;
-                            referenceContext = referenceContext.getParent();
-                        }
-                        if (referenceContext instanceof BinaryExpression) {
-                            final BinaryExpression binary = (BinaryExpression) referenceContext;
-                            final boolean isCoalescing    = binary.getOperationType() == PhpTokenTypes.opCOALESCE;
-                            if (isCoalescing && lastReference == binary.getLeftOperand()) {
-                                continue;
-                            }
-                        } else if (referenceContext instanceof PhpIsset) {
-                            continue;
-                        }
-                    }
-                    /* false-positive: `$variable = $variable->method(...)` */
-                    else if (reference instanceof MethodReference && grandParent == variableDeclaration) {
-                        continue;
-                    }
-
-                    if (processed.add(subject)) {
-                        holder.registerProblem(subject, message);
-                    }
-                }
-            }
-            /* cases when NPE can be introduced: __invoke calls */
-            else if (OpenapiTypesUtil.isFunctionReference(parent) && variable == parent.getFirstChild()) {
-                if (processed.add(variable)) {
-                    holder.registerProblem(variable, message);
+    private static boolean isDereferenced(@NotNull Variable variable, @NotNull Project project) {
+        final PsiElement parent = variable.getParent();
+        /* cases when NPE can be introduced: array access */
+        if (parent instanceof ArrayAccessExpression) {
+            return ((ArrayAccessExpression) parent).getValue() == variable;
+        }
+        /* cases when NPE can be introduced: member reference */
+        else if (parent instanceof MemberReference) {
+            final MemberReference reference = (MemberReference) parent;
+            if (reference.getClassReference() != variable) {
+                return false;
+            }
+            /* false-positives: `$variable->property ?? ...`, isset($variable->property), isset($variable->property[...]) */
+            if (reference instanceof FieldReference) {
+                PsiElement lastReference    = reference;
+                PsiElement referenceContext = reference;
+                while (referenceContext instanceof FieldReference || referenceContext instanceof ArrayAccessExpression) {
+                    lastReference    = referenceContext;
+                    referenceContext = referenceContext.getParent();
                 }
-            }
-            /* cases when NPE can be introduced: clone operator */
-            else if (parent instanceof UnaryExpression) {
-                if (OpenapiTypesUtil.is(((UnaryExpression) parent).getOperation(), PhpTokenTypes.kwCLONE) && processed.add(variable)) {
-                    holder.registerProblem(variable, message);
+                if (referenceContext instanceof BinaryExpression) {
+                    final BinaryExpression binary = (BinaryExpression) referenceContext;
+                    final boolean isCoalescing    = binary.getOperationType() == PhpTokenTypes.opCOALESCE;
+                    return !isCoalescing || lastReference != binary.getLeftOperand();
                 }
+                return !(referenceContext instanceof PhpIsset);
             }
-            /* cases when null dispatched into to non-null parameter */
-            else if (parent instanceof ParameterList && grandParent instanceof FunctionReference) {
-                final FunctionReference reference = (FunctionReference) grandParent;
-                final PsiElement resolved         = OpenapiResolveUtil.resolveReference(reference);
-                if (resolved != null)  {
-                    /* get the parameter definition */
-                    final int position           = Arrays.asList(reference.getParameters()).indexOf(variable);
-                    final Parameter[] parameters = ((Function) resolved).getParameters();
-                    if (position >= parameters.length) {
-                        continue;
-                    }
-
+            return true;
+        }
+        /* cases when NPE can be introduced: __invoke calls */
+        else if (OpenapiTypesUtil.isFunctionReference(parent)) {
+            return variable == parent.getFirstChild();
+        }
+        /* cases when NPE can be introduced: clone operator */
+        else if (parent instanceof UnaryExpression) {
+            return OpenapiTypesUtil.is(((UnaryExpression) parent).getOperation(), PhpTokenTypes.kwCLONE);
+        }
+        /* cases when null dispatched into to non-null parameter */
+        else if (parent instanceof ParameterList && parent.getParent() instanceof FunctionReference) {
+            final FunctionReference reference = (FunctionReference) parent.getParent();
+            final PsiElement resolved         = OpenapiResolveUtil.resolveReference(reference);
+            if (resolved instanceof Function) {
+                /* get the parameter definition */
+                final int position           = Arrays.asList(reference.getParameters()).indexOf(variable);
+                final Parameter[] parameters = ((Function) resolved).getParameters();
+                if (position >= 0 && position < parameters.length) {
                     /* lookup types, if no null declarations - report class-only declarations */
-                    final Parameter parameter       = parameters[position];
-                    final Set<String> declaredTypes = new HashSet<>();
-                    parameter.getDeclaredType().getTypes().forEach(t -> declaredTypes.add(Types.getType(t)));
-                    if (!declaredTypes.contains(Types.strNull) && !PhpLanguageUtil.isNull(parameter.getDefaultValue())) {
-                        declaredTypes.remove(Types.strNull);
-
-                        boolean isObject = !declaredTypes.isEmpty();
-                        for (final String type : declaredTypes) {
-                            if (!type.startsWith("\\") && !objectTypes.contains(type)) {
-                                isObject = false;
-                                break;
-                            }
-                        }
-                        if (isObject && processed.add(variable)) {
-                            holder.registerProblem(variable, message);
-                        }
-                    }
-                    declaredTypes.clear();
+                    final Parameter parameter   = parameters[position];
+                    final TypeSet declaredTypes = TypeSet.of(parameter.getDeclaredType());
+                    return !declaredTypes.containsNull() && !PhpLanguageUtil.isNull(parameter.getDefaultValue()) && isObjectsOnly(declaredTypes);
                 }
             }
         }
+        return false;
     }
 
-    private static boolean isAssertion(@NotNull PsiElement reference) {
-        boolean result = false;
-        if (reference instanceof MethodReference) {
-            final String methodName = ((MethodReference) reference).getName();
-            if (methodName != null) {
-                if (methodName.equals("assertNotNull") || methodName.equals("assertInstanceOf") ||
-                    methodName.equals("notNull") || methodName.equals("isInstanceOf") ||
-                    methodName.equals("isInstanceOfAny")
-                ) {
-                    /* PHPUnit, beberlei/assert and webmozart/assert assertions */
-                    result = true;
-                } else if (methodName.equals("that")) {
-                    /* another beberlei/assert assertion: `Assert::that($g)->notNull()` */
-                    PsiElement parent = reference.getParent();
-                    while (parent instanceof MethodReference) {
-                        final String parentMethodName = ((MethodReference) parent).getName();
-                        if (parentMethodName != null && parentMethodName.equals("notNull")) {
-                            result = true;
-                            break;
-                        }
-                        parent = parent.getParent();
-                    }
-                }
-            }
+    /* variables of the function body (inner closures excluded) grouped by name, in the source order */
+    @NotNull
+    private static Map<String, List<Variable>> getVariables(@NotNull Function function, @NotNull GroupStatement body) {
+        if (!OpenapiResolveUtil.isCacheable(function)) {
+            return groupVariables(function, body);
         }
-        return result;
+        return CachedValuesManager.getCachedValue(
+                function,
+                variablesKey,
+                () -> CachedValueProvider.Result.create(groupVariables(function, body), PsiModificationTracker.MODIFICATION_COUNT)
+        );
     }
 
-    private static boolean isNull(@NotNull PsiElement reference) {
-        boolean result = false;
-        if (OpenapiTypesUtil.isFunctionReference(reference)) {
-            final String functionName = ((FunctionReference) reference).getName();
-            result                    = functionName != null && functionName.equals("is_null");
+    @NotNull
+    private static Map<String, List<Variable>> groupVariables(@NotNull Function function, @NotNull GroupStatement body) {
+        final Map<String, List<Variable>> variables = new HashMap<>();
+        for (final Variable variable : PsiTreeUtil.findChildrenOfType(body, Variable.class)) {
+            if (PsiTreeUtil.findFirstParent(variable, PARENT_FUNCTION) == function) {
+                variables.computeIfAbsent(variable.getName(), name -> new ArrayList<>()).add(variable);
+            }
         }
-        return result;
+        return variables;
+    }
+
+    /* not empty and consists of classes and self/static/object only */
+    private static boolean isObjectsOnly(@NotNull TypeSet types) {
+        return !types.isEmpty() &&
+               (types.getKinds() & ~objectKinds) == 0L &&
+               types.getClasses().stream().allMatch(type -> type.startsWith("\\"));
     }
 }
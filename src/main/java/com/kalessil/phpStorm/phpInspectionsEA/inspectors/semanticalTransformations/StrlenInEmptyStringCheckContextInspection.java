@@ -13,10 +13,15 @@ import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
-import com.kalessil.phpStorm.phpInspectionsEA.settings.ComparisonStyle;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -28,6 +33,7 @@ import org.jetbrains.annotations.NotNull;
 
 public class StrlenInEmptyStringCheckContextInspection extends BasePhpInspection {
     private static final String messagePattern = "'%s' would make more sense here (it also slightly faster).";
+    private static final Set<String> functions = new HashSet<>(Arrays.asList("strlen", "mb_strlen"));
 
     @NotNull
     public String getShortName() {
@@ -37,11 +43,18 @@ public class StrlenInEmptyStringCheckContextInspection extends BasePhpInspection
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final ProjectSettingsSnapshot settings = ProjectSettingsSnapshot.of(holder.getProject());
+
         return new BasePhpElementVisitor() {
+            @Override
+            public Collection<String> getFunctionCallNames() {
+                return functions;
+            }
+
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && (functionName.equals("strlen") || functionName.equals("mb_strlen"))) {
+                if (functionName != null && functions.contains(functionName)) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length > 0 && ExpressionSemanticUtil.getBlockScope(reference) != null) {
                         boolean isMatchedPattern = false;
@@ -92,7 +105,7 @@ public class StrlenInEmptyStringCheckContextInspection extends BasePhpInspection
 
                         /* investigate possible issues */
                         if (isMatchedPattern) {
-                            final boolean isRegular  = ComparisonStyle.isRegular();
+                            final boolean isRegular  = settings.isRegularComparison();
                             final String operator    = (isEmptyString ? "=" : "!") + (this.canApplyIdentityOperator(arguments[0]) ? "==" : "=");
                             final String replacement = String.format(
                                     isRegular ? "%s %s ''" : "'' %s %s",
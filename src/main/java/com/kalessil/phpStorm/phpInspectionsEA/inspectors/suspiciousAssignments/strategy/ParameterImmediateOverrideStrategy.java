@@ -2,17 +2,13 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.suspiciousAssignments.
 
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.util.PsiTreeUtil;
-import com.jetbrains.php.codeInsight.controlFlow.PhpControlFlowUtil;
 import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpAccessVariableInstruction;
-import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpEntryPointInstruction;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.flow.DefUseSummary;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collection;
-
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -33,7 +29,7 @@ final public class ParameterImmediateOverrideStrategy {
             return;
         }
 
-        final PhpEntryPointInstruction start = function.getControlFlow().getEntryPoint();
+        final DefUseSummary summary = DefUseSummary.of(function);
         for (final Parameter param : params) {
             /* overriding params by reference is totally fine */
             if (param.isPassByRef()) {
@@ -41,7 +37,7 @@ final public class ParameterImmediateOverrideStrategy {
             }
 
             final String parameterName          = param.getName();
-            PhpAccessVariableInstruction[] uses = PhpControlFlowUtil.getFollowingVariableAccessInstructions(start, parameterName, false);
+            PhpAccessVariableInstruction[] uses = summary.getAccesses(parameterName);
             /* at least 2 uses expected: override and any other operation */
             if (uses.length < 2) {
                 continue;
@@ -57,23 +53,24 @@ final public class ParameterImmediateOverrideStrategy {
                     continue;
                 }
 
-                int nameHits = 0;
-
-                /* count name hits, to identify if original value was considered */
-                final Collection<Variable> vars = PsiTreeUtil.findChildrenOfType(parent, Variable.class);
-                for (Variable variable : vars){
-                    nameHits += parameterName.equals(variable.getName()) ? 1 : 0;
-                    if (nameHits > 1) {
-                        break;
-                    }
+                /* okay, original value 100% lost: the value on entry reaches none of the reads */
+                if (!isEntryValueUsed(summary, uses)) {
+                    holder.registerProblem(expression, message);
                 }
-                vars.clear();
+            }
+        }
+    }
 
-                /* okay, original value 100% lost */
-                if (1 == nameHits) {
-                    holder.registerProblem(expression, message);
+    private static boolean isEntryValueUsed(@NotNull DefUseSummary summary, @NotNull PhpAccessVariableInstruction[] uses) {
+        for (final PhpAccessVariableInstruction use : uses) {
+            if (use.getAccess().isRead()) {
+                for (final int definition : summary.getReachingWrites(use)) {
+                    if (definition == DefUseSummary.ENTRY) {
+                        return true;
+                    }
                 }
             }
         }
+        return false;
     }
 }
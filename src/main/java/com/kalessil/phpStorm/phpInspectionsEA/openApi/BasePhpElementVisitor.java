@@ -1,14 +1,16 @@
 package com.kalessil.phpStorm.phpInspectionsEA.openApi;
 
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocTag;
 import com.jetbrains.php.lang.psi.PhpFile;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.visitors.PhpElementVisitor;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ContextClassificationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -35,6 +37,18 @@ public abstract class BasePhpElementVisitor extends PhpElementVisitor {
         }
     }
 
+    /* names of functions handled by visitPhpFunctionCall (case-insensitive, 'prefix*' allowed), null - every call */
+    @Nullable
+    public Collection<String> getFunctionCallNames() {
+        return null;
+    }
+
+    /* names of methods handled by visitPhpMethodReference (case-insensitive, 'prefix*' allowed), null - every call */
+    @Nullable
+    public Collection<String> getMethodReferenceNames() {
+        return null;
+    }
+
     public void visitPhpDeclare(@NotNull Declare declare)                           {}
     public void visitPhpEval(@NotNull PhpEval eval)                                 {}
     public void visitPhpDocTag(@NotNull PhpDocTag tag)                              {}
@@ -86,21 +100,7 @@ public abstract class BasePhpElementVisitor extends PhpElementVisitor {
     @Override public void visitPhpReturn(PhpReturn returnStatement) {}
 
     protected boolean isTestContext(@NotNull PsiElement expression) {
-        boolean result        = false;
-        final String fileName = expression.getContainingFile().getName();
-        if (fileName.endsWith("Test.php") || fileName.endsWith("Spec.php") || fileName.endsWith(".phpt")) {
-            result = true;
-        } else {
-            /* identify class */
-            final PhpClass clazz = expression instanceof PhpClass ?
-                (PhpClass) expression : PsiTreeUtil.getParentOfType(expression, PhpClass.class, false, (Class) PsiFile.class);
-            /* if identified, check its FQN */
-            final String clazzFqn = clazz == null ? null : clazz.getFQN();
-            if (clazzFqn != null) {
-                result = clazzFqn.endsWith("Test") || clazzFqn.contains("\\Tests\\") || clazzFqn.contains("\\Test\\");
-            }
-        }
-        return result;
+        return ContextClassificationUtil.isTestContext(expression);
     }
 
     protected boolean isFromRootNamespace(@NotNull FunctionReference reference) {
@@ -1,6 +1,20 @@
 package com.kalessil.phpStorm.phpInspectionsEA.openApi;
 
+import com.intellij.codeInspection.LocalInspectionToolSession;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.lang.inspections.PhpInspection;
+import org.jetbrains.annotations.NotNull;
 
 public abstract class BasePhpInspection extends PhpInspection {
+    @NotNull
+    @Override
+    public PsiElementVisitor buildVisitor(
+            @NotNull ProblemsHolder holder,
+            boolean isOnTheFly,
+            @NotNull LocalInspectionToolSession session
+    ) {
+        final PsiElementVisitor visitor = super.buildVisitor(holder, isOnTheFly, session);
+        return InspectionsProfiler.isEnabled() ? InspectionsProfiler.wrap(this.getShortName(), visitor) : visitor;
+    }
 }
@@ -0,0 +1,125 @@
+package com.kalessil.phpStorm.phpInspectionsEA.openApi;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Name-keyed routing of calls to visitors: visitors not overriding the visit method are never called, visitors
+ * declaring names (see BasePhpElementVisitor) receive only calls with those names (case-insensitive, a trailing '*'
+ * declares a prefix), the rest - the wildcard bucket - receive every call. Visitors order is preserved.
+ *
+ * Routes are resolved once per distinct call name and memoized, so a call costs one hash lookup.
+ */
+final class CallsDispatchTable {
+    private static final Map<String, Boolean> overrides = new ConcurrentHashMap<>();
+
+    @NotNull private final PsiElementVisitor[] visitors;
+    @NotNull private final Interest[] interests; /* null entries: the visitor is in the wildcard bucket */
+    @NotNull private final PsiElementVisitor[] wildcard;
+    @NotNull private final Map<String, PsiElementVisitor[]> routes = new HashMap<>();
+
+    private static final class Interest {
+        @NotNull final Set<String> names     = new HashSet<>();
+        @NotNull final List<String> prefixes = new ArrayList<>();
+
+        Interest(@NotNull Collection<String> declared) {
+            for (final String name : declared) {
+                final String normalized = name.toLowerCase();
+                if (normalized.endsWith("*")) {
+                    this.prefixes.add(normalized.substring(0, normalized.length() - 1));
+                } else {
+                    this.names.add(normalized);
+                }
+            }
+        }
+
+        boolean matches(@NotNull String name) {
+            if (this.names.contains(name)) {
+                return true;
+            }
+            for (final String prefix : this.prefixes) {
+                if (name.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    CallsDispatchTable(
+            @NotNull PsiElementVisitor[] visitors,
+            @NotNull String visitMethod,
+            @NotNull Class<? extends PsiElement> visitedElement,
+            @NotNull Function<BasePhpElementVisitor, Collection<String>> declaredNames
+    ) {
+        final List<PsiElementVisitor> interested = new ArrayList<>();
+        final List<Interest> interests           = new ArrayList<>();
+        final List<PsiElementVisitor> wildcard   = new ArrayList<>();
+        for (final PsiElementVisitor visitor : visitors) {
+            if (!(visitor instanceof BasePhpElementVisitor)) {
+                interested.add(visitor);
+                interests.add(null);
+                wildcard.add(visitor);
+            } else if (isOverridden(visitor.getClass(), visitMethod, visitedElement)) {
+                final Collection<String> names = declaredNames.apply((BasePhpElementVisitor) visitor);
+                interested.add(visitor);
+                interests.add(names == null ? null : new Interest(names));
+                if (names == null) {
+                    wildcard.add(visitor);
+                }
+            }
+        }
+        this.visitors  = interested.toArray(new PsiElementVisitor[0]);
+        this.interests = interests.toArray(new Interest[0]);
+        this.wildcard  = wildcard.toArray(new PsiElementVisitor[0]);
+    }
+
+    void dispatch(@NotNull PsiElement element, @Nullable String name) {
+        final PsiElementVisitor[] targets = name == null ? this.wildcard : this.routes.computeIfAbsent(name, this::route);
+        for (final PsiElementVisitor visitor : targets) {
+            element.accept(visitor);
+        }
+    }
+
+    @NotNull
+    private PsiElementVisitor[] route(@NotNull String name) {
+        final String normalized               = name.toLowerCase();
+        final List<PsiElementVisitor> targets = new ArrayList<>();
+        for (int index = 0; index < this.visitors.length; ++index) {
+            final Interest interest = this.interests[index];
+            if (interest == null || interest.matches(normalized)) {
+                targets.add(this.visitors[index]);
+            }
+        }
+        return targets.size() == this.wildcard.length ? this.wildcard : targets.toArray(new PsiElementVisitor[0]);
+    }
+
+    private static boolean isOverridden(
+            @NotNull Class<?> visitor,
+            @NotNull String visitMethod,
+            @NotNull Class<? extends PsiElement> visitedElement
+    ) {
+        return overrides.computeIfAbsent(visitor.getName() + '#' + visitMethod, key -> {
+            try {
+                return visitor.getMethod(visitMethod, visitedElement).getDeclaringClass() != BasePhpElementVisitor.class;
+            } catch (final NoSuchMethodException failure) {
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,151 @@
+package com.kalessil.phpStorm.phpInspectionsEA.openApi;
+
+import com.intellij.codeInsight.daemon.HighlightDisplayKey;
+import com.intellij.codeInspection.*;
+import com.intellij.codeInspection.ex.InspectionToolWrapper;
+import com.intellij.codeInspection.ex.LocalInspectionToolWrapper;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.profile.codeInspection.InspectionProjectProfileManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.FunctionReference;
+import com.jetbrains.php.lang.psi.elements.MethodReference;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Runs a set of inspections over a PHP file with one PSI traversal: every node is fanned out to all visitors, except
+ * function calls and method references which are routed by name to the interested visitors only (see
+ * CallsDispatchTable).
+ * Opt-in: used by batch analysis and tooling, the IDE highlighting keeps using the platform engine.
+ */
+final public class FusedInspectionsEngine {
+    private static final String pluginNamespace = "com.kalessil.phpStorm.phpInspectionsEA";
+
+    @NotNull
+    static public List<LocalInspectionTool> getEnabledInspections(@NotNull PsiFile file) {
+        final List<LocalInspectionTool> result = new ArrayList<>();
+        final InspectionProfile profile        = InspectionProjectProfileManager.getInstance(file.getProject()).getInspectionProfile();
+        for (final InspectionToolWrapper wrapper : profile.getInspectionTools(file)) {
+            if (wrapper instanceof LocalInspectionToolWrapper) {
+                final HighlightDisplayKey key = HighlightDisplayKey.find(wrapper.getShortName());
+                if (key != null && profile.isToolEnabled(key, file)) {
+                    final LocalInspectionTool inspection = ((LocalInspectionToolWrapper) wrapper).getTool();
+                    if (inspection.getClass().getName().startsWith(pluginNamespace)) {
+                        result.add(inspection);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    static public Map<String, List<ProblemDescriptor>> inspect(
+            @NotNull PsiFile file,
+            @NotNull Collection<LocalInspectionTool> inspections,
+            boolean isOnTheFly
+    ) {
+        final Map<String, List<ProblemDescriptor>> result = new LinkedHashMap<>();
+        if (!(file instanceof PhpFile) || inspections.isEmpty()) {
+            return result;
+        }
+
+        /* build all visitors first, the same way the platform does it for every inspection */
+        final InspectionManager manager = InspectionManager.getInstance(file.getProject());
+        final List<Session> sessions    = new ArrayList<>(inspections.size());
+        for (final LocalInspectionTool inspection : inspections) {
+            final Session session = new Session(inspection, manager, file, isOnTheFly);
+            if (session.visitor != PsiElementVisitor.EMPTY_VISITOR) {
+                sessions.add(session);
+            }
+        }
+
+        /* single traversal: post-order, as the platform collects elements children-first */
+        if (!sessions.isEmpty()) {
+            final PsiElementVisitor[] visitors = new PsiElementVisitor[sessions.size()];
+            for (int index = 0; index < visitors.length; ++index) {
+                visitors[index] = sessions.get(index).visitor;
+            }
+            final CallsDispatchTable functionCalls = new CallsDispatchTable(
+                    visitors,
+                    "visitPhpFunctionCall",
+                    FunctionReference.class,
+                    BasePhpElementVisitor::getFunctionCallNames
+            );
+            final CallsDispatchTable methodCalls   = new CallsDispatchTable(
+                    visitors,
+                    "visitPhpMethodReference",
+                    MethodReference.class,
+                    BasePhpElementVisitor::getMethodReferenceNames
+            );
+            file.accept(new PsiRecursiveElementWalkingVisitor() {
+                @Override
+                protected void elementFinished(@NotNull PsiElement element) {
+                    ProgressManager.checkCanceled();
+                    if (element instanceof MethodReference) {
+                        methodCalls.dispatch(element, ((MethodReference) element).getName());
+                        return;
+                    }
+                    if (element instanceof FunctionReference) {
+                        functionCalls.dispatch(element, ((FunctionReference) element).getName());
+                        return;
+                    }
+                    for (final PsiElementVisitor visitor : visitors) {
+                        element.accept(visitor);
+                    }
+                }
+            });
+        }
+
+        for (final Session session : sessions) {
+            result.put(session.inspection.getShortName(), session.finish());
+        }
+        sessions.clear();
+
+        return result;
+    }
+
+    private static class Session {
+        final LocalInspectionTool inspection;
+        final ProblemsHolder holder;
+        final LocalInspectionToolSession session;
+        final PsiElementVisitor visitor;
+
+        Session(@NotNull LocalInspectionTool inspection, @NotNull InspectionManager manager, @NotNull PsiFile file, boolean isOnTheFly) {
+            this.inspection = inspection;
+            this.holder     = new ProblemsHolder(manager, file, isOnTheFly);
+            this.session    = new LocalInspectionToolSession(file, 0, file.getTextLength());
+
+            inspection.inspectionStarted(this.session, isOnTheFly);
+            this.visitor = inspection.buildVisitor(this.holder, isOnTheFly, this.session);
+        }
+
+        @NotNull
+        List<ProblemDescriptor> finish() {
+            this.inspection.inspectionFinished(this.session, this.holder);
+            /* the platform engine drops suppressed problems (e.g. "@noinspection"), so do we */
+            final List<ProblemDescriptor> result = new ArrayList<>();
+            for (final ProblemDescriptor descriptor : this.holder.getResults()) {
+                final PsiElement element = descriptor.getPsiElement();
+                if (element == null || !this.inspection.isSuppressedFor(element)) {
+                    result.add(descriptor);
+                }
+            }
+            return result;
+        }
+    }
+}
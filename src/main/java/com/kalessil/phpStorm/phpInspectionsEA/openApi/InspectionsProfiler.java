@@ -0,0 +1,165 @@
+package com.kalessil.phpStorm.phpInspectionsEA.openApi;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.jetbrains.php.lang.psi.visitors.PhpElementVisitor;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Collects wall time, invocations and (optionally) allocated bytes per inspection short name.
+ * Disabled by default: when disabled visitors are not wrapped and the highlighting path is untouched.
+ */
+final public class InspectionsProfiler {
+    private static final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+    private static final ThreadMXBean threads               = ManagementFactory.getThreadMXBean();
+
+    private static volatile boolean enabled          = false;
+    private static volatile boolean trackAllocations = false;
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static boolean isTrackingAllocations() {
+        return trackAllocations;
+    }
+
+    public static void setTrackAllocations(boolean value) {
+        trackAllocations = value && threads instanceof com.sun.management.ThreadMXBean &&
+                           ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported();
+        if (trackAllocations) {
+            ((com.sun.management.ThreadMXBean) threads).setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    public static void reset() {
+        statistics.clear();
+    }
+
+    @NotNull
+    public static List<Statistics> getStatistics() {
+        final List<Statistics> result = new ArrayList<>(statistics.values());
+        result.sort(Comparator.comparingLong(Statistics::getWallTime).reversed());
+        return result;
+    }
+
+    @NotNull
+    static PsiElementVisitor wrap(@NotNull String shortName, @NotNull PsiElementVisitor visitor) {
+        return visitor == PsiElementVisitor.EMPTY_VISITOR
+                ? visitor
+                : new ProfilingVisitor(statistics.computeIfAbsent(shortName, Statistics::new), visitor);
+    }
+
+    private static long allocatedBytes() {
+        return trackAllocations
+                ? ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId())
+                : 0L;
+    }
+
+    @NotNull
+    public static String toCsv() {
+        final StringBuilder result = new StringBuilder("inspection,invocations,wall_time_ns,allocated_bytes\n");
+        for (final Statistics entry : getStatistics()) {
+            result.append(entry.getShortName()).append(',')
+                  .append(entry.getInvocations()).append(',')
+                  .append(entry.getWallTime()).append(',')
+                  .append(entry.getAllocatedBytes()).append('\n');
+        }
+        return result.toString();
+    }
+
+    @NotNull
+    public static String toJson() {
+        final List<String> entries = new ArrayList<>();
+        for (final Statistics entry : getStatistics()) {
+            entries.add(String.format(
+                    "{\"inspection\":\"%s\",\"invocations\":%s,\"wall_time_ns\":%s,\"allocated_bytes\":%s}",
+                    entry.getShortName(),
+                    entry.getInvocations(),
+                    entry.getWallTime(),
+                    entry.getAllocatedBytes()
+            ));
+        }
+        return '[' + String.join(",\n", entries) + "]\n";
+    }
+
+    public static class Statistics {
+        final private String shortName;
+        final private LongAdder invocations    = new LongAdder();
+        final private LongAdder wallTime       = new LongAdder();
+        final private LongAdder allocatedBytes = new LongAdder();
+
+        Statistics(@NotNull String shortName) {
+            this.shortName = shortName;
+        }
+
+        @NotNull
+        public String getShortName() {
+            return this.shortName;
+        }
+
+        public long getInvocations() {
+            return this.invocations.sum();
+        }
+
+        public long getWallTime() {
+            return this.wallTime.sum();
+        }
+
+        public long getAllocatedBytes() {
+            return this.allocatedBytes.sum();
+        }
+
+        void record(long nanos, long bytes) {
+            this.invocations.increment();
+            this.wallTime.add(nanos);
+            if (bytes > 0) {
+                this.allocatedBytes.add(bytes);
+            }
+        }
+    }
+
+    /* PhpElementVisitor routes every specific callback into visitElement, so one override intercepts all of them */
+    private static class ProfilingVisitor extends PhpElementVisitor {
+        final private Statistics statistics;
+        final private PsiElementVisitor delegate;
+
+        ProfilingVisitor(@NotNull Statistics statistics, @NotNull PsiElementVisitor delegate) {
+            this.statistics = statistics;
+            this.delegate   = delegate;
+        }
+
+        @Override
+        public void visitElement(@NotNull PsiElement element) {
+            final long bytes = allocatedBytes();
+            final long start = System.nanoTime();
+            try {
+                element.accept(this.delegate);
+            } finally {
+                this.statistics.record(System.nanoTime() - start, trackAllocations ? allocatedBytes() - bytes : 0L);
+            }
+        }
+    }
+}
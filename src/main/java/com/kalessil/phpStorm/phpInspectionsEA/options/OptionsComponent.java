@@ -3,6 +3,7 @@ package com.kalessil.phpStorm.phpInspectionsEA.options;
 import com.intellij.ide.DataManager;
 import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.options.ex.Settings;
+import com.intellij.ui.DocumentAdapter;
 import com.intellij.ui.HyperlinkLabel;
 import com.intellij.ui.SeparatorFactory;
 import com.kalessil.phpStorm.phpInspectionsEA.gui.PrettyListControl;
@@ -11,6 +12,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
 import javax.swing.event.HyperlinkEvent;
 import java.awt.*;
 import java.util.ArrayList;
@@ -77,6 +79,23 @@ public final class OptionsComponent {
         optionsPanel.add(createdSpinner, "pushx, growx");
     }
 
+    public void addText(
+        @NotNull final String label,
+        @NotNull final String defaultValue,
+        @NotNull final Consumer<String> updateConsumer
+    ) {
+        final JTextField createdField = new JTextField(defaultValue);
+        createdField.getDocument().addDocumentListener(new DocumentAdapter() {
+            @Override
+            protected void textChanged(@NotNull DocumentEvent event) {
+                updateConsumer.accept(createdField.getText().trim());
+            }
+        });
+
+        optionsPanel.add(new JLabel(label), "");
+        optionsPanel.add(createdField, "pushx, growx, wrap");
+    }
+
     public void addList(
         @NotNull final String label,
         @NotNull final List<String> items,
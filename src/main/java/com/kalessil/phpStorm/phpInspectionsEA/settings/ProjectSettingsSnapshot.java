@@ -0,0 +1,66 @@
+package com.kalessil.phpStorm.phpInspectionsEA.settings;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.jetbrains.php.config.PhpLanguageLevel;
+import com.jetbrains.php.config.PhpProjectConfigurationFacade;
+import com.kalessil.phpStorm.phpInspectionsEA.EASettings;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Immutable snapshot of project configuration and plugin settings used by inspections on hot paths (per visited
+ * array, call or reference). It is kept on the project and re-created when plugin settings, project roots or PSI
+ * change: changing the language level re-parses PHP files, so the PSI modification counter covers it as well.
+ */
+final public class ProjectSettingsSnapshot {
+    private static final Key<CachedValue<ProjectSettingsSnapshot>> snapshotKey = Key.create("EA.projectSettings");
+    private static final CacheStatistics statistics                            = CacheStatistics.forName("ProjectSettingsSnapshot");
+
+    @NotNull final public PhpLanguageLevel languageLevel;
+    @NotNull final public ComparisonStyle comparisonStyle;
+    @NotNull final public List<String> testDirectories;
+    @NotNull final public List<String> testNamespaces;
+
+    private ProjectSettingsSnapshot(@NotNull Project project, @NotNull EASettings settings) {
+        this.languageLevel   = PhpProjectConfigurationFacade.getInstance(project).getLanguageLevel();
+        this.comparisonStyle = settings.getComparisonStyle() == ComparisonStyle.YODA ? ComparisonStyle.YODA : ComparisonStyle.REGULAR;
+        this.testDirectories = settings.getTestDirectories();
+        this.testNamespaces  = settings.getTestNamespaces();
+    }
+
+    @NotNull
+    public static ProjectSettingsSnapshot of(@NotNull Project project) {
+        statistics.lookup();
+        return CachedValuesManager.getManager(project).getCachedValue(project, snapshotKey, () -> {
+            statistics.miss();
+            final EASettings settings = EASettings.getInstance();
+            return CachedValueProvider.Result.create(
+                    new ProjectSettingsSnapshot(project, settings),
+                    PsiModificationTracker.MODIFICATION_COUNT,
+                    ProjectRootManager.getInstance(project),
+                    settings
+            );
+        }, false);
+    }
+
+    public boolean isRegularComparison() {
+        return this.comparisonStyle != ComparisonStyle.YODA;
+    }
+}
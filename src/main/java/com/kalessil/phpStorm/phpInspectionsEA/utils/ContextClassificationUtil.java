@@ -0,0 +1,115 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.EASettings;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Classifies files and classes as test/spec/phpt/production code. Results are cached per file and per class until
+ * the next PSI modification or a change of test context settings (test directories and namespaces).
+ */
+final public class ContextClassificationUtil {
+    private static final Key<CachedValue<Context>> fileKey  = Key.create("EA.fileContext");
+    private static final Key<CachedValue<Context>> classKey = Key.create("EA.classContext");
+    private static final CacheStatistics statistics        = CacheStatistics.forName("ContextClassificationUtil");
+
+    public enum Context {
+        TEST, SPEC, PHPT, PRODUCTION
+    }
+
+    public static boolean isTestContext(@NotNull PsiElement expression) {
+        final PsiFile file = expression.getContainingFile();
+        if (file != null && classify(file) != Context.PRODUCTION) {
+            return true;
+        }
+        final PhpClass clazz = expression instanceof PhpClass
+                ? (PhpClass) expression
+                : PsiTreeUtil.getParentOfType(expression, PhpClass.class, false, (Class) PsiFile.class);
+        return clazz != null && classify(clazz) != Context.PRODUCTION;
+    }
+
+    @NotNull
+    public static Context classify(@NotNull PsiFile file) {
+        statistics.lookup();
+        return CachedValuesManager.getCachedValue(file, fileKey, () -> {
+            statistics.miss();
+            return CachedValueProvider.Result.create(
+                    classifyFile(file),
+                    PsiModificationTracker.MODIFICATION_COUNT,
+                    EASettings.getInstance()
+            );
+        });
+    }
+
+    @NotNull
+    public static Context classify(@NotNull PhpClass clazz) {
+        statistics.lookup();
+        return CachedValuesManager.getCachedValue(clazz, classKey, () -> {
+            statistics.miss();
+            return CachedValueProvider.Result.create(
+                    classifyClass(clazz),
+                    PsiModificationTracker.MODIFICATION_COUNT,
+                    EASettings.getInstance()
+            );
+        });
+    }
+
+    @NotNull
+    private static Context classifyFile(@NotNull PsiFile file) {
+        final String fileName = file.getName();
+        if (fileName.endsWith(".phpt")) {
+            return Context.PHPT;
+        } else if (fileName.endsWith("Spec.php")) {
+            return Context.SPEC;
+        } else if (fileName.endsWith("Test.php")) {
+            return Context.TEST;
+        }
+
+        /* configured test directories are matched as path segments */
+        final VirtualFile virtualFile = file.getOriginalFile().getVirtualFile();
+        if (virtualFile != null) {
+            final String path = '/' + virtualFile.getPath() + '/';
+            for (final String directory : ProjectSettingsSnapshot.of(file.getProject()).testDirectories) {
+                final String segment = directory.replace('\\', '/').replaceAll("^/+|/+$", "");
+                if (!segment.isEmpty() && path.contains('/' + segment + '/')) {
+                    return Context.TEST;
+                }
+            }
+        }
+        return Context.PRODUCTION;
+    }
+
+    @NotNull
+    private static Context classifyClass(@NotNull PhpClass clazz) {
+        final String fqn = clazz.getFQN();
+        if (fqn.endsWith("Test")) {
+            return Context.TEST;
+        }
+        for (final String namespace : ProjectSettingsSnapshot.of(clazz.getProject()).testNamespaces) {
+            if (!namespace.isEmpty() && fqn.contains(namespace)) {
+                return Context.TEST;
+            }
+        }
+        return Context.PRODUCTION;
+    }
+}
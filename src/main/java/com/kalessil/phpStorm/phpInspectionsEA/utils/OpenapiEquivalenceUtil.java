@@ -2,8 +2,17 @@ package com.kalessil.phpStorm.phpInspectionsEA.utils;
 
 import com.intellij.codeInsight.PsiEquivalenceUtil;
 import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiComment;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiErrorElement;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.jetbrains.php.lang.psi.elements.Variable;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
 import org.jetbrains.annotations.NotNull;
 
 /*
@@ -16,10 +25,13 @@ import org.jetbrains.annotations.NotNull;
  */
 
 final public class OpenapiEquivalenceUtil {
+    private static final Key<CachedValue<Integer>> hashKey = Key.create("EA.structuralHash");
+    private static final CacheStatistics statistics       = CacheStatistics.forName("OpenapiEquivalenceUtil");
+
     public static boolean areEqual(@NotNull PsiElement first, @NotNull PsiElement second) {
         boolean result = false;
         try {
-            if (first.getClass() == second.getClass()) {
+            if (first.getClass() == second.getClass() && getHash(first) == getHash(second)) {
                 if (first instanceof Variable && second instanceof Variable) {
                     /* parser specific: "{$variable}" includes '{}' into variable node and co */
                     final String firstName  = ((Variable) first).getName();
@@ -42,4 +54,43 @@ final public class OpenapiEquivalenceUtil {
         }
         return result;
     }
+
+    /* structural hash: equal elements (see areEqual) are guaranteed to have equal hashes, the opposite is not true */
+    public static int getHash(@NotNull PsiElement element) {
+        if (!OpenapiResolveUtil.isCacheable(element)) {
+            return computeHash(element);
+        }
+        statistics.lookup();
+        return CachedValuesManager.getCachedValue(element, hashKey, () -> {
+            statistics.miss();
+            return CachedValueProvider.Result.create(computeHash(element), PsiModificationTracker.MODIFICATION_COUNT);
+        });
+    }
+
+    private static int computeHash(@NotNull PsiElement element) {
+        final int hash = element.getClass().getName().hashCode();
+        if (element instanceof Variable) {
+            /* consistent with areEqual: "{$variable}" and "$variable" are the same variable */
+            final String name = ((Variable) element).getName();
+            if (!name.isEmpty()) {
+                return 31 * hash + name.hashCode();
+            }
+        }
+        return hashLeaves(element, hash);
+    }
+
+    /* leaves text only, whitespaces and comments are ignored as PsiEquivalenceUtil does */
+    private static int hashLeaves(@NotNull PsiElement element, int hash) {
+        PsiElement child = element.getFirstChild();
+        if (child == null) {
+            return 31 * hash + element.getText().hashCode();
+        }
+        while (child != null) {
+            if (!(child instanceof PsiWhiteSpace) && !(child instanceof PsiComment) && !(child instanceof PsiErrorElement)) {
+                hash = hashLeaves(child, hash);
+            }
+            child = child.getNextSibling();
+        }
+        return hash;
+    }
 }
@@ -3,8 +3,10 @@ package com.kalessil.phpStorm.phpInspectionsEA.utils;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpAccessVariableInstruction;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.flow.DefUseSummary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -67,8 +69,15 @@ final public class OpenapiPsiSearchUtil {
     public static List<PsiElement> findEqual(@NotNull PsiElement where, @NotNull PsiElement what) {
         final List<PsiElement> result = new ArrayList<>();
         if (what instanceof Variable && where instanceof Function) {
-            /* TODO: implement */
-            throw new RuntimeException("Implement, use PhpControlFlowUtil.getFollowingVariableAccessInstructions");
+            final String variableName = ((Variable) what).getName();
+            collectVariableAccesses((Function) where, variableName, result);
+            /* closures importing the variable are having own flow, nested ones are found by the same traversal */
+            for (final Function closure : PsiTreeUtil.findChildrenOfType(where, Function.class)) {
+                final List<Variable> imported = ExpressionSemanticUtil.getUseListVariables(closure);
+                if (imported != null && imported.stream().anyMatch(variable -> variableName.equals(variable.getName()))) {
+                    collectVariableAccesses(closure, variableName, result);
+                }
+            }
         } else {
             PsiTreeUtil.findChildrenOfType(where, what.getClass()).stream()
                 .filter(expression -> OpenapiEquivalenceUtil.areEqual(what, expression))
@@ -76,4 +85,17 @@ final public class OpenapiPsiSearchUtil {
         }
         return result;
     }
+
+    private static void collectVariableAccesses(
+            @NotNull Function scope,
+            @NotNull String variableName,
+            @NotNull List<PsiElement> result
+    ) {
+        for (final PhpAccessVariableInstruction instruction : DefUseSummary.of(scope).getAccesses(variableName)) {
+            final PsiElement anchor = instruction.getAnchor();
+            if (anchor instanceof Variable) {
+                result.add(anchor);
+            }
+        }
+    }
 }
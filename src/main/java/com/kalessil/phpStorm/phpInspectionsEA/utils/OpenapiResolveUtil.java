@@ -2,14 +2,21 @@ package com.kalessil.phpStorm.phpInspectionsEA.utils;
 
 import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.jetbrains.php.PhpIndex;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.ifs.utils.ExpressionCostEstimateUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -45,8 +52,31 @@ final public class OpenapiResolveUtil {
         functionToNarrow.put("preg_replace_callback_array", 1);
     }
 
+    private static final Key<CachedValue<PsiElement>> resolvedReference = Key.create("EA.resolvedReference");
+    private static final Key<CachedValue<PhpType>> resolvedType         = Key.create("EA.resolvedType");
+    private static final CacheStatistics referencesStatistics          = CacheStatistics.forName("OpenapiResolveUtil.resolveReference");
+    private static final CacheStatistics typesStatistics               = CacheStatistics.forName("OpenapiResolveUtil.resolveType");
+
+    /* non-physical PSI (e.g. built by quick-fixes) is not tracked by the modification tracker, hence not cached */
+    static public boolean isCacheable(@NotNull PsiElement element) {
+        final PsiFile file = element.getContainingFile();
+        return file != null && file.isPhysical();
+    }
+
     @Nullable
     static public PsiElement resolveReference(@NotNull PsiReference reference) {
+        if (reference instanceof PsiElement && isCacheable((PsiElement) reference)) {
+            referencesStatistics.lookup();
+            return CachedValuesManager.getCachedValue((PsiElement) reference, resolvedReference, () -> {
+                referencesStatistics.miss();
+                return CachedValueProvider.Result.create(resolveReferenceUncached(reference), PsiModificationTracker.MODIFICATION_COUNT);
+            });
+        }
+        return resolveReferenceUncached(reference);
+    }
+
+    @Nullable
+    static private PsiElement resolveReferenceUncached(@NotNull PsiReference reference) {
         try {
             return reference.resolve();
         } catch (final Throwable error) {
@@ -59,6 +89,18 @@ final public class OpenapiResolveUtil {
 
     @Nullable
     static public PhpType resolveType(@NotNull PhpTypedElement expression, @NotNull Project project) {
+        if (isCacheable(expression)) {
+            typesStatistics.lookup();
+            return CachedValuesManager.getCachedValue(expression, resolvedType, () -> {
+                typesStatistics.miss();
+                return CachedValueProvider.Result.create(resolveTypeUncached(expression, project), PsiModificationTracker.MODIFICATION_COUNT);
+            });
+        }
+        return resolveTypeUncached(expression, project);
+    }
+
+    @Nullable
+    static private PhpType resolveTypeUncached(@NotNull PhpTypedElement expression, @NotNull Project project) {
         PhpType result = null;
         try {
             if (expression instanceof FunctionReference) {
@@ -73,7 +115,8 @@ final public class OpenapiResolveUtil {
                     final String name = reference.getName();
                     /* override signatures if we specified custom signatures */
                     if (name != null && functionReturnTypes.containsKey(name)) {
-                        result = functionReturnTypes.get(name);
+                        /* a copy: the narrowing below modifies the types and results are shared via the cache */
+                        result = new PhpType().add(functionReturnTypes.get(name));
                     }
                     /* some of replacement function result can be narrowed from arguments type */
                     if (name != null && functionToNarrow.containsKey(name)) {
@@ -82,11 +125,12 @@ final public class OpenapiResolveUtil {
                         if (arguments.length > targetPosition && arguments[targetPosition] instanceof PhpTypedElement) {
                             final PhpType argumentType = resolveType((PhpTypedElement) arguments[targetPosition], project);
                             if (argumentType != null && !argumentType.isEmpty() && !argumentType.hasUnknown()) {
-                                if (argumentType.getTypes().stream().noneMatch(t -> Types.getType(t).equals(Types.strArray))) {
-                                    result.getTypes().removeIf(t -> Types.getType(t).equals(Types.strArray));
+                                final long argumentKinds = TypeSet.kindsOf(argumentType);
+                                if ((argumentKinds & TypeSet.ARRAY) == 0L) {
+                                    result.getTypes().removeIf(t -> TypeSet.kindOf(t) == TypeSet.ARRAY);
                                 }
-                                if (argumentType.getTypes().stream().noneMatch(t -> Types.getType(t).equals(Types.strString))) {
-                                    result.getTypes().removeIf(t -> Types.getType(t).equals(Types.strString));
+                                if ((argumentKinds & TypeSet.STRING) == 0L) {
+                                    result.getTypes().removeIf(t -> TypeSet.kindOf(t) == TypeSet.STRING);
                                 }
                             }
                         }
@@ -112,24 +156,19 @@ final public class OpenapiResolveUtil {
                     if (left instanceof PhpTypedElement) {
                         final PhpType leftType = resolveType((PhpTypedElement) left, project);
                         if (leftType != null) {
-                            final Set<String> leftTypes = new HashSet<>();
-                            leftType.getTypes().forEach(type -> leftTypes.add(Types.getType(type)));
-                            hasFloat = leftTypes.contains(Types.strFloat) || leftTypes.contains(Types.strNumber);
-                            hasArray = leftTypes.contains(Types.strArray);
-                            leftTypes.clear();
+                            final long leftKinds = TypeSet.kindsOf(leftType);
+                            hasFloat             = (leftKinds & (TypeSet.FLOAT | TypeSet.NUMBER)) != 0L;
+                            hasArray             = (leftKinds & TypeSet.ARRAY) != 0L;
                             if (!hasFloat || (!hasArray && operator == PhpTokenTypes.opPLUS)) {
                                 final PsiElement right
                                         = ExpressionSemanticUtil.getExpressionTroughParenthesis(binary.getRightOperand());
                                 if (right instanceof PhpTypedElement) {
                                     final PhpType rightType = resolveType((PhpTypedElement) right, project);
                                     if (rightType != null) {
-                                        final Set<String> rightTypes = new HashSet<>();
-                                        rightType.getTypes().forEach(type -> rightTypes.add(Types.getType(type)));
-                                        hasFloat = hasFloat ||
-                                                   rightTypes.contains(Types.strFloat) || leftTypes.contains(Types.strNumber);
-                                        hasArray = (hasArray && !OpenapiTypesUtil.isNumber(right)) ||
-                                                   rightTypes.contains(Types.strArray);
-                                        rightTypes.clear();
+                                        final long rightKinds = TypeSet.kindsOf(rightType);
+                                        hasFloat              = hasFloat || (rightKinds & TypeSet.FLOAT) != 0L;
+                                        hasArray              = (hasArray && !OpenapiTypesUtil.isNumber(right)) ||
+                                                                (rightKinds & TypeSet.ARRAY) != 0L;
                                     }
                                 }
                             }
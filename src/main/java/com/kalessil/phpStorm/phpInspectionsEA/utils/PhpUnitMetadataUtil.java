@@ -0,0 +1,268 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.indexers.PhpUnitMetadataIndexer;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassHierarchyUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * PHPUnit-related queries backed by PhpUnitMetadataIndexer and ClassHierarchyUtil: classes and methods are looked up
+ * by FQN and name, without resolving doc-block references. Entries are memoized per project until the next
+ * PSI modification (doc-blocks and providers bodies are part of the metadata).
+ */
+final public class PhpUnitMetadataUtil {
+    private static final Key<CachedValue<Map<String, ClassEntry>>> entriesKey = Key.create("EA.phpUnitMetadataEntries");
+    private static final CacheStatistics statistics                          = CacheStatistics.forName("PhpUnitMetadataUtil");
+    private static final ClassEntry unknown                                  = new ClassEntry("");
+    private static final Pattern methodName                                  = Pattern.compile("^[a-zA-Z_\\x7f-\\xff][a-zA-Z0-9_\\x7f-\\xff]*$");
+    private static final int maxClasses                                      = 64;
+
+    @Nullable
+    public static ClassEntry getClass(@NotNull String fqn, @NotNull Project project) {
+        final Map<String, ClassEntry> entries = CachedValuesManager.getManager(project).getCachedValue(
+                project,
+                entriesKey,
+                () -> CachedValueProvider.Result.create(new ConcurrentHashMap<>(), PsiModificationTracker.MODIFICATION_COUNT),
+                false
+        );
+        statistics.lookup();
+        final ClassEntry entry = entries.computeIfAbsent(fqn.toLowerCase(), key -> {
+            statistics.miss();
+            final List<String> definitions = FileBasedIndex.getInstance()
+                    .getValues(PhpUnitMetadataIndexer.identity, key, GlobalSearchScope.allScope(project));
+            /* duplicate definitions: the first one wins, as the resolver does; but any final definition makes it final */
+            return definitions.isEmpty()
+                    ? unknown
+                    : new ClassEntry(definitions.get(0), definitions.stream().anyMatch(ClassEntry::isFinalDefinition));
+        });
+        return entry == unknown ? null : entry;
+    }
+
+    /* for classes the index can not answer about, e.g. resolved from stubs */
+    @NotNull
+    public static ClassEntry describe(@NotNull PhpClass clazz) {
+        return new ClassEntry(PhpUnitMetadataIndexer.serialize(clazz));
+    }
+
+    public static boolean isMethodName(@NotNull String name) {
+        return methodName.matcher(name).matches();
+    }
+
+    /* looks into the class, used traits, parents and interfaces (as PhpClass.findMethodByName does) */
+    @NotNull
+    public static MethodLookup findMethod(@NotNull String fqn, @NotNull String name, @NotNull Project project) {
+        final Deque<String> pending = new ArrayDeque<>();
+        final Set<String> processed = new HashSet<>();
+        boolean isConclusive        = true;
+        pending.add(fqn);
+        while (!pending.isEmpty()) {
+            final String current = pending.poll();
+            if (!processed.add(current.toLowerCase())) {
+                continue;
+            }
+            if (processed.size() > maxClasses) {
+                isConclusive = false;
+                break;
+            }
+
+            final ClassEntry entry                   = getClass(current, project);
+            final ClassHierarchyUtil.Entry relations = ClassHierarchyUtil.getEntry(current, project);
+            if (entry == null || relations == null) {
+                isConclusive = false;
+                continue;
+            }
+            final MethodEntry method = entry.getMethod(name);
+            if (method != null) {
+                processed.clear();
+                return new MethodLookup(method, true);
+            }
+            pending.addAll(entry.traits);
+            if (relations.parent != null) {
+                pending.add(relations.parent);
+            }
+            pending.addAll(relations.interfaces);
+        }
+        processed.clear();
+        return new MethodLookup(null, isConclusive);
+    }
+
+    /* own or inherited constructor (used traits included), null if there is none or the hierarchy is not indexed */
+    @Nullable
+    public static MethodEntry findConstructor(@NotNull String fqn, @NotNull ClassEntry entry, @NotNull Project project) {
+        MethodEntry constructor = findOwnConstructor(entry, project);
+        if (constructor == null) {
+            for (final String parent : ClassHierarchyUtil.getParentChain(fqn, project)) {
+                final ClassEntry parentEntry = getClass(parent, project);
+                constructor                  = parentEntry == null ? null : findOwnConstructor(parentEntry, project);
+                if (constructor != null || parentEntry == null) {
+                    break;
+                }
+            }
+        }
+        return constructor;
+    }
+
+    /* declared in the class itself or in the traits it uses (traits can use traits as well) */
+    @Nullable
+    private static MethodEntry findOwnConstructor(@NotNull ClassEntry entry, @NotNull Project project) {
+        MethodEntry constructor = entry.getConstructor();
+        if (constructor == null && !entry.traits.isEmpty()) {
+            final Deque<String> pending = new ArrayDeque<>(entry.traits);
+            final Set<String> processed = new HashSet<>();
+            while (constructor == null && !pending.isEmpty() && processed.size() < maxClasses) {
+                final String trait = pending.poll();
+                if (processed.add(trait.toLowerCase())) {
+                    final ClassEntry traitEntry = getClass(trait, project);
+                    if (traitEntry != null) {
+                        constructor = traitEntry.getConstructor();
+                        pending.addAll(traitEntry.traits);
+                    }
+                }
+            }
+            processed.clear();
+        }
+        return constructor;
+    }
+
+    final public static class MethodLookup {
+        @Nullable final public MethodEntry method;
+        /* when the method was not found: all classes in the hierarchy were indexed, so it is really missing */
+        final public boolean isConclusive;
+
+        private MethodLookup(@Nullable MethodEntry method, boolean isConclusive) {
+            this.method       = method;
+            this.isConclusive = isConclusive;
+        }
+    }
+
+    final public static class ClassEntry {
+        @NotNull final public List<String> traits              = new ArrayList<>();
+        @NotNull final private Map<String, MethodEntry> methods = new HashMap<>();
+        final public boolean isFinal;
+        final public boolean isAbstract;
+        final public boolean isTrait;
+        final public boolean isInterface;
+
+        private ClassEntry(@NotNull String serialized) {
+            this(serialized, false);
+        }
+
+        private ClassEntry(@NotNull String serialized, boolean isFinal) {
+            final Map<String, String> values = parse(serialized);
+            final String flags               = values.getOrDefault("flags", "");
+            this.isFinal                     = isFinal || flags.indexOf('f') != -1;
+            this.isAbstract    = flags.indexOf('a') != -1;
+            this.isTrait       = flags.indexOf('t') != -1;
+            this.isInterface   = flags.indexOf('i') != -1;
+            this.traits.addAll(split(values.get("traits")));
+
+            for (final String method : split(values.get("methods"))) {
+                final int separator = method.indexOf('/');
+                if (separator > 0) {
+                    final String name = method.substring(0, separator);
+                    this.methods.put(name.toLowerCase(), new MethodEntry(name, method.substring(separator + 1)));
+                }
+            }
+            for (final String annotations : Arrays.asList("providers", "depends", "covers")) {
+                for (final String targets : split(values.get(annotations))) {
+                    final int separator      = targets.indexOf('>');
+                    final MethodEntry method = separator > 0 ? this.methods.get(targets.substring(0, separator).toLowerCase()) : null;
+                    if (method != null) {
+                        final List<String> references = Arrays.asList(targets.substring(separator + 1).split("\\|"));
+                        if (annotations.equals("providers")) {
+                            method.providers.addAll(references);
+                        } else if (annotations.equals("depends")) {
+                            method.depends.addAll(references);
+                        } else {
+                            method.covers.addAll(references);
+                        }
+                    }
+                }
+            }
+            values.clear();
+        }
+
+        private static boolean isFinalDefinition(@NotNull String serialized) {
+            return parse(serialized).getOrDefault("flags", "").indexOf('f') != -1;
+        }
+
+        @NotNull
+        private static Map<String, String> parse(@NotNull String serialized) {
+            final Map<String, String> values = new HashMap<>();
+            for (final String pair : serialized.split(";")) {
+                final int separator = pair.indexOf(':');
+                if (separator > 0) {
+                    values.put(pair.substring(0, separator), pair.substring(separator + 1));
+                }
+            }
+            return values;
+        }
+
+        @NotNull
+        private static List<String> split(@Nullable String value) {
+            return value == null || value.isEmpty() ? Collections.emptyList() : Arrays.asList(value.split(","));
+        }
+
+        @Nullable
+        public MethodEntry getMethod(@NotNull String name) {
+            return this.methods.get(name.toLowerCase());
+        }
+
+        @NotNull
+        public Collection<MethodEntry> getMethods() {
+            return Collections.unmodifiableCollection(this.methods.values());
+        }
+
+        @Nullable
+        public MethodEntry getConstructor() {
+            return this.methods.values().stream().filter(method -> method.isConstructor).findFirst().orElse(null);
+        }
+    }
+
+    final public static class MethodEntry {
+        @NotNull final public String name;
+        /* raw @dataProvider, @depends and @covers references: the dependency graph of tests */
+        @NotNull final public List<String> providers = new ArrayList<>();
+        @NotNull final public List<String> depends   = new ArrayList<>();
+        @NotNull final public List<String> covers    = new ArrayList<>();
+        final public boolean isTest;
+        final public boolean isAbstract;
+        final public boolean isFinal;
+        final public boolean isConstructor;
+        final public boolean requiresArguments;
+        final public boolean hasPositionalDataset;
+
+        private MethodEntry(@NotNull String name, @NotNull String flags) {
+            this.name                 = name;
+            this.isTest               = flags.indexOf('t') != -1;
+            this.isAbstract           = flags.indexOf('a') != -1;
+            this.isFinal              = flags.indexOf('f') != -1;
+            this.isConstructor        = flags.indexOf('c') != -1;
+            this.requiresArguments    = flags.indexOf('r') != -1;
+            this.hasPositionalDataset = flags.indexOf('n') != -1;
+        }
+    }
+}
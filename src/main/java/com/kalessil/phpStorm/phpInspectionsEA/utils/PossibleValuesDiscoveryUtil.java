@@ -1,14 +1,20 @@
 package com.kalessil.phpStorm.phpInspectionsEA.utils;
 
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.LimitStatistics;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -22,10 +28,18 @@ import java.util.stream.Stream;
  */
 
 public class PossibleValuesDiscoveryUtil {
+    /* discovery is following assignments chains: bound it for generated and other pathological code */
+    private static final int maxDepth     = 16;
+    private static final int maxProcessed = 256;
+
+    private static final Key<CachedValue<ScopeAssignments>> scopeKey = Key.create("EA.scopeAssignments");
+    private static final CacheStatistics statistics                 = CacheStatistics.forName("PossibleValuesDiscoveryUtil");
+    private static final LimitStatistics limits                     = LimitStatistics.forName("PossibleValuesDiscoveryUtil");
+
     @NotNull
     static public Set<PsiElement> discover(@NotNull PsiElement expression) {
         final Set<PsiElement> processed      = new HashSet<>();
-        final Set<PsiElement> result         = discover(expression, processed);
+        final Set<PsiElement> result         = discover(expression, processed, 0);
         final Set<PsiElement> filteredResult = result.stream().filter(Objects::nonNull).collect(Collectors.toSet());
         processed.clear();
         result.clear();
@@ -33,7 +47,7 @@ public class PossibleValuesDiscoveryUtil {
     }
 
     @NotNull
-    static private Set<PsiElement> discover(@NotNull PsiElement expression, @NotNull Set<PsiElement> processed) {
+    static private Set<PsiElement> discover(@NotNull PsiElement expression, @NotNull Set<PsiElement> processed, int depth) {
         /* un-wrap parentheses to avoid false-positives */
         expression = ExpressionSemanticUtil.getExpressionTroughParenthesis(expression);
 
@@ -42,11 +56,15 @@ public class PossibleValuesDiscoveryUtil {
         if (processed.contains(expression)) {
             return result;
         }
+        if (depth > maxDepth || processed.size() >= maxProcessed) {
+            limits.trigger();
+            return result;
+        }
         processed.add(expression);
 
         /* Case 1: ternary operator, recursively check variants */
         if (expression instanceof TernaryExpression) {
-            handleTernary((TernaryExpression) expression, result, processed);
+            handleTernary((TernaryExpression) expression, result, processed, depth + 1);
             return result;
         }
 
@@ -54,20 +72,20 @@ public class PossibleValuesDiscoveryUtil {
         if (expression instanceof BinaryExpression) {
             final BinaryExpression binary = (BinaryExpression) expression;
             if (binary.getOperationType() == PhpTokenTypes.opCOALESCE) {
-                handleNullCoalesce(binary, result, processed);
+                handleNullCoalesce(binary, result, processed, depth + 1);
                 return result;
             }
         }
 
         /* Case 3: parameter defaults, assignments */
         if (expression instanceof Variable) {
-            handleVariable((Variable) expression, result, processed);
+            handleVariable((Variable) expression, result, processed, depth + 1);
             return result;
         }
 
         /* Case 4: default value discovery */
         if (expression instanceof FieldReference) {
-            handleClassFieldReference((FieldReference) expression, result, processed);
+            handleClassFieldReference((FieldReference) expression, result, processed, depth + 1);
             return result;
         }
 
@@ -85,21 +103,17 @@ public class PossibleValuesDiscoveryUtil {
     static private void handleVariable(
             @NotNull Variable variable,
             @NotNull Set<PsiElement> result,
-            @NotNull Set<PsiElement> processed
+            @NotNull Set<PsiElement> processed,
+            int depth
     ) {
         final String variableName = variable.getName();
         final Function callable   = variableName.isEmpty() ? null : ExpressionSemanticUtil.getScope(variable);
         if (callable != null) {
-            for (final Parameter parameter : callable.getParameters()) {
-                if (parameter.getName().equals(variableName)) {
-                    final PsiElement defaultValue = parameter.getDefaultValue();
-                    if (defaultValue != null) {
-                        result.add(defaultValue);
-                    }
-                    break;
-                }
+            final PsiElement defaultValue = getScopeAssignments(callable).defaults.get(variableName);
+            if (defaultValue != null) {
+                result.add(defaultValue);
             }
-            handleAssignmentsInScope(callable, variable, result, processed);
+            handleAssignmentsInScope(callable, variable, result, processed, depth);
         }
     }
 
@@ -120,7 +134,8 @@ public class PossibleValuesDiscoveryUtil {
     static private void handleClassFieldReference(
             @NotNull FieldReference reference,
             @NotNull Set<PsiElement> result,
-            @NotNull Set<PsiElement> processed
+            @NotNull Set<PsiElement> processed,
+            int depth
     ) {
         final String name      = reference.getName();
         final PsiElement field = (name == null || name.isEmpty()) ? null : OpenapiResolveUtil.resolveReference(reference);
@@ -136,16 +151,17 @@ public class PossibleValuesDiscoveryUtil {
         final Function callable    = ExpressionSemanticUtil.getScope(reference);
         Stream.of(callable, constructor)
                 .filter(Objects::nonNull)
-                .forEach(method -> handleAssignmentsInScope(method, reference, result, processed));
+                .forEach(method -> handleAssignmentsInScope(method, reference, result, processed, depth));
     }
 
     static private void handleTernary(
             @NotNull TernaryExpression ternary,
             @NotNull Set<PsiElement> result,
-            @NotNull Set<PsiElement> processed
+            @NotNull Set<PsiElement> processed,
+            int depth
     ) {
         Stream.of(ternary.getTrueVariant(), ternary.getFalseVariant()).filter(Objects::nonNull).forEach(variant -> {
-            final Set<PsiElement> variants = discover(variant, processed);
+            final Set<PsiElement> variants = discover(variant, processed, depth);
             if (!variants.isEmpty()) {
                 result.addAll(variants);
                 variants.clear();
@@ -156,10 +172,11 @@ public class PossibleValuesDiscoveryUtil {
     static private void handleNullCoalesce(
             @NotNull BinaryExpression binary,
             @NotNull Set<PsiElement> result,
-            @NotNull Set<PsiElement> processed
+            @NotNull Set<PsiElement> processed,
+            int depth
     ) {
         Stream.of(binary.getLeftOperand(), binary.getRightOperand()).filter(Objects::nonNull).forEach(variant -> {
-            final Set<PsiElement> variants = discover(variant, processed);
+            final Set<PsiElement> variants = discover(variant, processed, depth);
             if (!variants.isEmpty()) {
                 result.addAll(variants);
                 variants.clear();
@@ -171,11 +188,13 @@ public class PossibleValuesDiscoveryUtil {
             @NotNull Function callable,
             @NotNull PsiElement target,
             @NotNull Set<PsiElement> result,
-            @NotNull Set<PsiElement> processed
+            @NotNull Set<PsiElement> processed,
+            int depth
     ) {
-        final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(callable);
-        for (final AssignmentExpression expression : PsiTreeUtil.findChildrenOfType(body, AssignmentExpression.class)) {
-            if (OpenapiTypesUtil.isAssignment(expression)) {
+        final List<AssignmentExpression> candidates
+                = getScopeAssignments(callable).assignments.get(OpenapiEquivalenceUtil.getHash(target));
+        if (candidates != null) {
+            for (final AssignmentExpression expression : candidates) {
                 final PsiElement container = expression.getVariable();
                 if (container != null && OpenapiEquivalenceUtil.areEqual(container, target)) {
                     /* handle multiple assignments */
@@ -184,7 +203,7 @@ public class PossibleValuesDiscoveryUtil {
                         storedValue = ((AssignmentExpression) storedValue).getValue();
                     }
                     if (storedValue != null) {
-                        final Set<PsiElement> discoveredWrites = discover(storedValue, processed);
+                        final Set<PsiElement> discoveredWrites = discover(storedValue, processed, depth);
                         if (!discoveredWrites.isEmpty()) {
                             result.addAll(discoveredWrites);
                             discoveredWrites.clear();
@@ -194,4 +213,43 @@ public class PossibleValuesDiscoveryUtil {
             }
         }
     }
+
+    @NotNull
+    static private ScopeAssignments getScopeAssignments(@NotNull Function callable) {
+        if (!OpenapiResolveUtil.isCacheable(callable)) {
+            return new ScopeAssignments(callable);
+        }
+        statistics.lookup();
+        return CachedValuesManager.getCachedValue(callable, scopeKey, () -> {
+            statistics.miss();
+            return CachedValueProvider.Result.create(new ScopeAssignments(callable), PsiModificationTracker.MODIFICATION_COUNT);
+        });
+    }
+
+    /* per-scope index: assignments grouped by the container structural hash, parameters defaults by name */
+    static private final class ScopeAssignments {
+        final private Map<Integer, List<AssignmentExpression>> assignments = new HashMap<>();
+        final private Map<String, PsiElement> defaults                     = new HashMap<>();
+
+        private ScopeAssignments(@NotNull Function callable) {
+            for (final Parameter parameter : callable.getParameters()) {
+                final PsiElement defaultValue = parameter.getDefaultValue();
+                if (defaultValue != null) {
+                    this.defaults.putIfAbsent(parameter.getName(), defaultValue);
+                }
+            }
+            final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(callable);
+            for (final AssignmentExpression expression : PsiTreeUtil.findChildrenOfType(body, AssignmentExpression.class)) {
+                ProgressManager.checkCanceled();
+                if (OpenapiTypesUtil.isAssignment(expression)) {
+                    final PsiElement container = expression.getVariable();
+                    if (container != null) {
+                        this.assignments
+                                .computeIfAbsent(OpenapiEquivalenceUtil.getHash(container), hash -> new ArrayList<>())
+                                .add(expression);
+                    }
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,243 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Normalized types (see Types.getType) in a compact form: built-in kinds are bits of a long, other types (classes)
+ * are kept as a sorted array of interned names. Raw type strings are classified once and memoized.
+ */
+final public class TypeSet {
+    final static public long ARRAY     = 1L;
+    final static public long ITERABLE  = 1L << 1;
+    final static public long STRING    = 1L << 2;
+    final static public long BOOLEAN   = 1L << 3;
+    final static public long INTEGER   = 1L << 4;
+    final static public long FLOAT     = 1L << 5;
+    final static public long NUMBER    = 1L << 6;
+    final static public long NULL      = 1L << 7;
+    final static public long VOID      = 1L << 8;
+    final static public long MIXED     = 1L << 9;
+    final static public long CALLABLE  = 1L << 10;
+    final static public long RESOURCE  = 1L << 11;
+    final static public long STATIC    = 1L << 12;
+    final static public long SELF      = 1L << 13;
+    final static public long OBJECT    = 1L << 14;
+    final static public long EMPTY_SET = 1L << 15;
+
+    final static public TypeSet EMPTY = new TypeSet(0L, new String[0]);
+
+    final static private Map<String, Long> kindsByName = new HashMap<>();
+    static {
+        kindsByName.put(Types.strArray,    ARRAY);
+        kindsByName.put(Types.strIterable, ITERABLE);
+        kindsByName.put(Types.strString,   STRING);
+        kindsByName.put(Types.strBoolean,  BOOLEAN);
+        kindsByName.put(Types.strInteger,  INTEGER);
+        kindsByName.put(Types.strFloat,    FLOAT);
+        kindsByName.put(Types.strNumber,   NUMBER);
+        kindsByName.put(Types.strNull,     NULL);
+        kindsByName.put(Types.strVoid,     VOID);
+        kindsByName.put(Types.strMixed,    MIXED);
+        kindsByName.put(Types.strCallable, CALLABLE);
+        kindsByName.put(Types.strResource, RESOURCE);
+        kindsByName.put(Types.strStatic,   STATIC);
+        kindsByName.put(Types.strSelf,     SELF);
+        kindsByName.put(Types.strObject,   OBJECT);
+        kindsByName.put(Types.strEmptySet, EMPTY_SET);
+    }
+
+    /* raw type => kind bit, 0 for classes; bounded as project class names are feeding it as well */
+    final static private int memoLimit                   = 10_000;
+    final static private Map<String, Long> classified    = new ConcurrentHashMap<>();
+    final static private Map<String, String> internedFqn = new ConcurrentHashMap<>();
+
+    final private long kinds;
+    @NotNull final private String[] classes;
+
+    private TypeSet(long kinds, @NotNull String[] classes) {
+        this.kinds   = kinds;
+        this.classes = classes;
+    }
+
+    @NotNull
+    public static TypeSet of(@NotNull PhpType type) {
+        return of(type.getTypes());
+    }
+
+    @NotNull
+    public static TypeSet of(@NotNull Collection<String> types) {
+        long kinds           = 0L;
+        List<String> classes = null;
+        for (final String type : types) {
+            final long kind = kindOf(type);
+            if (kind != 0L) {
+                kinds |= kind;
+            } else {
+                if (classes == null) {
+                    classes = new ArrayList<>(types.size());
+                }
+                classes.add(intern(type));
+            }
+        }
+        return kinds == 0L && classes == null ? EMPTY : new TypeSet(kinds, sorted(classes));
+    }
+
+    /* kind bit of a raw type, 0 if the type is not a built-in one */
+    public static long kindOf(@NotNull String rawType) {
+        Long kind = classified.get(rawType);
+        if (kind == null) {
+            kind = kindsByName.getOrDefault(Types.getType(rawType), 0L);
+            if (classified.size() < memoLimit) {
+                classified.put(rawType, kind);
+            }
+        }
+        return kind;
+    }
+
+    /* kinds of a type without materializing the set: for checks not involving classes */
+    public static long kindsOf(@NotNull PhpType type) {
+        long kinds = 0L;
+        for (final String rawType : type.getTypes()) {
+            kinds |= kindOf(rawType);
+        }
+        return kinds;
+    }
+
+    public long getKinds() {
+        return this.kinds;
+    }
+
+    @NotNull
+    public List<String> getClasses() {
+        return Collections.unmodifiableList(Arrays.asList(this.classes));
+    }
+
+    public boolean isEmpty() {
+        return this.kinds == 0L && this.classes.length == 0;
+    }
+
+    public int size() {
+        return Long.bitCount(this.kinds) + this.classes.length;
+    }
+
+    /* true if any of given kinds is present */
+    public boolean containsAny(long kinds) {
+        return (this.kinds & kinds) != 0L;
+    }
+
+    public boolean containsAll(long kinds) {
+        return (this.kinds & kinds) == kinds;
+    }
+
+    public boolean containsNull() {
+        return (this.kinds & NULL) != 0L;
+    }
+
+    public boolean hasClasses() {
+        return this.classes.length > 0;
+    }
+
+    public boolean containsClass(@NotNull String fqn) {
+        return Arrays.binarySearch(this.classes, fqn) >= 0;
+    }
+
+    /* true if the set is not empty and consists of given kinds only (classes are not allowed) */
+    public boolean consistsOf(long kinds) {
+        return this.classes.length == 0 && this.kinds != 0L && (this.kinds & ~kinds) == 0L;
+    }
+
+    @NotNull
+    public TypeSet without(long kinds) {
+        return (this.kinds & kinds) == 0L ? this : new TypeSet(this.kinds & ~kinds, this.classes);
+    }
+
+    @NotNull
+    public TypeSet union(@NotNull TypeSet other) {
+        if (other.isEmpty() || other == this) {
+            return this;
+        } else if (this.isEmpty()) {
+            return other;
+        }
+        final Set<String> classes = new TreeSet<>(Arrays.asList(this.classes));
+        classes.addAll(Arrays.asList(other.classes));
+        return new TypeSet(this.kinds | other.kinds, classes.toArray(new String[0]));
+    }
+
+    @NotNull
+    public TypeSet intersect(@NotNull TypeSet other) {
+        if (other == this) {
+            return this;
+        }
+        final List<String> classes = new ArrayList<>();
+        for (final String fqn : this.classes) {
+            if (other.containsClass(fqn)) {
+                classes.add(fqn);
+            }
+        }
+        final long kinds = this.kinds & other.kinds;
+        return kinds == 0L && classes.isEmpty() ? EMPTY : new TypeSet(kinds, classes.toArray(new String[0]));
+    }
+
+    /* normalized names, as Types.getType would produce */
+    @NotNull
+    public Set<String> toNames() {
+        final Set<String> result = new HashSet<>(Arrays.asList(this.classes));
+        kindsByName.forEach((name, kind) -> {
+            if ((this.kinds & kind) != 0L) {
+                result.add(name);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other == this ||
+               (other instanceof TypeSet && ((TypeSet) other).kinds == this.kinds && Arrays.equals(((TypeSet) other).classes, this.classes));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(this.kinds) + Arrays.hashCode(this.classes);
+    }
+
+    @Override
+    public String toString() {
+        return String.join("|", new TreeSet<>(this.toNames()));
+    }
+
+    @NotNull
+    private static String intern(@NotNull String fqn) {
+        final String existing = internedFqn.get(fqn);
+        if (existing != null) {
+            return existing;
+        }
+        if (internedFqn.size() < memoLimit) {
+            internedFqn.putIfAbsent(fqn, fqn);
+        }
+        return fqn;
+    }
+
+    @NotNull
+    private static String[] sorted(List<String> classes) {
+        if (classes == null) {
+            return EMPTY.classes;
+        }
+        final String[] result = new TreeSet<>(classes).toArray(new String[0]);
+        classes.clear();
+        return result;
+    }
+}
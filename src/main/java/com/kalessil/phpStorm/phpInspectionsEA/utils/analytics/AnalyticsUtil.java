@@ -9,11 +9,16 @@ package com.kalessil.phpStorm.phpInspectionsEA.utils.analytics;
  * file that was distributed with this source code.
  */
 
+import com.intellij.openapi.application.PathManager;
 import org.apache.http.client.fluent.Request;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -36,64 +41,106 @@ final public class AnalyticsUtil {
         stopList.add("OpenapiResolveUtil.java");
     }
 
-    final static private String COLLECTOR_ID    = "UA-16483983-8";
-    final static private String COLLECTOR_URL   = "https://www.google-analytics.com/collect"; /* or /debug/collect */
-    private static final String pluginNamespace = "com.kalessil.phpStorm.phpInspectionsEA";
+    final static private String COLLECTOR_ID        = "UA-16483983-8";
+    final static private String COLLECTOR_URL       = "https://www.google-analytics.com/collect"; /* or /debug/collect */
+    final static private String BATCH_COLLECTOR_URL = "https://www.google-analytics.com/batch";
+    private static final String pluginNamespace     = "com.kalessil.phpStorm.phpInspectionsEA";
 
+    private static final CrashReportsQueue reports = new CrashReportsQueue(
+        AnalyticsUtil::describeLoggedException,
+        AnalyticsUtil::invokeExceptionReporting,
+        new File(PathManager.getSystemPath(), "ea-crash-reports.spool"),
+        System::currentTimeMillis
+    ).start();
+
+    /* invoked from the logging path: the exception is only queued, reporting happens in background */
     public static void registerLoggedException(@Nullable String version, @Nullable String uuid, @Nullable Throwable error) {
         if (error != null) {
-            /* ignore IO-errors, that's not something we can handle */
-            final Throwable cause = error.getCause();
-            if (stopList.contains(error.getClass().getName()) || error instanceof IOException || cause instanceof IOException) {
-                return;
-            }
-
-            /* report plugin failure location and trace top: to understand is it internals or the plugin */
-            final StackTraceElement[] stackTrace  = error.getStackTrace();
-            final List<StackTraceElement> related = Arrays.stream(stackTrace)
-                    .filter(element -> element.getClassName().contains(pluginNamespace))
-                    .collect(Collectors.toList());
-            if (!related.isEmpty()) {
-                final StackTraceElement entryPoint = related.get(0);
-                if (!stopList.contains(entryPoint.getFileName()) && !stopList.contains(stackTrace[0].getClassName())) {
-                    final String description = String.format(
-                        "[%s:%s@%s] %s::%s#%s: %s|%s",
-                        entryPoint.getFileName(),
-                        entryPoint.getLineNumber(),
-                        version,
-                        stackTrace[0].getClassName(),
-                        stackTrace[0].getMethodName(),
-                        stackTrace[0].getLineNumber(),
-                        error.getMessage(),
-                        error.getClass().getName()
-                    );
-                    invokeExceptionReporting(uuid, description);
-                }
-                related.clear();
-            }
+            reports.offer(version, uuid, error);
         }
     }
 
-    static private void invokeExceptionReporting(@Nullable String uuid, @NotNull String description) {
-        new Thread(() -> {
-            /* See https://developers.google.com/analytics/devguides/collection/analyticsjs/exceptions */
-            final StringBuilder payload = new StringBuilder();
+    @Nullable
+    static private CrashReportsQueue.CrashReport describeLoggedException(
+        @Nullable String version,
+        @Nullable String uuid,
+        @NotNull Throwable error
+    ) {
+        /* ignore IO-errors, that's not something we can handle */
+        final Throwable cause = error.getCause();
+        if (stopList.contains(error.getClass().getName()) || error instanceof IOException || cause instanceof IOException) {
+            return null;
+        }
+
+        /* report plugin failure location and trace top: to understand is it internals or the plugin */
+        final StackTraceElement[] stackTrace  = error.getStackTrace();
+        final List<StackTraceElement> related = Arrays.stream(stackTrace)
+                .filter(element -> element.getClassName().contains(pluginNamespace))
+                .collect(Collectors.toList());
+        if (related.isEmpty()) {
+            return null;
+        }
+        final StackTraceElement entryPoint = related.get(0);
+        if (stopList.contains(entryPoint.getFileName()) || stopList.contains(stackTrace[0].getClassName())) {
+            return null;
+        }
+
+        /* the signature omits the message: it often contains volatile details (names, offsets) */
+        final String signature   = String.format(
+            "%s:%s@%s %s::%s#%s|%s",
+            entryPoint.getFileName(),
+            entryPoint.getLineNumber(),
+            version,
+            stackTrace[0].getClassName(),
+            stackTrace[0].getMethodName(),
+            stackTrace[0].getLineNumber(),
+            error.getClass().getName()
+        );
+        final String description = String.format(
+            "[%s:%s@%s] %s::%s#%s: %s|%s",
+            entryPoint.getFileName(),
+            entryPoint.getLineNumber(),
+            version,
+            stackTrace[0].getClassName(),
+            stackTrace[0].getMethodName(),
+            stackTrace[0].getLineNumber(),
+            error.getMessage(),
+            error.getClass().getName()
+        );
+
+        /* See https://developers.google.com/analytics/devguides/collection/analyticsjs/exceptions */
+        final StringBuilder payload = new StringBuilder();
+        try {
             payload
-                    .append("v=1")                                              // Version.
-                    .append("&tid=").append(COLLECTOR_ID)                       // Tracking ID / Property ID.
-                    .append("&cid=").append(uuid)                               // Anonymous Client ID.
-                    .append("&t=exception")                                     // Exception hit type.
-                    .append("&exd=").append(description)                        // Exception description.
-                    .append("&exf=1")                                           // Exception is fatal?
+                    .append("v=1")                                                        // Version.
+                    .append("&tid=").append(COLLECTOR_ID)                                 // Tracking ID / Property ID.
+                    .append("&cid=").append(uuid)                                         // Anonymous Client ID.
+                    .append("&t=exception")                                               // Exception hit type.
+                    .append("&exd=").append(URLEncoder.encode(description, "UTF-8"))      // Exception description.
+                    .append("&exf=1")                                                     // Exception is fatal?
             ;
-            try {
-                Request.Post(COLLECTOR_URL)
-                        .bodyByteArray(payload.toString().getBytes())
-                        .connectTimeout(3000)
-                        .execute();
-            } catch (Exception failed) {
-                /* we do nothing here - this happens in background and not mission critical */
-            }
-        }).start();
+        } catch (final UnsupportedEncodingException notSupported) {
+            return null;
+        }
+        return new CrashReportsQueue.CrashReport(signature, payload.toString());
+    }
+
+    /* delivers one batch of payloads, false when it should be re-tried later (e.g. we are offline) */
+    static private boolean invokeExceptionReporting(@NotNull List<String> payloads) {
+        try {
+            final int status = Request.Post(payloads.size() == 1 ? COLLECTOR_URL : BATCH_COLLECTOR_URL)
+                    .bodyByteArray(String.join("\n", payloads).getBytes(StandardCharsets.UTF_8))
+                    .connectTimeout(3000)
+                    .socketTimeout(3000)
+                    .execute()
+                    .returnResponse()
+                    .getStatusLine()
+                    .getStatusCode();
+            /* client errors won't disappear on re-sending */
+            return status < 500;
+        } catch (Exception failed) {
+            /* we do nothing here - this happens in background and not mission critical */
+            return false;
+        }
     }
 }
@@ -0,0 +1,76 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.analytics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Lookup/miss counters of the plugin caches, so savings can be verified on real projects.
+ */
+final public class CacheStatistics {
+    private static final Map<String, CacheStatistics> registry = new ConcurrentHashMap<>();
+
+    final private String name;
+    final private LongAdder lookups = new LongAdder();
+    final private LongAdder misses  = new LongAdder();
+
+    private CacheStatistics(@NotNull String name) {
+        this.name = name;
+    }
+
+    @NotNull
+    public static CacheStatistics forName(@NotNull String name) {
+        return registry.computeIfAbsent(name, CacheStatistics::new);
+    }
+
+    @NotNull
+    public static List<CacheStatistics> all() {
+        return new ArrayList<>(registry.values());
+    }
+
+    public static void resetAll() {
+        registry.values().forEach(statistics -> {
+            statistics.lookups.reset();
+            statistics.misses.reset();
+        });
+    }
+
+    public void lookup() {
+        this.lookups.increment();
+    }
+
+    public void miss() {
+        this.misses.increment();
+    }
+
+    @NotNull
+    public String getName() {
+        return this.name;
+    }
+
+    public long getHits() {
+        return Math.max(0L, this.lookups.sum() - this.misses.sum());
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s hits, %s misses", this.name, this.getHits(), this.getMisses());
+    }
+}
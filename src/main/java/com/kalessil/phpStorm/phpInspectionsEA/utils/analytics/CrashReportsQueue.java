@@ -0,0 +1,228 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.analytics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Bounded hand-off between the logging path and a single background reporter. The logging thread only offers
+ * the exception into a fixed-size queue (dropping it when the queue is full); the worker describes collected
+ * exceptions, skips already reported signatures, rate-limits and sends reports in batches. Batches which could not
+ * be delivered (e.g. offline) are spooled to disk and re-sent with the next successful delivery.
+ */
+final public class CrashReportsQueue {
+    private static final int capacity         = 128;
+    private static final int batchSize        = 20; /* measurement protocol limit for batch requests */
+    private static final int maxSignatures    = 512;
+    private static final int maxSpooled       = 200;
+    private static final int reportsPerWindow = 10;
+    private static final long window          = TimeUnit.HOURS.toMillis(1);
+    private static final long batchDelay      = TimeUnit.SECONDS.toMillis(2);
+
+    @FunctionalInterface
+    public interface Describer {
+        /* null when the exception is not worth reporting */
+        @Nullable
+        CrashReport describe(@Nullable String version, @Nullable String uuid, @NotNull Throwable error);
+    }
+
+    final public static class CrashReport {
+        @NotNull final public String signature;
+        @NotNull final public String payload;
+
+        public CrashReport(@NotNull String signature, @NotNull String payload) {
+            this.signature = signature;
+            this.payload   = payload;
+        }
+    }
+
+    private static final class LoggedException {
+        @Nullable final private String version;
+        @Nullable final private String uuid;
+        @NotNull final private Throwable error;
+
+        private LoggedException(@Nullable String version, @Nullable String uuid, @NotNull Throwable error) {
+            this.version = version;
+            this.uuid    = uuid;
+            this.error   = error;
+        }
+    }
+
+    @NotNull private final BlockingQueue<LoggedException> queue = new ArrayBlockingQueue<>(capacity);
+    @NotNull private final Set<String> signatures               = Collections.newSetFromMap(new LinkedHashMap<String, Boolean>() {
+        @Override
+        protected boolean removeEldestEntry(@NotNull Map.Entry<String, Boolean> eldest) {
+            return this.size() > maxSignatures;
+        }
+    });
+    @NotNull private final Deque<Long> reported                 = new ArrayDeque<>();
+    @NotNull private final AtomicBoolean started                = new AtomicBoolean(false);
+    @NotNull private final Describer describer;
+    @NotNull private final Predicate<List<String>> transport;
+    @Nullable private final File spool;
+    @NotNull private final LongSupplier clock;
+
+    public CrashReportsQueue(
+        @NotNull Describer describer,
+        @NotNull Predicate<List<String>> transport,
+        @Nullable File spool,
+        @NotNull LongSupplier clock
+    ) {
+        this.describer = describer;
+        this.transport = transport;
+        this.spool     = spool;
+        this.clock     = clock;
+    }
+
+    /* starts the background worker (once), without it queued exceptions are delivered by explicit flush() calls */
+    @NotNull
+    public CrashReportsQueue start() {
+        if (this.started.compareAndSet(false, true)) {
+            final Thread worker = new Thread(this::run, "EA crash reports");
+            worker.setDaemon(true);
+            worker.setPriority(Thread.MIN_PRIORITY);
+            worker.start();
+        }
+        return this;
+    }
+
+    /* called from the logging path: never blocks, the exception is dropped when the queue is full */
+    public boolean offer(@Nullable String version, @Nullable String uuid, @NotNull Throwable error) {
+        return this.queue.offer(new LoggedException(version, uuid, error));
+    }
+
+    private void run() {
+        try {
+            this.flush();
+            while (!Thread.currentThread().isInterrupted()) {
+                final LoggedException head = this.queue.take();
+                /* let an exceptions storm settle, so it's reported as one batch */
+                Thread.sleep(batchDelay);
+                this.flush(head);
+            }
+        } catch (final InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* describes, de-duplicates and delivers everything queued so far; returns the number of delivered reports */
+    public int flush() {
+        return this.flush(null);
+    }
+
+    private synchronized int flush(@Nullable LoggedException head) {
+        final List<LoggedException> pending = new ArrayList<>();
+        if (head != null) {
+            pending.add(head);
+        }
+        this.queue.drainTo(pending);
+
+        final List<String> payloads = new ArrayList<>();
+        for (final LoggedException entry : pending) {
+            final CrashReport report = this.describer.describe(entry.version, entry.uuid, entry.error);
+            /* signatures are recorded only when permitted: rate-limited reports are sent on the next occurrence */
+            if (report != null && !this.signatures.contains(report.signature) && this.acquirePermit()) {
+                this.signatures.add(report.signature);
+                payloads.add(report.payload);
+            }
+        }
+
+        int delivered = this.deliver(payloads);
+        if (delivered < payloads.size()) {
+            final List<String> spooled = this.readSpool();
+            spooled.addAll(payloads.subList(delivered, payloads.size()));
+            this.writeSpool(spooled);
+        } else if (this.hasSpooled()) {
+            /* re-send what was spooled before, the rest stays for the next attempt */
+            final List<String> spooled = this.readSpool();
+            final int resent           = this.deliver(spooled);
+            if (resent > 0) {
+                this.writeSpool(spooled.subList(resent, spooled.size()));
+            }
+            delivered += resent;
+        }
+        return delivered;
+    }
+
+    /* delivers in batches, stopping at the first failure; returns the number of delivered payloads */
+    private int deliver(@NotNull List<String> payloads) {
+        int delivered = 0;
+        while (delivered < payloads.size()) {
+            final List<String> batch = payloads.subList(delivered, Math.min(delivered + batchSize, payloads.size()));
+            if (!this.transport.test(batch)) {
+                break;
+            }
+            delivered += batch.size();
+        }
+        return delivered;
+    }
+
+    private boolean acquirePermit() {
+        final long now = this.clock.getAsLong();
+        while (!this.reported.isEmpty() && now - this.reported.peekFirst() >= window) {
+            this.reported.pollFirst();
+        }
+        if (this.reported.size() < reportsPerWindow) {
+            this.reported.addLast(now);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean hasSpooled() {
+        return this.spool != null && this.spool.isFile();
+    }
+
+    @NotNull
+    private List<String> readSpool() {
+        final List<String> result = new ArrayList<>();
+        if (this.hasSpooled()) {
+            try {
+                for (final String line : Files.readAllLines(this.spool.toPath(), StandardCharsets.UTF_8)) {
+                    if (!line.isEmpty()) {
+                        result.add(line);
+                    }
+                }
+            } catch (final IOException failure) {
+                /* a broken spool is not worth recovering */
+            }
+        }
+        return result;
+    }
+
+    private void writeSpool(@NotNull List<String> payloads) {
+        if (this.spool != null) {
+            try {
+                if (payloads.isEmpty()) {
+                    Files.deleteIfExists(this.spool.toPath());
+                } else {
+                    /* keep the newest entries only */
+                    final List<String> kept = payloads.subList(Math.max(0, payloads.size() - maxSpooled), payloads.size());
+                    Files.write(this.spool.toPath(), kept, StandardCharsets.UTF_8);
+                }
+            } catch (final IOException failure) {
+                /* we do nothing here - this happens in background and not mission critical */
+            }
+        }
+    }
+}
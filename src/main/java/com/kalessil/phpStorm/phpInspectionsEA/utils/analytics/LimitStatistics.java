@@ -0,0 +1,64 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.analytics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Counters of analysis limits (depth, size) being hit, so truncated results can be spotted on real projects.
+ */
+final public class LimitStatistics {
+    private static final Map<String, LimitStatistics> registry = new ConcurrentHashMap<>();
+
+    final private String name;
+    final private LongAdder triggers = new LongAdder();
+
+    private LimitStatistics(@NotNull String name) {
+        this.name = name;
+    }
+
+    @NotNull
+    public static LimitStatistics forName(@NotNull String name) {
+        return registry.computeIfAbsent(name, LimitStatistics::new);
+    }
+
+    @NotNull
+    public static List<LimitStatistics> all() {
+        return new ArrayList<>(registry.values());
+    }
+
+    public static void resetAll() {
+        registry.values().forEach(statistics -> statistics.triggers.reset());
+    }
+
+    public void trigger() {
+        this.triggers.increment();
+    }
+
+    @NotNull
+    public String getName() {
+        return this.name;
+    }
+
+    public long getTriggers() {
+        return this.triggers.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s limits hit", this.name, this.getTriggers());
+    }
+}
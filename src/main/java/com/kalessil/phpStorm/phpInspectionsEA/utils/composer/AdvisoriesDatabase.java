@@ -0,0 +1,325 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.composer;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Locally stored security advisories in the FriendsOfPHP/security-advisories layout: 'vendor/package/<id>.yaml'
+ * (or .json) files with title, link, cve, reference and affected branches as version constraints lists.
+ *
+ * Advisories are indexed by package name and their constraints are parsed when loading, so matching a lock file is
+ * a map lookup plus a few range checks per package. A database is loaded once per directory and re-loaded only when
+ * its files fingerprint (count and the latest modification time) changes; the file system is re-visited at most once
+ * per minute. Loading happens on a pooled thread: readers are getting the last loaded snapshot.
+ */
+final public class AdvisoriesDatabase {
+    private static final CacheStatistics statistics                = CacheStatistics.forName("AdvisoriesDatabase");
+    private static final Map<String, AdvisoriesDatabase> databases = new ConcurrentHashMap<>();
+    private static final Set<String> loading                       = ConcurrentHashMap.newKeySet();
+    private static final long recheckInterval                      = TimeUnit.MINUTES.toMillis(1);
+
+    @NotNull final private Map<String, List<Advisory>> advisories = new HashMap<>();
+    final private long fingerprint;
+    private volatile long checked;
+
+    final public static class Advisory {
+        @NotNull final public String packageName;
+        @NotNull final public String title;
+        @Nullable final public String cve;
+        @Nullable final public String link;
+        /* each branch is a list of constraints which must match together, e.g. ['>=2.0.0', '<2.0.5'] */
+        @NotNull final public List<List<String>> branches;
+        /* parsed branches, the ones with unparsable constraints are dropped as they never match */
+        @NotNull final private List<List<ComposerVersion.Constraint>> ranges = new ArrayList<>();
+
+        private Advisory(
+            @NotNull String packageName,
+            @NotNull String title,
+            @Nullable String cve,
+            @Nullable String link,
+            @NotNull List<List<String>> branches
+        ) {
+            this.packageName = packageName;
+            this.title       = title;
+            this.cve         = cve;
+            this.link        = link;
+            this.branches    = branches;
+            for (final List<String> branch : branches) {
+                final List<ComposerVersion.Constraint> range = new ArrayList<>(branch.size());
+                for (final String text : branch) {
+                    final ComposerVersion.Constraint constraint = ComposerVersion.Constraint.parse(text);
+                    if (constraint == null) {
+                        range.clear();
+                        break;
+                    }
+                    range.add(constraint);
+                }
+                if (!range.isEmpty()) {
+                    this.ranges.add(range);
+                }
+            }
+        }
+
+        public boolean affects(@NotNull ComposerVersion version) {
+            return this.ranges.stream().anyMatch(version::satisfies);
+        }
+    }
+
+    private AdvisoriesDatabase(@NotNull List<File> files, long fingerprint) {
+        this.fingerprint = fingerprint;
+        this.checked     = System.currentTimeMillis();
+        for (final File file : files) {
+            final Advisory advisory = parse(file);
+            if (advisory != null && !advisory.ranges.isEmpty()) {
+                this.advisories.computeIfAbsent(advisory.packageName, name -> new ArrayList<>()).add(advisory);
+            }
+        }
+    }
+
+    /**
+     * Returns the last loaded snapshot of the directory (null if not loaded yet) and schedules a re-load on a pooled
+     * thread when there is none or it is due for re-checking. The callback is invoked after a new snapshot was loaded.
+     */
+    @Nullable
+    public static AdvisoriesDatabase getSnapshot(@NotNull String directory, @Nullable Runnable onLoaded) {
+        if (directory.trim().isEmpty()) {
+            return null;
+        }
+
+        statistics.lookup();
+        final AdvisoriesDatabase cached = databases.get(directory);
+        if (cached == null || System.currentTimeMillis() - cached.checked >= recheckInterval) {
+            final Application application = ApplicationManager.getApplication();
+            if (application.isUnitTestMode()) {
+                load(directory);
+            } else if (loading.add(directory)) {
+                application.executeOnPooledThread(() -> {
+                    try {
+                        if (load(directory) && onLoaded != null) {
+                            onLoaded.run();
+                        }
+                    } finally {
+                        loading.remove(directory);
+                    }
+                });
+            }
+        }
+        return databases.get(directory);
+    }
+
+    /* returns true if a new snapshot has been loaded */
+    private static boolean load(@NotNull String directory) {
+        final AdvisoriesDatabase cached = databases.get(directory);
+        final File root                 = new File(directory);
+        if (!root.isDirectory()) {
+            databases.remove(directory);
+            return false;
+        }
+        final List<File> files = new ArrayList<>();
+        collectFiles(root, 0, files);
+        long lastModified = 0;
+        for (final File file : files) {
+            lastModified = Math.max(lastModified, file.lastModified());
+        }
+        final long fingerprint = lastModified * 31 + files.size();
+        if (cached != null && cached.fingerprint == fingerprint) {
+            cached.checked = System.currentTimeMillis();
+            return false;
+        }
+
+        statistics.miss();
+        databases.put(directory, new AdvisoriesDatabase(files, fingerprint));
+        return true;
+    }
+
+    @NotNull
+    public List<Advisory> find(@NotNull String packageName, @NotNull String version) {
+        final List<Advisory> candidates = this.advisories.get(packageName.toLowerCase());
+        final ComposerVersion parsed    = candidates == null ? null : ComposerVersion.parse(version);
+        if (parsed == null) {
+            return Collections.emptyList();
+        }
+
+        final List<Advisory> result = new ArrayList<>();
+        for (final Advisory advisory : candidates) {
+            if (advisory.affects(parsed)) {
+                result.add(advisory);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return this.advisories.values().stream().mapToInt(List::size).sum();
+    }
+
+    /* vendor/package/advisory: deeper entries are not expected, hidden ones (.git) are skipped */
+    private static void collectFiles(@NotNull File directory, int depth, @NotNull List<File> files) {
+        final File[] children = directory.listFiles();
+        if (children != null) {
+            Arrays.sort(children);
+            for (final File child : children) {
+                final String name = child.getName();
+                if (name.startsWith(".")) {
+                    continue;
+                }
+                if (child.isDirectory() && depth < 2) {
+                    collectFiles(child, depth + 1, files);
+                } else if (child.isFile() && depth == 2 && (name.endsWith(".yaml") || name.endsWith(".yml") || name.endsWith(".json"))) {
+                    files.add(child);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private static Advisory parse(@NotNull File file) {
+        final String contents;
+        try {
+            contents = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (final IOException failure) {
+            return null;
+        }
+
+        final Map<String, String> fields  = new HashMap<>();
+        final List<List<String>> branches = new ArrayList<>();
+        if (file.getName().endsWith(".json")) {
+            parseJson(contents, fields, branches);
+        } else {
+            parseYaml(contents, fields, branches);
+        }
+
+        /* the reference (composer://vendor/package) wins over the directory structure */
+        String packageName = fields.get("reference");
+        if (packageName != null && packageName.startsWith("composer://")) {
+            packageName = packageName.substring("composer://".length());
+        } else {
+            final File packageDirectory = file.getParentFile();
+            packageName = packageDirectory.getParentFile().getName() + '/' + packageDirectory.getName();
+        }
+
+        final String title = fields.getOrDefault("title", file.getName());
+        return new Advisory(packageName.toLowerCase(), title, fields.get("cve"), fields.get("link"), branches);
+    }
+
+    private static void parseJson(@NotNull String contents, @NotNull Map<String, String> fields, @NotNull List<List<String>> branches) {
+        try {
+            final JsonElement root = new JsonParser().parse(contents);
+            if (root.isJsonObject()) {
+                for (final Map.Entry<String, JsonElement> entry : root.getAsJsonObject().entrySet()) {
+                    if (entry.getValue().isJsonPrimitive()) {
+                        fields.put(entry.getKey(), entry.getValue().getAsString());
+                    }
+                }
+                final JsonElement branchesList = root.getAsJsonObject().get("branches");
+                if (branchesList != null && branchesList.isJsonObject()) {
+                    for (final Map.Entry<String, JsonElement> branch : branchesList.getAsJsonObject().entrySet()) {
+                        final JsonElement versions = branch.getValue().isJsonObject() ? branch.getValue().getAsJsonObject().get("versions") : null;
+                        if (versions != null && versions.isJsonArray()) {
+                            final List<String> constraints = new ArrayList<>();
+                            versions.getAsJsonArray().forEach(version -> constraints.addAll(splitConstraints(version.getAsString())));
+                            branches.add(constraints);
+                        }
+                    }
+                }
+            }
+        } catch (final JsonParseException | IllegalStateException | UnsupportedOperationException malformed) {
+            branches.clear();
+        }
+    }
+
+    /* a line-based subset of YAML, sufficient for the advisories format: top-level scalars and branches' versions */
+    private static void parseYaml(@NotNull String contents, @NotNull Map<String, String> fields, @NotNull List<List<String>> branches) {
+        String section       = null;
+        List<String> pending = null;
+        for (final String line : contents.split("\\r?\\n")) {
+            final String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            final boolean isTopLevel = !Character.isWhitespace(line.charAt(0));
+            if (pending != null && (isTopLevel || !trimmed.startsWith("- "))) {
+                branches.add(pending);
+                pending = null;
+            }
+
+            final int colon = trimmed.indexOf(':');
+            if (isTopLevel) {
+                section = colon == -1 ? null : trimmed.substring(0, colon).trim();
+                if (section != null) {
+                    final String value = unquote(trimmed.substring(colon + 1));
+                    if (!value.isEmpty()) {
+                        fields.put(section, value);
+                    }
+                }
+            } else if ("branches".equals(section)) {
+                if (trimmed.startsWith("versions:")) {
+                    final String value = trimmed.substring("versions:".length()).trim();
+                    if (value.startsWith("[") && value.endsWith("]")) {
+                        final List<String> constraints = new ArrayList<>();
+                        for (final String item : value.substring(1, value.length() - 1).split(",")) {
+                            constraints.addAll(splitConstraints(unquote(item)));
+                        }
+                        branches.add(constraints);
+                    } else if (value.isEmpty()) {
+                        pending = new ArrayList<>();
+                    }
+                } else if (pending != null && trimmed.startsWith("- ")) {
+                    pending.addAll(splitConstraints(unquote(trimmed.substring(2))));
+                }
+            }
+        }
+        if (pending != null) {
+            branches.add(pending);
+        }
+    }
+
+    /* both ['>=1.0', '<1.2'] and ['>=1.0,<1.2'] forms are used */
+    @NotNull
+    private static List<String> splitConstraints(@NotNull String value) {
+        final List<String> result = new ArrayList<>();
+        for (final String part : value.split(",")) {
+            if (!part.trim().isEmpty()) {
+                result.add(part.trim());
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static String unquote(@NotNull String value) {
+        final String trimmed = value.trim();
+        if (trimmed.length() >= 2) {
+            final char first = trimmed.charAt(0);
+            if ((first == '\'' || first == '"') && trimmed.charAt(trimmed.length() - 1) == first) {
+                return trimmed.substring(1, trimmed.length() - 1);
+            }
+        }
+        return trimmed;
+    }
+}
@@ -0,0 +1,112 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.composer;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Locked packages from the composer.lock next to a manifest. Lock files are large (hundreds of packages, megabytes
+ * of metadata), so the text is parsed once into a name-to-version map, cached on the lock file and dropped on change.
+ * The lock text is parsed directly, regardless of the file type the IDE associated with it.
+ */
+final public class ComposerLock {
+    private static final Key<CachedValue<ComposerLock>> lockKey = Key.create("EA.composerLock");
+    private static final CacheStatistics statistics             = CacheStatistics.forName("ComposerLock");
+
+    @NotNull final private Map<String, LockedPackage> packages = new LinkedHashMap<>();
+
+    final public static class LockedPackage {
+        @NotNull final public String name;
+        @NotNull final public String version;
+        final public boolean isDev;
+
+        private LockedPackage(@NotNull String name, @NotNull String version, boolean isDev) {
+            this.name    = name;
+            this.version = version;
+            this.isDev   = isDev;
+        }
+    }
+
+    private ComposerLock(@NotNull String contents) {
+        try {
+            final JsonElement root = new JsonParser().parse(contents);
+            if (root.isJsonObject()) {
+                this.collect(root.getAsJsonObject(), "packages", false);
+                this.collect(root.getAsJsonObject(), "packages-dev", true);
+            }
+        } catch (final JsonParseException | IllegalStateException malformed) {
+            /* an incomplete lock file (e.g. while composer is running), nothing to report */
+            this.packages.clear();
+        }
+    }
+
+    @Nullable
+    public static ComposerLock of(@NotNull PsiFile manifest) {
+        final PsiDirectory directory = manifest.getContainingDirectory();
+        final PsiFile lock           = directory == null ? null : directory.findFile("composer.lock");
+        if (lock == null) {
+            return null;
+        }
+        statistics.lookup();
+        return CachedValuesManager.getCachedValue(lock, lockKey, () -> {
+            statistics.miss();
+            return CachedValueProvider.Result.create(new ComposerLock(lock.getText()), lock);
+        });
+    }
+
+    @NotNull
+    public Collection<LockedPackage> getPackages() {
+        return this.packages.values();
+    }
+
+    @Nullable
+    public LockedPackage findPackage(@NotNull String name) {
+        return this.packages.get(name);
+    }
+
+    private void collect(@NotNull JsonObject root, @NotNull String group, boolean isDev) {
+        final JsonElement list = root.get(group);
+        if (list != null && list.isJsonArray()) {
+            for (final JsonElement entry : (JsonArray) list) {
+                if (entry.isJsonObject()) {
+                    final String name    = getString(entry.getAsJsonObject(), "name");
+                    final String version = getString(entry.getAsJsonObject(), "version");
+                    /* branches (dev-master, 2.x-dev) have no version we could match against advisories */
+                    if (name != null && version != null && !version.startsWith("dev-") && !version.endsWith("-dev")) {
+                        this.packages.put(name.toLowerCase(), new LockedPackage(name.toLowerCase(), version, isDev));
+                    }
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private static String getString(@NotNull JsonObject entry, @NotNull String name) {
+        final JsonElement value = entry.get(name);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+    }
+}
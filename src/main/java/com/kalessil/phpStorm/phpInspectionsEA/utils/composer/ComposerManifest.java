@@ -0,0 +1,128 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.composer;
+
+import com.intellij.json.psi.JsonObject;
+import com.intellij.json.psi.JsonProperty;
+import com.intellij.json.psi.JsonStringLiteral;
+import com.intellij.json.psi.JsonValue;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Parsed composer.json: package name, type and the require/require-dev dependencies. The model is cached
+ * per file and dropped on any change of it, so inspection passes don't re-walk the manifest PSI.
+ */
+final public class ComposerManifest {
+    private static final Key<CachedValue<ComposerManifest>> manifestKey = Key.create("EA.composerManifest");
+    private static final CacheStatistics statistics                     = CacheStatistics.forName("ComposerManifest");
+
+    @Nullable final public String name;
+    @Nullable final public String type;
+    @Nullable final public JsonProperty require;
+    @Nullable final public JsonProperty requireDev;
+    @NotNull final public List<Dependency> production;
+    @NotNull final public List<Dependency> development;
+
+    final public static class Dependency {
+        @NotNull final public String name;
+        @NotNull final public String constraint;
+        @NotNull final public JsonProperty property;
+        @NotNull final public JsonStringLiteral version;
+
+        private Dependency(@NotNull JsonProperty property, @NotNull JsonStringLiteral version) {
+            this.name       = property.getName().toLowerCase();
+            this.constraint = version.getValue().toLowerCase();
+            this.property   = property;
+            this.version    = version;
+        }
+    }
+
+    private ComposerManifest(@NotNull JsonObject manifest) {
+        this.name        = getString(manifest, "name");
+        this.type        = getString(manifest, "type");
+        this.require     = getPackagesGroup(manifest, "require");
+        this.requireDev  = getPackagesGroup(manifest, "require-dev");
+        this.production  = getPackages(this.require);
+        this.development = getPackages(this.requireDev);
+    }
+
+    @Nullable
+    public static ComposerManifest of(@NotNull PsiFile file) {
+        if (!"composer.json".equals(file.getName()) || !(file.getFirstChild() instanceof JsonObject)) {
+            return null;
+        }
+        statistics.lookup();
+        return CachedValuesManager.getCachedValue(file, manifestKey, () -> {
+            statistics.miss();
+            return CachedValueProvider.Result.create(new ComposerManifest((JsonObject) file.getFirstChild()), file);
+        });
+    }
+
+    public boolean isLibrary() {
+        return "library".equals(this.type);
+    }
+
+    @Nullable
+    public Dependency findDependency(@NotNull String packageName) {
+        for (final List<Dependency> group : Arrays.asList(this.production, this.development)) {
+            for (final Dependency dependency : group) {
+                if (dependency.name.equals(packageName)) {
+                    return dependency;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String getString(@NotNull JsonObject manifest, @NotNull String name) {
+        final JsonProperty property = manifest.findProperty(name);
+        final JsonValue value       = property == null ? null : property.getValue();
+        return value instanceof JsonStringLiteral ? ((JsonStringLiteral) value).getValue() : null;
+    }
+
+    @Nullable
+    private static JsonProperty getPackagesGroup(@NotNull JsonObject manifest, @NotNull String name) {
+        final JsonProperty property = manifest.findProperty(name);
+        return property != null && property.getValue() instanceof JsonObject ? property : null;
+    }
+
+    @NotNull
+    private static List<Dependency> getPackages(@Nullable JsonProperty group) {
+        final JsonValue value = group == null ? null : group.getValue();
+        if (!(value instanceof JsonObject)) {
+            return Collections.emptyList();
+        }
+
+        final List<Dependency> result = new ArrayList<>();
+        for (final JsonProperty entry : ((JsonObject) value).getPropertyList()) {
+            final JsonValue version = entry.getValue();
+            if (version instanceof JsonStringLiteral) {
+                final Dependency dependency = new Dependency(entry, (JsonStringLiteral) version);
+                if (!dependency.name.isEmpty() && !dependency.constraint.isEmpty()) {
+                    result.add(dependency);
+                }
+            }
+        }
+        return result;
+    }
+}
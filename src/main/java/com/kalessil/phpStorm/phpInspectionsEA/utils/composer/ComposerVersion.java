@@ -0,0 +1,148 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.composer;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Normalized Composer version (e.g. 'v2.8.1', '3.0.0-beta2', '1.2.3.4') comparable with constraints from advisories.
+ * Branch aliases and VCS references (e.g. 'dev-master', '2.x-dev') are not versions and can not be parsed.
+ */
+final public class ComposerVersion implements Comparable<ComposerVersion> {
+    private static final Pattern version = Pattern.compile(
+        "^v?(\\d+)(?:\\.(\\d+))?(?:\\.(\\d+))?(?:\\.(\\d+))?(?:[-_.]?(stable|beta|b|alpha|a|rc|patch|pl|p)[.-]?(\\d+)?)?$"
+    );
+    private static final Pattern constraint = Pattern.compile("^(>=|<=|==|!=|<>|>|<|=)?\\s*(.+)$");
+
+    @NotNull final private int[] numbers;
+    final private int stability;
+    final private int stabilityNumber;
+
+    private ComposerVersion(@NotNull int[] numbers, int stability, int stabilityNumber) {
+        this.numbers         = numbers;
+        this.stability       = stability;
+        this.stabilityNumber = stabilityNumber;
+    }
+
+    @Nullable
+    public static ComposerVersion parse(@NotNull String text) {
+        final Matcher matcher = version.matcher(text.trim().toLowerCase());
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        final int[] numbers = new int[4];
+        for (int index = 0; index < numbers.length; ++index) {
+            final String part = matcher.group(index + 1);
+            try {
+                numbers[index] = part == null ? 0 : Integer.parseInt(part);
+            } catch (final NumberFormatException overflow) {
+                return null;
+            }
+        }
+        final String suffix = matcher.group(5);
+        final String number = matcher.group(6);
+        final int stabilityNumber;
+        try {
+            stabilityNumber = number == null ? 0 : Integer.parseInt(number);
+        } catch (final NumberFormatException overflow) {
+            return null;
+        }
+        return new ComposerVersion(numbers, stabilityOf(suffix), stabilityNumber);
+    }
+
+    /* alpha < beta < RC < stable < patch, as Composer orders them */
+    private static int stabilityOf(@Nullable String suffix) {
+        if (suffix == null || suffix.equals("stable")) {
+            return 3;
+        }
+        switch (suffix) {
+            case "alpha":
+            case "a":
+                return 0;
+            case "beta":
+            case "b":
+                return 1;
+            case "rc":
+                return 2;
+            default:
+                /* patch, pl, p */
+                return 4;
+        }
+    }
+
+    @Override
+    public int compareTo(@NotNull ComposerVersion other) {
+        for (int index = 0; index < this.numbers.length; ++index) {
+            if (this.numbers[index] != other.numbers[index]) {
+                return Integer.compare(this.numbers[index], other.numbers[index]);
+            }
+        }
+        if (this.stability != other.stability) {
+            return Integer.compare(this.stability, other.stability);
+        }
+        return Integer.compare(this.stabilityNumber, other.stabilityNumber);
+    }
+
+    /* all constraints (e.g. '>=2.0.0', '<2.0.5') must match; an empty list never matches */
+    public boolean satisfies(@NotNull List<Constraint> constraints) {
+        if (constraints.isEmpty()) {
+            return false;
+        }
+        for (final Constraint constraint : constraints) {
+            if (!constraint.matches(this)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* an operator and a version bound, parsed once and then matched against many versions */
+    final public static class Constraint {
+        @NotNull final private String operator;
+        @NotNull final private ComposerVersion bound;
+
+        private Constraint(@NotNull String operator, @NotNull ComposerVersion bound) {
+            this.operator = operator;
+            this.bound    = bound;
+        }
+
+        @Nullable
+        public static Constraint parse(@NotNull String text) {
+            final Matcher matcher       = constraint.matcher(text.trim());
+            final ComposerVersion bound = matcher.matches() ? ComposerVersion.parse(matcher.group(2)) : null;
+            return bound == null ? null : new Constraint(matcher.group(1) == null ? "=" : matcher.group(1), bound);
+        }
+
+        public boolean matches(@NotNull ComposerVersion version) {
+            final int comparison = version.compareTo(this.bound);
+            switch (this.operator) {
+                case ">=":
+                    return comparison >= 0;
+                case "<=":
+                    return comparison <= 0;
+                case ">":
+                    return comparison > 0;
+                case "<":
+                    return comparison < 0;
+                case "!=":
+                case "<>":
+                    return comparison != 0;
+                default:
+                    return comparison == 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.flow;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.jetbrains.php.codeInsight.PhpScopeHolder;
+import com.jetbrains.php.codeInsight.controlFlow.PhpControlFlow;
+import com.jetbrains.php.codeInsight.controlFlow.PhpControlFlowUtil;
+import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpAccessInstruction;
+import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpAccessVariableInstruction;
+import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpEntryPointInstruction;
+import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpInstruction;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Def-use summary of a function/method (or a file) control flow, built once and kept on the scope holder until the
+ * next PSI modification: variable accesses by name (the platform order, as PhpControlFlowUtil reports them) and
+ * reaching definitions of every read, stored as int arrays indexed by instruction number.
+ *
+ * Reaching definitions are computed on the first request. The value on entry (parameters, imported and undefined
+ * variables) is reported as the ENTRY pseudo-definition. Accesses arrays are shared and must not be modified.
+ */
+final public class DefUseSummary {
+    private static final Key<CachedValue<DefUseSummary>> summaryKey = Key.create("EA.defUseSummary");
+    private static final CacheStatistics statistics                = CacheStatistics.forName("DefUseSummary");
+
+    public static final int ENTRY = -1;
+
+    private static final int NONE  = 0;
+    private static final int READ  = 1;
+    private static final int WRITE = 2;
+
+    @NotNull private final PhpEntryPointInstruction entryPoint;
+    @NotNull private final PhpInstruction[] instructions; /* indexed by instruction number */
+    @NotNull private final int[] variables;               /* instruction number -> variable id, -1 if not an access */
+    @NotNull private final int[] kinds;                   /* instruction number -> READ/WRITE bits */
+    @NotNull private final Map<String, Integer> ids;      /* variable name -> variable id */
+    private final int variablesCount;
+
+    @NotNull private final Map<String, PhpAccessVariableInstruction[]> accesses = new ConcurrentHashMap<>();
+    @Nullable private volatile ReachingDefinitions reaching;
+
+    /* compressed rows: definitions[definitionsOffsets[i] .. definitionsOffsets[i + 1]) reach the read i, uses likewise */
+    private static final class ReachingDefinitions {
+        @NotNull final int[] definitionsOffsets;
+        @NotNull final int[] definitions;
+        @NotNull final int[] usesOffsets;
+        @NotNull final int[] uses;
+
+        ReachingDefinitions(@NotNull int[] definitionsOffsets, @NotNull int[] definitions, @NotNull int[] usesOffsets, @NotNull int[] uses) {
+            this.definitionsOffsets = definitionsOffsets;
+            this.definitions        = definitions;
+            this.usesOffsets        = usesOffsets;
+            this.uses               = uses;
+        }
+    }
+
+    private DefUseSummary(@NotNull PhpScopeHolder scope) {
+        final PhpControlFlow flow       = scope.getControlFlow();
+        final PhpInstruction[] original = flow.getInstructions();
+        int size = 0;
+        for (final PhpInstruction instruction : original) {
+            size = Math.max(size, instruction.num() + 1);
+        }
+
+        this.entryPoint   = flow.getEntryPoint();
+        this.instructions = new PhpInstruction[size];
+        this.variables    = new int[size];
+        this.kinds        = new int[size];
+        Arrays.fill(this.variables, -1);
+
+        final Map<String, Integer> ids = new HashMap<>();
+        for (final PhpInstruction instruction : original) {
+            ProgressManager.checkCanceled();
+            final int number          = instruction.num();
+            this.instructions[number] = instruction;
+            if (instruction instanceof PhpAccessVariableInstruction) {
+                final PhpAccessVariableInstruction access = (PhpAccessVariableInstruction) instruction;
+                final PhpAccessInstruction.Access kind    = access.getAccess();
+                this.variables[number] = ids.computeIfAbsent(String.valueOf(access.getVariableName()), name -> ids.size());
+                this.kinds[number]     = (kind.isRead() ? READ : NONE) | (kind.isWrite() ? WRITE : NONE);
+            }
+        }
+        this.ids            = ids;
+        this.variablesCount = ids.size();
+    }
+
+    @NotNull
+    public static DefUseSummary of(@NotNull PhpScopeHolder scope) {
+        if (!OpenapiResolveUtil.isCacheable(scope)) {
+            return new DefUseSummary(scope);
+        }
+        statistics.lookup();
+        return CachedValuesManager.getCachedValue(scope, summaryKey, () -> {
+            statistics.miss();
+            return CachedValueProvider.Result.create(new DefUseSummary(scope), PsiModificationTracker.MODIFICATION_COUNT);
+        });
+    }
+
+    /* accesses of the variable in the flow order; resolved once per variable name */
+    @NotNull
+    public PhpAccessVariableInstruction[] getAccesses(@NotNull String variableName) {
+        return this.accesses.computeIfAbsent(
+                variableName,
+                name -> PhpControlFlowUtil.getFollowingVariableAccessInstructions(this.entryPoint, name, false)
+        );
+    }
+
+    @Nullable
+    public PhpInstruction getInstruction(int number) {
+        return number >= 0 && number < this.instructions.length ? this.instructions[number] : null;
+    }
+
+    /* instruction-level view for analyses in this package */
+
+    @NotNull
+    PhpEntryPointInstruction getEntryPoint() {
+        return this.entryPoint;
+    }
+
+    int getInstructionsCount() {
+        return this.instructions.length;
+    }
+
+    int getVariablesCount() {
+        return this.variablesCount;
+    }
+
+    /* variable id of the access instruction, -1 for other instructions */
+    int getVariable(int number) {
+        return this.variables[number];
+    }
+
+    /* variable id by name, -1 if the variable is not accessed in the flow */
+    int getVariable(@NotNull String variableName) {
+        return this.ids.getOrDefault(variableName, -1);
+    }
+
+    boolean isRead(int number) {
+        return (this.kinds[number] & READ) != 0;
+    }
+
+    boolean isWrite(int number) {
+        return (this.kinds[number] & WRITE) != 0;
+    }
+
+    /* numbers of write instructions (or ENTRY) whose value can be observed by the read */
+    @NotNull
+    public int[] getReachingWrites(@NotNull PhpAccessVariableInstruction read) {
+        final ReachingDefinitions definitions = this.getReachingDefinitions();
+        final int number                      = read.num();
+        if (number < 0 || number >= this.instructions.length || (this.kinds[number] & READ) == 0) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(definitions.definitions, definitions.definitionsOffsets[number], definitions.definitionsOffsets[number + 1]);
+    }
+
+    /* numbers of read instructions which can observe the value stored by the write */
+    @NotNull
+    public int[] getUses(@NotNull PhpAccessVariableInstruction write) {
+        final ReachingDefinitions definitions = this.getReachingDefinitions();
+        final int number                      = write.num();
+        if (number < 0 || number >= this.instructions.length || (this.kinds[number] & WRITE) == 0) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(definitions.uses, definitions.usesOffsets[number], definitions.usesOffsets[number + 1]);
+    }
+
+    @NotNull
+    private ReachingDefinitions getReachingDefinitions() {
+        ReachingDefinitions result = this.reaching;
+        if (result == null) {
+            this.reaching = result = this.computeReachingDefinitions();
+        }
+        return result;
+    }
+
+    /*
+        classic forward may-analysis over bit sets: bits [0, size) are write instructions, bits [size, size + variables)
+        are per-variable entry values. The sets live only during the computation, results are compressed into int arrays.
+    */
+    @NotNull
+    private ReachingDefinitions computeReachingDefinitions() {
+        final int size = this.instructions.length;
+
+        final BitSet[] killed = new BitSet[this.variablesCount];
+        final BitSet entry    = new BitSet(size + this.variablesCount);
+        for (int variable = 0; variable < this.variablesCount; ++variable) {
+            killed[variable] = new BitSet(size + this.variablesCount);
+            killed[variable].set(size + variable);
+            entry.set(size + variable);
+        }
+        for (int number = 0; number < size; ++number) {
+            if ((this.kinds[number] & WRITE) != 0) {
+                killed[this.variables[number]].set(number);
+            }
+        }
+
+        final BitSet[] in             = new BitSet[size];
+        final BitSet[] out            = new BitSet[size];
+        final Deque<Integer> worklist = new ArrayDeque<>();
+        final boolean[] queued        = new boolean[size];
+        for (int number = 0; number < size; ++number) {
+            if (this.instructions[number] != null) {
+                in[number]  = new BitSet();
+                out[number] = new BitSet();
+                worklist.add(number);
+                queued[number] = true;
+            }
+        }
+        while (!worklist.isEmpty()) {
+            ProgressManager.checkCanceled();
+            final int number = worklist.poll();
+            queued[number]   = false;
+
+            final PhpInstruction instruction = this.instructions[number];
+            final BitSet incoming            = instruction == this.entryPoint ? (BitSet) entry.clone() : new BitSet();
+            for (final PhpInstruction predecessor : instruction.getPredecessors()) {
+                final BitSet predecessorOut = out[predecessor.num()];
+                if (predecessorOut != null) {
+                    incoming.or(predecessorOut);
+                }
+            }
+            final BitSet outgoing = (BitSet) incoming.clone();
+            if ((this.kinds[number] & WRITE) != 0) {
+                outgoing.andNot(killed[this.variables[number]]);
+                outgoing.set(number);
+            }
+            in[number] = incoming;
+            if (!outgoing.equals(out[number])) {
+                out[number] = outgoing;
+                for (final PhpInstruction successor : instruction.getSuccessors()) {
+                    final int next = successor.num();
+                    if (next >= 0 && next < size && !queued[next] && in[next] != null) {
+                        worklist.add(next);
+                        queued[next] = true;
+                    }
+                }
+            }
+        }
+
+        /* compress: reaching definitions per read, then the reversed relation - uses per write */
+        final int[] definitionsOffsets = new int[size + 1];
+        final int[] usesCounts         = new int[size];
+        final List<int[]> rows         = new ArrayList<>(size);
+        int total                      = 0;
+        for (int number = 0; number < size; ++number) {
+            definitionsOffsets[number] = total;
+            int[] row                  = null;
+            if ((this.kinds[number] & READ) != 0) {
+                final BitSet reachingDefinitions = (BitSet) in[number].clone();
+                reachingDefinitions.and(killed[this.variables[number]]);
+                row       = new int[reachingDefinitions.cardinality()];
+                int index = 0;
+                for (int bit = reachingDefinitions.nextSetBit(0); bit >= 0; bit = reachingDefinitions.nextSetBit(bit + 1)) {
+                    if (bit >= size) {
+                        row[index++] = ENTRY;
+                    } else {
+                        row[index++] = bit;
+                        ++usesCounts[bit];
+                    }
+                }
+                total += row.length;
+            }
+            rows.add(row);
+        }
+        definitionsOffsets[size] = total;
+
+        final int[] definitions = new int[total];
+        final int[] usesOffsets = new int[size + 1];
+        for (int number = 0, offset = 0; number < size; ++number) {
+            final int[] row = rows.get(number);
+            if (row != null) {
+                System.arraycopy(row, 0, definitions, definitionsOffsets[number], row.length);
+            }
+            offset                 += usesCounts[number];
+            usesOffsets[number + 1] = offset;
+        }
+        final int[] uses   = new int[usesOffsets[size]];
+        final int[] filled = new int[size];
+        for (int number = 0; number < size; ++number) {
+            for (int index = definitionsOffsets[number]; index < definitionsOffsets[number + 1]; ++index) {
+                final int definition = definitions[index];
+                if (definition != ENTRY) {
+                    uses[usesOffsets[definition] + filled[definition]++] = number;
+                }
+            }
+        }
+
+        return new ReachingDefinitions(definitionsOffsets, definitions, usesOffsets, uses);
+    }
+}
@@ -0,0 +1,323 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.flow;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpAccessVariableInstruction;
+import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpConditionInstruction;
+import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpInstruction;
+import com.jetbrains.php.lang.lexer.PhpTokenTypes;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.PhpLanguageUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.TypeSet;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Forward null-state dataflow of a function/method, built on the DefUseSummary and kept on the function until the next
+ * PSI modification. Every variable is tracked in a {null, non-null} lattice (possibly null being both). Null is only
+ * introduced by evidence: nullable parameters, null literals and values whose resolved type contains null/void; values
+ * without such evidence are non-null. Branches are refined on `null ===`, `is_null`, `isset`, `empty`, `instanceof`,
+ * truthiness and not-null assertions.
+ *
+ * The iteration count is bounded: when the analysis does not converge (or the function is too large), no variable is
+ * reported as possibly null.
+ */
+final public class NullStates {
+    private static final Key<CachedValue<NullStates>> statesKey = Key.create("EA.nullStates");
+    private static final CacheStatistics statistics            = CacheStatistics.forName("NullStates");
+
+    /* lattice: bit set of possible states, BOTTOM marks unreached instructions */
+    private static final byte BOTTOM   = 0;
+    private static final byte NULL     = 1;
+    private static final byte NOT_NULL = 2;
+    private static final byte UNKNOWN  = NULL | NOT_NULL;
+
+    private static final int MAX_STATES = 1 << 20; /* instructions x variables */
+    private static final int MAX_PASSES = 16;      /* instructions visits budget, in flow sizes */
+
+    @NotNull private final DefUseSummary summary;
+    @NotNull private final Map<PsiElement, Integer> accesses = new HashMap<>(); /* variable -> access instruction number */
+    @NotNull private final Map<PsiElement, Byte> typed       = new HashMap<>(); /* value -> state by the resolved type */
+    private final int variablesCount;
+    @Nullable private final byte[] states; /* [instruction number * variables + variable id], incoming; null if not converged */
+
+    private NullStates(@NotNull Function function) {
+        this.summary        = DefUseSummary.of(function);
+        this.variablesCount = this.summary.getVariablesCount();
+
+        final int size = this.summary.getInstructionsCount();
+        for (int number = 0; number < size; ++number) {
+            final PhpInstruction instruction = this.summary.getInstruction(number);
+            if (instruction instanceof PhpAccessVariableInstruction) {
+                this.accesses.putIfAbsent(instruction.getAnchor(), number);
+            }
+        }
+        this.states = (long) size * this.variablesCount > MAX_STATES ? null : this.compute(size, function.getParameters());
+        this.typed.clear();
+    }
+
+    @NotNull
+    public static NullStates of(@NotNull Function function) {
+        if (!OpenapiResolveUtil.isCacheable(function)) {
+            return new NullStates(function);
+        }
+        statistics.lookup();
+        return CachedValuesManager.getCachedValue(function, statesKey, () -> {
+            statistics.miss();
+            return CachedValueProvider.Result.create(new NullStates(function), PsiModificationTracker.MODIFICATION_COUNT);
+        });
+    }
+
+    /* true when a null value can reach the variable access (unreached and unknown accesses are not) */
+    public boolean mayBeNull(@NotNull Variable variable) {
+        final Integer number = this.accesses.get(variable);
+        if (this.states == null || number == null) {
+            return false;
+        }
+        final int id = this.summary.getVariable(number);
+        return id >= 0 && (this.states[number * this.variablesCount + id] & NULL) != 0;
+    }
+
+    @Nullable
+    private byte[] compute(int size, @NotNull Parameter[] parameters) {
+        final int width     = this.variablesCount;
+        final byte[] states = new byte[size * width];
+
+        final int entry = this.summary.getEntryPoint().num();
+        for (int id = 0; id < width; ++id) {
+            states[entry * width + id] = NOT_NULL;
+        }
+        for (final Parameter parameter : parameters) {
+            final int id = this.summary.getVariable(parameter.getName());
+            if (id >= 0 && (TypeSet.of(parameter.getDeclaredType()).containsNull() || PhpLanguageUtil.isNull(parameter.getDefaultValue()))) {
+                states[entry * width + id] = UNKNOWN;
+            }
+        }
+
+        final Deque<Integer> worklist = new ArrayDeque<>();
+        final boolean[] queued        = new boolean[size];
+        worklist.add(entry);
+        queued[entry] = true;
+        final byte[] outgoing = new byte[width];
+        int budget            = size * MAX_PASSES;
+        while (!worklist.isEmpty()) {
+            ProgressManager.checkCanceled();
+            final int number = worklist.poll();
+            queued[number]   = false;
+            if (--budget < 0) {
+                return null;
+            }
+
+            System.arraycopy(states, number * width, outgoing, 0, width);
+            this.transfer(this.summary.getInstruction(number), number, outgoing);
+
+            for (final PhpInstruction successor : this.summary.getInstruction(number).getSuccessors()) {
+                final int next = successor.num();
+                if (next < 0 || next >= size) {
+                    continue;
+                }
+                boolean changed = false;
+                for (int id = 0, offset = next * width; id < width; ++id, ++offset) {
+                    final byte joined = (byte) (states[offset] | outgoing[id]);
+                    if (joined != states[offset]) {
+                        states[offset] = joined;
+                        changed        = true;
+                    }
+                }
+                if (changed && !queued[next]) {
+                    worklist.add(next);
+                    queued[next] = true;
+                }
+            }
+        }
+        return states;
+    }
+
+    private void transfer(@NotNull PhpInstruction instruction, int number, @NotNull byte[] state) {
+        if (instruction instanceof PhpConditionInstruction) {
+            final PhpConditionInstruction condition = (PhpConditionInstruction) instruction;
+            this.refine(condition.getCondition(), condition.getResult(), state);
+        } else if (this.summary.isWrite(number)) {
+            final PsiElement anchor = instruction.getAnchor();
+            final PsiElement parent = anchor == null ? null : anchor.getParent();
+            final int id            = this.summary.getVariable(number);
+            if (OpenapiTypesUtil.isAssignment(parent) && ((AssignmentExpression) parent).getVariable() == anchor) {
+                state[id] = this.evaluate(((AssignmentExpression) parent).getValue(), state);
+            } else if (!(anchor instanceof Parameter) && !(parent instanceof MemberReference)) {
+                /* catch, foreach, list, by-reference arguments, array writes: no null evidence */
+                state[id] = NOT_NULL;
+            }
+        } else if (this.summary.isRead(number)) {
+            /* `assertNotNull($variable)` and alike: the flow continues with a non-null value */
+            final PsiElement anchor = instruction.getAnchor();
+            final PsiElement parent = anchor == null ? null : anchor.getParent();
+            if (parent instanceof ParameterList && isAssertion(parent.getParent())) {
+                state[this.summary.getVariable(number)] = NOT_NULL;
+            }
+        }
+    }
+
+    private byte evaluate(@Nullable PsiElement value, @NotNull byte[] state) {
+        final PsiElement expression = ExpressionSemanticUtil.getExpressionTroughParenthesis(value);
+        if (expression == null) {
+            return NOT_NULL;
+        } else if (PhpLanguageUtil.isNull(expression)) {
+            return NULL;
+        } else if (
+            expression instanceof NewExpression || expression instanceof ArrayCreationExpression ||
+            expression instanceof StringLiteralExpression || expression instanceof Function ||
+            PhpLanguageUtil.isBoolean(expression) || OpenapiTypesUtil.isNumber(expression)
+        ) {
+            return NOT_NULL;
+        } else if (expression instanceof Variable) {
+            final int id = this.summary.getVariable(((Variable) expression).getName());
+            return id < 0 || state[id] == BOTTOM ? NOT_NULL : state[id];
+        } else if (expression instanceof TernaryExpression) {
+            final TernaryExpression ternary = (TernaryExpression) expression;
+            final byte positive             = ternary.isShort() ? NOT_NULL : this.evaluate(ternary.getTrueVariant(), state);
+            return (byte) (positive | this.evaluate(ternary.getFalseVariant(), state));
+        } else if (expression instanceof BinaryExpression) {
+            final BinaryExpression binary = (BinaryExpression) expression;
+            if (binary.getOperationType() == PhpTokenTypes.opCOALESCE) {
+                return (byte) (NOT_NULL | this.evaluate(binary.getRightOperand(), state));
+            }
+        } else if (expression instanceof AssignmentExpression) {
+            return this.evaluate(((AssignmentExpression) expression).getValue(), state);
+        }
+        return expression instanceof PhpTypedElement ? this.typed.computeIfAbsent(expression, this::resolve) : NOT_NULL;
+    }
+
+    private byte resolve(@NotNull PsiElement expression) {
+        final PhpType resolved = OpenapiResolveUtil.resolveType((PhpTypedElement) expression, expression.getProject());
+        return resolved != null && TypeSet.of(resolved.filterUnknown()).containsAny(TypeSet.NULL | TypeSet.VOID) ? UNKNOWN : NOT_NULL;
+    }
+
+    private void refine(@Nullable PsiElement condition, boolean result, @NotNull byte[] state) {
+        final PsiElement expression = ExpressionSemanticUtil.getExpressionTroughParenthesis(condition);
+        if (expression instanceof Variable) {
+            if (result) {
+                this.narrow((Variable) expression, NOT_NULL, state);
+            }
+        } else if (expression instanceof UnaryExpression) {
+            final UnaryExpression unary = (UnaryExpression) expression;
+            if (OpenapiTypesUtil.is(unary.getOperation(), PhpTokenTypes.opNOT)) {
+                this.refine(unary.getValue(), !result, state);
+            }
+        } else if (expression instanceof PhpIsset || expression instanceof PhpEmpty) {
+            /* isset(...) and !empty(...) are guaranteeing non-null base variables */
+            if (result == expression instanceof PhpIsset) {
+                final PsiElement[] arguments = expression instanceof PhpIsset
+                        ? ((PhpIsset) expression).getVariables()
+                        : ((PhpEmpty) expression).getVariables();
+                for (final PsiElement argument : arguments) {
+                    PsiElement base = argument;
+                    while (base instanceof MemberReference || base instanceof ArrayAccessExpression) {
+                        base = base instanceof MemberReference
+                                ? ((MemberReference) base).getClassReference()
+                                : ((ArrayAccessExpression) base).getValue();
+                    }
+                    if (base instanceof Variable) {
+                        this.narrow((Variable) base, NOT_NULL, state);
+                    }
+                }
+            }
+        } else if (OpenapiTypesUtil.isFunctionReference(expression)) {
+            final FunctionReference call = (FunctionReference) expression;
+            final PsiElement[] arguments = call.getParameters();
+            if ("is_null".equals(call.getName()) && arguments.length == 1 && arguments[0] instanceof Variable) {
+                this.narrow((Variable) arguments[0], result ? NULL : NOT_NULL, state);
+            }
+        } else if (expression instanceof BinaryExpression) {
+            final BinaryExpression binary  = (BinaryExpression) expression;
+            final IElementType operation   = binary.getOperationType();
+            final PsiElement left          = binary.getLeftOperand();
+            final PsiElement right         = binary.getRightOperand();
+            if (operation == PhpTokenTypes.kwINSTANCEOF) {
+                if (result && left instanceof Variable) {
+                    this.narrow((Variable) left, NOT_NULL, state);
+                }
+            } else if (PhpTokenTypes.tsSHORT_CIRCUIT_AND_OPS.contains(operation)) {
+                if (result) {
+                    this.refine(left, true, state);
+                    this.refine(right, true, state);
+                }
+            } else if (PhpTokenTypes.tsSHORT_CIRCUIT_OR_OPS.contains(operation)) {
+                if (!result) {
+                    this.refine(left, false, state);
+                    this.refine(right, false, state);
+                }
+            } else if (OpenapiTypesUtil.tsCOMPARE_EQUALITY_OPS.contains(operation)) {
+                final PsiElement subject = PhpLanguageUtil.isNull(left) ? right : (PhpLanguageUtil.isNull(right) ? left : null);
+                if (subject instanceof Variable) {
+                    final boolean strict   = operation == PhpTokenTypes.opIDENTICAL || operation == PhpTokenTypes.opNOT_IDENTICAL;
+                    final boolean equality = operation == PhpTokenTypes.opIDENTICAL || operation == PhpTokenTypes.opEQUAL;
+                    if (equality != result) {
+                        this.narrow((Variable) subject, NOT_NULL, state);
+                    } else if (strict) {
+                        this.narrow((Variable) subject, NULL, state);
+                    }
+                }
+            }
+        }
+    }
+
+    private void narrow(@NotNull Variable variable, byte mask, @NotNull byte[] state) {
+        final int id = this.summary.getVariable(variable.getName());
+        if (id >= 0) {
+            state[id] &= mask;
+        }
+    }
+
+    private static boolean isAssertion(@Nullable PsiElement reference) {
+        boolean result = false;
+        if (reference instanceof MethodReference) {
+            final String methodName = ((MethodReference) reference).getName();
+            if (methodName != null) {
+                if (methodName.equals("assertNotNull") || methodName.equals("assertInstanceOf") ||
+                    methodName.equals("notNull") || methodName.equals("isInstanceOf") ||
+                    methodName.equals("isInstanceOfAny")
+                ) {
+                    /* PHPUnit, beberlei/assert and webmozart/assert assertions */
+                    result = true;
+                } else if (methodName.equals("that")) {
+                    /* another beberlei/assert assertion: `Assert::that($g)->notNull()` */
+                    PsiElement parent = reference.getParent();
+                    while (parent instanceof MethodReference) {
+                        final String parentMethodName = ((MethodReference) parent).getName();
+                        if (parentMethodName != null && parentMethodName.equals("notNull")) {
+                            result = true;
+                            break;
+                        }
+                        parent = parent.getParent();
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,178 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.kalessil.phpStorm.phpInspectionsEA.indexers.ClassHierarchyIndexer;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Class hierarchy queries backed by ClassHierarchyIndexer: FQN-based (case-insensitive, as PHP is), no PSI resolution
+ * involved. Lookups are memoized per project until the next out-of-code-block modification.
+ */
+final public class ClassHierarchyUtil {
+    private static final Key<CachedValue<Map<String, Entry>>> entriesKey = Key.create("EA.classHierarchyEntries");
+    private static final CacheStatistics statistics                     = CacheStatistics.forName("ClassHierarchyUtil");
+    private static final Entry unknown                                  = new Entry(null);
+
+    @Nullable
+    public static Entry getEntry(@NotNull String fqn, @NotNull Project project) {
+        final Map<String, Entry> entries = CachedValuesManager.getManager(project).getCachedValue(
+                project,
+                entriesKey,
+                () -> CachedValueProvider.Result.create(
+                        new ConcurrentHashMap<>(),
+                        PsiModificationTracker.OUT_OF_CODE_BLOCK_MODIFICATION_COUNT
+                ),
+                false
+        );
+        statistics.lookup();
+        final Entry entry = entries.computeIfAbsent(fqn.toLowerCase(), key -> {
+            statistics.miss();
+            return loadEntry(key, project);
+        });
+        return entry == unknown ? null : entry;
+    }
+
+    /* parents from the closest one, stops on loops and unknown classes */
+    @NotNull
+    public static List<String> getParentChain(@NotNull String fqn, @NotNull Project project) {
+        final List<String> result = new ArrayList<>();
+        Entry current             = getEntry(fqn, project);
+        while (current != null && current.parent != null && !current.parent.equalsIgnoreCase(fqn) && !result.contains(current.parent)) {
+            final Entry parent = getEntry(current.parent, project);
+            if (parent == null || !parent.isDefined) {
+                break;
+            }
+            result.add(current.parent);
+            current = parent;
+        }
+        return result;
+    }
+
+    /* interfaces implemented by the class, its parents and the interfaces parents */
+    @NotNull
+    public static Set<String> getInterfaces(@NotNull String fqn, @NotNull Project project) {
+        final Set<String> result    = new LinkedHashSet<>();
+        final Deque<String> pending = new ArrayDeque<>();
+        final Set<String> processed = new HashSet<>();
+        pending.add(fqn);
+        while (!pending.isEmpty()) {
+            final String current = pending.poll();
+            if (processed.add(current.toLowerCase())) {
+                final Entry entry = getEntry(current, project);
+                if (entry != null) {
+                    if (entry.isInterface && !current.equalsIgnoreCase(fqn)) {
+                        result.add(current);
+                    }
+                    pending.addAll(entry.interfaces);
+                    if (entry.parent != null) {
+                        pending.add(entry.parent);
+                    }
+                }
+            }
+        }
+        processed.clear();
+        return result;
+    }
+
+    @NotNull
+    public static Set<String> getDirectChildren(@NotNull String fqn, @NotNull Project project) {
+        final Entry entry = getEntry(fqn, project);
+        return entry == null ? Collections.emptySet() : Collections.unmodifiableSet(entry.children);
+    }
+
+    @NotNull
+    public static Set<String> getAllChildren(@NotNull String fqn, @NotNull Project project) {
+        final Set<String> result    = new LinkedHashSet<>();
+        final Deque<String> pending = new ArrayDeque<>(getDirectChildren(fqn, project));
+        while (!pending.isEmpty()) {
+            ProgressManager.checkCanceled();
+            final String current = pending.poll();
+            if (!current.equalsIgnoreCase(fqn) && result.add(current)) {
+                pending.addAll(getDirectChildren(current, project));
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static Entry loadEntry(@NotNull String fqn, @NotNull Project project) {
+        final FileBasedIndex index        = FileBasedIndex.getInstance();
+        final GlobalSearchScope scope     = GlobalSearchScope.allScope(project);
+        final List<String> definitions    = index.getValues(ClassHierarchyIndexer.identity, fqn, scope);
+        final List<String> childrenChunks = index.getValues(ClassHierarchyIndexer.identity, ClassHierarchyIndexer.childrenPrefix + fqn, scope);
+        if (definitions.isEmpty() && childrenChunks.isEmpty()) {
+            return unknown;
+        }
+
+        /* duplicate definitions: the first one wins, as the resolver does */
+        final Entry entry = new Entry(definitions.isEmpty() ? null : definitions.get(0));
+        for (final String chunk : childrenChunks) {
+            if (!chunk.isEmpty()) {
+                entry.children.addAll(Arrays.asList(chunk.split(",")));
+            }
+        }
+        return entry;
+    }
+
+    final public static class Entry {
+        @Nullable final public String parent;
+        @NotNull final public Set<String> interfaces = new LinkedHashSet<>();
+        @NotNull final public Set<String> methods    = new HashSet<>();
+        @NotNull final public Set<String> children   = new LinkedHashSet<>();
+        final public boolean isAbstract;
+        final public boolean isInterface;
+        final public boolean isDefined;
+
+        private Entry(@Nullable String serialized) {
+            final Map<String, String> values = new HashMap<>();
+            if (serialized != null) {
+                for (final String pair : serialized.split(";")) {
+                    final int separator = pair.indexOf(':');
+                    if (separator > 0) {
+                        values.put(pair.substring(0, separator), pair.substring(separator + 1));
+                    }
+                }
+            }
+            final String parent = values.get("parent");
+            this.parent         = parent == null || parent.isEmpty() ? null : parent;
+            this.isAbstract     = "1".equals(values.get("abstract"));
+            this.isInterface    = "1".equals(values.get("interface"));
+            this.isDefined      = serialized != null;
+            split(values.get("interfaces"), this.interfaces);
+            split(values.get("methods"), this.methods);
+            values.clear();
+        }
+
+        private static void split(@Nullable String value, @NotNull Set<String> target) {
+            if (value != null && !value.isEmpty()) {
+                target.addAll(Arrays.asList(value.split(",")));
+            }
+        }
+
+        public boolean hasOwnMethod(@NotNull String name) {
+            return this.methods.contains(name.toLowerCase());
+        }
+    }
+}
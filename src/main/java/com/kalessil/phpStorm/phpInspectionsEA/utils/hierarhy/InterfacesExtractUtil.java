@@ -1,9 +1,16 @@
 package com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy;
 
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.jetbrains.php.lang.psi.elements.PhpClass;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -17,8 +24,32 @@ import java.util.Set;
  */
 
 final public class InterfacesExtractUtil {
+    private static final Key<CachedValue<Set<PhpClass>>> withClassesKey    = Key.create("EA.inheritanceTreeWithClasses");
+    private static final Key<CachedValue<Set<PhpClass>>> withoutClassesKey = Key.create("EA.inheritanceTreeWithoutClasses");
+    private static final CacheStatistics statistics                       = CacheStatistics.forName("InterfacesExtractUtil");
+
+    /* the result is memoized and shared, hence unmodifiable */
+    @NotNull
+    public static Set<PhpClass> getCrawlInheritanceTree(@NotNull PhpClass clazz, boolean withClasses) {
+        if (!clazz.isPhysical()) {
+            return Collections.unmodifiableSet(crawlInheritanceTree(clazz, withClasses));
+        }
+        statistics.lookup();
+        return CachedValuesManager.getCachedValue(
+                clazz,
+                withClasses ? withClassesKey : withoutClassesKey,
+                () -> {
+                    statistics.miss();
+                    return CachedValueProvider.Result.create(
+                            Collections.unmodifiableSet(crawlInheritanceTree(clazz, withClasses)),
+                            PsiModificationTracker.OUT_OF_CODE_BLOCK_MODIFICATION_COUNT
+                    );
+                }
+        );
+    }
+
     @NotNull
-    public static HashSet<PhpClass> getCrawlInheritanceTree(@NotNull PhpClass clazz, boolean withClasses) {
+    private static HashSet<PhpClass> crawlInheritanceTree(@NotNull PhpClass clazz, boolean withClasses) {
         final HashSet<PhpClass> processed = new HashSet<>();
         if (clazz.isInterface()) {
             processInterface(clazz, processed);
@@ -0,0 +1,132 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.metrics;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Project-wide coupling of named classes, built from ReferencedSymbols summaries in one pass over project classes:
+ * efferent coupling (Ce) - distinct classes the class references, afferent coupling (Ca) - distinct project classes
+ * referencing the class, instability - Ce / (Ca + Ce). Kept on the project until the next PSI modification.
+ *
+ * Must be called inside a read action.
+ */
+final public class CouplingMetrics {
+    private static final Key<CachedValue<Map<String, Entry>>> metricsKey = Key.create("EA.couplingMetrics");
+    private static final CacheStatistics statistics                     = CacheStatistics.forName("CouplingMetrics");
+
+    final public static class Entry {
+        @NotNull final public String fqn;
+        private int efferent;
+        private int afferent;
+
+        private Entry(@NotNull String fqn) {
+            this.fqn = fqn;
+        }
+
+        public int getEfferent() {
+            return this.efferent;
+        }
+
+        public int getAfferent() {
+            return this.afferent;
+        }
+
+        public double getInstability() {
+            final int total = this.afferent + this.efferent;
+            return total == 0 ? 0.0 : (double) this.efferent / total;
+        }
+
+        @NotNull
+        public String toJson() {
+            return String.format(
+                    Locale.ROOT,
+                    "{\"class\":\"%s\",\"efferent\":%d,\"afferent\":%d,\"instability\":%.3f}",
+                    StringUtil.escapeStringCharacters(this.fqn),
+                    this.efferent,
+                    this.afferent,
+                    this.getInstability()
+            );
+        }
+    }
+
+    /* lower-cased class FQN -> metrics, ordered by FQN */
+    @NotNull
+    public static Map<String, Entry> of(@NotNull Project project) {
+        statistics.lookup();
+        return CachedValuesManager.getManager(project).getCachedValue(project, metricsKey, () -> {
+            statistics.miss();
+            return CachedValueProvider.Result.create(
+                    Collections.unmodifiableMap(compute(project)),
+                    PsiModificationTracker.MODIFICATION_COUNT
+            );
+        }, false);
+    }
+
+    @NotNull
+    private static Map<String, Entry> compute(@NotNull Project project) {
+        final Map<String, Entry> entries          = new TreeMap<>();
+        final Map<String, ReferencedSymbols> used = new HashMap<>();
+        final PsiManager manager                  = PsiManager.getInstance(project);
+        for (final VirtualFile file : FileTypeIndex.getFiles(PhpFileType.INSTANCE, GlobalSearchScope.projectScope(project))) {
+            ProgressManager.checkCanceled();
+            final PsiFile psiFile = file.isValid() ? manager.findFile(file) : null;
+            if (psiFile instanceof PhpFile) {
+                for (final PhpClass clazz : PsiTreeUtil.findChildrenOfType(psiFile, PhpClass.class)) {
+                    /* anonymous classes are accounted in the enclosing class */
+                    if (!clazz.isAnonymous()) {
+                        final String key = clazz.getFQN().toLowerCase();
+                        entries.putIfAbsent(key, new Entry(clazz.getFQN()));
+                        used.put(key, ReferencedSymbols.of(clazz));
+                    }
+                }
+            }
+        }
+
+        /* linear in the number of distinct references: every referenced class gets its afferent counter bumped once */
+        for (final Map.Entry<String, ReferencedSymbols> pair : used.entrySet()) {
+            ProgressManager.checkCanceled();
+            final String self = pair.getKey();
+            final Entry entry = entries.get(self);
+            for (final String referenced : pair.getValue().classes.keySet()) {
+                if (!referenced.equals(self)) {
+                    ++entry.efferent;
+                    final Entry target = entries.get(referenced);
+                    if (target != null) {
+                        ++target.afferent;
+                    }
+                }
+            }
+        }
+        used.clear();
+
+        return entries;
+    }
+}
@@ -0,0 +1,105 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.metrics;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Class, function and constant FQNs referenced inside of an element (a class, a function or a group statement), with
+ * references counts. Collected in one traversal and kept on the element until the next PSI modification.
+ *
+ * FQNs are the ones written in code (namespace and imports applied, no resolving); class and function FQNs are
+ * lower-cased, as PHP treats them case-insensitively.
+ */
+final public class ReferencedSymbols {
+    private static final Key<CachedValue<ReferencedSymbols>> symbolsKey = Key.create("EA.referencedSymbols");
+    private static final CacheStatistics statistics                    = CacheStatistics.forName("ReferencedSymbols");
+
+    @NotNull final public Map<String, Integer> classes;
+    @NotNull final public Map<String, Integer> functions;
+    @NotNull final public Map<String, Integer> constants;
+
+    @NotNull final private List<PhpReference> references = new ArrayList<>();
+    @Nullable private volatile Set<String> resolved;
+
+    private ReferencedSymbols(@NotNull PsiElement scope) {
+        final Map<String, Integer> classes   = new HashMap<>();
+        final Map<String, Integer> functions = new HashMap<>();
+        final Map<String, Integer> constants = new HashMap<>();
+        for (final PhpReference reference : PsiTreeUtil.findChildrenOfAnyType(scope, ClassReference.class, ConstantReference.class, FunctionReference.class)) {
+            ProgressManager.checkCanceled();
+            if (reference instanceof MethodReference) {
+                continue;
+            }
+            final String fqn = reference.getFQN();
+            if (fqn != null) {
+                if (reference instanceof ClassReference) {
+                    classes.merge(fqn.toLowerCase(), 1, Integer::sum);
+                } else if (reference instanceof FunctionReference) {
+                    functions.merge(fqn.toLowerCase(), 1, Integer::sum);
+                } else {
+                    constants.merge(fqn, 1, Integer::sum);
+                }
+            }
+            this.references.add(reference);
+        }
+        this.classes   = Collections.unmodifiableMap(classes);
+        this.functions = Collections.unmodifiableMap(functions);
+        this.constants = Collections.unmodifiableMap(constants);
+    }
+
+    @NotNull
+    public static ReferencedSymbols of(@NotNull PsiElement scope) {
+        if (!OpenapiResolveUtil.isCacheable(scope)) {
+            return new ReferencedSymbols(scope);
+        }
+        statistics.lookup();
+        return CachedValuesManager.getCachedValue(scope, symbolsKey, () -> {
+            statistics.miss();
+            return CachedValueProvider.Result.create(new ReferencedSymbols(scope), PsiModificationTracker.MODIFICATION_COUNT);
+        });
+    }
+
+    public boolean referencesClass(@NotNull String fqn) {
+        return this.classes.containsKey(fqn.toLowerCase());
+    }
+
+    /* FQNs of the resolved symbols (functions fallback to global namespace is applied); resolved once on demand */
+    @NotNull
+    public Set<String> getResolvedFqns() {
+        Set<String> result = this.resolved;
+        if (result == null) {
+            result = new HashSet<>();
+            for (final PhpReference reference : this.references) {
+                ProgressManager.checkCanceled();
+                final PsiElement entry = OpenapiResolveUtil.resolveReference(reference);
+                if (entry instanceof PhpNamedElement) {
+                    result.add(((PhpNamedElement) entry).getFQN());
+                }
+            }
+            this.resolved = result = Collections.unmodifiableSet(result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,603 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.regex;
+
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Worst-case backtracking estimation based on the ambiguity of the pattern automaton.
+ *
+ * The pattern is compiled into a position (Glushkov) automaton, keeping the number of distinct ways between
+ * positions (e.g. (a*)* has two ways from a to a). Then:
+ *  - exponential: a position can be left and re-entered by two different paths reading the same word
+ *    (a strongly connected component of the pairs automaton holding both a diagonal and a non-diagonal pair);
+ *  - polynomial: positions p and q in different loops with paths p->p, p->q and q->q reading the same word,
+ *    the degree is the longest chain of such loops.
+ *
+ * Backtracking happens only when the rest of the pattern can fail: loops which can be left with an unconditional match
+ * (e.g. '(\D*)*', nothing but nullable parts without assertions follow) are not reported.
+ *
+ * Back-references, subroutines, conditionals and verbs are not regular: such patterns are not analyzed. Atomic groups
+ * and possessive quantifiers do not backtrack, loops inside of them are ignored. The analysis is bounded in positions
+ * and steps, giving up silently when a limit is reached. Results are memoized per (shared) tree.
+ */
+final public class BacktrackingAnalyzer {
+    public enum Complexity {
+        POLYNOMIAL, EXPONENTIAL
+    }
+
+    private static final CacheStatistics statistics = CacheStatistics.forName("BacktrackingAnalyzer");
+    private static final int maxPositions           = 64;
+    private static final int maxCopies              = 16;
+    /* quadratic backtracking (e.g. '.*a.*') is too common to be reported */
+    private static final int minReportedDegree      = 3;
+    private static final int maxTicks               = 1 << 20;
+
+    private static final Result none                       = new Result(Complexity.POLYNOMIAL, 0, "", "");
+    private static final Map<RegexTree, Result> results    = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Nullable
+    public static Result analyze(@NotNull RegexTree tree) {
+        statistics.lookup();
+        Result result = results.get(tree);
+        if (result == null) {
+            statistics.miss();
+            result = none;
+            if (!tree.hasErrors && !tree.pattern.isEmpty()) {
+                try {
+                    final Result found = new Automaton(tree).analyze();
+                    result             = found == null ? none : found;
+                } catch (Abandoned abandoned) {
+                    result = none;
+                }
+            }
+            results.put(tree, result);
+        }
+        return result == none ? null : result;
+    }
+
+    final public static class Result {
+        @NotNull final public Complexity complexity;
+        /* polynomial degree: matching time is O(n^degree) */
+        final public int degree;
+        /* the attack string: the prefix followed by the pump repeated */
+        @NotNull final public String prefix;
+        @NotNull final public String pump;
+
+        private Result(@NotNull Complexity complexity, int degree, @NotNull String prefix, @NotNull String pump) {
+            this.complexity = complexity;
+            this.degree     = degree;
+            this.prefix     = prefix;
+            this.pump       = pump;
+        }
+    }
+
+    /* unsupported constructs or exceeded limits */
+    private static final class Abandoned extends RuntimeException {
+        private Abandoned() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Fragment {
+        final boolean nullable;
+        /* matches empty input unconditionally: nullable, with no assertions on the way */
+        final boolean trivial;
+        @NotNull final BitSet first;
+        @NotNull final BitSet last;
+        /* positions after which the rest of the fragment matches unconditionally */
+        @NotNull final BitSet free;
+
+        private Fragment(boolean nullable, boolean trivial, @NotNull BitSet first, @NotNull BitSet last, @NotNull BitSet free) {
+            this.nullable = nullable;
+            this.trivial  = trivial;
+            this.first    = first;
+            this.last     = last;
+            this.free     = free;
+        }
+    }
+
+    private static final class Automaton {
+        @NotNull final private List<CharSet> labels = new ArrayList<>();
+        @NotNull final private BitSet atomic        = new BitSet();
+        /* number of distinct ways from one position to another */
+        @NotNull final private int[][] ways         = new int[maxPositions][maxPositions];
+        final private boolean ignoreCase;
+        final private boolean dotAll;
+        final private boolean unicode;
+        private int atomicDepth = 0;
+        private int ticks       = 0;
+
+        private BitSet initial;
+        private BitSet accepting;
+        private int size;
+        private int[][] successors;
+        private int[] components;
+        private long[] reachable;
+
+        private Automaton(@NotNull RegexTree tree) {
+            this.ignoreCase = tree.hasModifier('i');
+            this.dotAll     = tree.hasModifier('s');
+            this.unicode    = tree.hasModifier('u');
+            final Fragment root = this.compile(tree.root);
+            this.initial        = root.first;
+            this.accepting      = root.free;
+        }
+
+        private void tick() {
+            if (++this.ticks > maxTicks) {
+                throw new Abandoned();
+            }
+        }
+
+        @NotNull
+        private Fragment compile(@NotNull RegexNode node) {
+            this.tick();
+            switch (node.kind) {
+                case LITERAL:
+                case DOT:
+                case SHORTHAND:
+                case CLASS:
+                    return this.position(CharSet.of(node, this.ignoreCase, this.dotAll, this.unicode));
+                case SEQUENCE:
+                    Fragment sequence = empty();
+                    for (final RegexNode child : node.getChildren()) {
+                        sequence = this.concatenate(sequence, this.compile(child));
+                    }
+                    return sequence;
+                case ALTERNATION:
+                    boolean nullable   = false;
+                    boolean trivial    = false;
+                    final BitSet first = new BitSet();
+                    final BitSet last  = new BitSet();
+                    final BitSet free  = new BitSet();
+                    for (final RegexNode branch : node.getChildren()) {
+                        final Fragment fragment = this.compile(branch);
+                        nullable |= fragment.nullable;
+                        trivial  |= fragment.trivial;
+                        first.or(fragment.first);
+                        last.or(fragment.last);
+                        free.or(fragment.free);
+                    }
+                    return new Fragment(nullable, trivial, first, last, free);
+                case GROUP:
+                    return this.compileGroup(node);
+                case QUANTIFIER:
+                    return this.compileQuantifier(node);
+                case ANCHOR:
+                    return assertion();
+                case OPTIONS:
+                    return empty();
+                default:
+                    throw new Abandoned();
+            }
+        }
+
+        @NotNull
+        private Fragment compileGroup(@NotNull RegexNode group) {
+            final RegexNode.GroupKind kind = group.groupKind;
+            if (kind == RegexNode.GroupKind.CONDITIONAL) {
+                throw new Abandoned();
+            } else if (
+                kind == RegexNode.GroupKind.LOOKAHEAD || kind == RegexNode.GroupKind.NEGATIVE_LOOKAHEAD ||
+                kind == RegexNode.GroupKind.LOOKBEHIND || kind == RegexNode.GroupKind.NEGATIVE_LOOKBEHIND
+            ) {
+                /* zero-width, does not affect the number of ways */
+                return assertion();
+            }
+
+            final boolean isAtomic = kind == RegexNode.GroupKind.ATOMIC;
+            this.atomicDepth      += isAtomic ? 1 : 0;
+            final Fragment body    = this.compile(group.getChildren().get(0));
+            this.atomicDepth      -= isAtomic ? 1 : 0;
+            return body;
+        }
+
+        @NotNull
+        private Fragment compileQuantifier(@NotNull RegexNode quantifier) {
+            final RegexNode subject = Objects.requireNonNull(quantifier.getSubject());
+            /* large bounded repetitions are approximated with unbounded ones */
+            final boolean unbounded = quantifier.isUnbounded() || quantifier.max > maxCopies;
+            final int mandatory     = Math.min(quantifier.min, maxCopies);
+
+            this.atomicDepth += quantifier.isPossessive ? 1 : 0;
+            Fragment result   = empty();
+            for (int copy = unbounded && mandatory > 0 ? 1 : 0; copy < mandatory; ++copy) {
+                result = this.concatenate(result, this.compile(subject));
+            }
+            if (unbounded) {
+                final Fragment loop = this.compile(subject);
+                this.connect(loop.last, loop.first);
+                result = this.concatenate(result, mandatory > 0 ? loop : optional(loop));
+            } else {
+                for (int copy = mandatory; copy < quantifier.max; ++copy) {
+                    result = this.concatenate(result, optional(this.compile(subject)));
+                }
+            }
+            this.atomicDepth -= quantifier.isPossessive ? 1 : 0;
+            return result;
+        }
+
+        @NotNull
+        private Fragment position(@NotNull CharSet label) {
+            final int index = this.labels.size();
+            if (index >= maxPositions) {
+                throw new Abandoned();
+            }
+            this.labels.add(label);
+            this.atomic.set(index, this.atomicDepth > 0);
+            final BitSet position = new BitSet();
+            position.set(index);
+            return new Fragment(false, false, position, position, position);
+        }
+
+        @NotNull
+        private Fragment concatenate(@NotNull Fragment left, @NotNull Fragment right) {
+            this.connect(left.last, right.first);
+            final BitSet first = (BitSet) left.first.clone();
+            final BitSet last  = (BitSet) right.last.clone();
+            if (left.nullable) {
+                first.or(right.first);
+            }
+            if (right.nullable) {
+                last.or(left.last);
+            }
+            final BitSet free = (BitSet) right.free.clone();
+            if (right.trivial) {
+                free.or(left.free);
+            }
+            return new Fragment(left.nullable && right.nullable, left.trivial && right.trivial, first, last, free);
+        }
+
+        private void connect(@NotNull BitSet from, @NotNull BitSet to) {
+            for (int source = from.nextSetBit(0); source >= 0; source = from.nextSetBit(source + 1)) {
+                for (int target = to.nextSetBit(0); target >= 0; target = to.nextSetBit(target + 1)) {
+                    ++this.ways[source][target];
+                }
+            }
+        }
+
+        @NotNull
+        private static Fragment empty() {
+            return new Fragment(true, true, new BitSet(), new BitSet(), new BitSet());
+        }
+
+        /* anchors and lookarounds: zero-width, but can fail */
+        @NotNull
+        private static Fragment assertion() {
+            return new Fragment(true, false, new BitSet(), new BitSet(), new BitSet());
+        }
+
+        @NotNull
+        private static Fragment optional(@NotNull Fragment fragment) {
+            return new Fragment(true, true, fragment.first, fragment.last, fragment.free);
+        }
+
+        @Nullable
+        private Result analyze() {
+            this.size       = this.labels.size();
+            this.successors = new int[this.size][];
+            for (int source = 0; source < this.size; ++source) {
+                final int from = source;
+                this.successors[source] = IntStream.range(0, this.size).filter(target -> this.ways[from][target] > 0).toArray();
+            }
+            this.components = this.findComponents();
+            this.reachable  = this.findReachable();
+
+            final Result exponential = this.findExponential();
+            return exponential != null ? exponential : this.findPolynomial();
+        }
+
+        /* Tarjan's algorithm on positions, ids are assigned in reverse topological order */
+        @NotNull
+        private int[] findComponents() {
+            final int[] result  = new int[this.size];
+            final int[] index   = new int[this.size];
+            final int[] low     = new int[this.size];
+            final int[] cursor  = new int[this.size];
+            final boolean[] on  = new boolean[this.size];
+            final Deque<Integer> stack = new ArrayDeque<>();
+            final Deque<Integer> calls = new ArrayDeque<>();
+            Arrays.fill(index, -1);
+            int counter   = 0;
+            int component = 0;
+            for (int root = 0; root < this.size; ++root) {
+                if (index[root] != -1) {
+                    continue;
+                }
+                calls.push(root);
+                while (!calls.isEmpty()) {
+                    this.tick();
+                    final int node = calls.peek();
+                    if (index[node] == -1) {
+                        index[node] = low[node] = counter++;
+                        stack.push(node);
+                        on[node] = true;
+                    }
+                    if (cursor[node] < this.successors[node].length) {
+                        final int next = this.successors[node][cursor[node]++];
+                        if (index[next] == -1) {
+                            calls.push(next);
+                        } else if (on[next]) {
+                            low[node] = Math.min(low[node], index[next]);
+                        }
+                        continue;
+                    }
+                    calls.pop();
+                    if (!calls.isEmpty()) {
+                        low[calls.peek()] = Math.min(low[calls.peek()], low[node]);
+                    }
+                    if (low[node] == index[node]) {
+                        int member;
+                        do {
+                            member         = stack.pop();
+                            on[member]     = false;
+                            result[member] = component;
+                        } while (member != node);
+                        ++component;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /* bit masks: positions count is limited to 64 */
+        @NotNull
+        private long[] findReachable() {
+            final long[] result = new long[this.size];
+            for (int source = 0; source < this.size; ++source) {
+                final Deque<Integer> queue = new ArrayDeque<>();
+                queue.add(source);
+                while (!queue.isEmpty()) {
+                    this.tick();
+                    for (final int next : this.successors[queue.poll()]) {
+                        if ((result[source] & (1L << next)) == 0) {
+                            result[source] |= 1L << next;
+                            queue.add(next);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        private boolean isLooping(int position) {
+            return (this.reachable[position] & (1L << position)) != 0;
+        }
+
+        /* the loop can be left with an unconditional match: the first dead end succeeds, there is nothing to backtrack */
+        private boolean isAccepting(int component) {
+            for (int position = this.accepting.nextSetBit(0); position >= 0; position = this.accepting.nextSetBit(position + 1)) {
+                if (this.components[position] == component) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /* searches (p, p, no divergence) -> (p, p, diverged) in the pairs automaton, staying inside of p's loop */
+        @Nullable
+        private Result findExponential() {
+            for (int position = 0; position < this.size; ++position) {
+                final int component = this.components[position];
+                if (this.atomic.get(position) || !this.isLooping(position) || this.isAccepting(component)) {
+                    continue;
+                }
+
+                final int start                     = this.encode(position, position, 0);
+                final Map<Integer, Integer> parents = new HashMap<>();
+                final Deque<Integer> queue          = new ArrayDeque<>();
+                parents.put(start, -1);
+                queue.add(start);
+                while (!queue.isEmpty()) {
+                    this.tick();
+                    final int current  = queue.poll();
+                    final int left     = current / (this.size * 2);
+                    final int right    = (current / 2) % this.size;
+                    final int diverged = current % 2;
+                    for (final int nextLeft : this.successors[left]) {
+                        if (this.components[nextLeft] != component) {
+                            continue;
+                        }
+                        for (final int nextRight : this.successors[right]) {
+                            this.tick();
+                            if (this.components[nextRight] != component || !this.labels.get(nextLeft).intersects(this.labels.get(nextRight))) {
+                                continue;
+                            }
+                            final boolean isDiverging = nextLeft != nextRight || (left == right && this.ways[left][nextLeft] > 1);
+                            final int next            = this.encode(nextLeft, nextRight, isDiverging ? 1 : diverged);
+                            if (!parents.containsKey(next)) {
+                                parents.put(next, current);
+                                if (next == this.encode(position, position, 1)) {
+                                    return new Result(Complexity.EXPONENTIAL, 0, this.findPrefix(position), this.word(parents, next, 2));
+                                }
+                                queue.add(next);
+                            }
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        private int encode(int left, int right, int flag) {
+            return (left * this.size + right) * 2 + flag;
+        }
+
+        /* chains of loops with (p, p, q) -> (p, q, q) paths between them */
+        @Nullable
+        private Result findPolynomial() {
+            final Map<Integer, Map<Integer, Result>> edges = new HashMap<>();
+            for (int from = 0; from < this.size; ++from) {
+                if (this.atomic.get(from) || !this.isLooping(from) || this.isAccepting(this.components[from])) {
+                    continue;
+                }
+                for (int to = 0; to < this.size; ++to) {
+                    final int fromComponent = this.components[from];
+                    final int toComponent   = this.components[to];
+                    final boolean skip      = fromComponent == toComponent || this.atomic.get(to) || !this.isLooping(to) ||
+                                              this.isAccepting(toComponent) ||
+                                              (this.reachable[from] & (1L << to)) == 0 ||
+                                              edges.getOrDefault(fromComponent, Collections.emptyMap()).containsKey(toComponent);
+                    if (!skip) {
+                        final String pump = this.findTransfer(from, to);
+                        if (pump != null) {
+                            edges.computeIfAbsent(fromComponent, key -> new HashMap<>())
+                                 .put(toComponent, new Result(Complexity.POLYNOMIAL, 0, this.findPrefix(from), pump));
+                        }
+                    }
+                }
+            }
+            if (edges.isEmpty()) {
+                return null;
+            }
+
+            /* components ids are in reverse topological order: successors have lower ids */
+            final int count       = Arrays.stream(this.components).max().orElse(0) + 1;
+            final int[] chain     = new int[count];
+            Result worst          = null;
+            int worstDegree       = 0;
+            for (int component = 0; component < count; ++component) {
+                chain[component] = 1;
+                for (final Map.Entry<Integer, Result> edge : edges.getOrDefault(component, Collections.emptyMap()).entrySet()) {
+                    chain[component] = Math.max(chain[component], chain[edge.getKey()] + 1);
+                }
+                if (chain[component] > worstDegree && edges.containsKey(component)) {
+                    final Result witness = edges.get(component).values().iterator().next();
+                    worstDegree          = chain[component];
+                    worst                = new Result(Complexity.POLYNOMIAL, worstDegree, witness.prefix, witness.pump);
+                }
+            }
+            edges.clear();
+            return worstDegree >= minReportedDegree ? worst : null;
+        }
+
+        /* (from, from, to) -> (from, to, to): the first track loops on from, the last one loops on to */
+        @Nullable
+        private String findTransfer(int from, int to) {
+            final int fromComponent             = this.components[from];
+            final int toComponent               = this.components[to];
+            final int start                     = (from * this.size + from) * this.size + to;
+            final int target                    = (from * this.size + to) * this.size + to;
+            final Map<Integer, Integer> parents = new HashMap<>();
+            final Deque<Integer> queue          = new ArrayDeque<>();
+            parents.put(start, -1);
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                this.tick();
+                final int current = queue.poll();
+                final int first   = current / (this.size * this.size);
+                final int second  = (current / this.size) % this.size;
+                final int third   = current % this.size;
+                for (final int nextFirst : this.successors[first]) {
+                    if (this.components[nextFirst] != fromComponent) {
+                        continue;
+                    }
+                    for (final int nextThird : this.successors[third]) {
+                        if (this.components[nextThird] != toComponent) {
+                            continue;
+                        }
+                        final CharSet common = this.labels.get(nextFirst).intersect(this.labels.get(nextThird));
+                        if (common.isEmpty()) {
+                            continue;
+                        }
+                        for (final int nextSecond : this.successors[second]) {
+                            this.tick();
+                            /* the middle track has to end up in the target position */
+                            final boolean leadsToTarget = nextSecond == to || (this.reachable[nextSecond] & (1L << to)) != 0;
+                            if (!leadsToTarget || !common.intersects(this.labels.get(nextSecond))) {
+                                continue;
+                            }
+                            final int next = (nextFirst * this.size + nextSecond) * this.size + nextThird;
+                            if (!parents.containsKey(next)) {
+                                parents.put(next, current);
+                                if (next == target) {
+                                    return this.word(parents, next, 3);
+                                }
+                                queue.add(next);
+                            }
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        /* the word along the BFS parents, each state is a tuple of positions (and an optional flag for pairs) */
+        @NotNull
+        private String word(@NotNull Map<Integer, Integer> parents, int end, int arity) {
+            final List<Integer> codePoints = new ArrayList<>();
+            for (int current = end; parents.get(current) != -1; current = parents.get(current)) {
+                final List<Integer> members = new ArrayList<>();
+                int remainder               = arity == 2 ? current / 2 : current;
+                for (int index = 0; index < (arity == 2 ? 2 : 3); ++index) {
+                    members.add(remainder % this.size);
+                    remainder /= this.size;
+                }
+                CharSet common = CharSet.ANY;
+                for (final int member : members) {
+                    common = common.intersect(this.labels.get(member));
+                }
+                codePoints.add(0, common.sample());
+            }
+            return render(codePoints);
+        }
+
+        /* the shortest word leading to the position (including its own character) */
+        @NotNull
+        private String findPrefix(int position) {
+            final int[] parents = new int[this.size];
+            Arrays.fill(parents, -2);
+            final Deque<Integer> queue = new ArrayDeque<>();
+            for (int start = this.initial.nextSetBit(0); start >= 0; start = this.initial.nextSetBit(start + 1)) {
+                parents[start] = -1;
+                queue.add(start);
+            }
+            while (!queue.isEmpty() && parents[position] == -2) {
+                this.tick();
+                final int current = queue.poll();
+                for (final int next : this.successors[current]) {
+                    if (parents[next] == -2) {
+                        parents[next] = current;
+                        queue.add(next);
+                    }
+                }
+            }
+
+            final List<Integer> codePoints = new ArrayList<>();
+            for (int current = position; current >= 0; current = parents[current]) {
+                codePoints.add(0, this.labels.get(current).sample());
+            }
+            return render(codePoints);
+        }
+
+        @NotNull
+        private static String render(@NotNull List<Integer> codePoints) {
+            final StringBuilder result = new StringBuilder();
+            for (final int codePoint : codePoints) {
+                if (codePoint == '\n') {
+                    result.append("\\n");
+                } else if (codePoint == '\t') {
+                    result.append("\\t");
+                } else if (codePoint >= 0x20 && codePoint < 0x7F) {
+                    result.appendCodePoint(codePoint);
+                } else {
+                    result.append(String.format("\\x{%X}", codePoint));
+                }
+            }
+            return result.toString();
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.regex;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Immutable set of code points as sorted, non-overlapping inclusive ranges. Shorthands, properties and POSIX classes
+ * are approximated (e.g. \p{L} and /u-mode \w include all non-ASCII code points), which is good enough for overlap
+ * checks between character-consuming nodes.
+ */
+final class CharSet {
+    static final CharSet EMPTY = new CharSet(new int[0]);
+    static final CharSet ANY   = range(0, Character.MAX_CODE_POINT);
+
+    private static final CharSet digits     = range('0', '9');
+    private static final CharSet upper      = range('A', 'Z');
+    private static final CharSet lower      = range('a', 'z');
+    private static final CharSet nonAscii   = range(0x80, Character.MAX_CODE_POINT);
+    private static final CharSet spaces     = range(0x09, 0x0D).union(single(' '));
+    private static final CharSet horizontal = ranges(0x09, 0x09, 0x20, 0x20, 0xA0, 0xA0, 0x1680, 0x1680, 0x180E, 0x180E, 0x2000, 0x200A, 0x202F, 0x202F, 0x205F, 0x205F, 0x3000, 0x3000);
+    private static final CharSet vertical   = ranges(0x0A, 0x0D, 0x85, 0x85, 0x2028, 0x2029);
+    private static final CharSet preferred  = lower.union(digits).union(upper).union(range(0x21, 0x7E)).union(single(' '));
+
+    /* pairs of inclusive bounds */
+    @NotNull final private int[] bounds;
+
+    private CharSet(@NotNull int[] bounds) {
+        this.bounds = bounds;
+    }
+
+    @NotNull
+    static CharSet single(int codePoint) {
+        return new CharSet(new int[]{codePoint, codePoint});
+    }
+
+    @NotNull
+    static CharSet range(int from, int to) {
+        return from > to ? EMPTY : new CharSet(new int[]{from, to});
+    }
+
+    @NotNull
+    private static CharSet ranges(int... bounds) {
+        CharSet result = EMPTY;
+        for (int index = 0; index + 1 < bounds.length; index += 2) {
+            result = result.union(range(bounds[index], bounds[index + 1]));
+        }
+        return result;
+    }
+
+    /* the set matched by a character-consuming node: literal, dot, shorthand or class */
+    @NotNull
+    static CharSet of(@NotNull RegexNode node, boolean ignoreCase, boolean dotAll, boolean unicode) {
+        if (node.is(RegexNode.Kind.LITERAL)) {
+            final CharSet literal = single(node.value);
+            return ignoreCase ? literal.withCaseVariants() : literal;
+        } else if (node.is(RegexNode.Kind.DOT)) {
+            return dotAll ? ANY : single('\n').complement();
+        } else if (node.is(RegexNode.Kind.SHORTHAND)) {
+            return ofShorthand(node, unicode);
+        } else if (node.is(RegexNode.Kind.CLASS)) {
+            CharSet result = EMPTY;
+            for (final RegexNode item : node.getChildren()) {
+                if (item.is(RegexNode.Kind.LITERAL)) {
+                    result = result.union(single(item.value));
+                } else if (item.is(RegexNode.Kind.RANGE)) {
+                    result = result.union(range(item.getChildren().get(0).value, item.getChildren().get(1).value));
+                } else if (item.is(RegexNode.Kind.SHORTHAND)) {
+                    result = result.union(ofShorthand(item, unicode));
+                } else if (item.is(RegexNode.Kind.POSIX)) {
+                    result = result.union(ofPosix(item.text, unicode));
+                } else {
+                    result = ANY;
+                }
+            }
+            result = ignoreCase ? result.withCaseVariants() : result;
+            return node.isNegated ? result.complement() : result;
+        }
+        return ANY;
+    }
+
+    @NotNull
+    private static CharSet ofShorthand(@NotNull RegexNode node, boolean unicode) {
+        final char letter = (char) node.value;
+        final CharSet base;
+        switch (Character.toLowerCase(letter)) {
+            case 'd':
+                base = unicode ? digits.union(nonAscii) : digits;
+                break;
+            case 'w':
+                base = unicode ? word().union(nonAscii) : word();
+                break;
+            case 's':
+                base = unicode ? spaces.union(vertical).union(horizontal) : spaces;
+                break;
+            case 'h':
+                base = horizontal;
+                break;
+            case 'v':
+            case 'r':
+                base = vertical;
+                break;
+            case 'n':
+                return single('\n').complement();
+            case 'p':
+                /* properties: letters and numbers are the common ones, everything else is treated as any */
+                final String name = node.text.substring(2);
+                if (letter == 'P' || name.contains("^")) {
+                    return ANY;
+                } else if (name.startsWith("L") || name.startsWith("{L")) {
+                    return upper.union(lower).union(nonAscii);
+                } else if (name.startsWith("N") || name.startsWith("{N")) {
+                    return digits.union(nonAscii);
+                }
+                return ANY;
+            default:
+                /* \X, \C */
+                return ANY;
+        }
+        return Character.isUpperCase(letter) && letter != 'R' ? base.complement() : base;
+    }
+
+    @NotNull
+    private static CharSet ofPosix(@NotNull String text, boolean unicode) {
+        final boolean isNegated = text.startsWith("[:^");
+        final String name       = text.replaceAll("[\\[\\]:^]", "");
+        final CharSet result;
+        if (name.equals("digit")) {
+            result = digits;
+        } else if (name.equals("alpha")) {
+            result = upper.union(lower);
+        } else if (name.equals("alnum")) {
+            result = upper.union(lower).union(digits);
+        } else if (name.equals("upper")) {
+            result = upper;
+        } else if (name.equals("lower")) {
+            result = lower;
+        } else if (name.equals("word")) {
+            result = word();
+        } else if (name.equals("space")) {
+            result = spaces;
+        } else if (name.equals("blank")) {
+            result = single(' ').union(single('\t'));
+        } else if (name.equals("xdigit")) {
+            result = digits.union(range('A', 'F')).union(range('a', 'f'));
+        } else if (name.equals("punct")) {
+            result = ranges(0x21, 0x2F, 0x3A, 0x40, 0x5B, 0x60, 0x7B, 0x7E);
+        } else if (name.equals("cntrl")) {
+            result = range(0x00, 0x1F).union(single(0x7F));
+        } else if (name.equals("ascii")) {
+            result = range(0x00, 0x7F);
+        } else {
+            return ANY;
+        }
+        final CharSet extended = unicode && !name.equals("ascii") ? result.union(nonAscii) : result;
+        return isNegated ? extended.complement() : extended;
+    }
+
+    @NotNull
+    private static CharSet word() {
+        return upper.union(lower).union(digits).union(single('_'));
+    }
+
+    boolean isEmpty() {
+        return this.bounds.length == 0;
+    }
+
+    @NotNull
+    CharSet union(@NotNull CharSet other) {
+        if (other.isEmpty()) {
+            return this;
+        } else if (this.isEmpty()) {
+            return other;
+        }
+
+        final List<int[]> all = new ArrayList<>();
+        for (final CharSet set : Arrays.asList(this, other)) {
+            for (int index = 0; index < set.bounds.length; index += 2) {
+                all.add(new int[]{set.bounds[index], set.bounds[index + 1]});
+            }
+        }
+        all.sort((first, second) -> Integer.compare(first[0], second[0]));
+
+        final List<Integer> merged = new ArrayList<>();
+        int from = all.get(0)[0];
+        int to   = all.get(0)[1];
+        for (final int[] range : all) {
+            if (range[0] <= to + 1) {
+                to = Math.max(to, range[1]);
+            } else {
+                merged.add(from);
+                merged.add(to);
+                from = range[0];
+                to   = range[1];
+            }
+        }
+        merged.add(from);
+        merged.add(to);
+        return new CharSet(merged.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    @NotNull
+    CharSet intersect(@NotNull CharSet other) {
+        final List<Integer> result = new ArrayList<>();
+        int left  = 0;
+        int right = 0;
+        while (left < this.bounds.length && right < other.bounds.length) {
+            final int from = Math.max(this.bounds[left], other.bounds[right]);
+            final int to   = Math.min(this.bounds[left + 1], other.bounds[right + 1]);
+            if (from <= to) {
+                result.add(from);
+                result.add(to);
+            }
+            if (this.bounds[left + 1] < other.bounds[right + 1]) {
+                left += 2;
+            } else {
+                right += 2;
+            }
+        }
+        return result.isEmpty() ? EMPTY : new CharSet(result.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    boolean intersects(@NotNull CharSet other) {
+        int left  = 0;
+        int right = 0;
+        while (left < this.bounds.length && right < other.bounds.length) {
+            if (Math.max(this.bounds[left], other.bounds[right]) <= Math.min(this.bounds[left + 1], other.bounds[right + 1])) {
+                return true;
+            }
+            if (this.bounds[left + 1] < other.bounds[right + 1]) {
+                left += 2;
+            } else {
+                right += 2;
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    CharSet complement() {
+        final List<Integer> result = new ArrayList<>();
+        int next = 0;
+        for (int index = 0; index < this.bounds.length; index += 2) {
+            if (this.bounds[index] > next) {
+                result.add(next);
+                result.add(this.bounds[index] - 1);
+            }
+            next = this.bounds[index + 1] + 1;
+        }
+        if (next <= Character.MAX_CODE_POINT) {
+            result.add(next);
+            result.add(Character.MAX_CODE_POINT);
+        }
+        return result.isEmpty() ? EMPTY : new CharSet(result.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /* ASCII letters only, as PCRE does in non-unicode mode */
+    @NotNull
+    private CharSet withCaseVariants() {
+        CharSet result = this;
+        final CharSet upperPart = this.intersect(upper);
+        final CharSet lowerPart = this.intersect(lower);
+        for (int index = 0; index < upperPart.bounds.length; index += 2) {
+            result = result.union(range(upperPart.bounds[index] + 32, upperPart.bounds[index + 1] + 32));
+        }
+        for (int index = 0; index < lowerPart.bounds.length; index += 2) {
+            result = result.union(range(lowerPart.bounds[index] - 32, lowerPart.bounds[index + 1] - 32));
+        }
+        return result;
+    }
+
+    /* a readable member: letters, digits and printable ASCII are preferred; -1 for the empty set */
+    int sample() {
+        if (this.isEmpty()) {
+            return -1;
+        }
+        for (final CharSet candidates : Arrays.asList(lower, digits, upper, preferred)) {
+            final CharSet common = this.intersect(candidates);
+            if (!common.isEmpty()) {
+                return common.bounds[0];
+            }
+        }
+        return this.bounds[0];
+    }
+}
@@ -0,0 +1,203 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.regex;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * A node of a parsed PCRE pattern. Nodes are created by RegexParser and never modified afterwards, so trees can be
+ * shared between strategies and threads.
+ *
+ * Kind-specific values: LITERAL - the code point; SHORTHAND and ANCHOR - the escape letter (or the symbol for ^ and $);
+ * QUANTIFIER - min/max (max is -1 when unbounded), lazy and possessive flags; CLASS - negation; GROUP - group kind.
+ */
+final public class RegexNode {
+    public enum Kind {
+        SEQUENCE, ALTERNATION, GROUP, QUANTIFIER, LITERAL, DOT, ANCHOR, SHORTHAND, BACKREFERENCE, SUBROUTINE,
+        CLASS, RANGE, POSIX, OPTIONS, UNSUPPORTED
+    }
+
+    public enum GroupKind {
+        CAPTURING, NAMED, NON_CAPTURING, ATOMIC, LOOKAHEAD, NEGATIVE_LOOKAHEAD, LOOKBEHIND, NEGATIVE_LOOKBEHIND,
+        BRANCH_RESET, CONDITIONAL, OPTIONS
+    }
+
+    @NotNull final public Kind kind;
+    @NotNull final public String text;
+    final public int start;
+    final public int end;
+    final public int value;
+    final public int min;
+    final public int max;
+    final public boolean isLazy;
+    final public boolean isPossessive;
+    final public boolean isNegated;
+    @Nullable final public GroupKind groupKind;
+    @NotNull final private List<RegexNode> children;
+    @Nullable private RegexNode parent;
+
+    private RegexNode(
+            @NotNull Kind kind,
+            @NotNull String source,
+            int start,
+            int end,
+            int value,
+            int min,
+            int max,
+            boolean isLazy,
+            boolean isPossessive,
+            boolean isNegated,
+            @Nullable GroupKind groupKind,
+            @NotNull List<RegexNode> children
+    ) {
+        this.kind         = kind;
+        this.text         = source.substring(start, end);
+        this.start        = start;
+        this.end          = end;
+        this.value        = value;
+        this.min          = min;
+        this.max          = max;
+        this.isLazy       = isLazy;
+        this.isPossessive = isPossessive;
+        this.isNegated    = isNegated;
+        this.groupKind    = groupKind;
+        this.children     = children.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(children));
+        /* parents are only assigned while the tree is being built */
+        this.children.forEach(child -> child.parent = this);
+    }
+
+    @NotNull
+    static RegexNode leaf(@NotNull Kind kind, @NotNull String source, int start, int end, int value) {
+        return new RegexNode(kind, source, start, end, value, 0, 0, false, false, false, null, Collections.emptyList());
+    }
+
+    @NotNull
+    static RegexNode container(@NotNull Kind kind, @NotNull String source, int start, int end, @NotNull List<RegexNode> children) {
+        return new RegexNode(kind, source, start, end, 0, 0, 0, false, false, false, null, children);
+    }
+
+    @NotNull
+    static RegexNode group(@NotNull GroupKind groupKind, @NotNull String source, int start, int end, @NotNull List<RegexNode> children) {
+        return new RegexNode(Kind.GROUP, source, start, end, 0, 0, 0, false, false, false, groupKind, children);
+    }
+
+    @NotNull
+    static RegexNode characterClass(@NotNull String source, int start, int end, boolean isNegated, @NotNull List<RegexNode> items) {
+        return new RegexNode(Kind.CLASS, source, start, end, 0, 0, 0, false, false, isNegated, null, items);
+    }
+
+    @NotNull
+    static RegexNode quantifier(
+            @NotNull String source,
+            int start,
+            int end,
+            @NotNull RegexNode subject,
+            int min,
+            int max,
+            boolean isLazy,
+            boolean isPossessive
+    ) {
+        return new RegexNode(
+                Kind.QUANTIFIER, source, start, end, 0, min, max, isLazy, isPossessive, false, null, Collections.singletonList(subject)
+        );
+    }
+
+    @NotNull
+    public List<RegexNode> getChildren() {
+        return this.children;
+    }
+
+    @Nullable
+    public RegexNode getParent() {
+        return this.parent;
+    }
+
+    /* quantified node, the only child of a quantifier */
+    @Nullable
+    public RegexNode getSubject() {
+        return this.kind == Kind.QUANTIFIER ? this.children.get(0) : null;
+    }
+
+    /* class content without brackets and negation */
+    @NotNull
+    public String getClassBody() {
+        if (this.kind != Kind.CLASS || this.text.length() < 2) {
+            return this.text;
+        }
+        final int offset = this.isNegated ? 2 : 1;
+        return this.text.substring(offset, Math.max(offset, this.text.length() - (this.text.endsWith("]") ? 1 : 0)));
+    }
+
+    public boolean is(@NotNull Kind kind) {
+        return this.kind == kind;
+    }
+
+    public boolean isShorthand(char letter) {
+        return this.kind == Kind.SHORTHAND && this.value == letter;
+    }
+
+    public boolean isUnbounded() {
+        return this.kind == Kind.QUANTIFIER && this.max == -1;
+    }
+
+    /* pre-order traversal */
+    public void accept(@NotNull Consumer<RegexNode> visitor) {
+        visitor.accept(this);
+        for (final RegexNode child : this.children) {
+            child.accept(visitor);
+        }
+    }
+
+    public boolean anyMatch(@NotNull Predicate<RegexNode> predicate) {
+        if (predicate.test(this)) {
+            return true;
+        }
+        for (final RegexNode child : this.children) {
+            if (child.anyMatch(predicate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    public List<RegexNode> findAll(@NotNull Kind kind) {
+        final List<RegexNode> result = new ArrayList<>();
+        this.accept(node -> {
+            if (node.kind == kind) {
+                result.add(node);
+            }
+        });
+        return result;
+    }
+
+    public boolean hasAncestor(@NotNull Predicate<RegexNode> predicate) {
+        RegexNode current = this.parent;
+        while (current != null) {
+            if (predicate.test(current)) {
+                return true;
+            }
+            current = current.parent;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return this.kind + "(" + this.text + ")";
+    }
+}
@@ -0,0 +1,558 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.regex;
+
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexNode.GroupKind;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexNode.Kind;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Recursive descent parser for the PCRE subset used in PHP code: alternations, groups (incl. named, atomic, lookaround,
+ * conditional, inline options), quantifiers (lazy, possessive), classes with ranges and POSIX classes, escapes,
+ * back-references and the x-modifier. Verbs and callouts are kept as unsupported nodes. Never throws: malformed
+ * patterns are parsed as far as possible and the tree gets flagged.
+ *
+ * The pattern is expected without delimiters and after PHP-level unescaping (see unescape).
+ */
+final public class RegexParser {
+    private static final int maxDepth = 128;
+
+    @NotNull final private String source;
+    final private int length;
+    private int position   = 0;
+    private int depth      = 0;
+    private boolean hasErrors;
+    private boolean extended;
+
+    private RegexParser(@NotNull String source, @NotNull String modifiers) {
+        this.source   = source;
+        this.length   = source.length();
+        this.extended = modifiers.indexOf('x') != -1;
+    }
+
+    @NotNull
+    public static RegexTree parse(@NotNull String pattern, @Nullable String modifiers) {
+        final String flags        = modifiers == null ? "" : modifiers;
+        final RegexParser parser  = new RegexParser(pattern, flags);
+        final List<RegexNode> parts = new ArrayList<>();
+        parts.add(parser.parseAlternation());
+        /* stray closing parentheses: report and keep parsing the rest */
+        while (parser.position < parser.length) {
+            parser.hasErrors = true;
+            ++parser.position;
+            parts.add(parser.parseAlternation());
+        }
+        final RegexNode root = parts.size() == 1 ? parts.get(0) : RegexNode.container(Kind.SEQUENCE, pattern, 0, pattern.length(), parts);
+        return new RegexTree(pattern, flags, root, parser.hasErrors);
+    }
+
+    /* string literal contents as PCRE receives them */
+    @NotNull
+    public static String unescape(@NotNull String contents, boolean isSingleQuote) {
+        if (contents.indexOf('\\') == -1) {
+            return contents;
+        }
+        final StringBuilder result = new StringBuilder(contents.length());
+        for (int index = 0; index < contents.length(); ++index) {
+            final char current = contents.charAt(index);
+            if (current == '\\' && index + 1 < contents.length()) {
+                final char next       = contents.charAt(index + 1);
+                final boolean escaped = next == '\\' || (isSingleQuote ? next == '\'' : (next == '"' || next == '$'));
+                if (escaped) {
+                    result.append(next);
+                    ++index;
+                    continue;
+                }
+            }
+            result.append(current);
+        }
+        return result.toString();
+    }
+
+    @NotNull
+    private RegexNode parseAlternation() {
+        final int start                = this.position;
+        final List<RegexNode> branches = new ArrayList<>();
+        branches.add(this.parseSequence());
+        while (this.position < this.length && this.source.charAt(this.position) == '|') {
+            ++this.position;
+            branches.add(this.parseSequence());
+        }
+        return branches.size() == 1 ? branches.get(0) : RegexNode.container(Kind.ALTERNATION, this.source, start, this.position, branches);
+    }
+
+    @NotNull
+    private RegexNode parseSequence() {
+        final int start             = this.position;
+        final List<RegexNode> items = new ArrayList<>();
+        while (true) {
+            this.skipExtended();
+            if (this.position >= this.length) {
+                break;
+            }
+            final char current = this.source.charAt(this.position);
+            if (current == '|' || current == ')') {
+                break;
+            }
+            final RegexNode atom = this.parseAtom();
+            if (atom != null && atom.is(Kind.SEQUENCE)) {
+                /* \Q...\E: a quantifier applies to the last quoted character only */
+                final List<RegexNode> quoted = atom.getChildren();
+                if (!quoted.isEmpty()) {
+                    items.addAll(quoted.subList(0, quoted.size() - 1));
+                    items.add(this.parseQuantifiers(quoted.get(quoted.size() - 1)));
+                }
+            } else if (atom != null) {
+                items.add(this.parseQuantifiers(atom));
+            }
+        }
+        return RegexNode.container(Kind.SEQUENCE, this.source, start, this.position, items);
+    }
+
+    @Nullable
+    private RegexNode parseAtom() {
+        final int start    = this.position;
+        final char current = this.source.charAt(this.position);
+        if (current == '(') {
+            return this.parseGroup();
+        } else if (current == '[') {
+            return this.parseClass();
+        } else if (current == '\\') {
+            return this.parseEscape(false);
+        } else if (current == '.') {
+            ++this.position;
+            return RegexNode.leaf(Kind.DOT, this.source, start, this.position, current);
+        } else if (current == '^' || current == '$') {
+            ++this.position;
+            return RegexNode.leaf(Kind.ANCHOR, this.source, start, this.position, current);
+        }
+        return this.parseLiteral();
+    }
+
+    @NotNull
+    private RegexNode parseLiteral() {
+        final int start     = this.position;
+        final int codePoint = this.source.codePointAt(this.position);
+        this.position      += Character.charCount(codePoint);
+        return RegexNode.leaf(Kind.LITERAL, this.source, start, this.position, codePoint);
+    }
+
+    @NotNull
+    private RegexNode parseQuantifiers(@NotNull RegexNode atom) {
+        RegexNode result = atom;
+        while (true) {
+            this.skipExtended();
+            if (this.position >= this.length) {
+                break;
+            }
+            final char current = this.source.charAt(this.position);
+            final int min;
+            final int max;
+            if (current == '*') {
+                min = 0;
+                max = -1;
+                ++this.position;
+            } else if (current == '+') {
+                min = 1;
+                max = -1;
+                ++this.position;
+            } else if (current == '?') {
+                min = 0;
+                max = 1;
+                ++this.position;
+            } else if (current == '{') {
+                final int[] bounds = this.parseBounds();
+                if (bounds == null) {
+                    /* not a quantifier, the brace is a literal */
+                    break;
+                }
+                min = bounds[0];
+                max = bounds[1];
+            } else {
+                break;
+            }
+
+            boolean isLazy       = false;
+            boolean isPossessive = false;
+            if (this.position < this.length) {
+                final char modifier = this.source.charAt(this.position);
+                isLazy              = modifier == '?';
+                isPossessive        = modifier == '+';
+                if (isLazy || isPossessive) {
+                    ++this.position;
+                }
+            }
+            result = RegexNode.quantifier(this.source, result.start, this.position, result, min, max, isLazy, isPossessive);
+        }
+        return result;
+    }
+
+    /* {n}, {n,}, {n,m}: returns min and max (-1 for unbounded), null if the brace does not start a quantifier */
+    @Nullable
+    private int[] parseBounds() {
+        int index = this.position + 1;
+        final int minStart = index;
+        while (index < this.length && Character.isDigit(this.source.charAt(index))) {
+            ++index;
+        }
+        if (index == minStart || index >= this.length) {
+            return null;
+        }
+        final int min = parseNumber(this.source.substring(minStart, index));
+        int max       = min;
+        if (this.source.charAt(index) == ',') {
+            final int maxStart = ++index;
+            while (index < this.length && Character.isDigit(this.source.charAt(index))) {
+                ++index;
+            }
+            max = index == maxStart ? -1 : parseNumber(this.source.substring(maxStart, index));
+        }
+        if (index >= this.length || this.source.charAt(index) != '}') {
+            return null;
+        }
+        this.position = index + 1;
+        return new int[]{min, max};
+    }
+
+    private static int parseNumber(@NotNull String digits) {
+        /* PCRE limits quantifiers to 65535 */
+        return digits.length() > 5 ? 65535 : Math.min(65535, Integer.parseInt(digits));
+    }
+
+    @Nullable
+    private RegexNode parseGroup() {
+        final int start = this.position++;
+        if (this.depth >= maxDepth) {
+            this.hasErrors = true;
+            this.position  = this.length;
+            return RegexNode.leaf(Kind.UNSUPPORTED, this.source, start, this.position, 0);
+        }
+
+        /* verbs: (*UTF8), (*SKIP) and so on */
+        if (this.lookingAt("*")) {
+            this.skipPast(')');
+            return RegexNode.leaf(Kind.UNSUPPORTED, this.source, start, this.position, 0);
+        }
+
+        GroupKind kind                = GroupKind.CAPTURING;
+        final boolean extendedOuter   = this.extended;
+        if (this.lookingAt("?")) {
+            ++this.position;
+            if (this.lookingAt("#")) {
+                this.skipPast(')');
+                return null;
+            } else if (this.lookingAt(":")) {
+                kind = GroupKind.NON_CAPTURING;
+                ++this.position;
+            } else if (this.lookingAt(">")) {
+                kind = GroupKind.ATOMIC;
+                ++this.position;
+            } else if (this.lookingAt("|")) {
+                kind = GroupKind.BRANCH_RESET;
+                ++this.position;
+            } else if (this.lookingAt("=")) {
+                kind = GroupKind.LOOKAHEAD;
+                ++this.position;
+            } else if (this.lookingAt("!")) {
+                kind = GroupKind.NEGATIVE_LOOKAHEAD;
+                ++this.position;
+            } else if (this.lookingAt("<=")) {
+                kind           = GroupKind.LOOKBEHIND;
+                this.position += 2;
+            } else if (this.lookingAt("<!")) {
+                kind           = GroupKind.NEGATIVE_LOOKBEHIND;
+                this.position += 2;
+            } else if (this.lookingAt("P=")) {
+                this.skipPast(')');
+                return RegexNode.leaf(Kind.BACKREFERENCE, this.source, start, this.position, 0);
+            } else if (this.lookingAt("P>") || this.lookingAt("&") || this.lookingAt("R") || this.lookingAtSubroutineNumber()) {
+                this.skipPast(')');
+                return RegexNode.leaf(Kind.SUBROUTINE, this.source, start, this.position, 0);
+            } else if (this.lookingAt("C")) {
+                this.skipPast(')');
+                return RegexNode.leaf(Kind.UNSUPPORTED, this.source, start, this.position, 0);
+            } else if (this.lookingAt("<") || this.lookingAt("P<")) {
+                kind = GroupKind.NAMED;
+                this.skipPast('>');
+            } else if (this.lookingAt("'")) {
+                kind = GroupKind.NAMED;
+                ++this.position;
+                this.skipPast('\'');
+            } else if (this.lookingAt("(")) {
+                /* the condition: a group number/name, an assertion is parsed as a part of the body */
+                kind = GroupKind.CONDITIONAL;
+                if (!this.lookingAt("(?")) {
+                    this.skipPast(')');
+                }
+            } else {
+                final int flagsStart = this.position;
+                while (this.position < this.length && "imsxXUJn-^".indexOf(this.source.charAt(this.position)) != -1) {
+                    ++this.position;
+                }
+                this.applyOptions(this.source.substring(flagsStart, this.position));
+                if (this.lookingAt(")")) {
+                    /* applies till the end of the enclosing group */
+                    ++this.position;
+                    return RegexNode.leaf(Kind.OPTIONS, this.source, start, this.position, 0);
+                } else if (this.lookingAt(":")) {
+                    kind = GroupKind.OPTIONS;
+                    ++this.position;
+                } else {
+                    this.hasErrors = true;
+                }
+            }
+        }
+
+        ++this.depth;
+        final RegexNode body = this.parseAlternation();
+        --this.depth;
+        this.extended = extendedOuter;
+        if (this.lookingAt(")")) {
+            ++this.position;
+        } else {
+            this.hasErrors = true;
+        }
+        return RegexNode.group(kind, this.source, start, this.position, Collections.singletonList(body));
+    }
+
+    @NotNull
+    private RegexNode parseClass() {
+        final int start         = this.position++;
+        final boolean isNegated = this.lookingAt("^");
+        if (isNegated) {
+            ++this.position;
+        }
+
+        final List<RegexNode> items = new ArrayList<>();
+        boolean isFirst             = true;
+        while (this.position < this.length) {
+            final char current = this.source.charAt(this.position);
+            if (current == ']' && !isFirst) {
+                break;
+            }
+            isFirst = false;
+
+            RegexNode item;
+            if (current == '[' && (this.lookingAt("[:") || this.lookingAt("[=") || this.lookingAt("[."))) {
+                final String closing = this.source.charAt(this.position + 1) + "]";
+                final int end        = this.source.indexOf(closing, this.position + 2);
+                if (end != -1) {
+                    final int itemStart = this.position;
+                    this.position       = end + 2;
+                    item                = RegexNode.leaf(Kind.POSIX, this.source, itemStart, this.position, 0);
+                } else {
+                    item = this.parseLiteral();
+                }
+            } else if (current == '\\') {
+                item = this.parseEscape(true);
+            } else {
+                item = this.parseLiteral();
+            }
+            if (item == null) {
+                continue;
+            }
+
+            /* ranges: a-z, \x00-\x7f; a trailing dash is a literal */
+            final boolean isRange = item.is(Kind.LITERAL) &&
+                                    this.position + 1 < this.length &&
+                                    this.source.charAt(this.position) == '-' &&
+                                    this.source.charAt(this.position + 1) != ']';
+            if (isRange) {
+                final int dash       = this.position++;
+                final RegexNode upper = this.source.charAt(this.position) == '\\' ? this.parseEscape(true) : this.parseLiteral();
+                if (upper != null && upper.is(Kind.LITERAL)) {
+                    final List<RegexNode> bounds = new ArrayList<>();
+                    bounds.add(item);
+                    bounds.add(upper);
+                    item = RegexNode.container(Kind.RANGE, this.source, item.start, this.position, bounds);
+                } else {
+                    items.add(item);
+                    items.add(RegexNode.leaf(Kind.LITERAL, this.source, dash, dash + 1, '-'));
+                    item = upper;
+                }
+            }
+            if (item != null) {
+                items.add(item);
+            }
+        }
+
+        if (this.position < this.length) {
+            ++this.position;
+        } else {
+            this.hasErrors = true;
+        }
+        return RegexNode.characterClass(this.source, start, this.position, isNegated, items);
+    }
+
+    @Nullable
+    private RegexNode parseEscape(boolean inClass) {
+        final int start = this.position++;
+        if (this.position >= this.length) {
+            this.hasErrors = true;
+            return RegexNode.leaf(Kind.LITERAL, this.source, start, this.position, '\\');
+        }
+
+        final char current = this.source.charAt(this.position++);
+        if ("dDwWsShHvV".indexOf(current) != -1 || (!inClass && "RXNC".indexOf(current) != -1)) {
+            return RegexNode.leaf(Kind.SHORTHAND, this.source, start, this.position, current);
+        } else if (current == 'p' || current == 'P') {
+            if (this.lookingAt("{")) {
+                this.skipPast('}');
+            } else if (this.position < this.length) {
+                ++this.position;
+            }
+            return RegexNode.leaf(Kind.SHORTHAND, this.source, start, this.position, current);
+        }
+
+        if (!inClass) {
+            if ("bBAzZGK".indexOf(current) != -1) {
+                return RegexNode.leaf(Kind.ANCHOR, this.source, start, this.position, current);
+            } else if (current >= '1' && current <= '9') {
+                while (this.position < this.length && Character.isDigit(this.source.charAt(this.position))) {
+                    ++this.position;
+                }
+                return RegexNode.leaf(Kind.BACKREFERENCE, this.source, start, this.position, 0);
+            } else if (current == 'g') {
+                if (this.lookingAt("{")) {
+                    this.skipPast('}');
+                } else if (this.lookingAt("<") || this.lookingAt("'")) {
+                    /* Oniguruma-style subroutine calls */
+                    this.skipPast(this.lookingAt("<") ? '>' : '\'');
+                    return RegexNode.leaf(Kind.SUBROUTINE, this.source, start, this.position, 0);
+                } else {
+                    if (this.lookingAt("-") || this.lookingAt("+")) {
+                        ++this.position;
+                    }
+                    while (this.position < this.length && Character.isDigit(this.source.charAt(this.position))) {
+                        ++this.position;
+                    }
+                }
+                return RegexNode.leaf(Kind.BACKREFERENCE, this.source, start, this.position, 0);
+            } else if (current == 'k' && (this.lookingAt("<") || this.lookingAt("'") || this.lookingAt("{"))) {
+                final char opening = this.source.charAt(this.position);
+                this.skipPast(opening == '<' ? '>' : (opening == '{' ? '}' : '\''));
+                return RegexNode.leaf(Kind.BACKREFERENCE, this.source, start, this.position, 0);
+            } else if (current == 'Q') {
+                /* quoted sequence: everything till \E is literal */
+                final int end                  = this.source.indexOf("\\E", this.position);
+                final int quoteEnd             = end == -1 ? this.length : end;
+                final List<RegexNode> literals = new ArrayList<>();
+                while (this.position < quoteEnd) {
+                    literals.add(this.parseLiteral());
+                }
+                this.position = end == -1 ? this.length : end + 2;
+                return RegexNode.container(Kind.SEQUENCE, this.source, start, this.position, literals);
+            } else if (current == 'E') {
+                return null;
+            }
+        }
+
+        final int codePoint;
+        if (current == 'n') {
+            codePoint = '\n';
+        } else if (current == 'r') {
+            codePoint = '\r';
+        } else if (current == 't') {
+            codePoint = '\t';
+        } else if (current == 'f') {
+            codePoint = '\f';
+        } else if (current == 'e') {
+            codePoint = 0x1B;
+        } else if (current == 'a') {
+            codePoint = 0x07;
+        } else if (current == 'b') {
+            /* backspace, inside of classes only */
+            codePoint = 0x08;
+        } else if (current == 'x') {
+            codePoint = this.parseCode(16, 2);
+        } else if (current == 'o' && this.lookingAt("{")) {
+            codePoint = this.parseCode(8, 0);
+        } else if (current == '0') {
+            --this.position;
+            codePoint = this.parseCode(8, 3);
+        } else if (current == 'c' && this.position < this.length) {
+            codePoint = Character.toUpperCase(this.source.charAt(this.position++)) ^ 0x40;
+        } else {
+            codePoint = this.source.codePointAt(this.position - 1);
+            this.position += Character.charCount(codePoint) - 1;
+        }
+        return RegexNode.leaf(Kind.LITERAL, this.source, start, this.position, codePoint);
+    }
+
+    /* \x{...}/\o{...} or up to maxDigits digits */
+    private int parseCode(int radix, int maxDigits) {
+        final boolean isBraced = this.lookingAt("{");
+        final int start        = isBraced ? this.position + 1 : this.position;
+        int end                = start;
+        while (end < this.length && (isBraced || end - start < maxDigits) && Character.digit(this.source.charAt(end), radix) != -1) {
+            ++end;
+        }
+        final String digits = this.source.substring(start, end);
+        this.position       = isBraced && end < this.length && this.source.charAt(end) == '}' ? end + 1 : end;
+        if (digits.isEmpty() || digits.length() > 6) {
+            return 0;
+        }
+        return Math.min(Character.MAX_CODE_POINT, Integer.parseInt(digits, radix));
+    }
+
+    private void applyOptions(@NotNull String options) {
+        final int disabledFrom = options.indexOf('-');
+        final int extendedAt   = options.indexOf('x');
+        if (options.startsWith("^")) {
+            this.extended = false;
+        }
+        if (extendedAt != -1) {
+            this.extended = disabledFrom == -1 || extendedAt < disabledFrom;
+        }
+    }
+
+    private boolean lookingAtSubroutineNumber() {
+        if (this.position < this.length) {
+            final char current = this.source.charAt(this.position);
+            return Character.isDigit(current) ||
+                   ((current == '+' || current == '-') && this.position + 1 < this.length && Character.isDigit(this.source.charAt(this.position + 1)));
+        }
+        return false;
+    }
+
+    private boolean lookingAt(@NotNull String prefix) {
+        return this.source.startsWith(prefix, this.position);
+    }
+
+    private void skipPast(char closing) {
+        final int end = this.source.indexOf(closing, this.position);
+        if (end == -1) {
+            this.hasErrors = true;
+            this.position  = this.length;
+        } else {
+            this.position = end + 1;
+        }
+    }
+
+    /* whitespaces and comments are ignored outside of classes in the extended mode */
+    private void skipExtended() {
+        while (this.extended && this.position < this.length) {
+            final char current = this.source.charAt(this.position);
+            if (Character.isWhitespace(current)) {
+                ++this.position;
+            } else if (current == '#') {
+                final int end = this.source.indexOf('\n', this.position);
+                this.position = end == -1 ? this.length : end + 1;
+            } else {
+                break;
+            }
+        }
+    }
+}
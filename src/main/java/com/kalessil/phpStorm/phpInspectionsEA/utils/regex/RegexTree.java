@@ -0,0 +1,50 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.regex;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Parsed pattern with its modifiers. Malformed patterns are parsed as far as possible and flagged with hasErrors.
+ */
+final public class RegexTree {
+    @NotNull final public String pattern;
+    @NotNull final public String modifiers;
+    @NotNull final public RegexNode root;
+    final public boolean hasErrors;
+
+    RegexTree(@NotNull String pattern, @NotNull String modifiers, @NotNull RegexNode root, boolean hasErrors) {
+        this.pattern   = pattern;
+        this.modifiers = modifiers;
+        this.root      = root;
+        this.hasErrors = hasErrors;
+    }
+
+    public boolean hasModifier(char modifier) {
+        return this.modifiers.indexOf(modifier) != -1;
+    }
+
+    public void accept(@NotNull Consumer<RegexNode> visitor) {
+        this.root.accept(visitor);
+    }
+
+    public boolean anyMatch(@NotNull Predicate<RegexNode> predicate) {
+        return this.root.anyMatch(predicate);
+    }
+
+    @NotNull
+    public List<RegexNode> findAll(@NotNull RegexNode.Kind kind) {
+        return this.root.findAll(kind);
+    }
+}
@@ -0,0 +1,61 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.regex;
+
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CacheStatistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Parsed patterns shared by all regular expressions strategies: the same pattern is usually repeated across
+ * a project (and re-inspected on every change), so trees are kept in a bounded LRU map keyed by pattern and modifiers.
+ * Trees depend on the pattern text only, so no invalidation is needed.
+ */
+final public class RegexTreeCache {
+    private static final CacheStatistics statistics = CacheStatistics.forName("RegexTreeCache");
+    private static final int maxEntries             = 512;
+
+    private static final Map<String, RegexTree> trees = new LinkedHashMap<String, RegexTree>(maxEntries, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(@NotNull Map.Entry<String, RegexTree> eldest) {
+            return this.size() > maxEntries;
+        }
+    };
+
+    @NotNull
+    public static RegexTree get(@NotNull String pattern, @Nullable String modifiers) {
+        final String flags = modifiers == null ? "" : modifiers;
+        final String key   = flags + '/' + pattern;
+        statistics.lookup();
+        synchronized (trees) {
+            final RegexTree cached = trees.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        /* parsing happens outside of the lock, concurrent misses for the same pattern are harmless */
+        statistics.miss();
+        final RegexTree tree = RegexParser.parse(pattern, flags);
+        synchronized (trees) {
+            trees.put(key, tree);
+        }
+        return tree;
+    }
+
+    public static void clear() {
+        synchronized (trees) {
+            trees.clear();
+        }
+    }
+}
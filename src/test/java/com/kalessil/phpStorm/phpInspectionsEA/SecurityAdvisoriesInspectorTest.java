@@ -2,6 +2,8 @@ package com.kalessil.phpStorm.phpInspectionsEA;
 
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.security.SecurityAdvisoriesInspector;
 
+import java.io.File;
+
 public final class SecurityAdvisoriesInspectorTest extends PhpCodeInsightFixtureTestCase {
     // Code-coverage.
     public void testNoComposerJson() {
@@ -82,4 +84,16 @@ public final class SecurityAdvisoriesInspectorTest extends PhpCodeInsightFixture
         myFixture.configureByFile("testData/fixtures/securityAdvisories/invalidRequirePropertyValue/composer.json");
         myFixture.testHighlighting(true, false, true);
     }
+
+    public void testVulnerableLockedPackages() {
+        final SecurityAdvisoriesInspector inspector = new SecurityAdvisoriesInspector();
+        inspector.REPORT_VULNERABLE_PACKAGES        = true;
+        inspector.ADVISORIES_DATABASE               = new File("testData/fixtures/securityAdvisories/database").getAbsolutePath();
+        myFixture.enableInspections(inspector);
+        myFixture.configureByFiles(
+            "testData/fixtures/securityAdvisories/vulnerableLock/composer.json",
+            "testData/fixtures/securityAdvisories/vulnerableLock/composer.lock"
+        );
+        myFixture.testHighlighting(true, false, true);
+    }
 }
@@ -0,0 +1,40 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.fixers;
+
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.BatchReplacementsApplier;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixer;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage.IsNullFunctionUsageInspector;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.FusedInspectionsEngine;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+final public class BatchReplacementsApplierTest extends PhpCodeInsightFixtureTestCase {
+    public void testAppliesReplacementsInOneBatch() {
+        myFixture.configureByFile("testData/fixtures/api/is-null-function.regular.php");
+        final Map<String, List<ProblemDescriptor>> problems = FusedInspectionsEngine.inspect(
+                myFixture.getFile(),
+                Collections.singletonList(new IsNullFunctionUsageInspector()),
+                false
+        );
+        final List<ProblemDescriptor> descriptors = problems.get("IsNullFunctionUsageInspection");
+        final Map<VirtualFile, BatchReplacementsApplier.FileReplacements> replacements
+                = BatchReplacementsApplier.collect(descriptors);
+        assertEquals(1, replacements.size());
+        assertEquals(descriptors.size(), replacements.values().iterator().next().size());
+
+        /* "fix all" of one fix: fixes of the same class are collected as well */
+        final UseSuggestedReplacementFixer owner = (UseSuggestedReplacementFixer) descriptors.get(0).getFixes()[0];
+        assertEquals(descriptors.size(), BatchReplacementsApplier.collect(descriptors, owner).values().iterator().next().size());
+
+        assertEquals(descriptors.size(), BatchReplacementsApplier.apply(myFixture.getProject(), replacements));
+        myFixture.setTestDataPath(".");
+        myFixture.checkResultByFile("testData/fixtures/api/is-null-function.regular.fixed.php");
+
+        /* the file has been modified: stale replacements are not applied */
+        assertEquals(0, BatchReplacementsApplier.apply(myFixture.getProject(), replacements));
+    }
+}
@@ -0,0 +1,146 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.openApi;
+
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.PsiElementVisitor;
+import com.jetbrains.php.config.PhpLanguageLevel;
+import com.jetbrains.php.config.PhpProjectConfigurationFacade;
+import com.jetbrains.php.lang.psi.elements.FunctionReference;
+import com.jetbrains.php.lang.psi.elements.MethodReference;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage.IsNullFunctionUsageInspector;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage.UnqualifiedReferenceInspector;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.ifs.NotOptimalIfConditionsInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.phpUnit.PhpUnitDeprecationsInspector;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.phpUnit.PhpUnitTestsInspector;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.FusedInspectionsEngine;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+final public class FusedInspectionsEngineTest extends PhpCodeInsightFixtureTestCase {
+    public void testReportsSameProblemsAsPlatform() {
+        PhpProjectConfigurationFacade.getInstance(myFixture.getProject()).setLanguageLevel(PhpLanguageLevel.PHP710);
+        final UnqualifiedReferenceInspector inspector = new UnqualifiedReferenceInspector();
+        inspector.REPORT_ALL_FUNCTIONS                = true;
+        inspector.REPORT_CONSTANTS                    = true;
+        myFixture.enableInspections(inspector);
+        myFixture.configureByFile("testData/fixtures/unqualified-function-refs-ns.php");
+        myFixture.testHighlighting(true, false, true);
+
+        final List<LocalInspectionTool> inspections = Arrays.asList(inspector, new NotOptimalIfConditionsInspection());
+        final Map<String, List<ProblemDescriptor>> problems
+                = FusedInspectionsEngine.inspect(myFixture.getFile(), inspections, false);
+        assertEquals(2, problems.size());
+        assertEquals(10, problems.get(inspector.getShortName()).size());
+        assertEmpty(problems.get("NotOptimalIfConditionsInspection"));
+    }
+
+    public void testRoutesFunctionCallsByName() throws IOException {
+        PhpProjectConfigurationFacade.getInstance(myFixture.getProject()).setLanguageLevel(PhpLanguageLevel.PHP710);
+        final String fixture = "testData/fixtures/api/is-null-function.regular.php";
+        final int expected   = countExpectedProblems(fixture);
+        myFixture.configureByFile(fixture);
+
+        /* name-declaring, wildcard and not interested in calls visitors are mixed */
+        final UnqualifiedReferenceInspector unqualified = new UnqualifiedReferenceInspector();
+        unqualified.REPORT_ALL_FUNCTIONS                = true;
+        final List<LocalInspectionTool> inspections     = Arrays.asList(
+                new IsNullFunctionUsageInspector(),
+                unqualified,
+                new NotOptimalIfConditionsInspection()
+        );
+        final Map<String, List<ProblemDescriptor>> problems
+                = FusedInspectionsEngine.inspect(myFixture.getFile(), inspections, false);
+        assertEquals(expected, problems.get("IsNullFunctionUsageInspection").size());
+        assertEmpty(problems.get("NotOptimalIfConditionsInspection"));
+    }
+
+    public void testRoutesMethodReferencesByName() throws IOException {
+        final String fixture = "testData/fixtures/phpUnit/deprecations.php";
+        final int expected   = countExpectedProblems(fixture);
+        myFixture.configureByFile(fixture);
+
+        /* exact names and 'assert*' prefix declaring visitors are mixed */
+        final List<LocalInspectionTool> inspections = Arrays.asList(
+                new PhpUnitTestsInspector(),
+                new PhpUnitDeprecationsInspector()
+        );
+        final Map<String, List<ProblemDescriptor>> problems
+                = FusedInspectionsEngine.inspect(myFixture.getFile(), inspections, false);
+        assertEquals(expected, problems.get("PhpUnitDeprecationsInspection").size());
+    }
+
+    public void testDropsSuppressedProblems() throws IOException {
+        PhpProjectConfigurationFacade.getInstance(myFixture.getProject()).setLanguageLevel(PhpLanguageLevel.PHP710);
+        final String fixture                         = "testData/fixtures/api/is-null-function.suppressed.php";
+        final int expected                           = countExpectedProblems(fixture);
+        final IsNullFunctionUsageInspector inspector = new IsNullFunctionUsageInspector();
+        myFixture.enableInspections(inspector);
+        myFixture.configureByFile(fixture);
+        myFixture.testHighlighting(true, false, true);
+
+        final Map<String, List<ProblemDescriptor>> problems
+                = FusedInspectionsEngine.inspect(myFixture.getFile(), Collections.singletonList(inspector), false);
+        assertEquals(expected, problems.get(inspector.getShortName()).size());
+    }
+
+    public void testVisitorsReceiveExactlyDeclaredCalls() {
+        myFixture.configureByText(
+            "routing.php",
+            "<?php\n" +
+            "declared(); DECLARED(); prefixed_call();\n" +
+            "undeclared(); prefixed(); declared_not();\n" +
+            "$object->declared(); $object->prefixed_method(); $object->other();"
+        );
+        final RecordingInspection inspection = new RecordingInspection();
+        FusedInspectionsEngine.inspect(myFixture.getFile(), Collections.singletonList(inspection), false);
+        assertEquals(Arrays.asList("declared", "DECLARED", "prefixed_call"), inspection.functions);
+        assertEquals(Arrays.asList("declared", "prefixed_method"), inspection.methods);
+    }
+
+    private static final class RecordingInspection extends LocalInspectionTool {
+        final private List<String> functions = new ArrayList<>();
+        final private List<String> methods   = new ArrayList<>();
+
+        @NotNull
+        @Override
+        public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+            return new BasePhpElementVisitor() {
+                @Override
+                public Collection<String> getFunctionCallNames() {
+                    return Arrays.asList("declared", "prefixed_*");
+                }
+
+                @Override
+                public Collection<String> getMethodReferenceNames() {
+                    return Arrays.asList("Declared", "prefixed_*");
+                }
+
+                @Override
+                public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
+                    functions.add(reference.getName());
+                }
+
+                @Override
+                public void visitPhpMethodReference(@NotNull MethodReference reference) {
+                    methods.add(reference.getName());
+                }
+            };
+        }
+    }
+
+    private static int countExpectedProblems(@NotNull String fixture) throws IOException {
+        return FileUtil.loadFile(new File(fixture)).split("<(weak_)?warning ", -1).length - 1;
+    }
+}
@@ -0,0 +1,105 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.performance;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Synthetic large sources shared by the performance and cancellation suites: each one stresses a known hot spot.
+ */
+final class GeneratedCorpus {
+    @NotNull
+    static Map<String, String> create() {
+        final Map<String, String> corpus = new LinkedHashMap<>();
+        corpus.put("generated-large-class.php", generateLargeClass(10_000));
+        corpus.put("generated-large-array.php", generateLargeArray(5_000));
+        corpus.put("generated-nested-ifs.php", generateNestedIfs(64));
+        corpus.put("generated-if-chain.php", generateIfChain(500));
+        corpus.put("generated-typed-parameters.php", generateTypedParameters(200));
+        corpus.put("generated-nullable-locals.php", generateNullableLocals(500));
+        return corpus;
+    }
+
+    @NotNull
+    static String generateLargeClass(int lines) {
+        final StringBuilder source = new StringBuilder("<?php\n\nclass GeneratedLargeClass extends \\stdClass {\n");
+        for (int method = 0; method * 8 < lines; ++method) {
+            source.append("    private $property").append(method).append(" = [];\n")
+                  .append("    public function method").append(method).append("($first, $second = null) {\n")
+                  .append("        if ($first === null || $second === null) { return $this->property").append(method).append("; }\n")
+                  .append("        $result = $this->method").append(method / 2).append("($second, $first);\n")
+                  .append("        foreach ((array) $result as $key => $value) { $this->property").append(method).append("[$key] = strlen((string) $value); }\n")
+                  .append("        return count($this->property").append(method).append(") > 0 ? $result : null;\n")
+                  .append("    }\n\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    @NotNull
+    static String generateLargeArray(int elements) {
+        final StringBuilder source = new StringBuilder("<?php\n\nreturn [\n");
+        for (int element = 0; element < elements; ++element) {
+            source.append("    'key").append(element).append("' => ['value").append(element).append("', ").append(element).append("],\n");
+        }
+        return source.append("];\n").toString();
+    }
+
+    @NotNull
+    static String generateNestedIfs(int depth) {
+        final StringBuilder source = new StringBuilder("<?php\n\nfunction generated_nested_ifs($value) {\n");
+        for (int level = 0; level < depth; ++level) {
+            source.append("if ($value > ").append(level).append(" && is_int($value) && $value !== null) {\n");
+        }
+        source.append("return $value;\n");
+        for (int level = 0; level < depth; ++level) {
+            source.append("}\n");
+        }
+        return source.append("return null;\n}\n").toString();
+    }
+
+    @NotNull
+    static String generateIfChain(int branches) {
+        final StringBuilder source = new StringBuilder("<?php\n\nfunction generated_if_chain($value) {\n    if ($value === 0) { return 0; }\n");
+        for (int branch = 1; branch < branches; ++branch) {
+            source.append("    elseif ($value === ").append(branch).append(" || is_string($value) && strlen($value) === ").append(branch).append(") { return ").append(branch).append("; }\n");
+        }
+        return source.append("    return null;\n}\n").toString();
+    }
+
+    @NotNull
+    static String generateTypedParameters(int parameters) {
+        final StringBuilder source = new StringBuilder("<?php\n\nfunction generated_typed_parameters(");
+        for (int parameter = 0; parameter < parameters; ++parameter) {
+            source.append(parameter == 0 ? "" : ", ").append("string $parameter").append(parameter).append(" = ''");
+        }
+        source.append(") {\n");
+        for (int parameter = 0; parameter < parameters; ++parameter) {
+            source.append("    if (is_int($parameter").append(parameter).append(") || $parameter").append(parameter).append(" === null) { return false; }\n")
+                  .append("    $parameter").append(parameter).append(" = trim($parameter").append(parameter).append(");\n");
+        }
+        return source.append("    return true;\n}\n").toString();
+    }
+
+    @NotNull
+    static String generateNullableLocals(int variables) {
+        final StringBuilder source = new StringBuilder(
+            "<?php\n\nclass GeneratedNullableLocals {\n    /** @return GeneratedNullableLocals|null */\n    public function find($id) { return null; }\n\n    public function run() {\n"
+        );
+        for (int variable = 0; variable < variables; ++variable) {
+            source.append("        $local").append(variable).append(" = $this->find(").append(variable).append(");\n")
+                  .append("        $local").append(variable).append("->run();\n")
+                  .append("        $local").append(variable).append("->find($local").append(variable / 2).append(");\n");
+        }
+        return source.append("    }\n}\n").toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.performance;
+
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.util.ProgressIndicatorBase;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.PsiFile;
+import com.jetbrains.php.config.PhpLanguageLevel;
+import com.jetbrains.php.config.PhpProjectConfigurationFacade;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.FusedInspectionsEngine;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Measures how long every registered inspection keeps running after its progress indicator was cancelled: each
+ * inspection is run over the generated corpus and cancelled at 25%, 50% and 75% of its uncancelled run time.
+ * Fails when the worst latency exceeds 'cancellation.<ShortName>' (or 'cancellation.default') milliseconds from
+ * testData/performance/budgets.properties multiplied by -Dea.performance.factor.
+ *
+ * Excluded from the regular test run, use `./gradlew performanceTest [-Pperformance.factor=2.0]`.
+ */
+final public class InspectionsCancellationTest extends PhpCodeInsightFixtureTestCase {
+    private static final double[] cancellationPoints = {0.25, 0.5, 0.75};
+
+    public void testInspectionsCancelPromptly() throws IOException, InterruptedException {
+        PhpProjectConfigurationFacade.getInstance(myFixture.getProject()).setLanguageLevel(PhpLanguageLevel.PHP710);
+
+        final List<LocalInspectionTool> inspections = InspectionsPerformanceTest.getRegisteredInspections();
+        final Map<String, Long> latencies           = new TreeMap<>();
+        for (final Map.Entry<String, String> source : GeneratedCorpus.create().entrySet()) {
+            final PsiFile file = myFixture.configureByText(source.getKey(), source.getValue());
+            for (final LocalInspectionTool inspection : inspections) {
+                /* the first run warms up caches and JIT, the second one defines cancellation points */
+                FusedInspectionsEngine.inspect(file, Collections.singletonList(inspection), false);
+                final long start    = System.nanoTime();
+                FusedInspectionsEngine.inspect(file, Collections.singletonList(inspection), false);
+                final long duration = System.nanoTime() - start;
+
+                long worst = 0;
+                for (final double point : cancellationPoints) {
+                    worst = Math.max(worst, measureCancellationLatency(file, inspection, (long) (duration * point)));
+                }
+                latencies.merge(inspection.getShortName(), worst, Math::max);
+            }
+        }
+
+        final Properties budgets       = InspectionsPerformanceTest.loadBudgets();
+        final double factor            = Double.parseDouble(System.getProperty("ea.performance.factor", "1.0"));
+        final long defaultBudget       = Long.parseLong(budgets.getProperty("cancellation.default", "10"));
+        final StringBuilder report     = new StringBuilder();
+        final List<String> regressions = new ArrayList<>();
+        latencies.forEach((shortName, latency) -> {
+            final long spent  = latency / 1_000_000L;
+            final long budget = Long.parseLong(budgets.getProperty("cancellation." + shortName, String.valueOf(defaultBudget)));
+            report.append(shortName).append('=').append(spent).append('\n');
+            if (spent > budget * factor) {
+                regressions.add(String.format("%s: %sms after cancellation, budget %sms x %s", shortName, spent, budget, factor));
+            }
+        });
+        final String reportPath = System.getProperty("ea.performance.report");
+        if (reportPath != null) {
+            FileUtil.writeToFile(new File(new File(reportPath).getParentFile(), "cancellation.properties"), report.toString());
+        }
+
+        assertEmpty(regressions);
+    }
+
+    /* nanoseconds from cancel() to the inspection exit; 0 when the inspection finished before being cancelled */
+    private static long measureCancellationLatency(
+        @NotNull PsiFile file,
+        @NotNull LocalInspectionTool inspection,
+        long delay
+    ) throws InterruptedException {
+        final ProgressIndicatorBase indicator = new ProgressIndicatorBase();
+        final AtomicLong cancelledAt          = new AtomicLong();
+        final Thread canceller                = new Thread(() -> {
+            LockSupport.parkNanos(delay);
+            cancelledAt.set(System.nanoTime());
+            indicator.cancel();
+        });
+
+        canceller.start();
+        try {
+            ProgressManager.getInstance().runProcess(
+                () -> FusedInspectionsEngine.inspect(file, Collections.singletonList(inspection), false),
+                indicator
+            );
+        } catch (final ProcessCanceledException cancelled) {
+            /* expected: the inspection reached a checkpoint */
+        }
+        final long finishedAt = System.nanoTime();
+        canceller.join();
+
+        final long cancelled = cancelledAt.get();
+        return cancelled == 0 || finishedAt < cancelled ? 0 : finishedAt - cancelled;
+    }
+}
@@ -0,0 +1,121 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.performance;
+
+import com.intellij.codeInspection.LocalInspectionEP;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ex.LocalInspectionToolWrapper;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.PsiFile;
+import com.jetbrains.php.config.PhpLanguageLevel;
+import com.jetbrains.php.config.PhpProjectConfigurationFacade;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.FusedInspectionsEngine;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/**
+ * Runs every registered inspection over testData/fixtures and a generated large-files corpus, fails when an inspection
+ * exceeds its budget (testData/performance/budgets.properties, milliseconds) multiplied by -Dea.performance.factor.
+ *
+ * Excluded from the regular test run, use `./gradlew performanceTest [-Pperformance.factor=2.0]`.
+ */
+final public class InspectionsPerformanceTest extends PhpCodeInsightFixtureTestCase {
+    private static final Pattern markup = Pattern.compile(
+        "</?(error|warning|weak_warning|info|caret|selection)(\\s+descr=\"[^\"]*\")?\\s*/?>"
+    );
+
+    public void testInspectionsFitBudgets() throws IOException {
+        PhpProjectConfigurationFacade.getInstance(myFixture.getProject()).setLanguageLevel(PhpLanguageLevel.PHP710);
+
+        final Map<String, String> corpus = new LinkedHashMap<>();
+        collectFixtures(new File(System.getProperty("ea.fixtures", "testData/fixtures")), corpus);
+        corpus.putAll(GeneratedCorpus.create());
+
+        final List<LocalInspectionTool> inspections = getRegisteredInspections();
+        final Map<String, Long> timings             = new TreeMap<>();
+        /* the first pass warms up caches and JIT, only the second one is measured */
+        for (int pass = 0; pass < 2; ++pass) {
+            for (final Map.Entry<String, String> source : corpus.entrySet()) {
+                final PsiFile file = myFixture.configureByText(source.getKey(), source.getValue());
+                for (final LocalInspectionTool inspection : inspections) {
+                    final long start = System.nanoTime();
+                    FusedInspectionsEngine.inspect(file, Collections.singletonList(inspection), false);
+                    if (pass == 1) {
+                        timings.merge(inspection.getShortName(), System.nanoTime() - start, Long::sum);
+                    }
+                }
+            }
+        }
+
+        final Properties budgets       = loadBudgets();
+        final double factor            = Double.parseDouble(System.getProperty("ea.performance.factor", "1.0"));
+        final long defaultBudget       = Long.parseLong(budgets.getProperty("default", "1000"));
+        final StringBuilder report     = new StringBuilder();
+        final List<String> regressions = new ArrayList<>();
+        timings.forEach((shortName, time) -> {
+            final long spent  = time / 1_000_000L;
+            final long budget = Long.parseLong(budgets.getProperty(shortName, String.valueOf(defaultBudget)));
+            report.append(shortName).append('=').append(spent).append('\n');
+            if (spent > budget * factor) {
+                regressions.add(String.format("%s: %sms, budget %sms x %s", shortName, spent, budget, factor));
+            }
+        });
+        final String reportPath = System.getProperty("ea.performance.report");
+        if (reportPath != null) {
+            FileUtil.writeToFile(new File(reportPath), report.toString());
+        }
+
+        assertEmpty(regressions);
+    }
+
+    @NotNull
+    static List<LocalInspectionTool> getRegisteredInspections() {
+        final List<LocalInspectionTool> result = new ArrayList<>();
+        for (final LocalInspectionEP extension : LocalInspectionEP.LOCAL_INSPECTION.getExtensions()) {
+            if (extension.implementationClass.startsWith("com.kalessil.phpStorm.phpInspectionsEA")) {
+                result.add(new LocalInspectionToolWrapper(extension).getTool());
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    static Properties loadBudgets() throws IOException {
+        final Properties budgets = new Properties();
+        final File source        = new File(System.getProperty("ea.performance.budgets", "testData/performance/budgets.properties"));
+        if (source.isFile()) {
+            try (final InputStream stream = new FileInputStream(source)) {
+                budgets.load(stream);
+            }
+        }
+        return budgets;
+    }
+
+    private static void collectFixtures(@NotNull File directory, @NotNull Map<String, String> target) throws IOException {
+        final File[] children = directory.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                if (child.isDirectory()) {
+                    collectFixtures(child, target);
+                } else if (child.getName().endsWith(".php") && !child.getName().endsWith(".fixed.php")) {
+                    final String content = markup.matcher(FileUtil.loadFile(child, "UTF-8")).replaceAll("");
+                    target.put(child.getParentFile().getName() + '-' + child.getName(), content);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.BacktrackingAnalyzer;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexParser;
+
+final public class BacktrackingAnalyzerTest extends PhpCodeInsightFixtureTestCase {
+    public void testExponentialBacktracking() {
+        for (final String pattern : new String[]{"(a+)+b", "(a|a)*b", "(?:a|b|ab)*c", "^(\\w+\\s?)*$", "(x+x+)+y", "(\\s+|,)+$"}) {
+            final BacktrackingAnalyzer.Result result = BacktrackingAnalyzer.analyze(RegexParser.parse(pattern, ""));
+            assertNotNull(pattern, result);
+            assertEquals(pattern, BacktrackingAnalyzer.Complexity.EXPONENTIAL, result.complexity);
+            assertFalse(pattern, result.pump.isEmpty());
+        }
+
+        final BacktrackingAnalyzer.Result result = BacktrackingAnalyzer.analyze(RegexParser.parse("x(a+)+b", ""));
+        assertNotNull(result);
+        assertEquals("xa", result.prefix);
+        assertEquals("a", result.pump);
+    }
+
+    public void testPolynomialBacktracking() {
+        BacktrackingAnalyzer.Result result;
+
+        result = BacktrackingAnalyzer.analyze(RegexParser.parse("\\d*\\d*\\d*x", ""));
+        assertNotNull(result);
+        assertEquals(BacktrackingAnalyzer.Complexity.POLYNOMIAL, result.complexity);
+        assertEquals(3, result.degree);
+
+        result = BacktrackingAnalyzer.analyze(RegexParser.parse("(\\D*){1,10}$", ""));
+        assertNotNull(result);
+        assertEquals(10, result.degree);
+
+        /* quadratic cases are not reported */
+        assertNull(BacktrackingAnalyzer.analyze(RegexParser.parse(".*a.*", "")));
+        assertNull(BacktrackingAnalyzer.analyze(RegexParser.parse("\\s*#?\\s*$", "")));
+    }
+
+    public void testSafePatterns() {
+        for (final String pattern : new String[]{
+                "(a|ab)*c", "^\\d+\\.\\d+$", "[a-z]+@[a-z]+\\.[a-z]+", "(\\D+|\\W+)*+", "(?>(\\d+|\\w+)*)",
+                "(\\w+)\\1+", "(a+)+b(", "\\d+[a-z]+\\d+", "(?i)(A|b)*",
+                /* the loops can be left with an unconditional match */
+                "(\\D*){1,10}", "(\\D*){1,}", "(\\D{1,})*", "(a+)+b?", "\\d*\\d*\\d*"
+        }) {
+            assertNull(pattern, BacktrackingAnalyzer.analyze(RegexParser.parse(pattern, "")));
+        }
+        /* overlapping only in case-insensitive mode */
+        assertNull(BacktrackingAnalyzer.analyze(RegexParser.parse("(a|A)*b", "")));
+        assertNotNull(BacktrackingAnalyzer.analyze(RegexParser.parse("(a|A)*b", "i")));
+    }
+}
@@ -0,0 +1,48 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.EASettings;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ContextClassificationUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ContextClassificationUtil.Context;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final public class ContextClassificationUtilTest extends PhpCodeInsightFixtureTestCase {
+    public void testFilesClassification() {
+        PsiFile file;
+
+        file = myFixture.configureByText("ClassTest.php", "<?php");
+        assertEquals(Context.TEST, ContextClassificationUtil.classify(file));
+        file = myFixture.configureByText("ClassSpec.php", "<?php");
+        assertEquals(Context.SPEC, ContextClassificationUtil.classify(file));
+        file = myFixture.configureByText("class.phpt", "<?php");
+        assertEquals(Context.PHPT, ContextClassificationUtil.classify(file));
+        file = myFixture.configureByText("Class.php", "<?php");
+        assertEquals(Context.PRODUCTION, ContextClassificationUtil.classify(file));
+    }
+
+    public void testClassesClassification() {
+        final EASettings settings     = EASettings.getInstance();
+        final List<String> namespaces = settings.getTestNamespaces();
+        final PsiFile file            = myFixture.configureByText(
+            "classes.php",
+            "<?php namespace Vendor\\Tests\\Unit { class Helper {} } namespace Vendor\\Fixtures { class Helper {} }"
+        );
+        final List<PhpClass> classes  = new ArrayList<>(PsiTreeUtil.findChildrenOfType(file, PhpClass.class));
+        assertEquals(2, classes.size());
+
+        assertTrue(ContextClassificationUtil.isTestContext(classes.get(0)));
+        assertFalse(ContextClassificationUtil.isTestContext(classes.get(1)));
+        try {
+            settings.setTestNamespaces(Arrays.asList("\\Tests\\", "\\Fixtures\\"));
+            assertTrue(ContextClassificationUtil.isTestContext(classes.get(1)));
+        } finally {
+            settings.setTestNamespaces(namespaces);
+        }
+    }
+}
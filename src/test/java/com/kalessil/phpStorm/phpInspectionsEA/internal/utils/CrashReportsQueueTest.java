@@ -0,0 +1,91 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.CrashReportsQueue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+final public class CrashReportsQueueTest extends PhpCodeInsightFixtureTestCase {
+    private final List<List<String>> batches = new ArrayList<>();
+    private boolean isOnline                 = true;
+    private long now                         = 0;
+
+    private CrashReportsQueue createQueue(File spool) {
+        return new CrashReportsQueue(
+            (version, uuid, error) -> error.getMessage() == null
+                    ? null
+                    : new CrashReportsQueue.CrashReport(error.getMessage(), uuid + ':' + error.getMessage()),
+            batch -> {
+                if (this.isOnline) {
+                    this.batches.add(new ArrayList<>(batch));
+                }
+                return this.isOnline;
+            },
+            spool,
+            () -> this.now
+        );
+    }
+
+    public void testDeduplicationAndBatching() {
+        final CrashReportsQueue queue = this.createQueue(null);
+        for (int index = 0; index < 5; ++index) {
+            assertTrue(queue.offer("1.0", "uuid", new RuntimeException("first")));
+        }
+        queue.offer("1.0", "uuid", new RuntimeException("second"));
+        queue.offer("1.0", "uuid", new RuntimeException());
+
+        assertEquals(2, queue.flush());
+        assertEquals(1, this.batches.size());
+        assertEquals("uuid:first", this.batches.get(0).get(0));
+        assertEquals("uuid:second", this.batches.get(0).get(1));
+
+        /* already reported signatures are not sent again */
+        queue.offer("1.0", "uuid", new RuntimeException("first"));
+        assertEquals(0, queue.flush());
+    }
+
+    public void testRateLimiting() {
+        final CrashReportsQueue queue = this.createQueue(null);
+        for (int index = 0; index < 25; ++index) {
+            queue.offer("1.0", "uuid", new RuntimeException("error " + index));
+        }
+        assertEquals(10, queue.flush());
+
+        /* rate-limited reports are not recorded as sent, hence delivered on the next occurrence */
+        this.now += TimeUnit.HOURS.toMillis(1);
+        queue.offer("1.0", "uuid", new RuntimeException("late"));
+        queue.offer("1.0", "uuid", new RuntimeException("error 24"));
+        assertEquals(2, queue.flush());
+    }
+
+    public void testBoundedQueue() {
+        final CrashReportsQueue queue = this.createQueue(null);
+        int accepted = 0;
+        for (int index = 0; index < 1000; ++index) {
+            accepted += queue.offer("1.0", "uuid", new RuntimeException("error " + index)) ? 1 : 0;
+        }
+        assertEquals(128, accepted);
+    }
+
+    public void testSpoolingWhenOffline() throws IOException {
+        final File spool = File.createTempFile("ea-crash-reports", ".spool");
+        assertTrue(spool.delete());
+
+        final CrashReportsQueue queue = this.createQueue(spool);
+        this.isOnline                 = false;
+        queue.offer("1.0", "uuid", new RuntimeException("offline"));
+        assertEquals(0, queue.flush());
+        assertTrue(spool.isFile());
+
+        this.isOnline = true;
+        queue.offer("1.0", "uuid", new RuntimeException("online"));
+        assertEquals(2, queue.flush());
+        assertFalse(spool.exists());
+        assertEquals("uuid:online", this.batches.get(0).get(0));
+        assertEquals("uuid:offline", this.batches.get(1).get(0));
+    }
+}
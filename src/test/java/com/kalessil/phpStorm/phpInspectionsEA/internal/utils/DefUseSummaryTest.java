@@ -0,0 +1,59 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpAccessVariableInstruction;
+import com.jetbrains.php.lang.psi.elements.Function;
+import com.jetbrains.php.lang.psi.elements.Variable;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiPsiSearchUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.flow.DefUseSummary;
+
+import java.util.Arrays;
+import java.util.List;
+
+final public class DefUseSummaryTest extends PhpCodeInsightFixtureTestCase {
+    public void testReachingDefinitions() {
+        final PsiFile file = myFixture.configureByText(
+            "test.php",
+            "<?php function f($x) { if ($x) { $x = 1; } echo $x; $x = 2; return $x; }"
+        );
+        final Function function                       = PsiTreeUtil.findChildOfType(file, Function.class);
+        final DefUseSummary summary                   = DefUseSummary.of(function);
+        final PhpAccessVariableInstruction[] accesses = summary.getAccesses("x");
+
+        assertSame(summary, DefUseSummary.of(function));
+        assertSame(accesses, summary.getAccesses("x"));
+        assertEquals(5, accesses.length);
+
+        /* the condition sees the parameter only */
+        assertTrue(Arrays.equals(new int[]{DefUseSummary.ENTRY}, summary.getReachingWrites(accesses[0])));
+        /* echo sees both the parameter and the conditional write */
+        final int[] echoed = summary.getReachingWrites(accesses[2]);
+        assertEquals(2, echoed.length);
+        assertTrue(Arrays.stream(echoed).anyMatch(number -> number == DefUseSummary.ENTRY));
+        assertTrue(Arrays.stream(echoed).anyMatch(number -> number == accesses[1].num()));
+        /* return sees the last write only, and the write knows its use */
+        assertTrue(Arrays.equals(new int[]{accesses[3].num()}, summary.getReachingWrites(accesses[4])));
+        assertTrue(Arrays.equals(new int[]{accesses[4].num()}, summary.getUses(accesses[3])));
+    }
+
+    public void testFindEqualVariables() {
+        final PsiFile file = myFixture.configureByText(
+            "test.php",
+            "<?php function f($x, $y) { $c = function() use ($x) { return $x; }; return $x + $y; }"
+        );
+        final Function function = PsiTreeUtil.findChildOfType(file, Function.class);
+        final Variable variable = PsiTreeUtil.findChildrenOfType(function, Variable.class).stream()
+                .filter(candidate -> "x".equals(candidate.getName()))
+                .reduce((first, second) -> second)
+                .orElse(null);
+        assertNotNull(variable);
+
+        final List<PsiElement> found = OpenapiPsiSearchUtil.findEqual(function, variable);
+        assertTrue(found.contains(variable));
+        assertTrue(found.stream().allMatch(element -> element instanceof Variable && "x".equals(((Variable) element).getName())));
+        assertTrue(found.stream().anyMatch(element -> PsiTreeUtil.getParentOfType(element, Function.class) != function));
+    }
+}
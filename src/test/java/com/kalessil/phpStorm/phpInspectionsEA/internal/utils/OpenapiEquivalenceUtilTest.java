@@ -0,0 +1,23 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
+import com.jetbrains.php.lang.psi.elements.BinaryExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiEquivalenceUtil;
+
+final public class OpenapiEquivalenceUtilTest extends PhpCodeInsightFixtureTestCase {
+    public void testStructuralHash() {
+        final Project project   = myFixture.getProject();
+        final PsiElement first  = PhpPsiElementFactory.createFromText(project, BinaryExpression.class, "$x > strlen($y)");
+        final PsiElement second = PhpPsiElementFactory.createFromText(project, BinaryExpression.class, "$x   >   strlen( /* length */ $y)");
+        final PsiElement third  = PhpPsiElementFactory.createFromText(project, BinaryExpression.class, "$x > strlen($z)");
+
+        assertEquals(OpenapiEquivalenceUtil.getHash(first), OpenapiEquivalenceUtil.getHash(second));
+        assertTrue(OpenapiEquivalenceUtil.areEqual(first, second));
+
+        assertFalse(OpenapiEquivalenceUtil.getHash(first) == OpenapiEquivalenceUtil.getHash(third));
+        assertFalse(OpenapiEquivalenceUtil.areEqual(first, third));
+    }
+}
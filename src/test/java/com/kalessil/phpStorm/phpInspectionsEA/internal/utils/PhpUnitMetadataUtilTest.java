@@ -0,0 +1,84 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.intellij.openapi.project.Project;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.PhpUnitMetadataUtil;
+
+final public class PhpUnitMetadataUtilTest extends PhpCodeInsightFixtureTestCase {
+    public void testMetadataLookups() {
+        myFixture.configureByText(
+            "metadata.php",
+            "<?php\n" +
+            "trait ProvidersTrait { public function traitProvider() { return [[1]]; } }\n" +
+            "abstract class BaseTest { final public function setUp() {} }\n" +
+            "final class Service { public function __construct($dependency) {} }\n" +
+            "class ServiceTest extends BaseTest {\n" +
+            "    use ProvidersTrait;\n" +
+            "    public function namedProvider() { return ['first' => [1]]; }\n" +
+            "    /**\n" +
+            "     * @test\n" +
+            "     * @depends testFirst\n" +
+            "     * @dataProvider namedProvider\n" +
+            "     * @covers \\Service\n" +
+            "     */\n" +
+            "    public function second() {}\n" +
+            "    public function testFirst() {}\n" +
+            "}"
+        );
+        final Project project = myFixture.getProject();
+
+        final PhpUnitMetadataUtil.ClassEntry service = PhpUnitMetadataUtil.getClass("\\Service", project);
+        assertNotNull(service);
+        assertTrue(service.isFinal);
+        final PhpUnitMetadataUtil.MethodEntry constructor = PhpUnitMetadataUtil.findConstructor("\\Service", service, project);
+        assertNotNull(constructor);
+        assertTrue(constructor.requiresArguments);
+
+        PhpUnitMetadataUtil.MethodLookup lookup;
+
+        lookup = PhpUnitMetadataUtil.findMethod("\\ServiceTest", "traitProvider", project);
+        assertNotNull(lookup.method);
+        assertTrue(lookup.method.hasPositionalDataset);
+        lookup = PhpUnitMetadataUtil.findMethod("\\ServiceTest", "namedProvider", project);
+        assertNotNull(lookup.method);
+        assertFalse(lookup.method.hasPositionalDataset);
+        lookup = PhpUnitMetadataUtil.findMethod("\\ServiceTest", "setUp", project);
+        assertNotNull(lookup.method);
+        assertTrue(lookup.method.isFinal);
+        lookup = PhpUnitMetadataUtil.findMethod("\\ServiceTest", "missing", project);
+        assertNull(lookup.method);
+        assertTrue(lookup.isConclusive);
+
+        lookup = PhpUnitMetadataUtil.findMethod("\\ServiceTest", "second", project);
+        assertNotNull(lookup.method);
+        assertTrue(lookup.method.isTest);
+        assertContainsElements(lookup.method.depends, "testFirst");
+        assertContainsElements(lookup.method.providers, "namedProvider");
+        assertContainsElements(lookup.method.covers, "\\Service");
+    }
+
+    public void testDuplicatesAndTraitConstructors() {
+        myFixture.addFileToProject("vendor/duplicate.php", "<?php final class Duplicate {}");
+        myFixture.configureByText(
+            "duplicates.php",
+            "<?php\n" +
+            "class Duplicate {}\n" +
+            "trait ConstructorTrait { public function __construct($dependency) {} }\n" +
+            "trait NestedTrait { use ConstructorTrait; }\n" +
+            "class Parent_ { use NestedTrait; }\n" +
+            "class Child extends Parent_ {}"
+        );
+        final Project project = myFixture.getProject();
+
+        /* any final definition counts, regardless of which one is the first */
+        final PhpUnitMetadataUtil.ClassEntry duplicate = PhpUnitMetadataUtil.getClass("\\Duplicate", project);
+        assertNotNull(duplicate);
+        assertTrue(duplicate.isFinal);
+
+        final PhpUnitMetadataUtil.ClassEntry child = PhpUnitMetadataUtil.getClass("\\Child", project);
+        assertNotNull(child);
+        final PhpUnitMetadataUtil.MethodEntry constructor = PhpUnitMetadataUtil.findConstructor("\\Child", child, project);
+        assertNotNull(constructor);
+        assertTrue(constructor.requiresArguments);
+    }
+}
@@ -6,6 +6,7 @@ import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.PossibleValuesDiscoveryUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.analytics.LimitStatistics;
 
 import java.util.Set;
 
@@ -124,4 +125,24 @@ final public class PossibleValuesDiscoveryUtilTest extends PhpCodeInsightFixture
         assertTrue(values.stream().anyMatch(variant -> variant instanceof StringLiteralExpression));
         assertTrue(values.stream().anyMatch(variant -> variant instanceof ConstantReference));
     }
+
+    public void testVariableDiscoveryIsBounded() {
+        final StringBuilder chain = new StringBuilder("function test() { $x0 = '...'; ");
+        for (int index = 1; index <= 64; ++index) {
+            chain.append("$x").append(index).append(" = $x").append(index - 1).append("; ");
+        }
+        final String pattern      = chain.append("return $x64; }").toString();
+        final Function callable   = PhpPsiElementFactory.createFromText(myFixture.getProject(), Function.class, pattern);
+        assertNotNull(callable);
+
+        PsiElement expression = PsiTreeUtil.findChildOfType(callable, PhpReturn.class);
+        assertNotNull(expression);
+        expression = PsiTreeUtil.findChildOfType(expression, Variable.class);
+        assertNotNull(expression);
+
+        final LimitStatistics limits = LimitStatistics.forName("PossibleValuesDiscoveryUtil");
+        final long triggers          = limits.getTriggers();
+        assertEmpty(PossibleValuesDiscoveryUtil.discover(expression));
+        assertTrue(limits.getTriggers() > triggers);
+    }
 }
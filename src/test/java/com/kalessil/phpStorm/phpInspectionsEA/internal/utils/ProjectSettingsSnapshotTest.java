@@ -0,0 +1,37 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.intellij.openapi.project.Project;
+import com.jetbrains.php.config.PhpLanguageLevel;
+import com.jetbrains.php.config.PhpProjectConfigurationFacade;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ComparisonStyle;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ProjectSettingsSnapshot;
+
+final public class ProjectSettingsSnapshotTest extends PhpCodeInsightFixtureTestCase {
+    public void testSnapshotIsReused() {
+        final Project project = myFixture.getProject();
+        assertSame(ProjectSettingsSnapshot.of(project), ProjectSettingsSnapshot.of(project));
+    }
+
+    public void testLanguageLevelChanges() {
+        final Project project = myFixture.getProject();
+
+        PhpProjectConfigurationFacade.getInstance(project).setLanguageLevel(PhpLanguageLevel.PHP560);
+        myFixture.configureByText("first.php", "<?php");
+        assertEquals(PhpLanguageLevel.PHP560, ProjectSettingsSnapshot.of(project).languageLevel);
+
+        PhpProjectConfigurationFacade.getInstance(project).setLanguageLevel(PhpLanguageLevel.PHP710);
+        myFixture.configureByText("second.php", "<?php");
+        assertEquals(PhpLanguageLevel.PHP710, ProjectSettingsSnapshot.of(project).languageLevel);
+    }
+
+    public void testComparisonStyleChanges() {
+        final Project project = myFixture.getProject();
+
+        ComparisonStyle.force(ComparisonStyle.YODA);
+        assertFalse(ProjectSettingsSnapshot.of(project).isRegularComparison());
+
+        ComparisonStyle.force(ComparisonStyle.REGULAR);
+        assertTrue(ProjectSettingsSnapshot.of(project).isRegularComparison());
+    }
+}
@@ -0,0 +1,51 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.metrics.CouplingMetrics;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.metrics.ReferencedSymbols;
+
+import java.util.Map;
+
+final public class ReferencedSymbolsTest extends PhpCodeInsightFixtureTestCase {
+    public void testSymbolsAreCounted() {
+        final PsiFile file = myFixture.configureByText(
+            "test.php",
+            "<?php namespace NS; " +
+            "class Target { function method() { new Other(); new other(); \\strlen(\\PHP_EOL); $this->method(); } }"
+        );
+        final PhpClass clazz            = PsiTreeUtil.findChildOfType(file, PhpClass.class);
+        final ReferencedSymbols symbols = ReferencedSymbols.of(clazz);
+
+        assertSame(symbols, ReferencedSymbols.of(clazz));
+        assertEquals(Integer.valueOf(2), symbols.classes.get("\\ns\\other"));
+        assertTrue(symbols.referencesClass("\\NS\\Other"));
+        assertFalse(symbols.referencesClass("\\NS\\Target"));
+        assertEquals(Integer.valueOf(1), symbols.functions.get("\\strlen"));
+        assertEquals(1, symbols.functions.size());
+    }
+
+    public void testCouplingMetrics() {
+        myFixture.configureByText(
+            "test.php",
+            "<?php " +
+            "class Base {} " +
+            "class Child extends Base { function method() { return new Base(); } } " +
+            "class Client { function method(Child $child, Base $base) { return new \\ArrayObject(); } }"
+        );
+        final Map<String, CouplingMetrics.Entry> metrics = CouplingMetrics.of(myFixture.getProject());
+
+        assertEquals(0, metrics.get("\\base").getEfferent());
+        assertEquals(2, metrics.get("\\base").getAfferent());
+        assertEquals(0.0, metrics.get("\\base").getInstability());
+
+        assertEquals(1, metrics.get("\\child").getEfferent());
+        assertEquals(1, metrics.get("\\child").getAfferent());
+
+        assertEquals(3, metrics.get("\\client").getEfferent());
+        assertEquals(0, metrics.get("\\client").getAfferent());
+        assertEquals(1.0, metrics.get("\\client").getInstability());
+    }
+}
@@ -0,0 +1,86 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexNode;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexParser;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTree;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.regex.RegexTreeCache;
+
+import java.util.List;
+
+final public class RegexParserTest extends PhpCodeInsightFixtureTestCase {
+    public void testStructure() {
+        final RegexTree tree = RegexParser.parse("(\\D*|0(?!1))*[^a-z\\d.]", "");
+        assertFalse(tree.hasErrors);
+
+        final List<RegexNode> items = tree.root.getChildren();
+        assertEquals(2, items.size());
+        final RegexNode quantifier = items.get(0);
+        assertTrue(quantifier.is(RegexNode.Kind.QUANTIFIER));
+        assertTrue(quantifier.isUnbounded());
+        assertEquals(RegexNode.GroupKind.CAPTURING, quantifier.getSubject().groupKind);
+        assertEquals(1, tree.findAll(RegexNode.Kind.ALTERNATION).size());
+        assertEquals(RegexNode.GroupKind.NEGATIVE_LOOKAHEAD, tree.findAll(RegexNode.Kind.GROUP).get(1).groupKind);
+
+        final RegexNode set = items.get(1);
+        assertTrue(set.is(RegexNode.Kind.CLASS));
+        assertTrue(set.isNegated);
+        assertEquals("a-z\\d.", set.getClassBody());
+        assertEquals(1, set.findAll(RegexNode.Kind.RANGE).size());
+        assertTrue(set.getChildren().get(1).isShorthand('d'));
+        /* dots inside of classes are literals */
+        assertEmpty(tree.findAll(RegexNode.Kind.DOT));
+    }
+
+    public void testQuantifiers() {
+        final RegexTree tree = RegexParser.parse("a{2,5}?b{3}c{2,}+d{x}", "");
+        final List<RegexNode> quantifiers = tree.findAll(RegexNode.Kind.QUANTIFIER);
+        assertEquals(3, quantifiers.size());
+        assertTrue(quantifiers.get(0).isLazy);
+        assertEquals(5, quantifiers.get(0).max);
+        assertEquals(3, quantifiers.get(1).min);
+        assertEquals(3, quantifiers.get(1).max);
+        assertTrue(quantifiers.get(2).isPossessive);
+        assertTrue(quantifiers.get(2).isUnbounded());
+        /* not a quantifier: the braces are literals */
+        assertTrue(tree.anyMatch(node -> node.is(RegexNode.Kind.LITERAL) && node.value == '{'));
+    }
+
+    public void testEscapesAndModes() {
+        RegexTree tree = RegexParser.parse("\\$\\x41\\Q.*\\E$\\1(?<name>x)\\k<name>", "");
+        assertEquals(1, tree.findAll(RegexNode.Kind.ANCHOR).size());
+        assertEquals(2, tree.findAll(RegexNode.Kind.BACKREFERENCE).size());
+        assertEmpty(tree.findAll(RegexNode.Kind.DOT));
+        assertTrue(tree.anyMatch(node -> node.is(RegexNode.Kind.LITERAL) && node.value == 'A'));
+
+        tree = RegexParser.parse("a # comment .\n b", "x");
+        assertEmpty(tree.findAll(RegexNode.Kind.DOT));
+        assertEquals(2, tree.findAll(RegexNode.Kind.LITERAL).size());
+        assertTrue(tree.hasModifier('x'));
+
+        tree = RegexParser.parse("(?x: a )b c", "");
+        assertTrue(tree.anyMatch(node -> node.is(RegexNode.Kind.LITERAL) && node.value == ' '));
+    }
+
+    public void testMalformedPatterns() {
+        assertTrue(RegexParser.parse("(a", "").hasErrors);
+        assertTrue(RegexParser.parse("a)b", "").hasErrors);
+        assertTrue(RegexParser.parse("[a-", "").hasErrors);
+        assertTrue(RegexParser.parse("\\", "").hasErrors);
+
+        final StringBuilder nested = new StringBuilder();
+        for (int index = 0; index < 1000; ++index) {
+            nested.append('(');
+        }
+        assertTrue(RegexParser.parse(nested.toString(), "").hasErrors);
+    }
+
+    public void testUnescapeAndCache() {
+        assertEquals("[a-z]\\.", RegexParser.unescape("[a-z]\\\\.", true));
+        assertEquals("\\d'", RegexParser.unescape("\\d\\'", true));
+        assertEquals("$\"\\n", RegexParser.unescape("\\$\\\"\\n", false));
+
+        assertSame(RegexTreeCache.get("(\\d+)*", "i"), RegexTreeCache.get("(\\d+)*", "i"));
+        assertNotSame(RegexTreeCache.get("(\\d+)*", "i"), RegexTreeCache.get("(\\d+)*", null));
+    }
+}
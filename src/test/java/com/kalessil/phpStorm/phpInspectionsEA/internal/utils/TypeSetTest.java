@@ -0,0 +1,36 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.TypeSet;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.Types;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+final public class TypeSetTest extends PhpCodeInsightFixtureTestCase {
+    public void testNormalization() {
+        final TypeSet types = TypeSet.of(new PhpType().add("\\integer").add("\\Foo[]").add("\\closure").add("\\Bar").add("\\null"));
+
+        assertTrue(types.containsAll(TypeSet.INTEGER | TypeSet.ARRAY | TypeSet.CALLABLE));
+        assertTrue(types.containsNull());
+        assertTrue(types.containsClass("\\Bar"));
+        assertEquals(5, types.size());
+        assertEquals(
+            new HashSet<>(Arrays.asList(Types.strInteger, Types.strArray, Types.strCallable, Types.strNull, "\\Bar")),
+            types.toNames()
+        );
+    }
+
+    public void testOperations() {
+        final TypeSet first  = TypeSet.of(Arrays.asList("int", "null", "\\Foo"));
+        final TypeSet second = TypeSet.of(Arrays.asList("string", "null", "\\Foo", "\\Bar"));
+
+        assertEquals(TypeSet.of(Arrays.asList("null", "\\Foo")), first.intersect(second));
+        assertEquals(TypeSet.of(Arrays.asList("int", "string", "null", "\\Foo", "\\Bar")), first.union(second));
+        assertFalse(first.without(TypeSet.NULL).containsNull());
+        assertTrue(TypeSet.of(Arrays.asList("null", "void")).consistsOf(TypeSet.NULL | TypeSet.VOID));
+        assertFalse(second.consistsOf(TypeSet.STRING | TypeSet.NULL));
+        assertTrue(TypeSet.EMPTY.isEmpty());
+    }
+}
@@ -44,6 +44,21 @@ final public class NotOptimalRegularExpressionsInspectorTest extends PhpCodeInsi
         myFixture.configureByFile("testData/fixtures/regularExpressions/senseless-s-modifier.php");
         myFixture.testHighlighting(true, false, true);
     }
+    public void testSenselessDollarEndOnlyModifier() {
+        myFixture.enableInspections(new NotOptimalRegularExpressionsInspector());
+        myFixture.configureByFile("testData/fixtures/regularExpressions/senseless-d-modifier.php");
+        myFixture.testHighlighting(true, false, true);
+    }
+    public void testAmbiguousAnythingTrim() {
+        myFixture.enableInspections(new NotOptimalRegularExpressionsInspector());
+        myFixture.configureByFile("testData/fixtures/regularExpressions/ambiguous-anything-trim.php");
+        myFixture.testHighlighting(true, false, true);
+    }
+    public void testSequentialClassesCollapse() {
+        myFixture.enableInspections(new NotOptimalRegularExpressionsInspector());
+        myFixture.configureByFile("testData/fixtures/regularExpressions/sequential-classes.php");
+        myFixture.testHighlighting(true, false, true);
+    }
     public void testUnnecessaryCaseManipulation() {
         myFixture.enableInspections(new NotOptimalRegularExpressionsInspector());
         myFixture.configureByFile("testData/fixtures/regularExpressions/unnecessary-case-manipulation.php");
@@ -0,0 +1,15 @@
+<?php
+
+    echo <warning descr="'$x === null' construction should be used instead.">is_null($x)</warning>;
+
+    /** @noinspection IsNullFunctionUsageInspection */
+    echo is_null($x);
+
+    /** @noinspection IsNullFunctionUsageInspection */
+    function suppressed($x) {
+        return is_null($x);
+    }
+
+    function reported($x) {
+        return <warning descr="'$x !== null' construction should be used instead.">!is_null($x)</warning>;
+    }
@@ -22,6 +22,15 @@ namespace yii\base {
     class BehaviorImplementation extends AbstractBehavior {}
     class <weak_warning descr="Class has 3 parent classes, consider using appropriate design patterns.">IDoOopWrong</weak_warning>
                                  extends BehaviorImplementation  {}
+
+    class BaseObject                                      {}
+    class Component              extends BaseObject       {}
+}
+namespace App\Records {
+    class Model        extends \YII\BASE\COMPONENT {}
+    class ActiveRecord extends Model               {}
+    class <weak_warning descr="Class has 3 parent classes, consider using appropriate design patterns.">UserRecord</weak_warning>
+                       extends ActiveRecord        {}
 }
 namespace Zend\Form {
     class Form                                        {}
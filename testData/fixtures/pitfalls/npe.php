@@ -161,6 +161,72 @@ class CasesHolder {
         }
     }
 
+    public function npeSafeAfterCoalescingAssignment(?CasesHolder $first, ?CasesHolder $second) {
+        $first  = $first ?? new CasesHolder();
+        $second = $second ?: new CasesHolder();
+        return [
+            $first->nonExistingField,
+            $second->nonExistingField,
+        ];
+    }
+
+    public function npeSafeRefinedByGuards(
+        ?CasesHolder $first,
+        ?CasesHolder $second,
+        ?CasesHolder $third,
+        ?CasesHolder $fourth,
+        ?CasesHolder $fifth,
+        ?CasesHolder $sixth,
+        ?CasesHolder $seventh
+    ) {
+        if (null === $first)                 { return null; }
+        if ($second === null)                { return null; }
+        if (is_null($third))                 { return null; }
+        if (!isset($fourth))                 { return null; }
+        if (empty($fifth))                   { return null; }
+        if (!$sixth instanceof CasesHolder)  { return null; }
+        if (!$seventh)                       { return null; }
+        return [
+            $first->nonExistingField,
+            $second->nonExistingField,
+            $third->nonExistingField,
+            $fourth->nonExistingField,
+            $fifth->nonExistingField,
+            $sixth->nonExistingField,
+            $seventh->nonExistingField,
+        ];
+    }
+
+    public function npeSafeRefinedByNotIdentical(?CasesHolder $first) {
+        return null !== $first ? $first->nonExistingField : null;
+    }
+
+    public function npeReportingNullAssignedInLoop(?CasesHolder $first, array $items) {
+        foreach ($items as $item) {
+            <warning descr="Null pointer exception may occur here.">$first</warning>->nonExistingField;
+            $first = $item ? null : new CasesHolder();
+        }
+    }
+
+    public function npeReportingNullOnOneBranch(?CasesHolder $first, bool $flag) {
+        $first = $flag ? new CasesHolder() : null;
+        return <warning descr="Null pointer exception may occur here.">$first</warning>->nonExistingField;
+    }
+
+    public function npeReportingAfterTruthyBranch(?CasesHolder $first) {
+        if ($first) {
+            return $first->nonExistingField;
+        }
+        return <warning descr="Null pointer exception may occur here.">$first</warning>->nonExistingField;
+    }
+
+    public function npeReportingNonNullOnOneBranch(?CasesHolder $first, bool $flag) {
+        if ($flag) {
+            $first = new CasesHolder();
+        }
+        return <warning descr="Null pointer exception may occur here.">$first</warning>->nonExistingField;
+    }
+
     public function npeSafeNullOnlyVariable() {
         $variable = null;
         $variable['...'] = '...';
@@ -171,6 +237,21 @@ function cases_holder(?CasesHolder $object) {
     <warning descr="Null pointer exception may occur here.">$object</warning>->npeCheckLocalVariables();
 }
 
+function npe_reporting_local_null_on_one_branch(bool $flag) {
+    $local = $flag ? new CasesHolder() : null;
+    <warning descr="Null pointer exception may occur here.">$local</warning>->nonExistingField;
+}
+
+class NonNullGetter  { public function get(): CasesHolder  { return new CasesHolder(); } }
+class NullableGetter { public function get(): ?CasesHolder { return null; } }
+
+function npe_chained_calls_in_closures(NonNullGetter $a) {
+    $callback = function (NullableGetter $a) {
+        return $a->get()<warning descr="Null pointer exception may occur here.">-></warning>npeReportingChainedCalls();
+    };
+    return $a->get()->npeReportingChainedCalls();
+}
+
 /* @var stdClass[] $array */
 function skip_before_assignment_case_holder(array $array) {
     foreach($array as $item) {
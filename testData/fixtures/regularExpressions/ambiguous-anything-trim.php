@@ -0,0 +1,18 @@
+<?php
+
+    preg_match(<weak_warning descr="Leading .* can be removed.">'/.*abc/'</weak_warning>, '...');
+    preg_match(<weak_warning descr="Trailing .* can be removed.">'/abc.*?/'</weak_warning>, '...');
+
+    /* escaped dots, dots inside of classes and possessive quantifiers */
+    preg_match('/\.*abc/', '...');
+    preg_match('/[.]*abc/', '...');
+    preg_match('/abc.*+/', '...');
+
+    /* top-level alternation: .* belongs to a branch, not to the whole pattern */
+    preg_match('/.*abc|xyz/', '...');
+    preg_match('/abc|xyz.*/', '...');
+
+    /* anchors, the whole match reference and matches extraction */
+    preg_match('/^.*abc/', '...');
+    preg_match('/.*abc\0/', '...');
+    preg_match('/.*abc/', '...', $matches);
\ No newline at end of file
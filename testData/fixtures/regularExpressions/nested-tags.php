@@ -5,4 +5,8 @@
     preg_match(<weak_warning descr="/s modifier is probably missing (not matching multiline tag content).">'/<tag>.*</tag>/'</weak_warning>, '...');
     preg_match(<weak_warning descr="/s modifier is probably missing (not matching multiline tag content).">'/<tag>.*?</tag>/'</weak_warning>, '...');
 
-    preg_match('/<tag>.*</tag>/s', '...');
\ No newline at end of file
+    preg_match('/<tag>.*</tag>/s', '...');
+
+    /* escaped dots and dots inside of classes are literals */
+    preg_match('/<tag>\.+</tag>/', '...');
+    preg_match('/<tag>[.]+</tag>/', '...');
\ No newline at end of file
@@ -18,4 +18,11 @@
     preg_match('/(\D{1,})*/', '');
 
     preg_match('/(\D+|\W+)*+/', '');
-    preg_match('/(?>(\d+|\w+)*)/', '');
\ No newline at end of file
+    preg_match('/(?>(\d+|\w+)*)/', '');
+
+    preg_match(<error descr="Exponential backtracking on 'a' followed by repeated 'a' might be exploited (ReDoS, Regular Expression Denial of Service).">'/^(\w+\s?)*$/'</error>, '');
+    preg_match(<error descr="Exponential backtracking on 'a' followed by repeated ',a' might be exploited (ReDoS, Regular Expression Denial of Service).">'/(.*,)*x/'</error>, '');
+    preg_match(<weak_warning descr="O(n^3) backtracking on '0' followed by repeated '0' might be exploited (ReDoS, Regular Expression Denial of Service).">'/\d*\d*\d*x/'</weak_warning>, '');
+    preg_match('/(a|ab)*c/', '');
+    preg_match('/\s*#?\s*$/', '');
+    preg_match('/(\w+)\1+/', '');
\ No newline at end of file
@@ -0,0 +1,8 @@
+<?php
+
+    preg_match(<weak_warning descr="'D' modifier is ambiguous here (no $ in given pattern).">'/a+bc/D'</weak_warning>, '');
+    preg_match(<weak_warning descr="'D' modifier is ambiguous here (no $ in given pattern).">'/a+bc\$/D'</weak_warning>, '');
+    preg_match(<weak_warning descr="'D' modifier is ambiguous here (no $ in given pattern).">'/a+bc[$]/D'</weak_warning>, '');
+    preg_match(<weak_warning descr="'D' modifier will be ignored because of 'm'.">'/a+bc$/mD'</weak_warning>, '');
+
+    preg_match('/a+bc$/D', '');
\ No newline at end of file
@@ -6,4 +6,8 @@
     preg_match(<weak_warning descr="'i' modifier is ambiguous here (no alphabet characters in given pattern).">'/\s/i'</weak_warning>, '');
 
     preg_match('/[а-яё].+/iu', '');
-    preg_match('/abc.+/i', '');
\ No newline at end of file
+    preg_match('/abc.+/i', '');
+    preg_match('/[[:upper:]]+/i', '');
+    preg_match('/[^[:lower:]\d]/i', '');
+
+    preg_match('/[\dA-F]+/i', '');
\ No newline at end of file
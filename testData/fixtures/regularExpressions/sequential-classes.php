@@ -0,0 +1,9 @@
+<?php
+
+    preg_match(<weak_warning descr="'[a-z][a-z]+' can be replaced with '[a-z]{...}'.">'/[a-z][a-z]+/'</weak_warning>, '...');
+    preg_match(<weak_warning descr="'[a-z]?[a-z]' can be replaced with '[a-z]{...}'.">'/x[a-z]?[a-z]/'</weak_warning>, '...');
+
+    /* escaped brackets are literals, different classes are not collapsed */
+    preg_match('/\[a-z][a-z]/', '...');
+    preg_match('/[a-z]\[a-z]/', '...');
+    preg_match('/[a-z][a-y]/', '...');
\ No newline at end of file
@@ -8,4 +8,10 @@
     preg_match(<weak_warning descr="'[A-Za-z0-9_]' can be replaced with '\w' (safe in non-unicode mode).">'/[A-Za-z0-9_]/'</weak_warning>, '...');
     preg_match(<weak_warning descr="'[^\w]' can be replaced with '\W' (safe in non-unicode mode).">'/[^\w]/'</weak_warning>, '...');
     preg_match(<weak_warning descr="'[^A-Za-z0-9_]' can be replaced with '\W' (safe in non-unicode mode).">'/[^A-Za-z0-9_]/'</weak_warning>, '...');
-    preg_match(<weak_warning descr="'[^\s]' can be replaced with '\S' (safe in non-unicode mode).">'/[^\s]/'</weak_warning>, '...');
\ No newline at end of file
+    preg_match(<weak_warning descr="'[^\s]' can be replaced with '\S' (safe in non-unicode mode).">'/[^\s]/'</weak_warning>, '...');
+
+    /* escaped brackets and classes with additional characters are not shortened */
+    preg_match('/\[0-9]/', '...');
+    preg_match('/\\[:digit:]/', '...');
+    preg_match('/[0-9,]/', '...');
+    preg_match('/[^\s\]]/', '...');
\ No newline at end of file